@@ -0,0 +1,85 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.pcsx2.hifumi.config.CrashParserConfig;
+import net.pcsx2.hifumi.parse.CrashRuleEngine;
+import net.pcsx2.hifumi.parse.CrashRuleEngine.CompiledRules;
+
+/**
+ * Looking for the crash rules' DLL names in a crash dump, with the Aho-Corasick automaton,
+ * next to lowercasing each line and calling contains for every name.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrashLogBenchmark {
+
+    @Param({ "60", "6000" })
+    public int lines;
+
+    private List<String> crashLog;
+    private CompiledRules rules;
+    private String[] dlls;
+    private int found;
+    private final IntConsumer onKeyword = keyword -> this.found++;
+
+    @Setup
+    public void setup() throws Exception {
+        Fixtures.headlessBot();
+        CrashParserConfig config = new CrashParserConfig();
+        Fixtures.inject("crashParserConfig", config);
+        CrashRuleEngine engine = new CrashRuleEngine();
+        engine.refresh();
+        this.rules = engine.getCompiledRules();
+        this.dlls = config.rules.stream().flatMap(rule -> rule.dlls.stream()).map(String::toLowerCase).toArray(String[]::new);
+        this.crashLog = Fixtures.repeat("crash.txt", this.lines);
+    }
+
+    @Benchmark
+    public int automaton() {
+        this.found = 0;
+
+        for (String line : this.crashLog) {
+            this.rules.match(line, this.onKeyword);
+        }
+
+        return this.found;
+    }
+
+    @Benchmark
+    public int containsPerName() {
+        int found = 0;
+
+        for (String line : this.crashLog) {
+            String normalizedLine = line.toLowerCase();
+
+            for (String dll : this.dlls) {
+                if (normalizedLine.contains(dll)) {
+                    found++;
+                }
+            }
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,134 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.pcsx2.hifumi.database.Database;
+import net.pcsx2.hifumi.database.SQLite;
+import net.pcsx2.hifumi.database.objects.MessageActivityObject;
+import net.pcsx2.hifumi.database.objects.MessageObject;
+import net.pcsx2.hifumi.database.objects.ParseResultObject;
+
+/**
+ * The reads the filters and moderation tools make against a week of message history:
+ * looking a message up, a user's recent messages, repeats of the same message, and the startup rate tracker seed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final int CHANNELS = 20;
+    // Fixed, so every run sees the same history
+    private static final long NOW = 1_790_000_000L;
+    private static final long DAY = 24 * 60 * 60;
+
+    @Param({ "500" })
+    public int users;
+
+    @Param({ "200000" })
+    public int messages;
+
+    private Path dir;
+    private SQLite sqlite;
+    private final int[] picks = new int[QUERIES];
+    private final AtomicInteger next = new AtomicInteger();
+    private String parseResultSha;
+    private String parseResultVersion;
+
+    @Setup
+    public void setup() throws Exception {
+        Fixtures.headlessBot();
+        this.dir = Files.createTempDirectory("hifumi-bench-db");
+        this.sqlite = Fixtures.database(this.dir);
+        Fixtures.seedMessages(this.sqlite, this.users, CHANNELS, this.messages, NOW);
+
+        Random random = new Random(Fixtures.SEED);
+
+        for (int i = 0; i < QUERIES; i++) {
+            this.picks[i] = random.nextInt(this.messages);
+        }
+
+        this.parseResultSha = Fixtures.scamHashSha(0);
+        this.parseResultVersion = "fixture";
+        Database.insertParseResult(new ParseResultObject("emulog", this.parseResultSha, this.parseResultVersion, NOW, ":white_check_mark: Nothing to report!", Optional.empty()), 64);
+        // Queued like any other parse result; make sure it is there before the lookups start
+        this.sqlite.getWriteQueue().sync();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.sqlite.shutdown();
+        Fixtures.delete(this.dir);
+    }
+
+    /**
+     * @return A message number; the user who sent it is that number modulo the user count.
+     */
+    private int pick() {
+        return this.picks[this.next.getAndIncrement() & (QUERIES - 1)];
+    }
+
+    @Benchmark
+    public MessageObject originalMessage() {
+        return Database.getOriginalMessage(Fixtures.messageId(pick()));
+    }
+
+    /**
+     * The same lookup from several threads at once, which is where the read pool matters.
+     */
+    @Benchmark
+    @Threads(4)
+    public MessageObject originalMessageContended() {
+        return Database.getOriginalMessage(Fixtures.messageId(pick()));
+    }
+
+    @Benchmark
+    public ArrayList<MessageObject> allMessagesSinceTime() {
+        int message = pick();
+        return Database.getAllMessagesSinceTime(Fixtures.userId(message % this.users), NOW - DAY);
+    }
+
+    @Benchmark
+    public ArrayList<MessageObject> identicalMessagesSinceTime() {
+        int message = pick();
+        return Database.getIdenticalMessagesSinceTime(Fixtures.userId(message % this.users), Fixtures.messageContent(message), NOW - DAY);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ArrayList<MessageActivityObject> messageActivitySinceTime() {
+        return Database.getMessageActivitySinceTime(NOW - 15 * 60);
+    }
+
+    @Benchmark
+    public Optional<ParseResultObject> parseResult() {
+        return Database.getParseResult("emulog", this.parseResultSha, this.parseResultVersion, NOW - DAY);
+    }
+}
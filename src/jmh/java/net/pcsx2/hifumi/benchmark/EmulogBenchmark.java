@@ -0,0 +1,142 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.pcsx2.hifumi.config.EmulogParserConfig;
+import net.pcsx2.hifumi.config.EmulogParserConfig.Rule;
+import net.pcsx2.hifumi.parse.EmulogRuleEngine;
+import net.pcsx2.hifumi.parse.EmulogRuleEngine.CompiledRules;
+import net.pcsx2.hifumi.parse.EmulogRuleEngine.RuleMatcher;
+import net.pcsx2.hifumi.parse.LineChunks;
+import net.pcsx2.hifumi.parse.RuleFindings;
+
+/**
+ * Scanning an emulog against the emulog rules, one chunk at a time the way EmulogParser does,
+ * next to running every rule's regex on every line, which is what the rule engine replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmulogBenchmark {
+
+    // Same as EmulogParser
+    private static final int CHUNK_BYTES = 2 * 1024 * 1024;
+
+    @Param({ "10000", "250000" })
+    public int lines;
+
+    private Path dir;
+    private Path log;
+    private CompiledRules rules;
+    private Pattern[] patterns;
+
+    @Setup
+    public void setup() throws Exception {
+        Fixtures.headlessBot();
+        EmulogParserConfig config = Fixtures.config("emulog-parser.json", EmulogParserConfig.class);
+        Fixtures.inject("emulogParserConfig", config);
+        EmulogRuleEngine engine = new EmulogRuleEngine();
+        engine.refresh();
+        this.rules = engine.getCompiledRules();
+
+        this.patterns = new Pattern[config.rules.size()];
+
+        for (int i = 0; i < this.patterns.length; i++) {
+            Rule rule = config.rules.get(i);
+            this.patterns[i] = Pattern.compile(rule.toMatch.toLowerCase());
+        }
+
+        this.dir = Files.createTempDirectory("hifumi-bench-emulog");
+        this.log = Fixtures.write(this.dir.resolve("emulog.txt"), Fixtures.emulog(this.lines));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Fixtures.delete(this.dir);
+    }
+
+    @Benchmark
+    public ArrayList<RuleFindings> ruleEngine() throws IOException {
+        ArrayList<RuleFindings> findings = newFindings();
+
+        for (ByteBuffer chunk : LineChunks.split(this.log, CHUNK_BYTES)) {
+            RuleMatcher matcher = this.rules.newMatcher();
+            long[] lineNumber = new long[1];
+            LineChunks.forEachLine(chunk, line -> {
+                long current = ++lineNumber[0];
+                matcher.match(line, rule -> findings.get(rule).add(line, current));
+            });
+        }
+
+        return findings;
+    }
+
+    @Benchmark
+    public ArrayList<RuleFindings> regexPerRule() throws IOException {
+        ArrayList<RuleFindings> findings = newFindings();
+
+        for (ByteBuffer chunk : LineChunks.split(this.log, CHUNK_BYTES)) {
+            long[] lineNumber = new long[1];
+            LineChunks.forEachLine(chunk, line -> {
+                long current = ++lineNumber[0];
+                String normalizedLine = line.toLowerCase();
+
+                for (int i = 0; i < this.patterns.length; i++) {
+                    if (this.patterns[i].matcher(normalizedLine).matches()) {
+                        findings.get(i).add(line, current);
+                    }
+                }
+            });
+        }
+
+        return findings;
+    }
+
+    /**
+     * Only splitting and decoding, for what the scan costs on top.
+     */
+    @Benchmark
+    public int readLines() throws IOException {
+        int count = 0;
+
+        for (ByteBuffer chunk : LineChunks.split(this.log, CHUNK_BYTES)) {
+            count += LineChunks.forEachLine(chunk, line -> {});
+        }
+
+        return count;
+    }
+
+    private ArrayList<RuleFindings> newFindings() {
+        ArrayList<RuleFindings> findings = new ArrayList<RuleFindings>();
+
+        for (int i = 0; i < this.patterns.length; i++) {
+            findings.add(new RuleFindings());
+        }
+
+        return findings;
+    }
+}
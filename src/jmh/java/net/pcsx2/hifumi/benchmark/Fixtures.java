@@ -0,0 +1,515 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import com.google.gson.Gson;
+
+import net.pcsx2.hifumi.GameIndex;
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.config.Config;
+import net.pcsx2.hifumi.database.SQLite;
+
+/**
+ * Builds what the benchmarks run against. Small, real shaped samples live under fixtures/ on the classpath,
+ * and anything which needs to be bigger is grown from them or generated from a fixed seed,
+ * so every run, and every release, measures the same data.
+ * <br><br>
+ * Also stands up a HifumiBot without Discord. With no token the constructor stops right after setting itself up,
+ * and the handful of fields a benchmark needs are put in place by {@link #inject(String, Object)}.
+ */
+public class Fixtures {
+
+    public static final long SEED = 0x2026_0001L;
+
+    private static final String[] REGIONS = { "NTSC-U", "PAL-M5", "PAL-E", "NTSC-J", "NTSC-K", "NTSC-C" };
+    private static final String[] SERIAL_PREFIXES = { "SLUS", "SLES", "SCES", "SLPM", "SLKA", "SCAJ" };
+    private static final String[] TITLE_WORDS = {
+        "Dragon", "Quest", "Shadow", "Legend", "Racing", "Street", "Fighter", "Soccer", "Tennis", "Pro", "Evolution",
+        "Final", "Fantasy", "Heroes", "Knight", "Saga", "Tales", "Star", "Ocean", "Space", "Ninja", "Samurai", "Warriors",
+        "Dynasty", "Gundam", "Battle", "Arena", "Monster", "Hunter", "Spirit", "Kingdom", "Crystal", "Chronicles",
+        "Grand", "Prix", "Rally", "Championship", "Motor", "Storm", "Snow", "Board", "Skate", "Extreme", "Crazy", "Taxi",
+        "Metal", "Slug", "Ace", "Combat", "Sky", "Wings", "Zone", "Ender", "Armored", "Core", "Silent", "Resident",
+        "Evil", "Devil", "May", "Cry", "Onimusha", "Clock", "Tower", "Fatal", "Frame", "Project", "Zero", "Rule", "Rose",
+        "Summon", "Night", "Atelier", "Iris", "Mana", "Magna", "Carta", "Wild", "Arms", "Xenosaga", "Episode", "Digital",
+        "Devil", "Saga", "Persona", "Disgaea", "Hour", "Darkness", "Phantom", "Brave", "Suikoden", "Radiata", "Stories"
+    };
+    private static final String[] SUBTITLES = {
+        "The Lost Age", "Reloaded", "Director's Cut", "Gold Edition", "Special Edition", "Rising", "Dawn of War",
+        "Second Strike", "The Final Chapter", "Origins", "Anniversary", "Complete", "Unleashed", "Revolution"
+    };
+    private static final String[] KANA = { "ア", "カ", "サ", "タ", "ナ", "ハ", "マ", "ラ", "ン", "ー", "ド", "ゴ", "ズ", "ブ", "ル" };
+    private static final String[] MESSAGES = {
+        "hey, does anyone know why my game is stuttering?", "which renderer should I use on an AMD card?",
+        "thanks that fixed it", "my memory card saves are gone after updating", "lol", "ok",
+        "is there a widescreen patch for this game?", "where do I get the bios from", "it says the disc is unreadable",
+        "FREE NITRO GIVEAWAY claim now https://discord-gifts.example/claim", "same here", "try turning off MTVU",
+        "what does the EE cycle rate actually do", "can I use a PS4 controller", "got it working, the iso was bad",
+        "upscaling at 4x makes the lines show up, any fix?", "which version are you on?", "post your emulog",
+        "check out my channel https://youtube.example/watch?v=abc", "does anyone have the latest nightly?"
+    };
+
+    /**
+     * @return The bot, with nothing but the HTTP client set up unless something has been injected.
+     */
+    public static synchronized HifumiBot headlessBot() {
+        if (HifumiBot.getSelf() == null) {
+            new HifumiBot();
+        }
+
+        return HifumiBot.getSelf();
+    }
+
+    /**
+     * Set one of the bot's private fields, for the subsystems a benchmark would otherwise have no way to reach.
+     * @param fieldName
+     * @param value
+     * @throws ReflectiveOperationException
+     */
+    public static void inject(String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = HifumiBot.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(headlessBot(), value);
+    }
+
+    public static String resource(String name) throws IOException {
+        try (InputStream is = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (is == null) {
+                throw new FileNotFoundException("fixtures/" + name);
+            }
+
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public static List<String> resourceLines(String name) throws IOException {
+        return resource(name).lines().toList();
+    }
+
+    /**
+     * Read a config snapshot the same way ConfigManager does.
+     */
+    public static <T> T config(String name, Class<T> type) throws IOException {
+        return new Gson().fromJson(resource(name), type);
+    }
+
+    /**
+     * @param lines
+     * @return An emulog of about this many lines: the sample's header once, then its body over and over
+     * with the timestamps carried on, so no two lines are quite the same.
+     * @throws IOException
+     */
+    public static ArrayList<String> emulog(int lines) throws IOException {
+        ArrayList<String> header = new ArrayList<String>();
+        ArrayList<String> body = new ArrayList<String>();
+
+        for (String line : resourceLines("emulog.txt")) {
+            // Timestamped lines look like "[   12.0105] message"
+            int close = line.indexOf(']');
+
+            if (line.startsWith("[") && close > 0) {
+                body.add(line.substring(close + 2));
+            } else {
+                header.add(line);
+            }
+        }
+
+        ArrayList<String> ret = new ArrayList<String>(header);
+        double seconds = 0;
+        Random random = new Random(SEED);
+
+        for (int i = 0; ret.size() < lines; i++) {
+            seconds += random.nextDouble() * 0.25;
+            ret.add(String.format("[%9.4f] %s", seconds, body.get(i % body.size())));
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return The named sample repeated until it has at least this many lines.
+     */
+    public static ArrayList<String> repeat(String name, int lines) throws IOException {
+        List<String> sample = resourceLines(name);
+        ArrayList<String> ret = new ArrayList<String>();
+
+        while (ret.size() < lines) {
+            ret.addAll(sample);
+        }
+
+        return ret;
+    }
+
+    public static Path write(Path path, List<String> lines) throws IOException {
+        return Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Draw something with both flat areas and fine detail, roughly like a screenshot, so encoders and decoders
+     * do about as much work as they would on a real upload.
+     * @param path Where to write it; the extension picks the format.
+     * @param width
+     * @param height
+     * @return The path.
+     * @throws IOException
+     */
+    public static Path image(Path path, int width, int height) throws IOException {
+        Random random = new Random(SEED ^ ((long) width << 32 | height));
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = x * 255 / width;
+                int g = y * 255 / height;
+                int b = (x ^ y) & 0xff;
+                int noise = random.nextInt(24) - 12;
+                img.setRGB(x, y, (clamp(r + noise) << 16) | (clamp(g + noise) << 8) | clamp(b + noise));
+            }
+        }
+
+        Graphics2D graph = img.createGraphics();
+
+        for (int i = 0; i < 40; i++) {
+            graph.setColor(new Color(random.nextInt(0x1000000)));
+            graph.fillRect(random.nextInt(width), random.nextInt(height), random.nextInt(width / 4 + 1), random.nextInt(height / 4 + 1));
+        }
+
+        graph.setColor(Color.WHITE);
+        graph.drawString("PCSX2 2.2.0 | Vulkan | 3x Native | 59.94 FPS", 20, 30);
+        graph.dispose();
+
+        String fileName = path.getFileName().toString();
+        String format = fileName.substring(fileName.lastIndexOf('.') + 1);
+
+        if (!ImageIO.write(img, format, path.toFile())) {
+            throw new IOException("No ImageIO writer for " + format);
+        }
+
+        return path;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+
+    /**
+     * @param entries How many entries in all. Real GameIndex.yaml files have about twelve thousand.
+     * @return The GameIndex.yaml snapshot, padded out with generated entries in the same shape.
+     * @throws IOException
+     */
+    public static String gameIndexYaml(int entries) throws IOException {
+        String snapshot = resource("GameIndex.yaml");
+        StringBuilder sb = new StringBuilder(snapshot);
+        Random random = new Random(SEED);
+        int[] nextSerial = new int[SERIAL_PREFIXES.length];
+        Set<String> serials = snapshot.lines()
+                .filter(line -> !line.isEmpty() && !line.startsWith(" ") && !line.startsWith("#"))
+                .map(line -> line.substring(0, line.indexOf(':')))
+                .collect(Collectors.toSet());
+
+        for (int i = serials.size(); i < entries; i++) {
+            int region = random.nextInt(SERIAL_PREFIXES.length);
+            String serial;
+
+            do {
+                serial = String.format("%s-%05d", SERIAL_PREFIXES[region], 50000 + nextSerial[region]++);
+            } while (serials.contains(serial));
+
+            String english = title(random);
+
+            sb.append(serial).append(":\n");
+
+            if (REGIONS[region].equals("NTSC-J")) {
+                StringBuilder kana = new StringBuilder();
+
+                for (int j = 2 + random.nextInt(8); j > 0; j--) {
+                    kana.append(KANA[random.nextInt(KANA.length)]);
+                }
+
+                sb.append("  name: \"").append(kana).append("\"\n");
+                sb.append("  name-sort: \"").append(kana).append("\"\n");
+
+                if (random.nextInt(3) > 0) {
+                    sb.append("  name-en: \"").append(english).append("\"\n");
+                }
+            } else {
+                sb.append("  name: \"").append(english).append("\"\n");
+            }
+
+            sb.append("  region: \"").append(REGIONS[region]).append("\"\n");
+            sb.append("  compat: ").append(1 + random.nextInt(6)).append("\n");
+
+            if (random.nextInt(4) == 0) {
+                sb.append("  gsHWFixes:\n");
+                sb.append("    halfPixelOffset: ").append(random.nextInt(6)).append("\n");
+                sb.append("    autoFlush: ").append(random.nextInt(3)).append("\n");
+            }
+
+            if (random.nextInt(10) == 0) {
+                sb.append("  gameFixes:\n");
+                sb.append("    - EETimingHack\n");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static String title(Random random) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int words = 1 + random.nextInt(3); words > 0; words--) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+
+            sb.append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+        }
+
+        if (random.nextInt(4) == 0) {
+            sb.append(' ').append(2 + random.nextInt(4));
+        }
+
+        if (random.nextInt(3) == 0) {
+            sb.append(" - ").append(SUBTITLES[random.nextInt(SUBTITLES.length)]);
+        }
+
+        return sb.toString();
+    }
+
+    public static GameIndex gameIndex(int entries) throws IOException {
+        GameIndex gameIndex = new GameIndex();
+        gameIndex.load(new StringReader(gameIndexYaml(entries)));
+        return gameIndex;
+    }
+
+    /**
+     * Open a database in the directory, migrated to the current schema, and make it the bot's.
+     * @param dir
+     * @return
+     * @throws ReflectiveOperationException
+     */
+    public static SQLite database(Path dir) throws ReflectiveOperationException {
+        SQLite sqlite = new SQLite(dir.toString(), new Config().databaseOptions);
+        sqlite.start();
+        inject("sqlite", sqlite);
+        return sqlite;
+    }
+
+    public static long userId(int user) {
+        return 100_000_000_000_000_000L + user;
+    }
+
+    public static long channelId(int channel) {
+        return 200_000_000_000_000_000L + channel;
+    }
+
+    public static long messageId(int message) {
+        return 300_000_000_000_000_000L + message;
+    }
+
+    /**
+     * @param message
+     * @return The content the message was sent with. Messages often repeat, the way spam does.
+     */
+    public static String messageContent(int message) {
+        return MESSAGES[Math.floorMod(message * 31 + message / 7, MESSAGES.length)];
+    }
+
+    /**
+     * Fill in a server's worth of message history: users posting across channels over the last week,
+     * with some of the messages later edited or deleted.
+     * Message i is {@link #messageId(int)}, sent by {@link #userId(int)} of i % users, with {@link #messageContent(int)}.
+     * @param sqlite
+     * @param users
+     * @param channels
+     * @param messages
+     * @param now Epoch seconds the history runs up to.
+     * @throws SQLException
+     */
+    public static void seedMessages(SQLite sqlite, int users, int channels, int messages, long now) throws SQLException {
+        Random random = new Random(SEED);
+        long week = 7 * 24 * 60 * 60;
+
+        try (Connection conn = sqlite.getWriteConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement insertUser = conn.prepareStatement("INSERT INTO user (discord_id, created_datetime, username) VALUES (?, ?, ?);");
+                 PreparedStatement insertChannel = conn.prepareStatement("INSERT INTO channel (discord_id, name) VALUES (?, ?);");
+                 PreparedStatement insertMessage = conn.prepareStatement("INSERT INTO message (message_id, fk_channel, jump_link, timestamp, fk_user) VALUES (?, ?, ?, ?, ?);");
+                 PreparedStatement insertEvent = conn.prepareStatement("INSERT INTO message_event (fk_user, fk_message, timestamp, action, content) VALUES (?, ?, ?, ?, ?);");
+                 PreparedStatement insertAttachment = conn.prepareStatement("INSERT INTO message_attachment (discord_id, timestamp, fk_message, content_type, proxy_url, filename) VALUES (?, ?, ?, ?, ?, ?);")) {
+                for (int u = 0; u < users; u++) {
+                    insertUser.setLong(1, userId(u));
+                    insertUser.setLong(2, now - week * 52);
+                    insertUser.setString(3, "user" + u);
+                    insertUser.addBatch();
+                }
+
+                insertUser.executeBatch();
+
+                for (int c = 0; c < channels; c++) {
+                    insertChannel.setLong(1, channelId(c));
+                    insertChannel.setString(2, "channel-" + c);
+                    insertChannel.addBatch();
+                }
+
+                insertChannel.executeBatch();
+
+                for (int i = 0; i < messages; i++) {
+                    long messageId = messageId(i);
+                    long userId = userId(i % users);
+                    long channelId = channelId(random.nextInt(channels));
+                    // Spread evenly over the week, oldest first
+                    long timestamp = now - week + (week * i / messages);
+
+                    insertMessage.setLong(1, messageId);
+                    insertMessage.setLong(2, channelId);
+                    insertMessage.setString(3, "https://discord.com/channels/1/" + channelId + "/" + messageId);
+                    insertMessage.setLong(4, timestamp);
+                    insertMessage.setLong(5, userId);
+                    insertMessage.addBatch();
+
+                    insertEvent.setLong(1, userId);
+                    insertEvent.setLong(2, messageId);
+                    insertEvent.setLong(3, timestamp);
+                    insertEvent.setString(4, "send");
+                    insertEvent.setString(5, messageContent(i));
+                    insertEvent.addBatch();
+
+                    int roll = random.nextInt(100);
+
+                    if (roll < 8) {
+                        insertEvent.setLong(1, userId);
+                        insertEvent.setLong(2, messageId);
+                        insertEvent.setLong(3, timestamp + 30);
+                        insertEvent.setString(4, "edit");
+                        insertEvent.setString(5, messageContent(i) + " (edited)");
+                        insertEvent.addBatch();
+                    } else if (roll < 11) {
+                        insertEvent.setLong(1, userId);
+                        insertEvent.setLong(2, messageId);
+                        insertEvent.setLong(3, timestamp + 60);
+                        insertEvent.setString(4, "delete");
+                        insertEvent.setString(5, null);
+                        insertEvent.addBatch();
+                    } else if (roll < 16) {
+                        insertAttachment.setLong(1, messageId + 1_000_000_000L);
+                        insertAttachment.setLong(2, timestamp);
+                        insertAttachment.setLong(3, messageId);
+                        insertAttachment.setString(4, "image/png");
+                        insertAttachment.setString(5, "https://media.discordapp.net/attachments/" + channelId + "/" + messageId + "/image.png");
+                        insertAttachment.setString(6, "image.png");
+                        insertAttachment.addBatch();
+                    }
+
+                    if (i % 10_000 == 9_999) {
+                        insertMessage.executeBatch();
+                        insertEvent.executeBatch();
+                        insertAttachment.executeBatch();
+                    }
+                }
+
+                insertMessage.executeBatch();
+                insertEvent.executeBatch();
+                insertAttachment.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * @param hash
+     * @return The SHA-256 of scam hash number n, as lowercase hex.
+     */
+    public static String scamHashSha(int hash) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(("scam-" + hash).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Add active scam hashes, each with a random perceptual hash.
+     * @param sqlite
+     * @param count
+     * @return The perceptual hash of each, by number.
+     * @throws SQLException
+     */
+    public static long[] seedScamHashes(SQLite sqlite, int count) throws SQLException {
+        Random random = new Random(SEED);
+        long[] dHashes = new long[count];
+
+        try (Connection conn = sqlite.getWriteConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO scam_hash (sha256, timestamp, description, active, dhash) VALUES (?, ?, ?, 1, ?);")) {
+                for (int i = 0; i < count; i++) {
+                    dHashes[i] = random.nextLong();
+                    insert.setString(1, scamHashSha(i));
+                    insert.setLong(2, 1_700_000_000L + i);
+                    insert.setString(3, "Fixture scam image " + i);
+                    insert.setLong(4, dHashes[i]);
+                    insert.addBatch();
+                }
+
+                insert.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        return dHashes;
+    }
+
+    /**
+     * Delete a temporary fixture directory and everything in it.
+     */
+    public static void delete(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
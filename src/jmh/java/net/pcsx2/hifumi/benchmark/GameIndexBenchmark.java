@@ -0,0 +1,180 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Strings;
+import org.apache.commons.text.similarity.FuzzyScore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.pcsx2.hifumi.GameIndex;
+import net.pcsx2.hifumi.gameindex.GameIndexEntry;
+
+import net.dv8tion.jda.api.components.selections.SelectMenu;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+/**
+ * GameIndex.yaml lookups: the name search behind /gameindex, the substring search behind /serial,
+ * serial lookup, presenting one entry, and loading the whole file. Both name searches are
+ * also measured as they were before the trigram index, scanning every entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameIndexBenchmark {
+
+    @Param({ "12000" })
+    public int entries;
+
+    private String yaml;
+    private GameIndex gameIndex;
+
+    @Setup
+    public void setup() throws Exception {
+        Fixtures.headlessBot();
+        this.yaml = Fixtures.gameIndexYaml(this.entries);
+        this.gameIndex = new GameIndex();
+        this.gameIndex.load(new StringReader(this.yaml));
+    }
+
+    /**
+     * Kept apart so only the searches run once per query.
+     */
+    @State(Scope.Benchmark)
+    public static class Query {
+        @Param({ "final fantasy", "shadow colossus", "persona 4", "qwzx" })
+        public String query;
+    }
+
+    @Benchmark
+    public LinkedHashMap<String, Integer> searchByName(Query query) {
+        return this.gameIndex.searchByName(query.query.toUpperCase(), SelectMenu.OPTIONS_MAX_AMOUNT);
+    }
+
+    @Benchmark
+    public ArrayList<GameIndexEntry> searchSerialsByName(Query query) {
+        return this.gameIndex.searchSerialsByName(query.query.toLowerCase());
+    }
+
+    @Benchmark
+    public LinkedHashMap<String, Integer> searchByNameScan(Query query) {
+        String normalized = query.query.toUpperCase();
+        int limit = SelectMenu.OPTIONS_MAX_AMOUNT;
+        FuzzyScore fuzz = new FuzzyScore(Locale.US);
+        HashMap<String, Integer> highScores = new HashMap<String, Integer>();
+
+        for (GameIndexEntry gameEntry : this.gameIndex.getEntries()) {
+            Integer nameScore = fuzz.fuzzyScore(normalized, gameEntry.name().toUpperCase());
+
+            if (gameEntry.nameEnglish() != null) {
+                nameScore = Math.max(nameScore, fuzz.fuzzyScore(normalized, gameEntry.nameEnglish()));
+            }
+
+            if (nameScore < 10) {
+                continue;
+            }
+
+            if (highScores.size() >= limit) {
+                String lowestSerial = null;
+                Integer lowestScore = Integer.MAX_VALUE;
+
+                for (String serialAgain : highScores.keySet()) {
+                    Integer thisScore = highScores.get(serialAgain);
+
+                    if (thisScore < lowestScore) {
+                        lowestSerial = serialAgain;
+                        lowestScore = thisScore;
+                    }
+                }
+
+                if (nameScore > lowestScore) {
+                    highScores.remove(lowestSerial);
+                } else {
+                    continue;
+                }
+            }
+
+            highScores.put(gameEntry.serial(), nameScore);
+        }
+
+        ArrayList<Entry<String, Integer>> entryList = new ArrayList<Entry<String, Integer>>(highScores.entrySet());
+        entryList.sort(Entry.comparingByValue(Comparator.reverseOrder()));
+        LinkedHashMap<String, Integer> sortedHighScores = new LinkedHashMap<String, Integer>();
+
+        for (Entry<String, Integer> entry : entryList) {
+            sortedHighScores.put(entry.getKey(), entry.getValue());
+        }
+
+        if (sortedHighScores.isEmpty()) {
+            return sortedHighScores;
+        }
+
+        Iterator<Entry<String, Integer>> iter = sortedHighScores.entrySet().iterator();
+        Integer highestScore = iter.next().getValue();
+
+        while (iter.hasNext()) {
+            if (iter.next().getValue() < Math.ceil(highestScore / 2)) {
+                iter.remove();
+            }
+        }
+
+        return sortedHighScores;
+    }
+
+    @Benchmark
+    public TreeSet<String> searchSerialsByNameScan(Query query) {
+        String normalized = query.query.toLowerCase();
+        TreeSet<String> results = new TreeSet<String>();
+
+        for (GameIndexEntry entry : this.gameIndex.getEntries()) {
+            if (Strings.CI.contains(entry.name(), normalized) || Strings.CI.contains(entry.nameSort(), normalized) || Strings.CI.contains(entry.nameEnglish(), normalized)) {
+                results.add(entry.serial());
+            }
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<GameIndexEntry> entry() {
+        return this.gameIndex.getEntry("slus-21782");
+    }
+
+    @Benchmark
+    public MessageEmbed present() {
+        return this.gameIndex.present("SLUS-21782");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public GameIndex load() {
+        GameIndex loaded = new GameIndex();
+        loaded.load(new StringReader(this.yaml));
+        return loaded;
+    }
+}
@@ -0,0 +1,128 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.pcsx2.hifumi.attachment.ThumbnailService;
+import net.pcsx2.hifumi.config.Config;
+import net.pcsx2.hifumi.util.AttachmentUtils;
+import net.pcsx2.hifumi.util.PerceptualHash;
+
+/**
+ * What happens to an image attachment once it is downloaded: the SHA3 the cache files it under,
+ * the perceptual hash the scam filter checks, and the preview ThumbnailService renders.
+ * The hash and the preview are also measured the way they were done before, decoding every pixel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageBenchmark {
+
+    // Same as AttachmentUtils
+    private static final int DHASH_MIN_DIMENSION = 256;
+
+    @Param({ "1280x720", "4032x3024" })
+    public String size;
+
+    @Param({ "png", "jpg" })
+    public String format;
+
+    private Path dir;
+    private Path image;
+    private ThumbnailService thumbnails;
+
+    @Setup
+    public void setup() throws IOException {
+        String[] dimensions = this.size.split("x");
+        this.dir = Files.createTempDirectory("hifumi-bench-image");
+        this.image = Fixtures.image(this.dir.resolve("image." + this.format), Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+        this.thumbnails = new ThumbnailService(null, new Config().thumbnailOptions);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.thumbnails.shutdown();
+        Fixtures.delete(this.dir);
+    }
+
+    /**
+     * Streamed through the digest, as AttachmentCache does while downloading.
+     */
+    @Benchmark
+    public byte[] sha3() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA3-256");
+
+        try (OutputStream os = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            Files.copy(this.image, os);
+        }
+
+        return digest.digest();
+    }
+
+    @Benchmark
+    public long dHashSubsampled() throws IOException {
+        return PerceptualHash.dHash(AttachmentUtils.readSubsampled(this.image, (width, height) -> Math.min(width, height) / DHASH_MIN_DIMENSION));
+    }
+
+    /**
+     * Decoding every pixel first, for comparison.
+     */
+    @Benchmark
+    public long dHashFullDecode() throws IOException {
+        return PerceptualHash.dHash(ImageIO.read(this.image.toFile()));
+    }
+
+    @Benchmark
+    public byte[] thumbnail() throws IOException {
+        return this.thumbnails.renderThumbnail(this.image);
+    }
+
+    /**
+     * The preview as AttachmentUtils.getMinifiedAttachments made it before ThumbnailService, for comparison:
+     * a full decode, getScaledInstance to half size, redrawn to ARGB and encoded as PNG.
+     */
+    @Benchmark
+    public byte[] thumbnailFullDecode() throws IOException {
+        BufferedImage img = ImageIO.read(this.image.toFile());
+        int width = img.getWidth() / 2, height = img.getHeight() / 2;
+        Image scaled = img.getScaledInstance(width, height, Image.SCALE_FAST);
+        BufferedImage bufImg = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graph = bufImg.createGraphics();
+        graph.drawImage(scaled, 0, 0, null);
+        graph.dispose();
+
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            ImageIO.write(bufImg, "png", os);
+            return os.toByteArray();
+        }
+    }
+}
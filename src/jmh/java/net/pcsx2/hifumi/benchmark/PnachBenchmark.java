@@ -0,0 +1,276 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.pcsx2.hifumi.parse.PnachParserError;
+import net.pcsx2.hifumi.parse.PnachValidator;
+
+/**
+ * Checking every line of a pnach, about a quarter of which have something wrong with them,
+ * with PnachValidator and as PnachParser did before it, with replaceAll and split.
+ * <br><br>
+ * Before measuring, both are run over the fixture and a few million generated lines built to hit
+ * the corner cases, and the benchmark fails if they ever report different errors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PnachBenchmark {
+
+    private static final List<String> KEYWORDS = Arrays.asList("author", "description", "gametitle", "comment", "gsaspectratio");
+    private static final int EQUIVALENCE_LINES = 3_000_000;
+    // Pieces the generated lines are built from; real values, near misses and separators
+    private static final String[] MODES = { "0", "1", "2", "3", "-1", "01", "x", "", " 1" };
+    private static final String[] CPUS = { "EE", "IOP", "ee", "Iop", "VU", "", "EE " };
+    private static final String[] ADDRESSES = { "00113b78", "0011a2ac", "01ffffff", "02000000", "10113c04", "20113c00", "30000000", "ffffffff", "1ffffffff", "zz", "", "-1", " 00113b78" };
+    private static final String[] TYPES = { "byte", "short", "word", "double", "extended", "BYTE", "Extended", "long", "", "word " };
+    private static final String[] VALUES = { "01", "ff", "100", "ffff", "10000", "3c013f40", "ffffffff", "100000000", "zz", "", "/", "ff/", " ff ", "ff // comment", "ff/x", "-1" };
+    private static final String[] PIECES = { "patch", "PATCH", "author", "Comment", "=", "==", ",", ",,", "[", "]", "[ ", " ]", "//", "/", " ", "\t", "EE", "word", "00113b78", "ff", "x" };
+
+    @Param({ "500", "50000" })
+    public int lines;
+
+    private List<String> pnach;
+    private final PnachValidator validator = new PnachValidator();
+    private int errors;
+    private final BiConsumer<PnachParserError, String> onError = (error, line) -> this.errors++;
+
+    @Setup
+    public void setup() throws Exception {
+        this.pnach = Fixtures.repeat("sample.pnach", this.lines);
+        Random random = new Random(Fixtures.SEED);
+
+        for (String line : this.pnach) {
+            this.checkEquivalent(line);
+        }
+
+        for (int i = 0; i < EQUIVALENCE_LINES; i++) {
+            this.checkEquivalent(randomLine(random));
+        }
+    }
+
+    @Benchmark
+    public int validate() {
+        this.errors = 0;
+
+        for (String line : this.pnach) {
+            this.validator.validate(line, this.onError);
+        }
+
+        return this.errors;
+    }
+
+    /**
+     * The checks from before PnachValidator, for comparison.
+     */
+    @Benchmark
+    public int regexAndSplit() {
+        this.errors = 0;
+
+        for (String line : this.pnach) {
+            validateWithRegexAndSplit(line, this.onError);
+        }
+
+        return this.errors;
+    }
+
+    private void checkEquivalent(String line) {
+        ArrayList<String> expected = new ArrayList<String>();
+        ArrayList<String> actual = new ArrayList<String>();
+        validateWithRegexAndSplit(line, (error, reported) -> expected.add(error + ": " + reported));
+        this.validator.validate(line, (error, reported) -> actual.add(error + ": " + reported));
+
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("PnachValidator disagrees with the old checks on \"" + line + "\": expected " + expected + ", got " + actual);
+        }
+    }
+
+    private static String randomLine(Random random) {
+        StringBuilder sb = new StringBuilder();
+
+        if (random.nextInt(4) == 0) {
+            // Anything at all
+            for (int i = random.nextInt(8); i >= 0; i--) {
+                sb.append(pick(random, PIECES));
+            }
+
+            return sb.toString();
+        }
+
+        // Mostly well formed patch lines, with the odd field missing, extra or wrong
+        sb.append(random.nextInt(10) == 0 ? pick(random, PIECES) : "patch").append('=');
+        String[][] fields = { MODES, CPUS, ADDRESSES, TYPES, VALUES };
+        int count = random.nextInt(10) == 0 ? random.nextInt(8) : fields.length;
+
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+
+            sb.append(pick(random, fields[Math.min(i, fields.length - 1)]));
+        }
+
+        if (random.nextInt(8) == 0) {
+            sb.append(pick(random, PIECES));
+        }
+
+        return sb.toString();
+    }
+
+    private static String pick(Random random, String[] options) {
+        return options[random.nextInt(options.length)];
+    }
+
+    /**
+     * PnachParser's line checks as they were before PnachValidator, unchanged apart from reporting through onError.
+     */
+    private static void validateWithRegexAndSplit(String line, BiConsumer<PnachParserError, String> onError) {
+        // Drop any comments
+        line = line.replaceAll("//.*", "");
+
+        // Test the start of the line. Is it one of the accepted tags, or blank?
+        if (line.isBlank()) {
+            return;
+        } else if ((line.startsWith("["))) {
+            if (!line.endsWith("]")) {
+                onError.accept(PnachParserError.BAD_BRACKET, line);
+            }
+
+            if (line.contains("[ ") || line.contains(" ]")) {
+                onError.accept(PnachParserError.BRACKET_WHITESPACE, line);
+            }
+        } else if (line.contains("=")) {
+            int firstEquals = line.indexOf('=');
+            String lineStart = line.substring(0, firstEquals).toLowerCase();
+
+            if (KEYWORDS.contains(lineStart)) {
+                return;
+            } else if (lineStart.equals("patch")) {
+                int lastEquals = line.lastIndexOf('=');
+
+                if (firstEquals == lastEquals) {
+                    try {
+                        int firstInlineComment = line.contains("//") ? line.indexOf("//") : -1;
+                        String paramStr = line.substring(firstEquals + 1);
+
+                        if (firstInlineComment != -1) {
+                            paramStr = paramStr.substring(0, firstInlineComment);
+                        }
+
+                        String[] params = paramStr.split(",");
+
+                        if (params.length == 5) {
+                            // Param 0
+                            try {
+                                int mode = Integer.parseInt(params[0]);
+
+                                if (mode < 0 || mode > 2) {
+                                    onError.accept(PnachParserError.FIRST_RANGE, line);
+                                }
+                            } catch (NumberFormatException e) {
+                                onError.accept(PnachParserError.FIRST_NAN, line);
+                            }
+
+                            // Param 1
+                            if (params[1].equals("EE") || params[1].equals("IOP")) {
+                                // Do nothing
+                            } else if (params[1].equalsIgnoreCase("EE") || params[1].equalsIgnoreCase("IOP")) {
+                                onError.accept(PnachParserError.SECOND_CAPS, line);
+                            } else {
+                                onError.accept(PnachParserError.SECOND_CPU, line);
+                            }
+
+                            // Param 2
+                            Integer addr = -1;
+                            Integer leading = -1;
+                            try {
+                                addr = Integer.parseUnsignedInt(params[2], 16);
+                                leading = (addr & 0xf0000000) >> 28;
+
+                                if (params[3].equals("extended")) {
+                                    if (leading < 0 || leading > 2) {
+                                        onError.accept(PnachParserError.THIRD_LEAD_UNCHECKED, line);
+                                    }
+                                } else {
+                                    if (leading != 0) {
+                                        onError.accept(PnachParserError.THIRD_LEAD_NOT_ALLOWED, line);
+                                    } else if (addr >= 0x02000000) {
+                                        onError.accept(PnachParserError.THIRD_RANGE, line);
+                                    }
+                                }
+                            } catch (NumberFormatException e) {
+                                onError.accept(PnachParserError.THIRD_ADDRESS, line);
+                            }
+                            // Param 3
+                            if (params[3].equals("byte") || params[3].equals("short")
+                                    || params[3].equals("word") || params[3].equals("double")
+                                    || params[3].equals("extended")) {
+                                // do nothing
+                            } else if (params[3].equalsIgnoreCase("byte") || params[3].equalsIgnoreCase("short")
+                                    || params[3].equalsIgnoreCase("word")
+                                    || params[3].equalsIgnoreCase("double")
+                                    || params[3].equalsIgnoreCase("extended")) {
+                                onError.accept(PnachParserError.FOURTH_LOWERCASE, line);
+                            } else {
+                                onError.accept(PnachParserError.FOURTH_TYPE, line);
+                            }
+                            // Param 4
+                            try {
+                                String param4 = params[4].split("/")[0].trim();
+                                Integer value = Integer.parseUnsignedInt(param4.toUpperCase(), 16);
+
+                                if (params[3].equals("byte") || (params[3].equals("extended") && leading == 0)) {
+                                    if (Integer.compareUnsigned(value, 0xff) > 0) {
+                                        onError.accept(PnachParserError.FIFTH_SCOPE, line);
+                                    }
+                                } else if (params[3].equals("short") || (params[3].equals("extended") && leading == 1)) {
+                                    if (Integer.compareUnsigned(value, 0xffff) > 0) {
+                                        onError.accept(PnachParserError.FIFTH_SCOPE, line);
+                                    }
+                                } else if (params[3].equals("word") || (params[3].equals("extended") && leading == 2)) {
+                                    // Nothing to report on
+                                } else if (params[3].equals("double")) {
+                                    // Nothing to report on
+                                }
+                            } catch (NumberFormatException e) {
+                                onError.accept(PnachParserError.FIFTH_VALUE, line);
+                            }
+                        } else {
+                            onError.accept(PnachParserError.PARAM_COUNT, line);
+                        }
+                    } catch (IndexOutOfBoundsException e) {
+                        onError.accept(PnachParserError.MISSING_RIGHT, line);
+                    }
+                } else {
+                    onError.accept(PnachParserError.SECOND_EQUALS, line);
+                }
+            } else {
+                onError.accept(PnachParserError.START_KEYWORD, line);
+            }
+        } else {
+            onError.accept(PnachParserError.NO_EQUALS, line);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.pcsx2.hifumi.ShardedExecutor;
+import net.pcsx2.hifumi.config.Config;
+import net.pcsx2.hifumi.filter.MessageRateTracker;
+
+/**
+ * A raid: every raider posts the same message to every channel at once. Each message is handled on the message
+ * event shards by channel, the way MessageEventListener does, and recorded in the rate tracker, with a fixed
+ * amount of work standing in for the database insert and REST calls around it.
+ * <br><br>
+ * Measures how long a whole burst takes to clear, one shard against several. Every copy after a raider's
+ * first has to be caught as a duplicate however the shards interleave, or the benchmark fails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaidBenchmark {
+
+    private static final int CHANNELS = 10;
+    // Roughly what the rest of a message's handling costs, in Blackhole.consumeCPU tokens
+    private static final long HANDLING_WORK = 20_000;
+
+    @Param({ "1", "4" })
+    public int shards;
+
+    @Param({ "50" })
+    public int raiders;
+
+    private ShardedExecutor executor;
+    private MessageRateTracker tracker;
+    private int burst = 0;
+    private long nextMessageId = 1;
+
+    @Setup
+    public void setup() throws Exception {
+        Fixtures.headlessBot();
+        Fixtures.inject("config", new Config());
+        this.executor = new ShardedExecutor("bench", this.shards, shard -> Thread::new);
+        this.tracker = new MessageRateTracker();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.executor.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public int burst() throws InterruptedException {
+        int messages = this.raiders * CHANNELS;
+        CountDownLatch handled = new CountDownLatch(messages);
+        AtomicInteger caught = new AtomicInteger();
+        long now = System.currentTimeMillis() / 1000;
+        // New content every burst, so copies from the last one don't count
+        int burst = this.burst++;
+
+        for (int channel = 0; channel < CHANNELS; channel++) {
+            long channelIdLong = Fixtures.channelId(channel);
+
+            for (int raider = 0; raider < this.raiders; raider++) {
+                long userIdLong = Fixtures.userId(raider);
+                long messageIdLong = this.nextMessageId++;
+                String content = "FREE NITRO GIVEAWAY claim now https://discord-gifts.example/claim/" + burst + "/" + raider;
+
+                this.executor.execute(channelIdLong, () -> {
+                    if (this.tracker.record(userIdLong, channelIdLong, messageIdLong, now, false, content) != null) {
+                        caught.incrementAndGet();
+                    }
+
+                    Blackhole.consumeCPU(HANDLING_WORK);
+                    handled.countDown();
+                });
+            }
+        }
+
+        handled.await();
+
+        if (caught.get() != this.raiders * (CHANNELS - 1)) {
+            throw new IllegalStateException("Caught " + caught.get() + " copies, expected " + this.raiders * (CHANNELS - 1));
+        }
+
+        return caught.get();
+    }
+}
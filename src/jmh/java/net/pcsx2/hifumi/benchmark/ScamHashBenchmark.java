@@ -0,0 +1,133 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.pcsx2.hifumi.database.SQLite;
+import net.pcsx2.hifumi.database.objects.ScamHashObject;
+import net.pcsx2.hifumi.filter.ScamHashIndex;
+import net.pcsx2.hifumi.util.BKTree;
+import net.pcsx2.hifumi.util.PerceptualHash;
+
+/**
+ * Scam hash lookups the attachment filter makes for every image posted. Most lookups miss,
+ * so the misses are measured apart from the hits. Near matching is measured against checking every hash in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScamHashBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final int NEAR_MATCH_DISTANCE = 6;
+
+    @Param({ "1000", "100000" })
+    public int hashes;
+
+    private Path dir;
+    private SQLite sqlite;
+    private ScamHashIndex index;
+    private long[] dHashes;
+    private int maxDistance;
+
+    private final String[] hits = new String[QUERIES];
+    private final String[] misses = new String[QUERIES];
+    private final long[] nearby = new long[QUERIES];
+    private final long[] unrelated = new long[QUERIES];
+    private int next = 0;
+
+    @Setup
+    public void setup() throws Exception {
+        Fixtures.headlessBot();
+        this.dir = Files.createTempDirectory("hifumi-bench-scamhash");
+        this.sqlite = Fixtures.database(this.dir);
+        this.dHashes = Fixtures.seedScamHashes(this.sqlite, this.hashes);
+        this.index = new ScamHashIndex();
+        this.index.refresh();
+        // Near matching is off by default, so measure it at a threshold it might be turned on with
+        this.maxDistance = NEAR_MATCH_DISTANCE;
+
+        Random random = new Random(Fixtures.SEED);
+
+        for (int i = 0; i < QUERIES; i++) {
+            int hash = random.nextInt(this.hashes);
+            this.hits[i] = Fixtures.scamHashSha(hash);
+            this.misses[i] = Fixtures.scamHashSha(this.hashes + i);
+            // A re-encoded or resized copy is a few bits off
+            this.nearby[i] = this.dHashes[hash] ^ (1L << random.nextInt(64)) ^ (1L << random.nextInt(64));
+            this.unrelated[i] = random.nextLong();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.sqlite.shutdown();
+        Fixtures.delete(this.dir);
+    }
+
+    private int next() {
+        this.next = (this.next + 1) & (QUERIES - 1);
+        return this.next;
+    }
+
+    @Benchmark
+    public Optional<ScamHashObject> exactHit() {
+        return this.index.findExact(this.hits[next()]);
+    }
+
+    @Benchmark
+    public Optional<ScamHashObject> exactMiss() {
+        return this.index.findExact(this.misses[next()]);
+    }
+
+    @Benchmark
+    public Optional<BKTree.Match<ScamHashObject>> nearestHit() {
+        return this.index.findNearest(this.nearby[next()], this.maxDistance);
+    }
+
+    @Benchmark
+    public Optional<BKTree.Match<ScamHashObject>> nearestMiss() {
+        return this.index.findNearest(this.unrelated[next()], this.maxDistance);
+    }
+
+    @Benchmark
+    public int nearestMissLinear() {
+        long query = this.unrelated[next()];
+        int closest = Integer.MAX_VALUE;
+
+        for (long dHash : this.dHashes) {
+            closest = Math.min(closest, PerceptualHash.distance(query, dHash));
+        }
+
+        return closest <= this.maxDistance ? closest : -1;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ScamHashIndex refresh() {
+        this.index.refresh();
+        return this.index;
+    }
+}
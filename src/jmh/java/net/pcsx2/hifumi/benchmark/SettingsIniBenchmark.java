@@ -0,0 +1,88 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.pcsx2.hifumi.config.SettingsIniParserConfig;
+import net.pcsx2.hifumi.parse.IniReader;
+import net.pcsx2.hifumi.parse.SettingsIniRuleIndex;
+import net.pcsx2.hifumi.parse.SettingsIniRuleIndex.CompiledRules;
+import net.pcsx2.hifumi.parse.SettingsIniRuleIndex.CompiledSetting;
+
+/**
+ * Reading a PCSX2.ini and checking it against the settings ini rules, as SettingsIniParser does,
+ * and compiling the rules, which happens whenever they are edited.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SettingsIniBenchmark {
+
+    private String ini;
+    private SettingsIniRuleIndex index;
+    private CompiledRules rules;
+
+    @Setup
+    public void setup() throws Exception {
+        Fixtures.headlessBot();
+        Fixtures.inject("settingsIniParserConfig", Fixtures.config("settings-ini-parser.json", SettingsIniParserConfig.class));
+        this.index = new SettingsIniRuleIndex();
+        this.index.refresh();
+        this.rules = this.index.getCompiledRules();
+        this.ini = Fixtures.resource("PCSX2.ini");
+    }
+
+    @Benchmark
+    public int readOnly() throws IOException {
+        int[] values = new int[1];
+        IniReader.read(new BufferedReader(new StringReader(this.ini)), (section, key, value) -> values[0]++);
+        return values[0];
+    }
+
+    @Benchmark
+    public int readAndCheck() throws IOException {
+        HashMap<CompiledSetting, String> values = new HashMap<CompiledSetting, String>();
+        IniReader.read(new BufferedReader(new StringReader(this.ini)), (section, key, value) -> {
+            CompiledSetting setting = this.rules.find(true, section, key);
+
+            if (setting != null) {
+                values.put(setting, value);
+            }
+        });
+
+        int messages = 0;
+
+        for (CompiledSetting setting : values.keySet()) {
+            List<String> broken = setting.evaluate(values.get(setting));
+            messages += broken.size();
+        }
+
+        return messages;
+    }
+
+    @Benchmark
+    public CompiledRules compileRules() {
+        this.index.refresh();
+        return this.index.getCompiledRules();
+    }
+}
@@ -0,0 +1,75 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.pcsx2.hifumi.util.SimpleSearch;
+
+/**
+ * The /cpu and /gpu search, over a list of processor names about the size of the scraped CPU index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimpleSearchBenchmark {
+
+    private static final String[] INTEL_FAMILIES = { "Core i3", "Core i5", "Core i7", "Core i9", "Pentium Gold", "Celeron", "Xeon E3" };
+    private static final String[] INTEL_SUFFIXES = { "", "K", "F", "T", "U", "H" };
+    private static final int[] INTEL_MODELS = { 100, 330, 400, 500, 600, 700, 790, 850, 900 };
+    private static final String[] AMD_FAMILIES = { "Ryzen 3", "Ryzen 5", "Ryzen 7", "Ryzen 9", "Ryzen Threadripper", "Athlon", "FX" };
+    private static final String[] AMD_SUFFIXES = { "", "X", "X3D", "XT", "G", "U" };
+    private static final int[] AMD_MODELS = { 300, 400, 500, 600, 700, 800, 900, 950 };
+
+    @Param({ "ryzen 7 5800x3d", "i7-4790k", "pentium" })
+    public String query;
+
+    private ArrayList<String> cpus;
+
+    @Setup
+    public void setup() {
+        this.cpus = new ArrayList<String>();
+
+        for (int generation = 2; generation <= 14; generation++) {
+            for (String family : INTEL_FAMILIES) {
+                for (int model : INTEL_MODELS) {
+                    for (String suffix : INTEL_SUFFIXES) {
+                        this.cpus.add("Intel " + family + "-" + generation + model + suffix);
+                    }
+                }
+            }
+        }
+
+        for (int series = 1; series <= 9; series++) {
+            for (String family : AMD_FAMILIES) {
+                for (int model : AMD_MODELS) {
+                    for (String suffix : AMD_SUFFIXES) {
+                        this.cpus.add("AMD " + family + " " + series + model + suffix);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public HashMap<String, Float> search() {
+        return SimpleSearch.search(this.cpus, this.query);
+    }
+}
@@ -12,11 +12,15 @@ import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.pcsx2.hifumi.attachment.AttachmentCache;
+import net.pcsx2.hifumi.attachment.DownloadService;
+import net.pcsx2.hifumi.attachment.ThumbnailService;
 import net.pcsx2.hifumi.command.CommandIndex;
 import net.pcsx2.hifumi.config.Config;
 import net.pcsx2.hifumi.config.ConfigManager;
 import net.pcsx2.hifumi.config.ConfigType;
 import net.pcsx2.hifumi.config.DynCmdConfig;
+import net.pcsx2.hifumi.config.CrashParserConfig;
 import net.pcsx2.hifumi.config.EmulogParserConfig;
 import net.pcsx2.hifumi.config.SettingsIniParserConfig;
 import net.pcsx2.hifumi.database.SQLite;
@@ -30,6 +34,12 @@ import net.pcsx2.hifumi.event.RoleEventListener;
 import net.pcsx2.hifumi.event.SelectMenuEventListener;
 import net.pcsx2.hifumi.event.SlashCommandListener;
 import net.pcsx2.hifumi.event.UserEventListener;
+import net.pcsx2.hifumi.filter.MessageRateTracker;
+import net.pcsx2.hifumi.filter.ScamHashIndex;
+import net.pcsx2.hifumi.parse.CrashRuleEngine;
+import net.pcsx2.hifumi.parse.EmulogRuleEngine;
+import net.pcsx2.hifumi.parse.SettingsIniRuleIndex;
+import net.pcsx2.hifumi.parse.ParseResultCache;
 import net.pcsx2.hifumi.permissions.PermissionManager;
 import net.pcsx2.hifumi.util.Log;
 import net.pcsx2.hifumi.util.Messaging;
@@ -79,9 +89,13 @@ public class HifumiBot {
     private Config config;
     private DynCmdConfig dynCmdConfig;
     private EmulogParserConfig emulogParserConfig;
+    private CrashParserConfig crashParserConfig;
     private SettingsIniParserConfig settingsIniParserConfig;
     private final OkHttpClient http;
     private SQLite sqlite;
+    private DownloadService downloadService;
+    private AttachmentCache attachmentCache;
+    private ThumbnailService thumbnailService;
     
     private Scheduler scheduler;
     private CpuIndex cpuIndex;
@@ -90,6 +104,12 @@ public class HifumiBot {
     private PermissionManager permissionManager;
     
     private GameIndex gameIndex;
+    private MessageRateTracker messageRateTracker;
+    private ScamHashIndex scamHashIndex;
+    private EmulogRuleEngine emulogRuleEngine;
+    private CrashRuleEngine crashRuleEngine;
+    private SettingsIniRuleIndex settingsIniRuleIndex;
+    private ParseResultCache parseResultCache;
     private DeepLClient deepL;
 
     public HifumiBot() {
@@ -136,6 +156,11 @@ public class HifumiBot {
             emulogParserConfig = (EmulogParserConfig) ConfigManager.read(ConfigType.EMULOG_PARSER);
             ConfigManager.write(emulogParserConfig);
 
+            Log.info("Initializing crash parser config");
+            ConfigManager.createConfigIfNotExists(ConfigType.CRASH_PARSER);
+            crashParserConfig = (CrashParserConfig) ConfigManager.read(ConfigType.CRASH_PARSER);
+            ConfigManager.write(crashParserConfig);
+
             Log.info("Initializing settings ini config");
             ConfigManager.createConfigIfNotExists(ConfigType.SETTINGS_PARSER);
             settingsIniParserConfig = (SettingsIniParserConfig) ConfigManager.read(ConfigType.SETTINGS_PARSER);
@@ -143,13 +168,28 @@ public class HifumiBot {
             
             updateStatus("Initializing subsystems...");
             Log.info("Calling constructors");
-            sqlite = new SQLite(dataDirectory);
+            sqlite = new SQLite(dataDirectory, config.databaseOptions);
+            sqlite.start();
+            downloadService = new DownloadService(http, config.downloadOptions);
+            attachmentCache = new AttachmentCache(dataDirectory, config.attachmentCacheOptions, downloadService);
+            thumbnailService = new ThumbnailService(attachmentCache, config.thumbnailOptions);
             deepL = new DeepLClient(deepLKey);
             scheduler = new Scheduler();
             cpuIndex = new CpuIndex();
             gpuIndex = new GpuIndex();
             commandIndex = new CommandIndex();
             permissionManager = new PermissionManager(superuserId);
+            messageRateTracker = new MessageRateTracker();
+            messageRateTracker.rebuild();
+            scamHashIndex = new ScamHashIndex();
+            scamHashIndex.refresh();
+            emulogRuleEngine = new EmulogRuleEngine();
+            emulogRuleEngine.refresh();
+            crashRuleEngine = new CrashRuleEngine();
+            crashRuleEngine.refresh();
+            settingsIniRuleIndex = new SettingsIniRuleIndex();
+            settingsIniRuleIndex.refresh();
+            parseResultCache = new ParseResultCache(config.parseCacheOptions);
             jda.addEventListener(new RoleEventListener());
             jda.addEventListener(new MessageEventListener());
             jda.addEventListener(new MemberEventListener());
@@ -185,6 +225,14 @@ public class HifumiBot {
                 HifumiBot.getSelf().getGameIndex().refresh();
             }, 1000 * 60 * 60 * 4);
 
+            scheduler.scheduleRepeating("rte", () -> {
+                HifumiBot.getSelf().getMessageRateTracker().evictExpired();
+            }, 1000 * 60);
+
+            scheduler.scheduleRepeating("prc", () -> {
+                HifumiBot.getSelf().getParseResultCache().prune();
+            }, 1000 * 60 * 60);
+
             scheduler.scheduleRepeating("beb", () -> {
                 Instant currentTime = Instant.now();
 
@@ -218,6 +266,10 @@ public class HifumiBot {
         return emulogParserConfig;
     }
 
+    public CrashParserConfig getCrashParserConfig() {
+        return crashParserConfig;
+    }
+
     public SettingsIniParserConfig getSettingsIniParserConfig() {
         return settingsIniParserConfig;
     }
@@ -230,6 +282,42 @@ public class HifumiBot {
         return sqlite;
     }
 
+    public DownloadService getDownloadService() {
+        return downloadService;
+    }
+
+    public AttachmentCache getAttachmentCache() {
+        return attachmentCache;
+    }
+
+    public ThumbnailService getThumbnailService() {
+        return thumbnailService;
+    }
+
+    public MessageRateTracker getMessageRateTracker() {
+        return messageRateTracker;
+    }
+
+    public ScamHashIndex getScamHashIndex() {
+        return scamHashIndex;
+    }
+
+    public EmulogRuleEngine getEmulogRuleEngine() {
+        return emulogRuleEngine;
+    }
+
+    public CrashRuleEngine getCrashRuleEngine() {
+        return crashRuleEngine;
+    }
+
+    public SettingsIniRuleIndex getSettingsIniRuleIndex() {
+        return settingsIniRuleIndex;
+    }
+
+    public ParseResultCache getParseResultCache() {
+        return parseResultCache;
+    }
+
     public Scheduler getScheduler() {
         return scheduler;
     }
@@ -271,6 +359,8 @@ public class HifumiBot {
         this.getScheduler().shutdown();
         jda.shutdown();
         this.getSQLite().shutdown();
+        this.getThumbnailService().shutdown();
+        this.getAttachmentCache().shutdown();
 
         if (reload)
             self = new HifumiBot();
@@ -0,0 +1,243 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.pcsx2.hifumi.config.Config.ParserPoolOptions;
+import net.pcsx2.hifumi.util.Messaging;
+
+/**
+ * Runs the log, crash, pnach and ini parsers on their own few threads, so a wave of people posting logs
+ * can't take the scheduler pool away from commands, buttons and everything else which shares it.
+ * <br><br>
+ * Files posted by staff go in a lane ahead of everyone else's. Each user can only have files from a few messages
+ * waiting or being parsed at once, with every file in one message sharing a slot, so a log posted along with its inis
+ * is never split up. The queue as a whole is bounded too; anything over either limit is turned away with a reply,
+ * and anything which has to wait is told where it is in the queue.
+ */
+public class ParserExecutor {
+
+    public enum Lane {
+        STAFF, MEMBER
+    }
+
+    private final int maxQueued;
+    private final int maxPerUser;
+    private final ArrayList<ArrayDeque<Job>> lanes = new ArrayList<ArrayDeque<Job>>();
+    // User ID -> message ID -> files from that message queued or being parsed
+    private final HashMap<Long, HashMap<Long, Integer>> perUser = new HashMap<Long, HashMap<Long, Integer>>();
+    private final Thread[] workers;
+    private int running = 0;
+    private boolean shutdown = false;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder queuedTotal = new LongAdder();
+    private final LongAdder rejectedUser = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+
+    public ParserExecutor(ParserPoolOptions options, ThreadFactory threadFactory) {
+        this.maxQueued = Math.max(0, options.queueCapacity);
+        this.maxPerUser = Math.max(1, options.maxPerUser);
+
+        for (int i = 0; i < Lane.values().length; i++) {
+            this.lanes.add(new ArrayDeque<Job>());
+        }
+
+        this.workers = new Thread[Math.max(1, options.threads)];
+
+        for (int i = 0; i < this.workers.length; i++) {
+            this.workers[i] = threadFactory.newThread(this::work);
+            this.workers[i].start();
+        }
+    }
+
+    /**
+     * Queue a parser for a message, replying in the message's channel if it has to wait or is turned away.
+     * @param message The message with the file; its author is who the per-user limit applies to,
+     * and every file submitted for it counts as one against that limit.
+     * @param lane
+     * @param parser
+     */
+    public void submit(Message message, Lane lane, Runnable parser) {
+        long userIdLong = message.getAuthor().getIdLong();
+        long messageIdLong = message.getIdLong();
+        int position;
+        boolean firstFile;
+
+        synchronized (this) {
+            if (this.shutdown) {
+                return;
+            }
+
+            HashMap<Long, Integer> userMessages = this.perUser.computeIfAbsent(userIdLong, k -> new HashMap<Long, Integer>());
+            firstFile = !userMessages.containsKey(messageIdLong);
+
+            if (firstFile && userMessages.size() >= this.maxPerUser) {
+                this.rejectedUser.increment();
+                position = -1;
+            } else if (this.running >= this.workers.length && this.getQueued() >= this.maxQueued) {
+                this.rejectedFull.increment();
+                position = -2;
+
+                if (userMessages.isEmpty()) {
+                    this.perUser.remove(userIdLong);
+                }
+            } else {
+                userMessages.merge(messageIdLong, 1, Integer::sum);
+                this.lanes.get(lane.ordinal()).add(new Job(userIdLong, messageIdLong, parser));
+                // Everything in this lane and the ones ahead of it goes first; the free workers will take some straight away
+                int ahead = 0;
+
+                for (int i = 0; i <= lane.ordinal(); i++) {
+                    ahead += this.lanes.get(i).size();
+                }
+
+                position = Math.max(0, ahead - (this.workers.length - this.running));
+                this.notify();
+            }
+        }
+
+        if (position == -1) {
+            Messaging.sendMessage(message.getChannel(), ":x: " + message.getAuthor().getAsMention() + " You already have files from " + this.maxPerUser + " other messages waiting to be checked. Post this one again once those are done.");
+        } else if (position == -2) {
+            Messaging.sendMessage(message.getChannel(), ":x: " + message.getAuthor().getAsMention() + " Too many files are waiting to be checked right now. Try posting this one again in a few minutes.");
+        } else if (position > 0) {
+            this.queuedTotal.increment();
+
+            // One reply per message, not one per file in it
+            if (firstFile) {
+                Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " Lots of files to check right now. Yours is queued, position " + position + ".");
+            }
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Job job;
+
+            synchronized (this) {
+                while (!this.shutdown && this.getQueued() == 0) {
+                    try {
+                        this.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                if (this.shutdown) {
+                    return;
+                }
+
+                job = this.next();
+                this.running++;
+            }
+
+            try {
+                job.parser.run();
+            } catch (Exception e) {
+                Messaging.logException("ParserExecutor", "work", e);
+            } finally {
+                synchronized (this) {
+                    this.running--;
+                    this.release(job);
+                }
+
+                this.completed.increment();
+            }
+        }
+    }
+
+    private void release(Job job) {
+        HashMap<Long, Integer> userMessages = this.perUser.get(job.userIdLong);
+
+        if (userMessages == null) {
+            return;
+        }
+
+        if (userMessages.merge(job.messageIdLong, -1, Integer::sum) <= 0) {
+            userMessages.remove(job.messageIdLong);
+        }
+
+        if (userMessages.isEmpty()) {
+            this.perUser.remove(job.userIdLong);
+        }
+    }
+
+    private Job next() {
+        for (ArrayDeque<Job> lane : this.lanes) {
+            if (!lane.isEmpty()) {
+                return lane.poll();
+            }
+        }
+
+        return null;
+    }
+
+    private int getQueued() {
+        int queued = 0;
+
+        for (ArrayDeque<Job> lane : this.lanes) {
+            queued += lane.size();
+        }
+
+        return queued;
+    }
+
+    /**
+     * Stop taking files, drop anything still queued, and give running parsers a chance to finish.
+     * @param timeout
+     * @param unit
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        synchronized (this) {
+            this.shutdown = true;
+
+            for (ArrayDeque<Job> lane : this.lanes) {
+                lane.clear();
+            }
+
+            this.notifyAll();
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        try {
+            for (Thread worker : this.workers) {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d running, %d staff + %d member queued, %d done, %d had to wait, %d turned away (user limit), %d turned away (full)",
+                this.running,
+                this.lanes.get(Lane.STAFF.ordinal()).size(),
+                this.lanes.get(Lane.MEMBER.ordinal()).size(),
+                this.completed.sum(),
+                this.queuedTotal.sum(),
+                this.rejectedUser.sum(),
+                this.rejectedFull.sum());
+    }
+
+    private static class Job {
+        private final long userIdLong;
+        private final long messageIdLong;
+        private final Runnable parser;
+
+        private Job(long userIdLong, long messageIdLong, Runnable parser) {
+            this.userIdLong = userIdLong;
+            this.messageIdLong = messageIdLong;
+            this.parser = parser;
+        }
+    }
+}
@@ -4,7 +4,6 @@ package net.pcsx2.hifumi;
 
 import java.util.HashMap;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -17,23 +16,46 @@ import net.pcsx2.hifumi.util.Messaging;
 public class Scheduler {
 
     private ScheduledExecutorService threadPool;
-    private ExecutorService messageEventFIFO;
-    private ExecutorService messageFilterFIFO;
+    private ShardedExecutor messageEventShards;
+    private ShardedExecutor messageFilterShards;
+    private ParserExecutor parserExecutor;
     private HashMap<String, Runnable> runnables = new HashMap<String, Runnable>();
     private HashMap<String, ScheduledFuture<?>> statuses = new HashMap<String, ScheduledFuture<?>>();
 
     public Scheduler() {
         this.threadPool = Executors.newScheduledThreadPool(6, new SchedulerThreadFactory("pool"));
-        this.messageEventFIFO = Executors.newSingleThreadExecutor(new SchedulerThreadFactory("msg-evt-fifo"));
-        this.messageFilterFIFO = Executors.newSingleThreadExecutor(new SchedulerThreadFactory("msg-flt-fifo"));
+        // Sharded by channel, so events within a channel (e.g. a send and then its delete) are still handled in order,
+        // but a slow REST call while handling one channel doesn't stall every other channel.
+        this.messageEventShards = new ShardedExecutor("msg-evt", HifumiBot.getSelf().getConfig().schedulerOptions.messageEventShards, shard -> new SchedulerThreadFactory("msg-evt-" + shard));
+        // Sharded by author, so each user's messages are still filtered in order, but one user's slow
+        // download or blocking mod action doesn't hold up filtering for everybody else.
+        this.messageFilterShards = new ShardedExecutor("msg-flt", HifumiBot.getSelf().getConfig().schedulerOptions.messageFilterShards, shard -> new SchedulerThreadFactory("msg-flt-" + shard));
+        this.parserExecutor = new ParserExecutor(HifumiBot.getSelf().getConfig().parserPoolOptions, new SchedulerThreadFactory("parse"));
     }
 
-    public void addToMessageEventFIFO(Runnable runnable) {
-        this.messageEventFIFO.execute(runnable);
+    /**
+     * Queue a message event for handling. Events for the same channel are handled one at a time, in order.
+     * @param channelIdLong
+     * @param runnable
+     */
+    public void addToMessageEventFIFO(long channelIdLong, Runnable runnable) {
+        this.messageEventShards.execute(channelIdLong, runnable);
     }
     
     public void addToMessageFilterFIFO(MessageFilteringRunnable runnable) {
-        this.messageFilterFIFO.execute(runnable);
+        this.messageFilterShards.execute(runnable.getAuthorIdLong(), runnable);
+    }
+
+    public ShardedExecutor getMessageEventShards() {
+        return this.messageEventShards;
+    }
+
+    public ShardedExecutor getMessageFilterShards() {
+        return this.messageFilterShards;
+    }
+
+    public ParserExecutor getParserExecutor() {
+        return this.parserExecutor;
     }
 
     /**
@@ -84,6 +106,10 @@ public class Scheduler {
             threadPool.awaitTermination(5, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
         }
+
+        messageEventShards.shutdown(5, TimeUnit.SECONDS);
+        messageFilterShards.shutdown(5, TimeUnit.SECONDS);
+        parserExecutor.shutdown(5, TimeUnit.SECONDS);
     }
 
     public Set<String> getRunnableNames() {
@@ -0,0 +1,143 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * A set of single-thread executors, where each task is routed to a shard by a key.
+ * Tasks with the same key always run on the same shard, in the order they were submitted;
+ * tasks with different keys can run in parallel, so one slow key only holds up its own shard.
+ */
+public class ShardedExecutor {
+
+    private final String name;
+    private final Shard[] shards;
+
+    /**
+     * @param name Shown in metrics.
+     * @param shardCount
+     * @param threadFactories Supplies the thread factory for each shard index.
+     */
+    public ShardedExecutor(String name, int shardCount, IntFunction<ThreadFactory> threadFactories) {
+        this.name = name;
+        this.shards = new Shard[Math.max(1, shardCount)];
+
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = new Shard(threadFactories.apply(i));
+        }
+    }
+
+    public void execute(long key, Runnable runnable) {
+        Shard shard = this.shardFor(key);
+        long enqueued = System.nanoTime();
+
+        shard.executor.execute(() -> {
+            shard.record(System.nanoTime() - enqueued);
+            runnable.run();
+        });
+    }
+
+    private Shard shardFor(long key) {
+        // Discord snowflakes share most of their bits with their neighbours; mix before picking a shard
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return this.shards[(int) Long.remainderUnsigned(mixed >>> 32, this.shards.length)];
+    }
+
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    public int getQueueDepth(int shard) {
+        return this.shards[shard].executor.getQueue().size();
+    }
+
+    public int getTotalQueueDepth() {
+        int total = 0;
+
+        for (Shard shard : this.shards) {
+            total += shard.executor.getQueue().size();
+        }
+
+        return total;
+    }
+
+    public double getAverageWaitMillis(int shard) {
+        return this.shards[shard].getAverageWaitMillis();
+    }
+
+    public double getMaxWaitMillis(int shard) {
+        return this.shards[shard].maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public long getCompletedTaskCount(int shard) {
+        return this.shards[shard].executor.getCompletedTaskCount();
+    }
+
+    /**
+     * Stop accepting tasks and give queued ones a chance to finish.
+     * @param timeout
+     * @param unit
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        for (Shard shard : this.shards) {
+            shard.executor.shutdown();
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        try {
+            for (Shard shard : this.shards) {
+                shard.executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One line per shard: queue depth, tasks run, average and max time spent waiting in the queue.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < this.shards.length; i++) {
+            sb.append(String.format("%s-%d: %d queued, %d run, avg wait %.2f ms, max wait %.2f ms", this.name, i, this.getQueueDepth(i), this.getCompletedTaskCount(i), this.getAverageWaitMillis(i), this.getMaxWaitMillis(i)));
+
+            if (i < this.shards.length - 1) {
+                sb.append("\n");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static class Shard {
+        private final ThreadPoolExecutor executor;
+        private final LongAdder tasks = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+        private Shard(ThreadFactory threadFactory) {
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        }
+
+        private void record(long waitNanos) {
+            this.tasks.increment();
+            this.totalWaitNanos.add(waitNanos);
+            this.maxWaitNanos.accumulate(waitNanos);
+        }
+
+        private double getAverageWaitMillis() {
+            long count = this.tasks.sum();
+            return count == 0 ? 0 : (this.totalWaitNanos.sum() / (double) count) / 1_000_000;
+        }
+    }
+}
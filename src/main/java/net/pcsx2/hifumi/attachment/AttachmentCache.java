@@ -0,0 +1,541 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.attachment;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.dv8tion.jda.api.entities.Message.Attachment;
+import net.pcsx2.hifumi.attachment.DownloadService.DownloadLimitException;
+import net.pcsx2.hifumi.config.Config.AttachmentCacheOptions;
+import net.pcsx2.hifumi.util.Log;
+import net.pcsx2.hifumi.util.Messaging;
+
+/**
+ * Downloads each attachment at most once, no matter how many filters and parsers want to read it.
+ * <br><br>
+ * Files are stored under DATA_DIRECTORY by their SHA3-256 sum, so a raid posting the same image over and over
+ * takes one file on disk. An index from attachment ID to sum is appended to as attachments are fetched,
+ * which keeps a copy of the evidence available after Discord deletes the original, across restarts.
+ * The total size on disk is bounded; the least recently used files are deleted first,
+ * skipping any which are pinned by a {@link CachedAttachment} that has not been closed yet.
+ * <br><br>
+ * If several threads ask for the same attachment while it is still downloading,
+ * they all wait on the one download instead of starting their own.
+ */
+public class AttachmentCache {
+
+    private static final String CACHE_DIRECTORY = "attachment-cache";
+    private static final String INDEX_FILE = "index.tsv";
+    private static final String PARTIAL_SUFFIX = ".part";
+    // Let the index log grow this far past the live entries before rewriting it
+    private static final int COMPACT_SLACK = 10000;
+
+    private final DownloadService downloads;
+    private final Path directory;
+    private final Path indexFile;
+    private final long maxBytes;
+
+    // Guards everything below, down to the index writer
+    private final Object lock = new Object();
+    // SHA3-256 -> size in bytes, access ordered so the eldest entry is the least recently used
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<String, Long>(16, 0.75f, true);
+    // Attachment ID -> SHA3-256. Entries whose file was evicted are dropped when next looked up.
+    private final LinkedHashMap<Long, String> ids;
+    // SHA3-256 -> how many entries in ids point at it
+    private final HashMap<String, Integer> references = new HashMap<String, Integer>();
+    // SHA3-256 -> how many CachedAttachments for it are open
+    private final HashMap<String, Integer> pins = new HashMap<String, Integer>();
+    // Removed from the cache while pinned; deleted from disk once the last pin is released
+    private final HashSet<String> pendingDeletes = new HashSet<String>();
+    private long totalBytes = 0;
+    private BufferedWriter indexWriter = null;
+    private int indexLines = 0;
+
+    private final ConcurrentHashMap<Long, CompletableFuture<FetchResult>> inFlight = new ConcurrentHashMap<Long, CompletableFuture<FetchResult>>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AttachmentCache(String dataDirectory, AttachmentCacheOptions options, DownloadService downloads) {
+        this.downloads = downloads;
+        this.directory = Path.of(dataDirectory, CACHE_DIRECTORY);
+        this.indexFile = this.directory.resolve(INDEX_FILE);
+        this.maxBytes = Math.max(1, options.maxCacheMegabytes) * 1024L * 1024L;
+        final int maxIndexEntries = Math.max(1, options.maxIndexEntries);
+
+        this.ids = new LinkedHashMap<Long, String>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                if (this.size() > maxIndexEntries) {
+                    dereference(eldest.getValue());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+
+        try {
+            Files.createDirectories(this.directory);
+            this.load();
+        } catch (IOException e) {
+            Messaging.logException("AttachmentCache", "(constructor)", e);
+        }
+    }
+
+    /**
+     * Rebuild the LRU from what is on disk, oldest use first, then reload and compact the index.
+     */
+    private void load() throws IOException {
+        ArrayList<Path> contents = new ArrayList<Path>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+
+                if (name.endsWith(PARTIAL_SUFFIX)) {
+                    // Left over from a download which was cut off by a restart
+                    Files.deleteIfExists(path);
+                } else if (!name.equals(INDEX_FILE) && Files.isRegularFile(path)) {
+                    contents.add(path);
+                }
+            }
+        }
+
+        contents.sort(Comparator.comparing(AttachmentCache::lastModified));
+
+        synchronized (this.lock) {
+            for (Path path : contents) {
+                long size = Files.size(path);
+                this.files.put(path.getFileName().toString(), size);
+                this.totalBytes += size;
+            }
+
+            if (Files.exists(this.indexFile)) {
+                try (BufferedReader reader = Files.newBufferedReader(this.indexFile, StandardCharsets.UTF_8)) {
+                    String line;
+
+                    while ((line = reader.readLine()) != null) {
+                        int tab = line.indexOf('\t');
+
+                        if (tab < 0) {
+                            continue;
+                        }
+
+                        try {
+                            String sha3 = line.substring(tab + 1);
+
+                            if (this.files.containsKey(sha3)) {
+                                this.putId(Long.parseLong(line.substring(0, tab)), sha3);
+                            }
+                        } catch (NumberFormatException e) {
+                            // Torn write at the end of the log; skip it
+                        }
+                    }
+                }
+            }
+
+            this.evictOverCapacity();
+            this.compactIndex();
+        }
+
+        Log.info(String.format("Attachment cache loaded: %d files, %d MB, %d attachments indexed", this.files.size(), this.totalBytes / 1024 / 1024, this.ids.size()));
+    }
+
+    /**
+     * Get an attachment's contents, downloading it if this is the first time it has been asked for.
+     * @param attachment
+     * @return The file, or whether it was too large or failed to download. Close the file once done with it.
+     */
+    public FetchResult fetch(Attachment attachment) {
+        long attachmentId = attachment.getIdLong();
+        Optional<CachedAttachment> cached = this.getCached(attachmentId);
+
+        if (cached.isPresent()) {
+            this.hits.increment();
+            return FetchResult.of(cached);
+        }
+
+        CompletableFuture<FetchResult> mine = new CompletableFuture<FetchResult>();
+        CompletableFuture<FetchResult> existing = this.inFlight.putIfAbsent(attachmentId, mine);
+
+        if (existing != null) {
+            this.coalesced.increment();
+            FetchResult first = existing.join();
+            // Every caller closes what it is given, so each waiter takes its own pin rather than sharing the downloader's.
+            // The downloader still holds its pin here, so the file can only have gone if it was explicitly evicted.
+            return first.status() == FetchResult.Status.OK ? FetchResult.of(this.getCached(attachmentId)) : first;
+        }
+
+        FetchResult ret = FetchResult.FAILED;
+
+        try {
+            // The last download may have finished between the lookup above and claiming the slot
+            cached = this.getCached(attachmentId);
+
+            if (cached.isPresent()) {
+                this.hits.increment();
+                ret = FetchResult.of(cached);
+            } else {
+                this.misses.increment();
+                ret = this.download(attachment);
+            }
+        } finally {
+            this.inFlight.remove(attachmentId, mine);
+            mine.complete(ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Look up an attachment which has already been downloaded, without going to Discord.
+     * @param attachmentId
+     * @return Empty if it was never fetched, or has since been evicted. Close it once done with the file.
+     */
+    public Optional<CachedAttachment> getCached(long attachmentId) {
+        String sha3;
+        long size;
+
+        synchronized (this.lock) {
+            sha3 = this.ids.get(attachmentId);
+
+            if (sha3 == null) {
+                return Optional.empty();
+            }
+
+            Long sizeObj = this.files.get(sha3);
+
+            if (sizeObj == null) {
+                this.removeId(attachmentId);
+                return Optional.empty();
+            }
+
+            size = sizeObj;
+            this.pin(sha3);
+        }
+
+        Path path = this.directory.resolve(sha3);
+
+        try {
+            // Keep the on-disk order in step with the LRU, so a restart evicts the same files we would have
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Deleted out from under us; treat it as a miss
+            synchronized (this.lock) {
+                this.removeFile(sha3);
+                this.unpin(sha3);
+            }
+
+            return Optional.empty();
+        }
+
+        return Optional.of(this.open(attachmentId, sha3, path, size));
+    }
+
+    /**
+     * Remove an attachment from the cache, for files which should not be kept (e.g. they contain credentials).
+     * Its contents are deleted from disk once no other attachment in the index has identical contents,
+     * and nobody is still reading them.
+     * @param attachmentId
+     */
+    public void evict(long attachmentId) {
+        synchronized (this.lock) {
+            String sha3 = this.removeId(attachmentId);
+
+            if (sha3 != null && !this.references.containsKey(sha3)) {
+                this.removeFile(sha3);
+            }
+        }
+    }
+
+    private FetchResult download(Attachment attachment) {
+        Path partial = null;
+
+        try {
+            partial = Files.createTempFile(this.directory, "dl-", PARTIAL_SUFFIX);
+            MessageDigest digest = MessageDigest.getInstance("SHA3-256");
+            long size;
+
+            try (OutputStream os = new DigestOutputStream(Files.newOutputStream(partial), digest)) {
+                size = this.downloads.download(attachment, os);
+            }
+
+            String sha3 = HexFormat.of().formatHex(digest.digest());
+            Path path = this.directory.resolve(sha3);
+
+            synchronized (this.lock) {
+                if (this.files.containsKey(sha3)) {
+                    // Same contents as something we already have
+                    Files.delete(partial);
+                    // Counts as a use in the LRU
+                    this.files.get(sha3);
+                } else {
+                    // Replaces any removed copy still waiting on its last reader; the contents are identical
+                    Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    this.pendingDeletes.remove(sha3);
+                    this.files.put(sha3, size);
+                    this.totalBytes += size;
+                }
+
+                this.putId(attachment.getIdLong(), sha3);
+                this.appendIndex(attachment.getIdLong(), sha3);
+                this.pin(sha3);
+                this.evictOverCapacity();
+            }
+
+            return new FetchResult(FetchResult.Status.OK, this.open(attachment.getIdLong(), sha3, path, size));
+        } catch (DownloadLimitException e) {
+            // Expected for oversized files; not worth a warning each time
+            this.failures.increment();
+            this.deletePartial(partial);
+            return FetchResult.TOO_LARGE;
+        } catch (Exception e) {
+            this.failures.increment();
+            Log.warn("Failed to download attachment " + attachment.getId() + " (" + attachment.getFileName() + "): " + e.getMessage());
+
+            this.deletePartial(partial);
+        }
+
+        return FetchResult.FAILED;
+    }
+
+    private void deletePartial(Path partial) {
+        if (partial != null) {
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException e) {
+                // Swept up on the next restart
+            }
+        }
+    }
+
+    private CachedAttachment open(long attachmentId, String sha3, Path path, long size) {
+        return new CachedAttachment(attachmentId, sha3, path, size, () -> {
+            synchronized (this.lock) {
+                this.unpin(sha3);
+            }
+        });
+    }
+
+    /**
+     * Caller must hold the lock.
+     */
+    private void pin(String sha3) {
+        this.pins.merge(sha3, 1, Integer::sum);
+    }
+
+    /**
+     * Caller must hold the lock.
+     */
+    private void unpin(String sha3) {
+        if (this.pins.merge(sha3, -1, Integer::sum) > 0) {
+            return;
+        }
+
+        this.pins.remove(sha3);
+
+        if (this.pendingDeletes.remove(sha3)) {
+            this.deleteFile(sha3);
+        }
+
+        // Anything skipped while it was pinned can go now
+        this.evictOverCapacity();
+    }
+
+    /**
+     * Caller must hold the lock.
+     */
+    private void putId(long attachmentId, String sha3) {
+        this.references.merge(sha3, 1, Integer::sum);
+        String previous = this.ids.put(attachmentId, sha3);
+
+        if (previous != null) {
+            this.dereference(previous);
+        }
+    }
+
+    /**
+     * Caller must hold the lock.
+     * @return The SHA3-256 the attachment pointed at, or null if it was not in the index.
+     */
+    private String removeId(long attachmentId) {
+        String sha3 = this.ids.remove(attachmentId);
+
+        if (sha3 != null) {
+            this.dereference(sha3);
+        }
+
+        return sha3;
+    }
+
+    private void dereference(String sha3) {
+        if (this.references.merge(sha3, -1, Integer::sum) <= 0) {
+            this.references.remove(sha3);
+        }
+    }
+
+    private void evictOverCapacity() {
+        Iterator<Map.Entry<String, Long>> it = this.files.entrySet().iterator();
+
+        while (this.totalBytes > this.maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+
+            // Always keep the newest file, even if it alone is over the limit; someone is about to read it.
+            // Pinned files are being read right now, so they wait until they are closed.
+            if (!it.hasNext() || this.pins.containsKey(eldest.getKey())) {
+                continue;
+            }
+
+            it.remove();
+            this.totalBytes -= eldest.getValue();
+            this.deleteFile(eldest.getKey());
+            this.evictions.increment();
+        }
+    }
+
+    private void removeFile(String sha3) {
+        Long size = this.files.remove(sha3);
+
+        if (size != null) {
+            this.totalBytes -= size;
+        }
+
+        if (this.pins.containsKey(sha3)) {
+            this.pendingDeletes.add(sha3);
+        } else {
+            this.deleteFile(sha3);
+        }
+    }
+
+    private void deleteFile(String sha3) {
+        // A copy may have been downloaded again since this one was removed
+        if (this.files.containsKey(sha3)) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(this.directory.resolve(sha3));
+        } catch (IOException e) {
+            Messaging.logException("AttachmentCache", "deleteFile", e);
+        }
+    }
+
+    private void appendIndex(long attachmentId, String sha3) {
+        try {
+            if (this.indexLines > this.ids.size() + COMPACT_SLACK) {
+                this.compactIndex();
+                return;
+            }
+
+            if (this.indexWriter == null) {
+                this.indexWriter = Files.newBufferedWriter(this.indexFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+
+            this.indexWriter.write(attachmentId + "\t" + sha3 + "\n");
+            this.indexWriter.flush();
+            this.indexLines++;
+        } catch (IOException e) {
+            Messaging.logException("AttachmentCache", "appendIndex", e);
+        }
+    }
+
+    /**
+     * Rewrite the index with only the live entries. Caller must hold the lock.
+     */
+    private void compactIndex() {
+        Path temp = this.directory.resolve(INDEX_FILE + PARTIAL_SUFFIX);
+
+        try {
+            if (this.indexWriter != null) {
+                this.indexWriter.close();
+                this.indexWriter = null;
+            }
+
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<Long, String> entry : this.ids.entrySet()) {
+                    if (this.files.containsKey(entry.getValue())) {
+                        writer.write(entry.getKey() + "\t" + entry.getValue() + "\n");
+                    }
+                }
+            }
+
+            Files.move(temp, this.indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.indexLines = this.ids.size();
+        } catch (IOException e) {
+            Messaging.logException("AttachmentCache", "compactIndex", e);
+        }
+    }
+
+    public void shutdown() {
+        synchronized (this.lock) {
+            if (this.indexWriter != null) {
+                try {
+                    this.indexWriter.close();
+                } catch (IOException e) {
+                    Messaging.logException("AttachmentCache", "shutdown", e);
+                }
+
+                this.indexWriter = null;
+            }
+        }
+    }
+
+    public long getSizeBytes() {
+        synchronized (this.lock) {
+            return this.totalBytes;
+        }
+    }
+
+    @Override
+    public String toString() {
+        int fileCount;
+        long bytes;
+
+        synchronized (this.lock) {
+            fileCount = this.files.size();
+            bytes = this.totalBytes;
+        }
+
+        long hitCount = this.hits.sum();
+        long total = hitCount + this.misses.sum();
+        return String.format("%d files, %d / %d MB, %d hits, %d misses (%.1f%% hit rate), %d coalesced, %d failed, %d evictions",
+                fileCount, bytes / 1024 / 1024, this.maxBytes / 1024 / 1024, hitCount, this.misses.sum(), total == 0 ? 0 : hitCount * 100.0 / total,
+                this.coalesced.sum(), this.failures.sum(), this.evictions.sum());
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.attachment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An attachment which has been downloaded into the {@link AttachmentCache}.
+ * The file is named by its SHA3-256 sum, so identical uploads share one copy on disk.
+ * <br><br>
+ * The file is pinned in the cache until this is closed, so it is not deleted while it is being read.
+ * Always use try-with-resources.
+ */
+public class CachedAttachment implements AutoCloseable {
+
+    private final long attachmentId;
+    private final String sha3;
+    private final Path path;
+    private final long size;
+    private final Runnable release;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    CachedAttachment(long attachmentId, String sha3, Path path, long size, Runnable release) {
+        this.attachmentId = attachmentId;
+        this.sha3 = sha3;
+        this.path = path;
+        this.size = size;
+        this.release = release;
+    }
+
+    public long getAttachmentId() {
+        return attachmentId;
+    }
+
+    /**
+     * @return Lowercase hex SHA3-256 sum of the file contents.
+     */
+    public String getSHA3() {
+        return sha3;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(this.path);
+    }
+
+    /**
+     * Logs and configs come from all sorts of systems; malformed UTF-8 is replaced rather than thrown.
+     * @return
+     * @throws IOException
+     */
+    public BufferedReader openReader() throws IOException {
+        return new BufferedReader(new InputStreamReader(this.openStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Unpin the file. Streams already opened from it keep working; the path should not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (this.released.compareAndSet(false, true)) {
+            this.release.run();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.dv8tion.jda.api.entities.Message.Attachment;
+import net.pcsx2.hifumi.config.Config.DownloadOptions;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Every file the bot downloads goes through here, on the shared OkHttp connection pool.
+ * Requests have connect, read and overall timeouts, and bodies are streamed through
+ * a fixed size buffer with a hard byte limit, so a huge or slow file can't pin a thread or fill the heap.
+ * <br><br>
+ * Attachments are checked against the limit for their type before anything is requested,
+ * using the size Discord reports; the limit is enforced again while streaming in case that was wrong.
+ */
+public class DownloadService {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final OkHttpClient client;
+    private final long maxImageBytes;
+    private final long maxTextBytes;
+    private final long maxOtherBytes;
+
+    private final ConcurrentHashMap<String, HostStats> hostStats = new ConcurrentHashMap<String, HostStats>();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param http The bot's shared client; its pool and dispatcher are reused, only the timeouts differ.
+     * @param options
+     */
+    public DownloadService(OkHttpClient http, DownloadOptions options) {
+        this.client = http.newBuilder()
+                .connectTimeout(options.connectTimeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(options.readTimeoutSeconds, TimeUnit.SECONDS)
+                .callTimeout(options.callTimeoutSeconds, TimeUnit.SECONDS)
+                .build();
+        this.maxImageBytes = options.maxImageMegabytes * 1024L * 1024L;
+        this.maxTextBytes = options.maxTextMegabytes * 1024L * 1024L;
+        this.maxOtherBytes = options.maxOtherMegabytes * 1024L * 1024L;
+    }
+
+    /**
+     * Stream an attachment's contents into out. Images come from the media proxy, everything else from the CDN.
+     * @param attachment
+     * @param out Not closed.
+     * @return The number of bytes written.
+     * @throws DownloadLimitException If the attachment is over the limit for its type; nothing is requested if Discord already says so.
+     * @throws IOException
+     */
+    public long download(Attachment attachment, OutputStream out) throws IOException {
+        long maxBytes = this.getMaxBytes(attachment);
+
+        if (attachment.getSize() > maxBytes) {
+            this.rejected.increment();
+            throw new DownloadLimitException(attachment.getFileName() + " is " + attachment.getSize() + " bytes, over the " + maxBytes + " byte limit");
+        }
+
+        // Images have always been hashed from the media proxy, so keep doing that or existing scam hashes stop matching.
+        // The proxy does not serve other file types.
+        return this.download(attachment.isImage() ? attachment.getProxyUrl() : attachment.getUrl(), maxBytes, out);
+    }
+
+    /**
+     * @param url
+     * @param maxBytes
+     * @param out Not closed.
+     * @return The number of bytes written.
+     * @throws DownloadLimitException If the body turns out to be larger than maxBytes. Whatever was written before then stays written.
+     * @throws IOException On a non-2xx response or any network failure.
+     */
+    public long download(String url, long maxBytes, OutputStream out) throws IOException {
+        Request req = new Request.Builder().url(url).get().build();
+        HostStats stats = this.statsFor(req.url());
+        long start = System.nanoTime();
+        long total = 0;
+        stats.requests.increment();
+
+        try (Response res = this.client.newCall(req).execute()) {
+            stats.recordLatency(System.nanoTime() - start);
+
+            if (!res.isSuccessful()) {
+                throw new IOException("HTTP " + res.code() + " from " + req.url().host());
+            }
+
+            ResponseBody body = res.body();
+
+            if (body.contentLength() > maxBytes) {
+                this.rejected.increment();
+                throw new DownloadLimitException("Response is " + body.contentLength() + " bytes, over the " + maxBytes + " byte limit");
+            }
+
+            byte[] buf = new byte[BUFFER_SIZE];
+
+            try (InputStream is = body.byteStream()) {
+                int read;
+
+                while ((read = is.read(buf)) != -1) {
+                    total += read;
+
+                    if (total > maxBytes) {
+                        this.rejected.increment();
+                        throw new DownloadLimitException("Response went over the " + maxBytes + " byte limit");
+                    }
+
+                    out.write(buf, 0, read);
+                }
+            }
+
+            return total;
+        } catch (IOException e) {
+            stats.failures.increment();
+            throw e;
+        } finally {
+            stats.bytes.add(total);
+        }
+    }
+
+    /**
+     * Check whether a URL resolves, without reading its body.
+     * @param url
+     * @return The HTTP status code.
+     * @throws IOException
+     */
+    public int probe(String url) throws IOException {
+        Request req = new Request.Builder().url(url).get().build();
+        HostStats stats = this.statsFor(req.url());
+        long start = System.nanoTime();
+        stats.requests.increment();
+
+        try (Response res = this.client.newCall(req).execute()) {
+            stats.recordLatency(System.nanoTime() - start);
+            return res.code();
+        } catch (IOException e) {
+            stats.failures.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * @param attachment
+     * @return The byte limit for this attachment's type.
+     */
+    public long getMaxBytes(Attachment attachment) {
+        if (attachment.isImage()) {
+            return this.maxImageBytes;
+        }
+
+        String contentType = attachment.getContentType();
+
+        if (contentType != null && contentType.startsWith("text/")) {
+            return this.maxTextBytes;
+        }
+
+        return this.maxOtherBytes;
+    }
+
+    private HostStats statsFor(HttpUrl url) {
+        return this.hostStats.computeIfAbsent(url.host(), host -> new HostStats());
+    }
+
+    /**
+     * One line per host: requests, failures, bytes, average and max time to response headers.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.rejected.sum()).append(" over size limit");
+
+        for (Map.Entry<String, HostStats> entry : new TreeMap<String, HostStats>(this.hostStats).entrySet()) {
+            sb.append("\n").append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+
+        return sb.toString();
+    }
+
+    private static class HostStats {
+        private final LongAdder requests = new LongAdder();
+        // Requests which got as far as response headers; the latency figures are over these
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+
+        private void recordLatency(long nanos) {
+            this.responses.increment();
+            this.totalLatencyNanos.add(nanos);
+            this.maxLatencyNanos.accumulate(nanos);
+        }
+
+        @Override
+        public String toString() {
+            long count = this.responses.sum();
+            double avgMillis = count == 0 ? 0 : (this.totalLatencyNanos.sum() / (double) count) / 1_000_000;
+            return String.format("%d requests, %d failed, %d KB, avg %.0f ms, max %.0f ms", this.requests.sum(), this.failures.sum(), this.bytes.sum() / 1024, avgMillis, this.maxLatencyNanos.get() / 1_000_000.0);
+        }
+    }
+
+    /**
+     * Thrown instead of downloading, or part way through, when a file is larger than allowed.
+     */
+    public static class DownloadLimitException extends IOException {
+        private static final long serialVersionUID = 3165405961317146527L;
+
+        public DownloadLimitException(String message) {
+            super(message);
+        }
+    }
+}
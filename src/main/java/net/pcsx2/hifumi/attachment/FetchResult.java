@@ -0,0 +1,30 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.attachment;
+
+import java.util.Optional;
+
+/**
+ * What {@link AttachmentCache#fetch} got for an attachment: the file, or why there isn't one.
+ * @param attachment Null unless status is OK. Close it once done with the file.
+ */
+public record FetchResult(Status status, CachedAttachment attachment) {
+
+    static final FetchResult TOO_LARGE = new FetchResult(Status.TOO_LARGE, null);
+    static final FetchResult FAILED = new FetchResult(Status.FAILED, null);
+
+    static FetchResult of(Optional<CachedAttachment> cached) {
+        return cached.map(attachment -> new FetchResult(Status.OK, attachment)).orElse(FAILED);
+    }
+
+    public Optional<CachedAttachment> toOptional() {
+        return Optional.ofNullable(attachment);
+    }
+
+    public enum Status {
+        OK,
+        // Over the download limit for its type, so it was never fetched
+        TOO_LARGE,
+        FAILED;
+    }
+}
@@ -0,0 +1,182 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.attachment;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Message.Attachment;
+import net.dv8tion.jda.api.utils.FileUpload;
+import net.pcsx2.hifumi.config.Config.ThumbnailOptions;
+import net.pcsx2.hifumi.util.AttachmentUtils;
+
+/**
+ * Renders small JPEG previews of a message's images for staff review embeds, on its own small pool,
+ * so a filter can act on a spammer straight away and post the evidence once the previews are ready.
+ * <br><br>
+ * Images are decoded subsampled to roughly the output size, so the full resolution raster is never built,
+ * then scaled down to fit within the configured dimensions. If the pool is backed up or a render takes too long,
+ * the caller gets an empty list and the embed goes out without previews rather than waiting.
+ */
+public class ThumbnailService {
+
+    private final AttachmentCache cache;
+    private final ThreadPoolExecutor executor;
+    private final int maxDimension;
+    private final float jpegQuality;
+    private final long timeoutSeconds;
+
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalRenderNanos = new LongAdder();
+
+    public ThumbnailService(AttachmentCache cache, ThumbnailOptions options) {
+        this.cache = cache;
+        this.maxDimension = Math.max(16, options.maxDimension);
+        this.jpegQuality = Math.min(1.0f, Math.max(0.1f, options.jpegQuality));
+        this.timeoutSeconds = options.timeoutSeconds;
+
+        final AtomicInteger counter = new AtomicInteger();
+        int threads = Math.max(1, options.threads);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(Math.max(1, options.queueCapacity)), r -> {
+            Thread t = new Thread(r, "hifumi-thumb-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Start rendering previews of a message's images. Only the first image which renders is used.
+     * @param message
+     * @return Completes with the spoilered previews, or an empty list if there were none, they failed, or they took too long.
+     */
+    public CompletableFuture<ArrayList<FileUpload>> render(Message message) {
+        List<Attachment> attachments = List.copyOf(message.getAttachments());
+
+        try {
+            return CompletableFuture.supplyAsync(() -> this.renderAll(attachments), this.executor)
+                    .completeOnTimeout(new ArrayList<FileUpload>(), this.timeoutSeconds, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            this.rejected.increment();
+            return CompletableFuture.completedFuture(new ArrayList<FileUpload>());
+        }
+    }
+
+    private ArrayList<FileUpload> renderAll(List<Attachment> attachments) {
+        ArrayList<FileUpload> files = new ArrayList<FileUpload>();
+
+        for (Attachment attachment : attachments) {
+            // For now, just do one image... If we have problems later and need them all, yank out this if.
+            if (!files.isEmpty()) {
+                break;
+            }
+
+            if (!attachment.isImage()) {
+                continue;
+            }
+
+            Optional<CachedAttachment> cached = this.cache.fetch(attachment).toOptional();
+
+            if (cached.isEmpty()) {
+                continue;
+            }
+
+            long start = System.nanoTime();
+
+            try (CachedAttachment file = cached.get()) {
+                byte[] jpeg = this.renderThumbnail(file.getPath());
+
+                if (jpeg != null) {
+                    files.add(FileUpload.fromData(jpeg, toJpegName(attachment.getFileName())).asSpoiler());
+                    this.rendered.increment();
+                    this.totalRenderNanos.add(System.nanoTime() - start);
+                }
+            } catch (Exception e) {
+                // Not an image we can decode; the embed still lists the attachment
+                this.failed.increment();
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * @param path
+     * @return JPEG bytes, or null if the file is not an image ImageIO can read.
+     * @throws IOException
+     */
+    public byte[] renderThumbnail(Path path) throws IOException {
+        BufferedImage img = AttachmentUtils.readSubsampled(path, (width, height) -> Math.max(width, height) / this.maxDimension);
+
+        if (img == null) {
+            return null;
+        }
+
+        double scale = Math.min(1.0, this.maxDimension / (double) Math.max(img.getWidth(), img.getHeight()));
+        int width = Math.max(1, (int) Math.round(img.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(img.getHeight() * scale));
+
+        // JPEG has no alpha; flatten onto white so transparent regions don't come out black
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graph = out.createGraphics();
+        graph.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graph.setColor(Color.WHITE);
+        graph.fillRect(0, 0, width, height);
+        graph.drawImage(img, 0, 0, width, height, null);
+        graph.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(os)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(this.jpegQuality);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(out, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        return os.toByteArray();
+    }
+
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        long count = this.rendered.sum();
+        double avgMillis = count == 0 ? 0 : (this.totalRenderNanos.sum() / (double) count) / 1_000_000;
+        return String.format("%d rendered (avg %.0f ms), %d failed, %d rejected, %d queued", count, avgMillis, this.failed.sum(), this.rejected.sum(), this.executor.getQueue().size());
+    }
+
+    private static String toJpegName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return (dot > 0 ? fileName.substring(0, dot) : fileName) + ".jpg";
+    }
+}
@@ -23,6 +23,7 @@ import net.pcsx2.hifumi.command.slash.CommandBulkDelete;
 import net.pcsx2.hifumi.command.slash.CommandCPU;
 import net.pcsx2.hifumi.command.slash.CommandChartGen;
 import net.pcsx2.hifumi.command.slash.CommandConfig;
+import net.pcsx2.hifumi.command.slash.CommandCrashRules;
 import net.pcsx2.hifumi.command.slash.CommandDynCmd;
 import net.pcsx2.hifumi.command.slash.CommandEmulog;
 import net.pcsx2.hifumi.command.slash.CommandGPU;
@@ -92,6 +93,7 @@ public class CommandIndex {
         registerSlashCommand(new CommandSpamKick());
         registerSlashCommand(new CommandGameIndex());
         registerSlashCommand(new CommandEmulog());
+        registerSlashCommand(new CommandCrashRules());
         registerSlashCommand(new CommandTranslate());
         registerSlashCommand(new CommandBulkDelete());
         registerSlashCommand(new CommandSerial());
@@ -2,11 +2,14 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.command.slash;
 
+import org.apache.commons.lang3.StringUtils;
+
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.Scheduler.NoSuchRunnableException;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
 import net.pcsx2.hifumi.config.ConfigManager;
 import net.pcsx2.hifumi.config.ConfigType;
+import net.pcsx2.hifumi.database.SQLite;
 import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -36,7 +39,33 @@ public class CommandAbout extends AbstractSlashCommand {
         storageBuilder.append("Config: ").append((ConfigManager.getSizeBytes(ConfigType.CORE) / 1024) + " KB | ");
         storageBuilder.append("DynCmd: ").append((ConfigManager.getSizeBytes(ConfigType.DYNCMD) / 1024) + " KB | ");
         storageBuilder.append("Emulog: ").append((ConfigManager.getSizeBytes(ConfigType.EMULOG_PARSER) / 1024) + " KB | ");
+        storageBuilder.append("Crash: ").append((ConfigManager.getSizeBytes(ConfigType.CRASH_PARSER) / 1024) + " KB | ");
+        storageBuilder.append("Attachment cache: ").append((HifumiBot.getSelf().getAttachmentCache().getSizeBytes() / 1024 / 1024) + " MB | ");
         eb.addField("Storage Size", storageBuilder.toString(), false);
+        eb.addField("Attachment Cache", HifumiBot.getSelf().getAttachmentCache().toString(), false);
+        eb.addField("Thumbnails", HifumiBot.getSelf().getThumbnailService().toString(), false);
+        eb.addField("Emulog Rules", HifumiBot.getSelf().getEmulogRuleEngine().toString(), false);
+        eb.addField("Crash Rules", HifumiBot.getSelf().getCrashRuleEngine().toString(), false);
+        eb.addField("Settings Ini Rules", HifumiBot.getSelf().getSettingsIniRuleIndex().toString(), false);
+        eb.addField("Parse Cache", HifumiBot.getSelf().getParseResultCache().toString(), false);
+        eb.addField("Downloads", StringUtils.truncate(HifumiBot.getSelf().getDownloadService().toString(), 1000), false);
+        
+        SQLite sqlite = HifumiBot.getSelf().getSQLite();
+        StringBuilder databaseBuilder = new StringBuilder();
+        databaseBuilder.append("Read pool (").append(sqlite.getIdleReadConnections()).append(" / ").append(sqlite.getReadPoolSize()).append(" idle): ").append(sqlite.getReadStats()).append("\n");
+        databaseBuilder.append("Writer: ").append(sqlite.getWriteStats()).append("\n");
+        databaseBuilder.append("Write queue: ").append(sqlite.getWriteQueue()).append("\n");
+        databaseBuilder.append("Read statements: ").append(sqlite.getReadStatementStats()).append("\n");
+        databaseBuilder.append("Write statements: ").append(sqlite.getWriteStatementStats());
+
+        if (sqlite.getQueryPlanAudit() != null) {
+            databaseBuilder.append("\n").append("Query plans: ").append(sqlite.getQueryPlanAudit());
+        }
+
+        eb.addField("Database Connections", databaseBuilder.toString(), false);
+        eb.addField("Message Event Shards", "```\n" + StringUtils.truncate(HifumiBot.getSelf().getScheduler().getMessageEventShards().toString(), 1000) + "\n```", false);
+        eb.addField("Message Filter Shards", "```\n" + StringUtils.truncate(HifumiBot.getSelf().getScheduler().getMessageFilterShards().toString(), 1000) + "\n```", false);
+        eb.addField("Parsers", HifumiBot.getSelf().getScheduler().getParserExecutor().toString(), false);
         StringBuilder runnableBuilder = new StringBuilder("| ");
 
         for (String runnableName : HifumiBot.getSelf().getScheduler().getRunnableNames()) {
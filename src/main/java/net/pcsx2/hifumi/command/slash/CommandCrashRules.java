@@ -0,0 +1,310 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.command.slash;
+
+import java.util.ArrayList;
+
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.config.ConfigManager;
+import net.pcsx2.hifumi.config.CrashParserConfig.Rule;
+import net.pcsx2.hifumi.util.CommandUtils;
+import net.pcsx2.hifumi.util.Messaging;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.components.actionrow.ActionRow;
+import net.dv8tion.jda.api.components.buttons.Button;
+import net.dv8tion.jda.api.components.buttons.ButtonStyle;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+
+public class CommandCrashRules extends AbstractSlashCommand {
+
+    private static final int RULES_PER_PAGE = 5;
+
+    private ArrayList<MessageEmbed> rulePages;
+
+    public CommandCrashRules() {
+        rebuildRulePages();
+    }
+
+    @Override
+    public void onExecute(SlashCommandInteractionEvent event) {
+        event.deferReply(true).queue();
+
+        if (CommandUtils.replyIfBadSubcommand(event, "browse", "new", "update", "delete")) {
+            return;
+        }
+
+        switch (event.getSubcommandName()) {
+        case "browse":
+            browse(event);
+            break;
+        case "new":
+            newRule(event);
+            break;
+        case "update":
+            update(event);
+            break;
+        case "delete":
+            delete(event);
+            break;
+        }
+    }
+
+    private void rebuildRulePages() {
+        rulePages = new ArrayList<MessageEmbed>();
+        int pageCount = (int) Math.ceil((double) HifumiBot.getSelf().getCrashParserConfig().rules.size() / RULES_PER_PAGE);
+        EmbedBuilder eb = new EmbedBuilder();
+
+        for (Rule rule : HifumiBot.getSelf().getCrashParserConfig().rules) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("DLLs: `").append(String.join(", ", rule.dlls)).append("`\n");
+            sb.append("Message: `").append(rule.message).append("`\n");
+            sb.append("Show lines: `").append(rule.showLines).append("`");
+            eb.addField(rule.name, sb.toString(), false);
+
+            if (eb.getFields().size() >= RULES_PER_PAGE) {
+                addToPages(eb, pageCount);
+                eb = new EmbedBuilder();
+            }
+        }
+
+        if (eb.getFields().size() > 0) {
+            addToPages(eb, pageCount);
+        }
+    }
+
+    @Override
+    public void handleButtonEvent(ButtonInteractionEvent event) {
+        try {
+            if (event.getMessage().getEmbeds().isEmpty()) {
+                event.getHook().sendMessage("It looks like the crash rules embed was deleted. Try using the crashrules command again.").setEphemeral(true).queue();
+                return;
+            }
+
+            if (event.getMessage().getEmbeds().size() > 1) {
+                event.getHook().sendMessage("Embed error. Try using the crashrules command again.").setEphemeral(true).queue();
+                return;
+            }
+
+            MessageEmbed embed = event.getMessage().getEmbeds().get(0);
+            String[] pageParts = embed.getFooter().getText().split(" / ");
+
+            if (pageParts.length != 2) {
+                event.getHook().sendMessage("Page error. Try using the crashrules command again.").setEphemeral(true).queue();
+                return;
+            }
+
+            int currentPage = 1;
+
+            try {
+                currentPage = Integer.valueOf(pageParts[0]);
+            } catch (NumberFormatException e) {
+                event.getHook().sendMessage("Page number error. Try using the crashrules command again.").setEphemeral(true).queue();
+                return;
+            }
+
+            if (rulePages.isEmpty()) {
+                event.getHook().sendMessage("There are no crash rules anymore.").setEphemeral(true).queue();
+                return;
+            }
+
+            String buttonValue = event.getComponentId().split(":")[0];
+
+            switch (buttonValue) {
+            case "crashrules_prev":
+                currentPage--;
+                break;
+            case "crashrules_next":
+                currentPage++;
+                break;
+            }
+
+            // Pages may have been added or removed since the embed was sent
+            currentPage = Math.max(1, Math.min(currentPage, rulePages.size()));
+
+            event.getHook().editOriginalEmbeds(rulePages.get(currentPage - 1)).setComponents(
+                ActionRow.of(
+                    Button.of(ButtonStyle.SECONDARY, "crashrules_prev:" + event.getMember().getId(), "Previous"),
+                    Button.of(ButtonStyle.PRIMARY, "crashrules_next:" + event.getMember().getId(), "Next")
+                )
+            ).queue();
+        } catch (Exception e) {
+            event.getHook().editOriginal("An internal error occurred, aborting.").queue();
+            Messaging.logException("CommandCrashRules", "onButtonEvent", e);
+        }
+    }
+
+    private void addToPages(EmbedBuilder eb, int pageCount) {
+        eb.setTitle("Crash Parser Rules");
+        eb.setDescription("DLL names are matched anywhere in a line, ignoring case\n");
+        eb.appendDescription("============================ ============================");
+        eb.setFooter((rulePages.size() + 1) + " / " + pageCount);
+        rulePages.add(eb.build());
+    }
+
+    private void browse(SlashCommandInteractionEvent event) {
+        if (rulePages.isEmpty()) {
+            event.getHook().sendMessage("There are no crash rules.").setEphemeral(true).queue();
+            return;
+        }
+
+        event.getHook().sendMessageEmbeds(rulePages.get(0)).setComponents(
+            ActionRow.of(
+                Button.of(ButtonStyle.SECONDARY, "crashrules_prev:" + event.getMember().getId(), "Previous"),
+                Button.of(ButtonStyle.PRIMARY, "crashrules_next:" + event.getMember().getId(), "Next")
+            )
+        ).queue();
+    }
+
+    private void newRule(SlashCommandInteractionEvent event) {
+        if (CommandUtils.replyIfMissingOptions(event, "name", "dlls", "message")) {
+            return;
+        }
+
+        String name = event.getOption("name").getAsString();
+
+        if (findRule(name) != null) {
+            event.getHook().sendMessage("A rule named `" + name + "` already exists").setEphemeral(true).queue();
+            return;
+        }
+
+        ArrayList<String> dlls = parseDlls(event.getOption("dlls").getAsString());
+
+        if (dlls.isEmpty()) {
+            event.getHook().sendMessage("Give at least one DLL name").setEphemeral(true).queue();
+            return;
+        }
+
+        Rule rule = HifumiBot.getSelf().getCrashParserConfig().new Rule();
+        rule.name = name;
+        rule.dlls = dlls;
+        rule.message = event.getOption("message").getAsString();
+        OptionMapping showLinesOpt = event.getOption("show-lines");
+        rule.showLines = showLinesOpt != null && showLinesOpt.getAsBoolean();
+
+        HifumiBot.getSelf().getCrashParserConfig().rules.add(rule);
+        ConfigManager.write(HifumiBot.getSelf().getCrashParserConfig());
+        HifumiBot.getSelf().getCrashRuleEngine().refresh();
+        rebuildRulePages();
+
+        event.getHook().sendMessage("Added rule `" + name + "`").setEphemeral(true).queue();
+    }
+
+    private void update(SlashCommandInteractionEvent event) {
+        if (CommandUtils.replyIfMissingOptions(event, "name")) {
+            return;
+        }
+
+        String name = event.getOption("name").getAsString();
+        Rule rule = findRule(name);
+
+        if (rule == null) {
+            event.getHook().sendMessage("No rule `" + name + "` found").setEphemeral(true).queue();
+            return;
+        }
+
+        OptionMapping dllsOpt = event.getOption("dlls");
+
+        if (dllsOpt != null) {
+            ArrayList<String> dlls = parseDlls(dllsOpt.getAsString());
+
+            if (dlls.isEmpty()) {
+                event.getHook().sendMessage("Give at least one DLL name").setEphemeral(true).queue();
+                return;
+            }
+
+            rule.dlls = dlls;
+        }
+
+        OptionMapping messageOpt = event.getOption("message");
+
+        if (messageOpt != null) {
+            rule.message = messageOpt.getAsString();
+        }
+
+        OptionMapping showLinesOpt = event.getOption("show-lines");
+
+        if (showLinesOpt != null) {
+            rule.showLines = showLinesOpt.getAsBoolean();
+        }
+
+        ConfigManager.write(HifumiBot.getSelf().getCrashParserConfig());
+        HifumiBot.getSelf().getCrashRuleEngine().refresh();
+        rebuildRulePages();
+        event.getHook().sendMessage("Updated rule `" + name + "`").setEphemeral(true).queue();
+    }
+
+    private void delete(SlashCommandInteractionEvent event) {
+        if (CommandUtils.replyIfMissingOptions(event, "name")) {
+            return;
+        }
+
+        String name = event.getOption("name").getAsString();
+        Rule rule = findRule(name);
+
+        if (rule == null) {
+            event.getHook().sendMessage("No rule `" + name + "` found").setEphemeral(true).queue();
+            return;
+        }
+
+        HifumiBot.getSelf().getCrashParserConfig().rules.remove(rule);
+        ConfigManager.write(HifumiBot.getSelf().getCrashParserConfig());
+        HifumiBot.getSelf().getCrashRuleEngine().refresh();
+        rebuildRulePages();
+        event.getHook().sendMessage("Deleted rule `" + name + "`").setEphemeral(true).queue();
+    }
+
+    private Rule findRule(String name) {
+        for (Rule rule : HifumiBot.getSelf().getCrashParserConfig().rules) {
+            if (rule.name.equals(name)) {
+                return rule;
+            }
+        }
+
+        return null;
+    }
+
+    private ArrayList<String> parseDlls(String value) {
+        ArrayList<String> dlls = new ArrayList<String>();
+
+        for (String part : value.split(",")) {
+            String dll = part.trim().toLowerCase();
+
+            if (!dll.isEmpty() && !dlls.contains(dll)) {
+                dlls.add(dll);
+            }
+        }
+
+        return dlls;
+    }
+
+    @Override
+    protected CommandData defineSlashCommand() {
+        SubcommandData browse = new SubcommandData("browse", "Browse an interactive list of all crash parser rules");
+        SubcommandData newRule = new SubcommandData("new", "Create a crash parser rule")
+                .addOption(OptionType.STRING, "name", "Unique name of the crash parser rule", true)
+                .addOption(OptionType.STRING, "dlls", "Comma separated DLL names to look for in crash logs. Any one of them matches.", true)
+                .addOption(OptionType.STRING, "message", "Message to print in the crash parser results, if this rule is matched.", true)
+                .addOption(OptionType.BOOLEAN, "show-lines", "Quote the lines the DLLs were found on under the message. Defaults to false.");
+        SubcommandData update = new SubcommandData("update", "Update a crash parser rule")
+                .addOption(OptionType.STRING, "name", "Unique name of the crash parser rule", true)
+                .addOption(OptionType.STRING, "dlls", "Comma separated DLL names to look for in crash logs. Replaces the existing list.")
+                .addOption(OptionType.STRING, "message", "Message to print in the crash parser results, if this rule is matched.")
+                .addOption(OptionType.BOOLEAN, "show-lines", "Quote the lines the DLLs were found on under the message.");
+        SubcommandData delete = new SubcommandData("delete", "Delete a crash parser rule")
+                .addOption(OptionType.STRING, "name", "Name of the crash parser rule to delete", true);
+        return Commands.slash("crashrules", "Configure crash parser rules")
+                .addSubcommands(browse, newRule, update, delete)
+                .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER));
+    }
+}
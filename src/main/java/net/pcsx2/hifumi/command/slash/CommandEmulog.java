@@ -180,6 +180,7 @@ public class CommandEmulog extends AbstractSlashCommand {
         
         HifumiBot.getSelf().getEmulogParserConfig().rules.add(rule);
         ConfigManager.write(HifumiBot.getSelf().getEmulogParserConfig());
+        HifumiBot.getSelf().getEmulogRuleEngine().refresh();
         rebuildRulePages();
         
         event.getHook().sendMessage("Added rule `" + name + "`").setEphemeral(true).queue();
@@ -224,6 +225,7 @@ public class CommandEmulog extends AbstractSlashCommand {
         }
         
         ConfigManager.write(HifumiBot.getSelf().getEmulogParserConfig());
+        HifumiBot.getSelf().getEmulogRuleEngine().refresh();
         rebuildRulePages();
         event.getHook().sendMessage("Updated rule `" + name + "`").setEphemeral(true).queue();
     }
@@ -240,6 +242,7 @@ public class CommandEmulog extends AbstractSlashCommand {
             if (rules.get(i).name.equals(name)) {
                 rules.remove(i);
                 ConfigManager.write(HifumiBot.getSelf().getEmulogParserConfig());
+                HifumiBot.getSelf().getEmulogRuleEngine().refresh();
                 rebuildRulePages();
                 event.getHook().sendMessage("Deleted rule `" + name + "`").setEphemeral(true).queue();
                 return;
@@ -2,22 +2,16 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.command.slash;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.Locale;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.text.similarity.FuzzyScore;
 
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.gameindex.GameIndexEntry;
 import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
@@ -67,96 +61,30 @@ public class CommandGameIndex extends AbstractSlashCommand {
         } else {
             event.deferReply().queue();
             event.getHook().editOriginal(":information_source: Checking GameIndex.yaml for game by name, this might take a moment...").queue();
-            FuzzyScore fuzz = new FuzzyScore(Locale.US);
-
-            HashMap<String, Integer> highScores = new HashMap<String, Integer>();
-
-            Map<String, Object> mainGameIndexMap = HifumiBot.getSelf().getGameIndex().getMap();
-
-            for (String serial : mainGameIndexMap.keySet()) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> gameEntry = (Map<String, Object>) mainGameIndexMap.get(serial);
-                String name = (String) gameEntry.get("name");            
-                Integer nameScore = fuzz.fuzzyScore(normalized, name.toUpperCase());
-                
-                // Compare name-en if present
-                if (gameEntry.containsKey("name-en")) {
-                    String nameEnglish = (String) gameEntry.get("name-en");
-                    Integer nameEnglishScore = fuzz.fuzzyScore(normalized, nameEnglish);
-
-                    // If name-en was better, use it instead.
-                    if (nameEnglishScore > nameScore) {
-                        nameScore = nameEnglishScore;
-                    }
-                }
-
-                // If score is horribly low, move on.
-                if (nameScore < 10) {
-                    continue;
-                }
-
-                // If at capacity already, compare scores. If higher score, make room. Else, skip.
-                if (highScores.size() >= SelectMenu.OPTIONS_MAX_AMOUNT) {
-                    String lowestSerial = null;
-                    Integer lowestScore = Integer.MAX_VALUE;
-
-                    for (String serialAgain : highScores.keySet()) {
-                        Integer thisScore = highScores.get(serialAgain);
-
-                        if (thisScore < lowestScore) {
-                            lowestSerial = serialAgain;
-                            lowestScore = thisScore;
-                        }
-                    }
-
-                    if (nameScore > lowestScore) {
-                        highScores.remove(lowestSerial);
-                    } else {
-                        continue;
-                    }
-                }
-
-                highScores.put(serial, nameScore);
-            }
+            LinkedHashMap<String, Integer> sortedHighScores = HifumiBot.getSelf().getGameIndex().searchByName(normalized, SelectMenu.OPTIONS_MAX_AMOUNT);
 
-            if (highScores.isEmpty()) {
+            if (sortedHighScores.isEmpty()) {
                 event.getHook().sendMessage("No results found, please check spelling and refine your search, or use a serial number to search by.").queue();
                 return;
             }
 
-            // Sort the high scores so we can present them from closest to farthest.
-            ArrayList<Entry<String, Integer>> entryList = new ArrayList<Entry<String, Integer>>(highScores.entrySet());
-            entryList.sort(Entry.comparingByValue(Comparator.reverseOrder()));
-            LinkedHashMap<String, Integer> sortedHighScores = new LinkedHashMap<String, Integer>();
-
-            for (Entry<String, Integer> entry : entryList) {
-                sortedHighScores.put(entry.getKey(), entry.getValue());
-            }
-
-            // Cull anything that isn't at least half the score of the highest result
-            Iterator<Entry<String, Integer>> iter = sortedHighScores.entrySet().iterator();
-            Integer highestScore = iter.next().getValue();
-
-            while (iter.hasNext()) {
-                Entry<String, Integer> entry = iter.next();
-                Integer score = entry.getValue();
-
-                if (score < Math.ceil(highestScore / 2)) {
-                    iter.remove();
-                }
-            }
-
             StringSelectMenu.Builder selectMenu = StringSelectMenu.create("gameindex:select:" + event.getId() + ":" + event.getUser().getId());
             
             for (String serial : sortedHighScores.keySet()) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> gameEntry = (Map<String, Object>) mainGameIndexMap.get(serial);
+                Optional<GameIndexEntry> gameEntryOpt = HifumiBot.getSelf().getGameIndex().getEntry(serial);
+
+                // Dropped by a refresh since the search ran
+                if (gameEntryOpt.isEmpty()) {
+                    continue;
+                }
+
+                GameIndexEntry gameEntry = gameEntryOpt.get();
                 String label = serial + " / ";
 
-                if (gameEntry.containsKey("name-en") && preferEnglish) {
-                    label += StringUtils.abbreviate((String) gameEntry.get("name-en"), 80);
+                if (gameEntry.nameEnglish() != null && preferEnglish) {
+                    label += StringUtils.abbreviate(gameEntry.nameEnglish(), 80);
                 } else {
-                    label += StringUtils.abbreviate(((String) gameEntry.get("name")), 80);
+                    label += StringUtils.abbreviate(gameEntry.name(), 80);
                 }
 
                 selectMenu.addOption(label, serial);
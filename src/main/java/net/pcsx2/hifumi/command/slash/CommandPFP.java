@@ -3,11 +3,10 @@
 package net.pcsx2.hifumi.command.slash;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URL;
 
 import javax.imageio.ImageIO;
 
@@ -27,8 +26,9 @@ public class CommandPFP extends AbstractSlashCommand {
     
     private boolean setAvatar(String imageUrl) throws IOException, MalformedURLException {
         try {
-            URL url = new URI(imageUrl).toURL();
-            BufferedImage bImage = ImageIO.read(url);
+            ByteArrayOutputStream iStream = new ByteArrayOutputStream();
+            HifumiBot.getSelf().getDownloadService().download(imageUrl, HifumiBot.getSelf().getConfig().downloadOptions.maxImageMegabytes * 1024L * 1024L, iStream);
+            BufferedImage bImage = ImageIO.read(new ByteArrayInputStream(iStream.toByteArray()));
             ByteArrayOutputStream oStream = new ByteArrayOutputStream();
             ImageIO.write(bImage, "png", oStream);
             HifumiBot.getSelf().getJDA().getSelfUser().getManager().setAvatar(Icon.from(oStream.toByteArray())).complete();
@@ -3,6 +3,7 @@
 package net.pcsx2.hifumi.command.slash;
 
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -15,9 +16,14 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.config.ConfigManager;
 import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.database.objects.ScamHashObject;
+import net.pcsx2.hifumi.util.AttachmentUtils;
+import net.pcsx2.hifumi.util.ImageHashes;
+import net.pcsx2.hifumi.util.PerceptualHash;
 
 public class CommandScamHash extends AbstractSlashCommand {
 
@@ -34,31 +40,64 @@ public class CommandScamHash extends AbstractSlashCommand {
         switch (event.getSubcommandName()) {
             case "add" -> {
                 OptionMapping shaOpt = event.getOption("sha3-256");
+                OptionMapping imageOpt = event.getOption("image");
                 OptionMapping descriptionOpt = event.getOption("description");
                 
-                if (shaOpt == null || descriptionOpt == null) {
-                    event.reply("Missing required params").setEphemeral(true).queue();
+                if ((shaOpt == null && imageOpt == null) || descriptionOpt == null) {
+                    event.reply("Missing required params, supply a SHA3-256 sum, an image, or both").setEphemeral(true).queue();
                     return;
                 }
                 
-                String sha256 = shaOpt.getAsString();
-                Matcher m = shaPattern.matcher(sha256);
+                String sha256 = null;
                 
-                if (!m.matches()) {
-                    event.reply("Not a valid SHA3-256 sum").setEphemeral(true).queue();
-                    return;
+                if (shaOpt != null) {
+                    sha256 = shaOpt.getAsString();
+                    Matcher m = shaPattern.matcher(sha256);
+                    
+                    if (!m.matches()) {
+                        event.reply("Not a valid SHA3-256 sum").setEphemeral(true).queue();
+                        return;
+                    }
+                }
+                
+                // Downloading the image can take a moment
+                event.deferReply().setEphemeral(true).queue();
+                OptionalLong dHash = OptionalLong.empty();
+                
+                if (imageOpt != null) {
+                    Optional<ImageHashes> hashesOpt = AttachmentUtils.generateImageHashes(imageOpt.getAsAttachment());
+                    
+                    if (hashesOpt.isEmpty()) {
+                        event.getHook().sendMessage("Unable to download the image").setEphemeral(true).queue();
+                        return;
+                    }
+                    
+                    if (sha256 != null && !sha256.equalsIgnoreCase(hashesOpt.get().getSHA256())) {
+                        event.getHook().sendMessage("The image does not match the SHA3-256 sum given; its sum is " + hashesOpt.get().getSHA256()).setEphemeral(true).queue();
+                        return;
+                    }
+                    
+                    sha256 = hashesOpt.get().getSHA256();
+                    dHash = hashesOpt.get().getDHash();
                 }
                 
                 Optional<ScamHashObject> existing = Database.getScamHash(sha256);
                 
                 if (existing.isPresent()) {
-                    event.reply("Matching hash already exists, use deactivate or reactivate to make changes").setEphemeral(true).queue();
+                    event.getHook().sendMessage("Matching hash already exists, use deactivate or reactivate to make changes").setEphemeral(true).queue();
                     return;
                 }
                 
                 String description = descriptionOpt.getAsString();
-                Database.insertScamHash(sha256, description);
-                event.reply("Added SHA3-256 sum").setEphemeral(true).queue();
+                Database.insertScamHash(sha256, description, dHash);
+                HifumiBot.getSelf().getScamHashIndex().refresh();
+                
+                if (dHash.isPresent()) {
+                    event.getHook().sendMessage("Added SHA3-256 sum " + sha256 + " with perceptual hash " + PerceptualHash.toHex(dHash.getAsLong())).setEphemeral(true).queue();
+                } else {
+                    event.getHook().sendMessage("Added SHA3-256 sum " + sha256 + " (exact matches only; attach the image to also catch edited copies)").setEphemeral(true).queue();
+                }
+                
                 break;
             }
             case "deactivate" -> {
@@ -78,6 +117,7 @@ public class CommandScamHash extends AbstractSlashCommand {
                 }
                 
                 Database.updateScamHash(sha256, false);
+                HifumiBot.getSelf().getScamHashIndex().refresh();
                 event.reply("Deactivated SHA3-256 sum " + sha256).setEphemeral(true).queue();
                 break;
             }
@@ -100,6 +140,7 @@ public class CommandScamHash extends AbstractSlashCommand {
                 
                 String description = descriptionOpt.getAsString();
                 Database.updateScamHash(sha256, true, description);
+                HifumiBot.getSelf().getScamHashIndex().refresh();
                 event.reply("Reactivated SHA3-256 sum " + sha256).setEphemeral(true).queue();
                 break;
             }
@@ -129,7 +170,9 @@ public class CommandScamHash extends AbstractSlashCommand {
                             .append("\nDescription: ")
                             .append(scamHashObj.getDescription())
                             .append("\nActive: ")
-                            .append(scamHashObj.isActive());
+                            .append(scamHashObj.isActive())
+                            .append("\nPerceptual Hash: ")
+                            .append(scamHashObj.getDHash().isPresent() ? PerceptualHash.toHex(scamHashObj.getDHash().getAsLong()) : "None");
                     event.reply(sb.toString()).setEphemeral(true).queue();
                 } else {
                     event.reply("No hash found with SHA3-256 of " + sha256).setEphemeral(true).queue();
@@ -137,6 +180,20 @@ public class CommandScamHash extends AbstractSlashCommand {
 
                 break;
             }
+            case "threshold" -> {
+                OptionMapping distanceOpt = event.getOption("distance");
+                
+                if (distanceOpt == null) {
+                    int maxDistance = HifumiBot.getSelf().getConfig().scamHashOptions.maxDHashDistance;
+                    event.reply(maxDistance == 0 ? "Near matching is disabled; only exact copies of a known image are treated as matches" : "Images within " + maxDistance + " bits of a known perceptual hash are treated as matches").setEphemeral(true).queue();
+                    return;
+                }
+                
+                HifumiBot.getSelf().getConfig().scamHashOptions.maxDHashDistance = distanceOpt.getAsInt();
+                ConfigManager.write(HifumiBot.getSelf().getConfig());
+                event.reply("Perceptual match threshold set to " + distanceOpt.getAsInt() + " bits" + (distanceOpt.getAsInt() == 0 ? " (near matching disabled)" : "")).setEphemeral(true).queue();
+                break;
+            }
             default -> {
                 event.reply("Unexpected subcommand").setEphemeral(true).queue();
                 return;
@@ -150,8 +207,13 @@ public class CommandScamHash extends AbstractSlashCommand {
         OptionData sha256 = new OptionData(OptionType.STRING, "sha3-256", "SHA-256 sum of the image file", true);
         OptionData description = new OptionData(OptionType.STRING, "description", "A text descriptor of what the image content is", true);
         
-        SubcommandData add = new SubcommandData("add", "Add a new hash in SHA3-256 format")
-                .addOptions(sha256, description);
+        OptionData optionalSha256 = new OptionData(OptionType.STRING, "sha3-256", "SHA-256 sum of the image file", false);
+        OptionData image = new OptionData(OptionType.ATTACHMENT, "image", "The image itself; also catches re-encoded or edited copies", false);
+        OptionData distance = new OptionData(OptionType.INTEGER, "distance", "Max differing bits (out of 64) to count as a copy, 0 to disable", false)
+                .setRequiredRange(0, 32);
+        
+        SubcommandData add = new SubcommandData("add", "Add a new hash, from a SHA3-256 sum and/or the image")
+                .addOptions(description, optionalSha256, image);
         
         SubcommandData deactivate = new SubcommandData("deactivate", "Deactivate a hash so it will no longer trigger")
                 .addOptions(sha256);
@@ -162,8 +224,11 @@ public class CommandScamHash extends AbstractSlashCommand {
         SubcommandData get = new SubcommandData("get", "Get a hash and its description")
                 .addOptions(sha256);
         
+        SubcommandData threshold = new SubcommandData("threshold", "View or set how close an image must be to a known scam image to match")
+                .addOptions(distance);
+        
         return Commands.slash("scamhash", "Registers a SHA3-256 sum as a scam file hash")
-                .addSubcommands(add, deactivate, reactivate, get)
+                .addSubcommands(add, deactivate, reactivate, get, threshold)
                 .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER));
     }
 
@@ -2,13 +2,7 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.command.slash;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-
-import org.apache.commons.lang3.Strings;
+import java.util.ArrayList;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.MessageEmbed;
@@ -20,11 +14,11 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.command.AbstractSlashCommand;
+import net.pcsx2.hifumi.gameindex.GameIndexEntry;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class CommandSerial extends AbstractSlashCommand {
 
-    @SuppressWarnings("unchecked")
     @Override
     public void onExecute(SlashCommandInteractionEvent event) {
         OptionMapping opt = event.getOption("name");
@@ -45,53 +39,20 @@ public class CommandSerial extends AbstractSlashCommand {
         event.deferReply().setEphemeral(true).queue();
         event.getHook().editOriginal(":information_source: Checking GameIndex.yaml for serials matching name `" + normalized + "`, this might take a moment...").queue();
         
-        Map<String, Object> indexMap = HifumiBot.getSelf().getGameIndex().getMap();
-        HashMap<String, LinkedHashMap<String, String>> results = new HashMap<String, LinkedHashMap<String, String>>();
-
-        for (String serial : indexMap.keySet()) {
-            Map<String, Object> entryMap = (Map<String, Object>) indexMap.get(serial);
-
-            String name = ((String) entryMap.get("name"));
-            String nameSort = null;
-            String nameEn = null;
-            String region = ((String) entryMap.get("region"));
-            
-            if (entryMap.containsKey("name-sort")) {
-                nameSort = ((String) entryMap.get("name-sort"));
-            }
-
-            if (entryMap.containsKey("name-en")) {
-                nameEn = ((String) entryMap.get("name-en"));
-            }
-            
-            if (Strings.CI.contains(name, normalized) || Strings.CI.contains(nameSort, normalized) || Strings.CI.contains(nameEn, normalized)) {
-                LinkedHashMap<String, String> attributes = new LinkedHashMap<String, String>();
-                attributes.put("Name", name);
-
-                if (nameEn != null) {
-                    attributes.put("EN", nameEn);
-                }
-                
-                attributes.put("Region", region);
-                
-                results.put(serial, attributes);
-            }
-        }
-        
+        ArrayList<GameIndexEntry> results = HifumiBot.getSelf().getGameIndex().searchSerialsByName(normalized);
         EmbedBuilder eb = new EmbedBuilder();
         eb.setTitle("Search Results for \"" + normalized + "\"");
-        Set<String> serials = results.keySet();
-        TreeSet<String> orderedSerials = new TreeSet<String>(serials);
         
-        for (String serial : orderedSerials) {
+        for (GameIndexEntry entry : results) {
             StringBuilder sb = new StringBuilder();
-            LinkedHashMap<String, String> attributes = results.get(serial);
+            sb.append("* ").append(entry.name()).append("\n");
 
-            for (String key : attributes.keySet()) {
-                sb.append("* ").append(attributes.get(key)).append("\n");
+            if (entry.nameEnglish() != null) {
+                sb.append("* ").append(entry.nameEnglish()).append("\n");
             }
 
-            eb.addField(serial, sb.toString().trim(), true);
+            sb.append("* ").append(entry.region()).append("\n");
+            eb.addField(entry.serial(), sb.toString().trim(), true);
 
             if (eb.getFields().size() >= 25) {
                 eb.setDescription("More than 25 results found. Consider using a more specific search term if what you need is not here.");
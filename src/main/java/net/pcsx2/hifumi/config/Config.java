@@ -30,6 +30,14 @@ public class Config implements IConfig {
     public SerializedEmbed unwarezPrompt;
     public HoneypotOptions honeypotOptions;
     public AntiAttachmentOptions antiAttachmentOptions;
+    public ScamHashOptions scamHashOptions;
+    public DatabaseOptions databaseOptions;
+    public SchedulerOptions schedulerOptions;
+    public AttachmentCacheOptions attachmentCacheOptions;
+    public DownloadOptions downloadOptions;
+    public ThumbnailOptions thumbnailOptions;
+    public ParseCacheOptions parseCacheOptions;
+    public ParserPoolOptions parserPoolOptions;
 
     public Config() {
         channels = new Channels();
@@ -46,6 +54,14 @@ public class Config implements IConfig {
         unwarezPrompt = new SerializedEmbed();
         honeypotOptions = new HoneypotOptions();
         antiAttachmentOptions = new AntiAttachmentOptions();
+        scamHashOptions = new ScamHashOptions();
+        databaseOptions = new DatabaseOptions();
+        schedulerOptions = new SchedulerOptions();
+        attachmentCacheOptions = new AttachmentCacheOptions();
+        downloadOptions = new DownloadOptions();
+        thumbnailOptions = new ThumbnailOptions();
+        parseCacheOptions = new ParseCacheOptions();
+        parserPoolOptions = new ParserPoolOptions();
     }
 
     public class Logging {
@@ -221,4 +237,133 @@ public class Config implements IConfig {
             maxMessages = 3;
         }
     }
+    
+    public class ScamHashOptions {
+        // Max differing bits between perceptual hashes for an image to count as a copy. 0 disables near matching.
+        // Off by default: a near match is actioned just like an exact one, so turn it on with /scamhash threshold once it has been tried.
+        public int maxDHashDistance;
+        // Attachments bigger than this, or not of one of these content types, are not downloaded or hashed
+        public int maxHashMegabytes;
+        public ArrayList<String> hashContentTypes;
+        
+        public ScamHashOptions() {
+            maxDHashDistance = 0;
+            maxHashMegabytes = 10;
+            hashContentTypes = new ArrayList<String>();
+            hashContentTypes.add("image/");
+            hashContentTypes.add("video/");
+        }
+    }
+    
+    public class DatabaseOptions {
+        public int readPoolSize;
+        public int checkoutTimeoutSeconds;
+        public int busyTimeoutMillis;
+        public int writeBatchSize;
+        public int writeFlushMillis;
+        public int writeQueueCapacity;
+        public int statementCacheSize;
+        public boolean auditQueryPlans;
+        
+        public DatabaseOptions() {
+            readPoolSize = 4;
+            checkoutTimeoutSeconds = 30;
+            busyTimeoutMillis = 5000;
+            writeBatchSize = 200;
+            writeFlushMillis = 50;
+            writeQueueCapacity = 10000;
+            statementCacheSize = 100;
+            auditQueryPlans = false;
+        }
+    }
+    
+    public class SchedulerOptions {
+        public int messageEventShards;
+        public int messageFilterShards;
+        
+        public SchedulerOptions() {
+            messageEventShards = 4;
+            messageFilterShards = 4;
+        }
+    }
+    
+    public class AttachmentCacheOptions {
+        public int maxCacheMegabytes;
+        // How many attachment IDs to remember; each is a line in the on-disk index
+        public int maxIndexEntries;
+        
+        public AttachmentCacheOptions() {
+            maxCacheMegabytes = 2048;
+            maxIndexEntries = 200000;
+        }
+    }
+    
+    public class DownloadOptions {
+        public int connectTimeoutSeconds;
+        public int readTimeoutSeconds;
+        // Whole request, including streaming the body
+        public int callTimeoutSeconds;
+        public int maxImageMegabytes;
+        // Emulogs and other text/* files
+        public int maxTextMegabytes;
+        public int maxOtherMegabytes;
+        
+        public DownloadOptions() {
+            connectTimeoutSeconds = 10;
+            readTimeoutSeconds = 30;
+            callTimeoutSeconds = 120;
+            maxImageMegabytes = 25;
+            maxTextMegabytes = 50;
+            maxOtherMegabytes = 10;
+        }
+    }
+    
+    public class ThumbnailOptions {
+        public int threads;
+        // Renders waiting beyond this are dropped, and their embeds go out without previews
+        public int queueCapacity;
+        // Longest side of a preview, in pixels
+        public int maxDimension;
+        public float jpegQuality;
+        public int timeoutSeconds;
+        
+        public ThumbnailOptions() {
+            threads = 2;
+            queueCapacity = 32;
+            maxDimension = 640;
+            jpegQuality = 0.8f;
+            timeoutSeconds = 15;
+        }
+    }
+    
+    public class ParseCacheOptions {
+        // Results older than this are parsed again even if nothing else changed
+        public int ttlHours;
+        public int maxEntries;
+        public int maxCacheMegabytes;
+        // Results files bigger than this are not worth keeping
+        public int maxResultKilobytes;
+        
+        public ParseCacheOptions() {
+            ttlHours = 24 * 7;
+            maxEntries = 20000;
+            maxCacheMegabytes = 256;
+            maxResultKilobytes = 1024;
+        }
+    }
+    
+    public class ParserPoolOptions {
+        public int threads;
+        // Files waiting for a thread, across all users; more than this are turned away
+        public int queueCapacity;
+        // Messages one user can have files waiting or being parsed from at once. All the files in one message
+        // (e.g. a log and two inis) count as one.
+        public int maxPerUser;
+        
+        public ParserPoolOptions() {
+            threads = 2;
+            queueCapacity = 50;
+            maxPerUser = 2;
+        }
+    }
 }
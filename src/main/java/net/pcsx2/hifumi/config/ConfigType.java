@@ -7,6 +7,7 @@ public enum ConfigType {
     CORE("hifumi-conf.json", Config.class),
     DYNCMD("dyncmd-config.json", DynCmdConfig.class),
     EMULOG_PARSER("emulog-parser.json", EmulogParserConfig.class),
+    CRASH_PARSER("crash-parser.json", CrashParserConfig.class),
     SETTINGS_PARSER("settings-ini-parser.json", SettingsIniParserConfig.class);
     
     private String fileName;
@@ -0,0 +1,71 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class CrashParserConfig implements IConfig {
+
+    @Override
+    public ConfigType getConfigType() {
+        return ConfigType.CRASH_PARSER;
+    }
+
+    @Override
+    public boolean usePrettyPrint() {
+        return true;
+    }
+
+    public ArrayList<Rule> rules;
+    
+    public CrashParserConfig() {
+        rules = new ArrayList<Rule>();
+        // The DLLs the crash parser has always known about, so a new config starts out checking for them
+        addDefault("usb-vibration-driver", true,
+                "[Fatal] Bad USB gamepad vibration driver. This driver is known to cause most 64 bit applications to crash without warning.\n" +
+                "Go to the file referenced below, and delete it from your PC:",
+                "fcvap32.dll", "fcvap64.dll", "ezfrd32.dll", "ezfrd64.dll", "ez6401.dll");
+        addDefault("oldnewexplorer", true,
+                "[Fatal] OldNewExplorer detected. OldNewExplorer causes many modern applications to crash, due to unsafe modifications to Windows' implementation of file and folder pickers.\n" +
+                "OldNewExplorer must be fully uninstalled and your system rebooted. PCSX2 will not function until the uninstall is fully complete and all Windows system files are restored to their proper states.",
+                "oldnewexplorer.dll", "oldnewexplorer32.dll", "oldnewexplorer64.dll");
+        addDefault("vulkan-compatibility-pack", false,
+                "[Fatal] Vulkan Compatibility Pack detected. This app package uses a Vulkan on DX12 implementation which does not actually conform to Vulkan specifications. Using the Vulkan renderer or opening the Settings menu in PCSX2 will likely crash.\n" +
+                "Open your Start menu, hit Settings, Apps, then find `OpenCL™, OpenGL®, and Vulkan® Compatibility Pack` in the list and uninstall. Once uninstalled, reboot your PC.",
+                "vulkan_dzn.dll");
+        addDefault("overwolf", false,
+                "[Fatal] Overwolf detected. This program's overlay hooks often crash the GPU driver.\n" +
+                "To avoid crashing, uninstall Overwolf.",
+                "owclient.dll", "ow-graphics-vulkan.dll", "ow-graphics-hook64.dll");
+        addDefault("rivatuner", false,
+                "[Fatal] RivaTuner statistics server detected. This program is known to cause memory leaks when using DX12 on certain hardware.\n" +
+                "If PCSX2 appears to be leaking memory, uninstall RivaTuner.",
+                "rtsshooks64.dll");
+    }
+    
+    private void addDefault(String name, boolean showLines, String message, String... dlls) {
+        Rule rule = new Rule();
+        rule.name = name;
+        rule.dlls = new ArrayList<String>(Arrays.asList(dlls));
+        rule.message = message;
+        rule.showLines = showLines;
+        rules.add(rule);
+    }
+    
+    public class Rule {
+        public String name;
+        // File names to look for, case insensitive; any one of them triggers the rule
+        public ArrayList<String> dlls;
+        public String message;
+        // Whether to quote the lines the DLLs were found on under the message
+        public boolean showLines;
+        
+        public Rule() {
+            name = new String("");
+            dlls = new ArrayList<String>();
+            message = new String("");
+            showLines = false;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A long-running migration, such as a backfill over a large table, which is run
+ * one chunk at a time in the background after startup. Each chunk is its own transaction
+ * and the writer is given back between chunks, so live writes keep flowing while it runs.
+ * <br><br>
+ * Chunks must be resumable: the bot can be stopped part way through, and the migration
+ * is started over from the top on the next boot. Select the next chunk by what still needs
+ * doing (e.g. "WHERE new_column IS NULL LIMIT ?"), never by an offset held in memory.
+ */
+public interface ChunkedMigration {
+
+    /**
+     * @return The schema_version this migration is recorded under. Shares the numbering
+     * with the SQL migration files, so take the next free number and do not ship a file with it.
+     */
+    int getVersion();
+
+    /**
+     * @return A short, stable name; used in logs and as the checksum for this migration.
+     */
+    String getName();
+
+    /**
+     * Process the next chunk. The connection is already inside a transaction;
+     * do not commit or change auto-commit here.
+     * @param wConn
+     * @return The number of rows handled by this chunk, or 0 once there is nothing left to do.
+     * @throws SQLException
+     */
+    int runChunk(Connection wConn) throws SQLException;
+}
@@ -9,9 +9,9 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.Message.Attachment;
@@ -38,7 +38,9 @@ import net.pcsx2.hifumi.database.objects.CommandEventObject;
 import net.pcsx2.hifumi.database.objects.CounterObject;
 import net.pcsx2.hifumi.database.objects.InteractionEventObject;
 import net.pcsx2.hifumi.database.objects.MemberEventObject;
+import net.pcsx2.hifumi.database.objects.MessageActivityObject;
 import net.pcsx2.hifumi.database.objects.MessageObject;
+import net.pcsx2.hifumi.database.objects.ParseResultObject;
 import net.pcsx2.hifumi.database.objects.ScamHashObject;
 import net.pcsx2.hifumi.database.objects.WarezEventObject;
 import net.pcsx2.hifumi.util.DateTimeUtils;
@@ -48,286 +50,363 @@ import net.pcsx2.hifumi.util.TimeUtils;
 public class Database {
 
     /**
-     * Store user, channel, message, attachment, and event records
+     * Store user, channel, message, attachment, and event records.
+     * Queued to the write-behind writer; returns before the rows are committed.
      */
     public static void insertMessage(Message message) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
-                INSERT INTO user (discord_id, created_datetime, username)
-                VALUES (?, ?, ?)
-                ON CONFLICT (discord_id) DO NOTHING;
-                """)) {
-            insertUser.setLong(1, message.getAuthor().getIdLong());
-            insertUser.setLong(2, message.getAuthor().getTimeCreated().toEpochSecond());
-            insertUser.setString(3, message.getAuthor().getName());
-            insertUser.executeUpdate();
+        HifumiBot.getSelf().getSQLite().getWriteQueue().enqueue(new MessageSendWrite(message));
+    }
 
-            try (PreparedStatement insertChannel = wConn.prepareStatement("""
-                    INSERT INTO channel (discord_id, name)
-                    VALUES (?, ?)
-                    ON CONFLICT (discord_id) DO NOTHING;
-                    """)) {
-                insertChannel.setLong(1, message.getChannel().getIdLong());
-                insertChannel.setString(2, message.getChannel().getName());
-                insertChannel.executeUpdate();
+    /**
+     * Store channel, message and event records.
+     * Queued to the write-behind writer; returns before the rows are committed.
+     * @param event
+     */
+    public static void insertMessageDeleteEvent(MessageDeleteEvent event) {
+        OffsetDateTime now = OffsetDateTime.now();
+        HifumiBot.getSelf().getSQLite().getWriteQueue().enqueue(new MessageDeleteWrite(event.getMessageIdLong(), event.getChannel().getIdLong(), event.getChannel().getName(), now.toEpochSecond()));
+    }
 
-                try (PreparedStatement insertMessage = wConn.prepareStatement("""
-                        INSERT INTO message (message_id, fk_channel, jump_link, fk_reply_to_message, timestamp, fk_user)
-                        VALUES (?, ?, ?, ?, ?, ?)
-                        ON CONFLICT (message_id) DO NOTHING;
-                        """)) {
-                    insertMessage.setLong(1, message.getIdLong());
-                    insertMessage.setLong(2, message.getChannel().getIdLong());
-                    insertMessage.setString(3, message.getJumpUrl());
-        
-                    if (message.getReferencedMessage() != null) {
-                        insertMessage.setLong(4, message.getReferencedMessage().getIdLong());
-                    } else {
-                        insertMessage.setNull(4, Types.BIGINT);
-                    }
-                    
-                    insertMessage.setLong(5, message.getTimeCreated().toEpochSecond());
-                    insertMessage.setLong(6, message.getAuthor().getIdLong());
-                    insertMessage.executeUpdate();
+    /**
+     * Store channel, message and event records.
+     * Queued to the write-behind writer; returns before the rows are committed.
+     * @param event
+     */
+    public static void insertMessageBulkDeleteEvent(MessageBulkDeleteEvent event) {
+        OffsetDateTime now = OffsetDateTime.now();
         
-                    if (!HifumiBot.getSelf().getPermissionManager().hasMessageLogBypass(message)) {
-                        try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                                INSERT INTO message_event (fk_user, fk_message, timestamp, action, content)
-                                VALUES (?, ?, ?, ?, ?);
-                                """)) {
-                            insertEvent.setLong(1, message.getAuthor().getIdLong());
-                            insertEvent.setLong(2, message.getIdLong());
-                            insertEvent.setLong(3, message.getTimeCreated().toEpochSecond());
-                            insertEvent.setString(4, "send");
-                            insertEvent.setString(5, message.getContentRaw());
-                            insertEvent.executeUpdate();
-                            
-                            // Check if this message had any attachments. No need to continue if not.
-                            List<Attachment> attachments = message.getAttachments();
-            
-                            if (!attachments.isEmpty()) {
-                                try (PreparedStatement insertAttachments = wConn.prepareStatement("""
-                                        INSERT INTO message_attachment (discord_id, timestamp, fk_message, content_type, proxy_url, filename)
-                                        VALUES (?, ?, ?, ?, ?, ?)
-                                        ON CONFLICT (discord_id) DO NOTHING;
-                                        """)) {
-                                    for (Attachment attachment : attachments) {
-                                        insertAttachments.setLong(1, attachment.getIdLong());
-                                        insertAttachments.setLong(2, attachment.getTimeCreated().toEpochSecond());
-                                        insertAttachments.setLong(3, message.getIdLong());
-                                        insertAttachments.setString(4, attachment.getContentType());
-                                        insertAttachments.setString(5, attachment.getProxyUrl());
-                                        insertAttachments.setString(6, attachment.getFileName());
-                                        insertAttachments.addBatch();
-                                    }
-                                    
-                                    insertAttachments.executeBatch();
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (SQLException e) {
-             Messaging.logException("Database", "insertMessageReceivedEvent", e);
+        for (String messageId : event.getMessageIds()) {
+            HifumiBot.getSelf().getSQLite().getWriteQueue().enqueue(new MessageDeleteWrite(Long.valueOf(messageId), event.getChannel().getIdLong(), event.getChannel().getName(), now.toEpochSecond()));
         }
     }
 
     /**
-     * Store channel, message and event records
+     * Store user, channel, message, attachment, and event records.
+     * Queued to the write-behind writer; returns before the rows are committed.
      * @param event
      */
-    public static void insertMessageDeleteEvent(MessageDeleteEvent event) {
-        OffsetDateTime now = OffsetDateTime.now();
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement getUser = wConn.prepareStatement("""
-                SELECT message_id, fk_user
-                FROM message
-                WHERE message_id = ?
-                LIMIT 1;
-                """)) {
-            getUser.setLong(1, event.getMessageIdLong());
-            
-            long userId = 0;
-            
-            try (ResultSet res = getUser.executeQuery()) {
-                if (res.next()) {
-                    userId = res.getLong("fk_user");
-                }
+    public static void insertMessageUpdateEvent(MessageUpdateEvent event) {
+        HifumiBot.getSelf().getSQLite().getWriteQueue().enqueue(new MessageUpdateWrite(event));
+    }
+
+    private static class AttachmentWrite {
+        private final long discordId;
+        private final long timestamp;
+        private final String contentType;
+        private final String proxyUrl;
+        private final String fileName;
+
+        private AttachmentWrite(Attachment attachment) {
+            this.discordId = attachment.getIdLong();
+            this.timestamp = attachment.getTimeCreated().toEpochSecond();
+            this.contentType = attachment.getContentType();
+            this.proxyUrl = attachment.getProxyUrl();
+            this.fileName = attachment.getFileName();
+        }
+    }
+
+    private static class MessageSendWrite implements PendingWrite {
+        private final long userId;
+        private final long userCreated;
+        private final String username;
+        private final long channelId;
+        private final String channelName;
+        private final long messageId;
+        private final String jumpUrl;
+        private final Long referencedMessageId;
+        private final long timestamp;
+        private final boolean logBypass;
+        private final String content;
+        private final ArrayList<AttachmentWrite> attachments = new ArrayList<AttachmentWrite>();
+
+        private MessageSendWrite(Message message) {
+            this.userId = message.getAuthor().getIdLong();
+            this.userCreated = message.getAuthor().getTimeCreated().toEpochSecond();
+            this.username = message.getAuthor().getName();
+            this.channelId = message.getChannel().getIdLong();
+            this.channelName = message.getChannel().getName();
+            this.messageId = message.getIdLong();
+            this.jumpUrl = message.getJumpUrl();
+            this.referencedMessageId = message.getReferencedMessage() != null ? message.getReferencedMessage().getIdLong() : null;
+            this.timestamp = message.getTimeCreated().toEpochSecond();
+            this.logBypass = HifumiBot.getSelf().getPermissionManager().hasMessageLogBypass(message);
+            this.content = message.getContentRaw();
+
+            for (Attachment attachment : message.getAttachments()) {
+                this.attachments.add(new AttachmentWrite(attachment));
             }
-            
+        }
+
+        @Override
+        public long getMessageId() {
+            return this.messageId;
+        }
+
+        @Override
+        public long getUserId() {
+            return this.userId;
+        }
+
+        @Override
+        public void execute(Connection wConn) throws SQLException {
+            try (PreparedStatement insertUser = wConn.prepareStatement("""
+                    INSERT INTO user (discord_id, created_datetime, username)
+                    VALUES (?, ?, ?)
+                    ON CONFLICT (discord_id) DO NOTHING;
+                    """)) {
+                insertUser.setLong(1, this.userId);
+                insertUser.setLong(2, this.userCreated);
+                insertUser.setString(3, this.username);
+                insertUser.executeUpdate();
+            }
+
             try (PreparedStatement insertChannel = wConn.prepareStatement("""
                     INSERT INTO channel (discord_id, name)
                     VALUES (?, ?)
                     ON CONFLICT (discord_id) DO NOTHING;
                     """)) {
-                insertChannel.setLong(1, event.getChannel().getIdLong());
-                insertChannel.setString(2, event.getChannel().getName());
+                insertChannel.setLong(1, this.channelId);
+                insertChannel.setString(2, this.channelName);
                 insertChannel.executeUpdate();
+            }
+
+            try (PreparedStatement insertMessage = wConn.prepareStatement("""
+                    INSERT INTO message (message_id, fk_channel, jump_link, fk_reply_to_message, timestamp, fk_user)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (message_id) DO NOTHING;
+                    """)) {
+                insertMessage.setLong(1, this.messageId);
+                insertMessage.setLong(2, this.channelId);
+                insertMessage.setString(3, this.jumpUrl);
     
-                try (PreparedStatement insertMessage = wConn.prepareStatement("""
-                        INSERT INTO message (message_id, fk_channel)
-                        VALUES (?, ?)
-                        ON CONFLICT (message_id) DO NOTHING;
-                        """)) {
-                    insertMessage.setLong(1, event.getMessageIdLong());
-                    insertMessage.setLong(2, event.getChannel().getIdLong());
-                    insertMessage.executeUpdate();
-        
-                    try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                            INSERT INTO message_event (fk_user, fk_message, timestamp, action)
-                            VALUES (?, ?, ?, ?);
-                            """)) {
-                        insertEvent.setLong(1, userId);
-                        insertEvent.setLong(2, event.getMessageIdLong());
-                        insertEvent.setLong(3, now.toEpochSecond());
-                        insertEvent.setString(4, "delete");
-                        insertEvent.executeUpdate();
-                    }
+                if (this.referencedMessageId != null) {
+                    insertMessage.setLong(4, this.referencedMessageId);
+                } else {
+                    insertMessage.setNull(4, Types.BIGINT);
                 }
+                
+                insertMessage.setLong(5, this.timestamp);
+                insertMessage.setLong(6, this.userId);
+                insertMessage.executeUpdate();
+            }
+
+            if (this.logBypass) {
+                return;
+            }
+
+            try (PreparedStatement insertEvent = wConn.prepareStatement("""
+                    INSERT INTO message_event (fk_user, fk_message, timestamp, action, content)
+                    VALUES (?, ?, ?, ?, ?);
+                    """)) {
+                insertEvent.setLong(1, this.userId);
+                insertEvent.setLong(2, this.messageId);
+                insertEvent.setLong(3, this.timestamp);
+                insertEvent.setString(4, "send");
+                insertEvent.setString(5, this.content);
+                insertEvent.executeUpdate();
+            }
+            
+            // Check if this message had any attachments. No need to continue if not.
+            if (this.attachments.isEmpty()) {
+                return;
+            }
+
+            try (PreparedStatement insertAttachments = wConn.prepareStatement("""
+                    INSERT INTO message_attachment (discord_id, timestamp, fk_message, content_type, proxy_url, filename)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (discord_id) DO NOTHING;
+                    """)) {
+                for (AttachmentWrite attachment : this.attachments) {
+                    insertAttachments.setLong(1, attachment.discordId);
+                    insertAttachments.setLong(2, attachment.timestamp);
+                    insertAttachments.setLong(3, this.messageId);
+                    insertAttachments.setString(4, attachment.contentType);
+                    insertAttachments.setString(5, attachment.proxyUrl);
+                    insertAttachments.setString(6, attachment.fileName);
+                    insertAttachments.addBatch();
+                }
+                
+                insertAttachments.executeBatch();
             }
-        } catch (SQLException e) {
-             Messaging.logException("Database", "insertMessageDeleteEvent", e);
         }
     }
 
-    /**
-     * Store channel, message and event records
-     * @param event
-     */
-    public static void insertMessageBulkDeleteEvent(MessageBulkDeleteEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        OffsetDateTime now = OffsetDateTime.now();
-        
-        for (String messageId : event.getMessageIds()) {
+    private static class MessageDeleteWrite implements PendingWrite {
+        private final long messageId;
+        private final long channelId;
+        private final String channelName;
+        private final long timestamp;
+
+        private MessageDeleteWrite(long messageId, long channelId, String channelName, long timestamp) {
+            this.messageId = messageId;
+            this.channelId = channelId;
+            this.channelName = channelName;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public long getMessageId() {
+            return this.messageId;
+        }
+
+        @Override
+        public void execute(Connection wConn) throws SQLException {
+            long userId = 0;
+
             try (PreparedStatement getUser = wConn.prepareStatement("""
                     SELECT message_id, fk_user
                     FROM message
                     WHERE message_id = ?
                     LIMIT 1;
                     """)) {
-                getUser.setLong(1, Long.valueOf(messageId));
-                
-                long userId = 0;
+                getUser.setLong(1, this.messageId);
                 
                 try (ResultSet res = getUser.executeQuery()) {
                     if (res.next()) {
                         userId = res.getLong("fk_user");
                     }
                 }
-                
-                try (PreparedStatement insertChannel = wConn.prepareStatement("""
-                        INSERT INTO channel (discord_id, name)
-                        VALUES (?, ?)
-                        ON CONFLICT (discord_id) DO NOTHING;
-                        """)) {
-                    insertChannel.setLong(1, event.getChannel().getIdLong());
-                    insertChannel.setString(2, event.getChannel().getName());
-                    insertChannel.executeUpdate();
-    
-                    try (PreparedStatement insertMessage = wConn.prepareStatement("""
-                            INSERT INTO message (message_id, fk_channel)
-                            VALUES (?, ?)
-                            ON CONFLICT (message_id) DO NOTHING;
-                            """)) {
-                        insertMessage.setLong(1, Long.valueOf(messageId));
-                        insertMessage.setLong(2, event.getChannel().getIdLong());
-                        insertMessage.executeUpdate();
-        
-                        try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                                INSERT INTO message_event (fk_user, fk_message, timestamp, action)
-                                VALUES (?, ?, ?, ?);
-                                """)) {
-                            insertEvent.setLong(1, userId);
-                            insertEvent.setLong(2, Long.valueOf(messageId));
-                            insertEvent.setLong(3, now.toEpochSecond());
-                            insertEvent.setString(4, "delete");
-                            insertEvent.executeUpdate();
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                Messaging.logException("Database", "insertMessageBulkDeleteEvent", e);
+            }
+            
+            try (PreparedStatement insertChannel = wConn.prepareStatement("""
+                    INSERT INTO channel (discord_id, name)
+                    VALUES (?, ?)
+                    ON CONFLICT (discord_id) DO NOTHING;
+                    """)) {
+                insertChannel.setLong(1, this.channelId);
+                insertChannel.setString(2, this.channelName);
+                insertChannel.executeUpdate();
+            }
+
+            try (PreparedStatement insertMessage = wConn.prepareStatement("""
+                    INSERT INTO message (message_id, fk_channel)
+                    VALUES (?, ?)
+                    ON CONFLICT (message_id) DO NOTHING;
+                    """)) {
+                insertMessage.setLong(1, this.messageId);
+                insertMessage.setLong(2, this.channelId);
+                insertMessage.executeUpdate();
+            }
+
+            try (PreparedStatement insertEvent = wConn.prepareStatement("""
+                    INSERT INTO message_event (fk_user, fk_message, timestamp, action)
+                    VALUES (?, ?, ?, ?);
+                    """)) {
+                insertEvent.setLong(1, userId);
+                insertEvent.setLong(2, this.messageId);
+                insertEvent.setLong(3, this.timestamp);
+                insertEvent.setString(4, "delete");
+                insertEvent.executeUpdate();
             }
         }
     }
 
-    /**
-     * Store user, channel, message, attachment, and event records
-     * @param event
-     */
-    public static void insertMessageUpdateEvent(MessageUpdateEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+    private static class MessageUpdateWrite implements PendingWrite {
+        private final long userId;
+        private final long userCreated;
+        private final String username;
+        private final long channelId;
+        private final String channelName;
+        private final long messageId;
+        private final boolean logBypass;
+        private final long timestamp;
+        private final String content;
+        private final ArrayList<AttachmentWrite> attachments = new ArrayList<AttachmentWrite>();
+
+        private MessageUpdateWrite(MessageUpdateEvent event) {
+            this.userId = event.getAuthor().getIdLong();
+            this.userCreated = event.getAuthor().getTimeCreated().toEpochSecond();
+            this.username = event.getAuthor().getName();
+            this.channelId = event.getChannel().getIdLong();
+            this.channelName = event.getChannel().getName();
+            this.messageId = event.getMessageIdLong();
+            this.logBypass = HifumiBot.getSelf().getPermissionManager().hasMessageLogBypass(event.getMessage());
+            this.timestamp = (event.getMessage().getTimeEdited() != null ? event.getMessage().getTimeEdited() : event.getMessage().getTimeCreated()).toEpochSecond();
+            this.content = event.getMessage().getContentRaw();
+
+            for (Attachment attachment : event.getMessage().getAttachments()) {
+                this.attachments.add(new AttachmentWrite(attachment));
+            }
+        }
 
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
-                INSERT INTO user (discord_id, created_datetime, username)
-                VALUES (?, ?, ?)
-                ON CONFLICT (discord_id) DO NOTHING;
-                """)) {
-            insertUser.setLong(1, event.getAuthor().getIdLong());
-            insertUser.setLong(2, event.getAuthor().getTimeCreated().toEpochSecond());
-            insertUser.setString(3, event.getAuthor().getName());
-            insertUser.executeUpdate();
+        @Override
+        public long getMessageId() {
+            return this.messageId;
+        }
+
+        @Override
+        public long getUserId() {
+            return this.userId;
+        }
+
+        @Override
+        public void execute(Connection wConn) throws SQLException {
+            try (PreparedStatement insertUser = wConn.prepareStatement("""
+                    INSERT INTO user (discord_id, created_datetime, username)
+                    VALUES (?, ?, ?)
+                    ON CONFLICT (discord_id) DO NOTHING;
+                    """)) {
+                insertUser.setLong(1, this.userId);
+                insertUser.setLong(2, this.userCreated);
+                insertUser.setString(3, this.username);
+                insertUser.executeUpdate();
+            }
 
             try (PreparedStatement insertChannel = wConn.prepareStatement("""
                     INSERT INTO channel (discord_id, name)
                     VALUES (?, ?)
                     ON CONFLICT (discord_id) DO NOTHING;
                     """)) {
-                insertChannel.setLong(1, event.getChannel().getIdLong());
-                insertChannel.setString(2, event.getChannel().getName());
+                insertChannel.setLong(1, this.channelId);
+                insertChannel.setString(2, this.channelName);
                 insertChannel.executeUpdate();
-    
-                try (PreparedStatement insertMessage = wConn.prepareStatement("""
-                        INSERT INTO message (message_id, fk_channel, fk_user)
-                        VALUES (?, ?, ?)
-                        ON CONFLICT (message_id) DO NOTHING;
+            }
+
+            try (PreparedStatement insertMessage = wConn.prepareStatement("""
+                    INSERT INTO message (message_id, fk_channel, fk_user)
+                    VALUES (?, ?, ?)
+                    ON CONFLICT (message_id) DO NOTHING;
+                    """)) {
+                insertMessage.setLong(1, this.messageId);
+                insertMessage.setLong(2, this.channelId);
+                insertMessage.setLong(3, this.userId);
+                insertMessage.executeUpdate();
+            }
+
+            if (this.logBypass) {
+                return;
+            }
+
+            if (!this.attachments.isEmpty()) {
+                try (PreparedStatement insertAttachment = wConn.prepareStatement("""
+                        INSERT INTO message_attachment (discord_id, timestamp, fk_message, content_type, proxy_url)
+                        VALUES (?, ?, ?, ?, ?)
+                        ON CONFLICT (discord_id) DO NOTHING;
                         """)) {
-                    insertMessage.setLong(1, event.getMessageIdLong());
-                    insertMessage.setLong(2, event.getChannel().getIdLong());
-                    insertMessage.setLong(3, event.getAuthor().getIdLong());
-                    insertMessage.executeUpdate();
-        
-                    if (!HifumiBot.getSelf().getPermissionManager().hasMessageLogBypass(event.getMessage())) {
-                        List<Attachment> attachments = event.getMessage().getAttachments();
-        
-                        if (!attachments.isEmpty()) {
-                            try (PreparedStatement insertAttachment = wConn.prepareStatement("""
-                                    INSERT INTO message_attachment (discord_id, timestamp, fk_message, content_type, proxy_url)
-                                    VALUES (?, ?, ?, ?, ?)
-                                    ON CONFLICT (discord_id) DO NOTHING;
-                                    """)) {
-                                for (Attachment attachment : attachments) {
-                                    insertAttachment.setLong(1, attachment.getIdLong());
-                                    insertAttachment.setLong(2, attachment.getTimeCreated().toEpochSecond());
-                                    insertAttachment.setLong(3, event.getMessageIdLong());
-                                    insertAttachment.setString(4, attachment.getContentType());
-                                    insertAttachment.setString(5, attachment.getProxyUrl());
-                                    insertAttachment.addBatch();
-                                }
-                                
-                                insertAttachment.executeBatch();
-                            }
-                        }
-        
-                        try (PreparedStatement insertEvent = wConn.prepareStatement("""
-                                INSERT INTO message_event (fk_user, fk_message, timestamp, action, content)
-                                VALUES (?, ?, ?, ?, ?);
-                                """)) {
-                            insertEvent.setLong(1, event.getAuthor().getIdLong());
-                            insertEvent.setLong(2, event.getMessageIdLong());
-                            insertEvent.setLong(3, (event.getMessage().getTimeEdited() != null ? event.getMessage().getTimeEdited() : event.getMessage().getTimeCreated()).toEpochSecond());
-                            insertEvent.setString(4, "edit");
-                            insertEvent.setString(5, event.getMessage().getContentRaw());
-                            insertEvent.executeUpdate();
-                        }
+                    for (AttachmentWrite attachment : this.attachments) {
+                        insertAttachment.setLong(1, attachment.discordId);
+                        insertAttachment.setLong(2, attachment.timestamp);
+                        insertAttachment.setLong(3, this.messageId);
+                        insertAttachment.setString(4, attachment.contentType);
+                        insertAttachment.setString(5, attachment.proxyUrl);
+                        insertAttachment.addBatch();
                     }
+                    
+                    insertAttachment.executeBatch();
                 }
             }
-        } catch (SQLException e) {
-             Messaging.logException("Database", "insertMessageUpdateEvent", e);
+
+            try (PreparedStatement insertEvent = wConn.prepareStatement("""
+                    INSERT INTO message_event (fk_user, fk_message, timestamp, action, content)
+                    VALUES (?, ?, ?, ?, ?);
+                    """)) {
+                insertEvent.setLong(1, this.userId);
+                insertEvent.setLong(2, this.messageId);
+                insertEvent.setLong(3, this.timestamp);
+                insertEvent.setString(4, "edit");
+                insertEvent.setString(5, this.content);
+                insertEvent.executeUpdate();
+            }
         }
     }
 
@@ -336,11 +415,12 @@ public class Database {
     }
 
     public static MessageObject getOriginalMessage(long messageIdLong) {
+        HifumiBot.getSelf().getSQLite().getWriteQueue().syncMessage(messageIdLong);
         MessageObject ret = null;
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the original sent message
-        try (PreparedStatement getSendEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getSendEvent = rConn.prepareStatement("""
                 SELECT
                     e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
                     m.fk_channel, m.jump_link, m.fk_reply_to_message
@@ -370,7 +450,7 @@ public class Database {
                             while (attachments.next()) {
                                 AttachmentObject attachment = new AttachmentObject(
                                     String.valueOf(attachments.getLong("discord_id")),
-                                    DateTimeUtils.longToOffsetDateTime(attachments.getLong("created")), 
+                                    DateTimeUtils.longToOffsetDateTime(attachments.getLong("timestamp")), 
                                     String.valueOf(messageIdLong),
                                     attachments.getString("filename"),
                                     attachments.getString("content_type"),
@@ -407,11 +487,12 @@ public class Database {
     }
 
     public static MessageObject getLatestMessage(long messageIdLong) {
+        HifumiBot.getSelf().getSQLite().getWriteQueue().syncMessage(messageIdLong);
         MessageObject ret = null;
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the latest revision of the message
-        try (PreparedStatement getMessageEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getMessageEvent = rConn.prepareStatement("""
                 SELECT
                     e.id, e.fk_user, e.fk_message, e.content, e.timestamp, e.action,
                     m.fk_channel, m.jump_link, m.fk_reply_to_message
@@ -479,11 +560,12 @@ public class Database {
     }
 
     public static ArrayList<MessageObject> getAllMessageRevisions(long messageIdLong) {
+        HifumiBot.getSelf().getSQLite().getWriteQueue().syncMessage(messageIdLong);
         ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the latest revision of the message
-        try (PreparedStatement getMessageEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getMessageEvent = rConn.prepareStatement("""
                 SELECT
                     e.id, e.fk_user, e.fk_message, e.content, e.timestamp AS e_timestamp, e.action,
                     m.fk_channel, m.jump_link, m.fk_reply_to_message, m.timestamp AS m_timestamp
@@ -550,11 +632,12 @@ public class Database {
     }
 
     public static ArrayList<MessageObject> getIdenticalMessagesSinceTime(long userIdLong, String contentRaw, long timestamp) {
+        HifumiBot.getSelf().getSQLite().getWriteQueue().syncUser(userIdLong);
         ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the latest revision of the message
-        try (PreparedStatement getMessageEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getMessageEvents = rConn.prepareStatement("""
                 SELECT
                     e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
                     m.fk_channel, m.jump_link, m.fk_reply_to_message
@@ -596,98 +679,56 @@ public class Database {
         return ret;
     }
 
-    public static MessageObject getIdenticalMessageSinceTimeInOtherChannel(long userIdLong, String contentRaw, long timestamp, long channelIdLong) {
-        MessageObject ret = null;
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+    /**
+     * Get every message sent by anyone since a time, reduced to who sent it where and whether it had attachments.
+     * Used to seed the in-memory rate tracker on startup.
+     * @param timestamp
+     * @return
+     */
+    public static ArrayList<MessageActivityObject> getMessageActivitySinceTime(long timestamp) {
+        ArrayList<MessageActivityObject> ret = new ArrayList<MessageActivityObject>();
 
-        // First get the latest revision of the message
-        try (PreparedStatement getMessageEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getMessageEvents = rConn.prepareStatement("""
                 SELECT
-                    e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
-                    m.fk_channel, m.jump_link, m.fk_reply_to_message
+                    e.fk_user, m.fk_channel, e.timestamp,
+                    EXISTS (
+                        SELECT 1
+                        FROM message_attachment AS a
+                        WHERE a.fk_message = e.fk_message
+                    ) AS has_attachments
                 FROM message_event AS e
                 INNER JOIN message AS m ON e.fk_message = m.message_id
-                WHERE e.fk_user = ?
-                AND e.content = ?
-                AND e.action = 'send'
+                WHERE e.action = 'send'
                 AND e.timestamp >= ?
-                AND e.fk_message NOT IN (
-                    SELECT fk_message
-                    FROM message_event
-                    WHERE fk_message = e.fk_message
-                    AND action = 'delete'
-                )
-                AND NOT m.fk_channel = ?
-                ORDER BY e.timestamp DESC
-                LIMIT 1;
+                ORDER BY e.timestamp ASC;
                 """)) {
-            getMessageEvents.setLong(1, userIdLong);
-            getMessageEvents.setString(2, contentRaw);
-            getMessageEvents.setLong(3, timestamp);
-            getMessageEvents.setLong(4, channelIdLong);
+            getMessageEvents.setLong(1, timestamp);
             
             try (ResultSet res = getMessageEvents.executeQuery()) {
-                if (res.next()) {
-                    ret = new MessageObject(
-                        res.getLong("fk_message"),
+                while (res.next()) {
+                    ret.add(new MessageActivityObject(
                         res.getLong("fk_user"),
-                        DateTimeUtils.longToOffsetDateTime(res.getLong("timestamp")),
-                        null,
                         res.getLong("fk_channel"),
-                        res.getString("content"),
-                        res.getString("jump_link"),
-                        null,
-                        null
-                    );
-                }
-            }
-
-            return ret;
-        } catch (SQLException e) {
-            Messaging.logException("Database", "getIdenticalMessageSinceTimeInOtherChannel", e);
-        }
-        
-        return ret;
-    }
-    
-    public static HashMap<Long, Integer> getMessageAggregateCountsByChannelSinceTime(long userIdLong, long timestamp) {
-        HashMap<Long, Integer> ret = new HashMap<Long, Integer>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
-        
-        try (PreparedStatement getAggregateMessages = rConn.prepareStatement("""
-                SELECT
-                    COUNT(m.message_id) AS message_count, m.fk_channel
-                FROM message_event AS e
-                INNER JOIN message AS m ON e.fk_message = m.message_id
-                WHERE e.fk_user = ?
-                AND e.action = 'send'
-                AND e.timestamp >= ?
-                GROUP BY m.fk_channel
-                ORDER BY e.timestamp DESC
-                """)) {
-            getAggregateMessages.setLong(1, userIdLong);
-            getAggregateMessages.setLong(2, timestamp);
-            
-            try (ResultSet res = getAggregateMessages.executeQuery()) {
-                while (res.next()) {
-                    Long channelId = res.getLong("fk_channel");
-                    Integer messageCount = res.getInt("message_count");
-                    ret.put(channelId, messageCount);
+                        res.getLong("timestamp"),
+                        res.getBoolean("has_attachments")
+                    ));
                 }
             }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getMessageAggregateCountsByChannelSinceTime", e);
+            Messaging.logException("Database", "getMessageActivitySinceTime", e);
         }
         
         return ret;
     }
 
     public static ArrayList<MessageObject> getAllMessagesSinceTime(long userIdLong, long timestamp) {
+        HifumiBot.getSelf().getSQLite().getWriteQueue().syncUser(userIdLong);
         ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the latest revision of the message
-        try (PreparedStatement getMessageEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getMessageEvents = rConn.prepareStatement("""
                 SELECT
                     e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
                     m.fk_channel, m.jump_link, m.fk_reply_to_message
@@ -728,11 +769,12 @@ public class Database {
     }
     
     public static ArrayList<MessageObject> getAllMessagesSinceTimeExcept(long userIdLong, long timestamp, long exceptedMessageId) {
+        HifumiBot.getSelf().getSQLite().getWriteQueue().syncUser(userIdLong);
         ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // First get the latest revision of the message
-        try (PreparedStatement getMessageEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getMessageEvents = rConn.prepareStatement("""
                 SELECT
                     e.id, e.fk_user, e.fk_message, e.content, e.timestamp,
                     m.message_id, m.fk_channel, m.jump_link, m.fk_reply_to_message
@@ -773,53 +815,10 @@ public class Database {
         
         return ret;
     }
-    
-    public static ArrayList<MessageObject> getMessagesWithAttachmentsAggregateByChannelSinceTime(long userIdLong, long timestamp) {
-        ArrayList<MessageObject> ret = new ArrayList<MessageObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
-
-        try (PreparedStatement getMessages = rConn.prepareStatement("""
-                SELECT m.message_id, m.fk_user, MAX(m.timestamp) AS max_timestamp, m.fk_channel
-                FROM message_attachment AS a
-                INNER JOIN message AS m ON m.message_id = a.fk_message
-                WHERE m.fk_user = ?
-                AND m.timestamp >= ?
-                GROUP BY m.fk_channel
-                ORDER BY m.timestamp DESC;
-                """)) {
-            getMessages.setLong(1, userIdLong);
-            getMessages.setLong(2, timestamp);
-            
-            try (ResultSet res = getMessages.executeQuery()) {
-                while (res.next()) {
-                    MessageObject messageObj = new MessageObject(
-                        res.getLong("message_id"),
-                        res.getLong("fk_user"),
-                        DateTimeUtils.longToOffsetDateTime(res.getLong("max_timestamp")),
-                        null,
-                        res.getLong("fk_channel"),
-                        null,
-                        null,
-                        null,
-                        null
-                    );
-
-                    ret.add(messageObj);
-                }
-            }
-
-            return ret;
-        } catch (SQLException e) {
-            Messaging.logException("Database", "getMessagesWithAttachmentsAggregateByChannelSinceTime", e);
-        }
-        
-        return ret;
-    }
 
     public static boolean insertWarezEvent(WarezEventObject warezEvent, User user) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?)
                 ON CONFLICT (discord_id) DO NOTHING;
@@ -855,9 +854,9 @@ public class Database {
 
     public static Optional<WarezEventObject> getLatestWarezAction(long userIdLong) {
         Optional<WarezEventObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getWarezEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getWarezEvent = rConn.prepareStatement("""
                 SELECT timestamp, fk_user, action, fk_message
                 FROM warez_event
                 WHERE fk_user = ?
@@ -887,9 +886,9 @@ public class Database {
 
     public static ArrayList<WarezEventObject> getAllWarezActionsForUser(long userIdLong) {
         ArrayList<WarezEventObject> ret = new ArrayList<WarezEventObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getWarezEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getWarezEvents = rConn.prepareStatement("""
                 SELECT e.timestamp, e.fk_user, e.action, e.fk_message, m.content, m.action AS message_action, COUNT(a.discord_id) AS attachments
                 FROM warez_event AS e
                 LEFT JOIN message_event AS m ON e.fk_message = m.fk_message
@@ -922,10 +921,9 @@ public class Database {
 
     public static ArrayList<ArrayList<WarezEventObject>> getAllWarezActionsForUserPaginated(long userIdLong) {
         ArrayList<ArrayList<WarezEventObject>> ret = new ArrayList<ArrayList<WarezEventObject>>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // Catch outside the loop so we can just gracefully exit with whatever we got up to that point.
-        try {
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection()) {
             boolean isEmpty = false;
             long timestamp = OffsetDateTime.now().toEpochSecond();
             int rowsReturned = 0;
@@ -982,10 +980,10 @@ public class Database {
 
     public static ArrayList<WarezChartData> getWarezAssignmentsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<WarezChartData> ret = new ArrayList<WarezChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getWarezEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getWarezEvent = rConn.prepareStatement("""
                 SELECT COUNT(timestamp) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit, action
                 FROM warez_event
                 WHERE timestamp >= ?
@@ -1015,9 +1013,11 @@ public class Database {
     }
 
     public static void insertMemberJoinEvent(GuildMemberJoinEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+        // Resolve the join time before taking the writer, so a slow REST call doesn't hold it up for everyone else.
+        long timeJoined = event.getGuild().retrieveMemberById(event.getMember().getId()).complete().getTimeJoined().toEpochSecond();
 
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?)
                 ON CONFLICT (discord_id) DO NOTHING;
@@ -1031,7 +1031,7 @@ public class Database {
                     INSERT INTO member_event (timestamp, fk_user, action)
                     VALUES (?, ?, ?);
                     """)) {
-                insertEvent.setLong(1, event.getGuild().retrieveMemberById(event.getMember().getId()).complete().getTimeJoined().toEpochSecond());
+                insertEvent.setLong(1, timeJoined);
                 insertEvent.setLong(2, event.getMember().getIdLong());
                 insertEvent.setString(3, "join");
                 insertEvent.executeUpdate();
@@ -1043,9 +1043,9 @@ public class Database {
 
     public static ArrayList<MemberEventObject> getRecentMemberEvents(long userId) {
         ArrayList<MemberEventObject> ret = new ArrayList<MemberEventObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement events = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement events = rConn.prepareStatement("""
                 SELECT timestamp, fk_user, action
                 FROM member_event
                 WHERE fk_user = ?
@@ -1073,10 +1073,9 @@ public class Database {
 
     public static ArrayList<ArrayList<MemberEventObject>> getAllMemberEventsPaginated(long userId) {
         ArrayList<ArrayList<MemberEventObject>> ret = new ArrayList<ArrayList<MemberEventObject>>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
         // Catch outside the loop so we can just gracefully exit with whatever we got up to that point.
-        try {
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection()) {
             boolean isEmpty = false;
             long timestamp = OffsetDateTime.now().toEpochSecond();
             int rowsReturned = 0;
@@ -1126,10 +1125,10 @@ public class Database {
 
     public static ArrayList<MemberChartData> getMemberEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<MemberChartData> ret = new ArrayList<MemberChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
 
-        try (PreparedStatement events = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement events = rConn.prepareStatement("""
                 SELECT COUNT(timestamp) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit, action
                 FROM member_event
                 WHERE timestamp >= ?
@@ -1164,9 +1163,8 @@ public class Database {
     }
 
     public static void insertMemberRemoveEvent(GuildMemberRemoveEvent event, OffsetDateTime time) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?)
                 ON CONFLICT (discord_id) DO NOTHING;
@@ -1191,9 +1189,8 @@ public class Database {
     }
 
     public static void insertMemberBanEvent(GuildBanEvent event, OffsetDateTime time) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?) ON CONFLICT (discord_id) DO NOTHING;
                 """)) {
@@ -1221,9 +1218,8 @@ public class Database {
      * @param automodEvent
      */
     public static void insertAutoModEvent(AutoModExecutionEvent event, User user, OffsetDateTime time) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?)
                 ON CONFLICT (discord_id) DO NOTHING;
@@ -1284,9 +1280,9 @@ public class Database {
 
     public static ArrayList<AutoModEventObject> getAutoModEventsSinceTime(long userIdLong, OffsetDateTime time) {
         ArrayList<AutoModEventObject> ret = new ArrayList<AutoModEventObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getFilterEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getFilterEvent = rConn.prepareStatement("""
                 SELECT
                 fk_user, fk_message, fk_channel, alert_message_id, rule_id, timestamp, trigger, content, matched_content, matched_keyword, response_type
                 FROM automod_event
@@ -1329,9 +1325,9 @@ public class Database {
 
     public static ArrayList<AutoModEventObject> getAllAutoModEvents(long userIdLong) {
         ArrayList<AutoModEventObject> ret = new ArrayList<AutoModEventObject>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getFilterEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getFilterEvent = rConn.prepareStatement("""
                 SELECT
                 fk_user, fk_message, fk_channel, alert_message_id, rule_id, timestamp, trigger, content, matched_content, matched_keyword, response_type
                 FROM automod_event
@@ -1376,9 +1372,8 @@ public class Database {
 
     public static ArrayList<ArrayList<AutoModEventObject>> getAllAutoModEventsPaginated(long userIdLong) {
         ArrayList<ArrayList<AutoModEventObject>> ret = new ArrayList<ArrayList<AutoModEventObject>>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try {
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection()) {
             boolean isEmpty = false;
             long timestamp = OffsetDateTime.now().toEpochSecond();
             int rowsReturned = 0;
@@ -1443,9 +1438,8 @@ public class Database {
     }
 
     public static void insertCounter(String type, long timestamp, long value) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertCounter = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertCounter = wConn.prepareStatement("""
                     INSERT INTO counter (type, timestamp, value)
                     VALUES (?, ?, ?);
                     """)) {
@@ -1460,9 +1454,9 @@ public class Database {
 
     public static CounterObject getLatestCounter(String type) {
         CounterObject ret = null;
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getCounter = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getCounter = rConn.prepareStatement("""
                 SELECT
                 type, timestamp, value
                 FROM counter
@@ -1489,9 +1483,8 @@ public class Database {
     }
 
     public static void insertCommandEvent(long commandIdLong, String type, String name, String group, String sub, long eventIdLong, User user, long channelIdLong, long timestamp, boolean ninja, List<OptionMapping> options) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?)
                 ON CONFLICT (discord_id) DO NOTHING;
@@ -1572,9 +1565,9 @@ public class Database {
      */
     public static Optional<CommandEventObject> getLatestCommandEventNotFromUser(long channelIdLong, long commandIdLong, long userIdLong) {
         Optional<CommandEventObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getCommandEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getCommandEvent = rConn.prepareStatement("""
                 SELECT e.discord_id, e.command_fk, e.user_fk, e.timestamp
                 FROM command_event AS e
                 INNER JOIN command AS c ON c.discord_id = e.command_fk
@@ -1612,10 +1605,10 @@ public class Database {
 
     public static ArrayList<AutomodChartData> getAutomodEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<AutomodChartData> ret = new ArrayList<AutomodChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getAutomodEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getAutomodEvents = rConn.prepareStatement("""
                 SELECT COUNT(timestamp) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit, trigger
                 FROM automod_event
                 WHERE timestamp >= ?
@@ -1645,9 +1638,8 @@ public class Database {
     }
 
     public static void insertUsernameChangeEvent(UserUpdateNameEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertUser = wConn.prepareStatement("""
                 INSERT INTO user (discord_id, created_datetime, username)
                 VALUES (?, ?, ?)
                 ON CONFLICT (discord_id) DO NOTHING;
@@ -1672,9 +1664,8 @@ public class Database {
     }
 
     public static void insertDisplayNameChangeEvent(UserUpdateGlobalNameEvent event) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertUser = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertUser = wConn.prepareStatement("""
                     INSERT INTO user (discord_id, created_datetime, username)
                     VALUES (?, ?, ?)
                     ON CONFLICT (discord_id) DO NOTHING;
@@ -1699,9 +1690,8 @@ public class Database {
     }
 
     public static void insertInteractionEvent(long eventId, long timestamp, long userId) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-
-        try (PreparedStatement insertInteractionEvent = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertInteractionEvent = wConn.prepareStatement("""
                     INSERT INTO interaction_event (id, timestamp, user_fk)
                     VALUES (?, ?, ?);
                     """)) {
@@ -1716,9 +1706,9 @@ public class Database {
 
     public static Optional<InteractionEventObject> getInteractionEvent(long eventId, long userId) {
         Optional<InteractionEventObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
 
-        try (PreparedStatement getInteractionEvent = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getInteractionEvent = rConn.prepareStatement("""
                 SELECT id, timestamp, user_fk
                 FROM interaction_event
                 WHERE id = ?
@@ -1745,17 +1735,28 @@ public class Database {
         return ret;
     }
     
-    public static void insertScamHash(String sha256, String description) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertScamHash = wConn.prepareStatement("""
-                INSERT INTO scam_hash (sha256, timestamp, description, active)
-                VALUES (?, ?, ?, true)
+    /**
+     * @param sha256
+     * @param description
+     * @param dHash Perceptual hash of the image, if it was available.
+     */
+    public static void insertScamHash(String sha256, String description, OptionalLong dHash) {
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertScamHash = wConn.prepareStatement("""
+                INSERT INTO scam_hash (sha256, timestamp, description, active, dhash)
+                VALUES (?, ?, ?, true, ?)
                 ON CONFLICT (sha256) DO NOTHING;
                 """)) {
             insertScamHash.setString(1, sha256);
             insertScamHash.setLong(2, OffsetDateTime.now().toEpochSecond());
             insertScamHash.setString(3, description);
+            
+            if (dHash.isPresent()) {
+                insertScamHash.setLong(4, dHash.getAsLong());
+            } else {
+                insertScamHash.setNull(4, Types.INTEGER);
+            }
+            
             insertScamHash.executeUpdate();
         } catch (SQLException e) {
             Messaging.logException("Database", "insertScamHash", e);
@@ -1763,9 +1764,8 @@ public class Database {
     }
     
     public static void updateScamHash(String sha256, boolean state) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement updateScamHash = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement updateScamHash = wConn.prepareStatement("""
                 UPDATE scam_hash
                 SET active = ?
                 WHERE sha256 = ?;
@@ -1779,9 +1779,8 @@ public class Database {
     }
     
     public static void updateScamHash(String sha256, boolean state, String description) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement updateScamHash = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement updateScamHash = wConn.prepareStatement("""
                 UPDATE scam_hash
                 SET active = ?, description = ?
                 WHERE sha256 = ?;
@@ -1795,15 +1794,14 @@ public class Database {
         }
     }
     
-    public static Optional<ScamHashObject> getActiveScamHash(String sha256) {
+    public static Optional<ScamHashObject> getScamHash(String sha256) {
         Optional<ScamHashObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         
-        try (PreparedStatement getScamHash = rConn.prepareStatement("""
-                SELECT sha256, timestamp, description, active
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getScamHash = rConn.prepareStatement("""
+                SELECT sha256, timestamp, description, active, dhash
                 FROM scam_hash
                 WHERE sha256 = ?
-                AND active = true
                 """)) {
             getScamHash.setString(1, sha256);
             
@@ -1813,65 +1811,92 @@ public class Database {
                             res.getString("sha256"), 
                             res.getLong("timestamp"), 
                             res.getString("description"),
-                            res.getBoolean("active")
+                            res.getBoolean("active"),
+                            res.getObject("dhash") != null ? OptionalLong.of(res.getLong("dhash")) : OptionalLong.empty()
                     ));
                 }
             }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getActiveScamHash", e);
+            Messaging.logException("Database", "getScamHash", e);
         }
         
         return ret;
     }
     
-    public static Optional<ScamHashObject> getScamHash(String sha256) {
-        Optional<ScamHashObject> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+    /**
+     * Get every active scam hash, for building the in-memory index.
+     * @return
+     */
+    public static ArrayList<ScamHashObject> getActiveScamHashes() {
+        ArrayList<ScamHashObject> ret = new ArrayList<ScamHashObject>();
         
-        try (PreparedStatement getScamHash = rConn.prepareStatement("""
-                SELECT sha256, timestamp, description, active
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getScamHashes = rConn.prepareStatement("""
+                SELECT sha256, timestamp, description, active, dhash
                 FROM scam_hash
-                WHERE sha256 = ?
+                WHERE active = true;
                 """)) {
-            getScamHash.setString(1, sha256);
-            
-            try (ResultSet res = getScamHash.executeQuery()) {
-                if (res.next()) {
-                    ret = Optional.of(new ScamHashObject(
+            try (ResultSet res = getScamHashes.executeQuery()) {
+                while (res.next()) {
+                    ret.add(new ScamHashObject(
                             res.getString("sha256"), 
                             res.getLong("timestamp"), 
                             res.getString("description"),
-                            res.getBoolean("active")
+                            res.getBoolean("active"),
+                            res.getObject("dhash") != null ? OptionalLong.of(res.getLong("dhash")) : OptionalLong.empty()
                     ));
                 }
             }
         } catch (SQLException e) {
-            Messaging.logException("Database", "getScamHash", e);
+            Messaging.logException("Database", "getActiveScamHashes", e);
         }
         
         return ret;
     }
     
+    /**
+     * Queued on the write-behind queue, behind the insert of the message it points to.
+     * @param timestamp
+     * @param sha256
+     * @param messageId
+     */
     public static void insertScamHashMatch(long timestamp, String sha256, long messageId) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertScamHashMatch = wConn.prepareStatement("""
-                INSERT INTO scam_hash_match (timestamp, fk_scam_hash, fk_message)
-                VALUES (?, ?, ?);
-                """)) {
-            insertScamHashMatch.setLong(1, OffsetDateTime.now().toEpochSecond());
-            insertScamHashMatch.setString(2, sha256);
-            insertScamHashMatch.setLong(3, messageId);
-            insertScamHashMatch.executeUpdate();
-        } catch (SQLException e) {
-            Messaging.logException("Database", "insertScamHashMatch", e);
+        HifumiBot.getSelf().getSQLite().getWriteQueue().enqueue(new ScamHashMatchWrite(timestamp, sha256, messageId));
+    }
+    
+    private static class ScamHashMatchWrite implements PendingWrite {
+        private final long timestamp;
+        private final String sha256;
+        private final long messageId;
+
+        private ScamHashMatchWrite(long timestamp, String sha256, long messageId) {
+            this.timestamp = timestamp;
+            this.sha256 = sha256;
+            this.messageId = messageId;
+        }
+
+        @Override
+        public long getMessageId() {
+            return this.messageId;
+        }
+
+        @Override
+        public void execute(Connection wConn) throws SQLException {
+            try (PreparedStatement insertScamHashMatch = wConn.prepareStatement("""
+                    INSERT INTO scam_hash_match (timestamp, fk_scam_hash, fk_message)
+                    VALUES (?, ?, ?);
+                    """)) {
+                insertScamHashMatch.setLong(1, this.timestamp);
+                insertScamHashMatch.setString(2, this.sha256);
+                insertScamHashMatch.setLong(3, this.messageId);
+                insertScamHashMatch.executeUpdate();
+            }
         }
     }
     
     public static void insertHoneypotEvent(long timestamp, long userId, long messageId) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertHoneypotEvent = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertHoneypotEvent = wConn.prepareStatement("""
                 INSERT INTO honeypot_event (timestamp, fk_user, fk_message)
                 VALUES (?, ?, ?);
                 """)) {
@@ -1885,9 +1910,8 @@ public class Database {
     }
     
     public static void insertAntiBotEvent(long timestamp, long userId) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertAntiBotEvent = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertAntiBotEvent = wConn.prepareStatement("""
                 INSERT INTO antibot_event (timestamp, fk_user)
                 VALUES (?, ?);
                 """)) {
@@ -1901,10 +1925,10 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getSpamkickCommandEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getSpamkickCommandEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getSpamkickCommandEvents = rConn.prepareStatement("""
                 SELECT COUNT(e.discord_id) AS events, STRFTIME(?, DATETIME(e.timestamp, 'unixepoch')) AS timeUnit
                 FROM command_event AS e
             	INNER JOIN command AS cmd ON cmd.discord_id = e.command_fk
@@ -1937,10 +1961,10 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getHoneypotEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getHoneypotEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getHoneypotEvents = rConn.prepareStatement("""
                 SELECT COUNT(id) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit
                 FROM honeypot_event
             	WHERE timestamp >= ?
@@ -1971,9 +1995,9 @@ public class Database {
     
     public static Optional<Integer> getHoneypotEventCountSince(long startTimestamp) {
         Optional<Integer> ret = Optional.empty();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         
-        try (PreparedStatement getHoneypotEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getHoneypotEvents = rConn.prepareStatement("""
                 SELECT COUNT(id) AS event_count
                 FROM spamkick_event
                 WHERE timestamp >= ?
@@ -1995,10 +2019,10 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getHashMatchesBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getHashMatches = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getHashMatches = rConn.prepareStatement("""
                 SELECT COUNT(id) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit
                 FROM scam_hash_match
             	WHERE timestamp >= ?
@@ -2030,10 +2054,10 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getAntiBotEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getAntiBotEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getAntiBotEvents = rConn.prepareStatement("""
                 SELECT COUNT(id) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit
                 FROM antibot_event
             	WHERE timestamp >= ?
@@ -2063,9 +2087,8 @@ public class Database {
     }
     
     public static void insertSpamkickEvent(long timestamp, long userId, String type, Optional<Long> messageIdOpt) {
-        Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
-        
-        try (PreparedStatement insertSpamkick = wConn.prepareStatement("""
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement insertSpamkick = wConn.prepareStatement("""
                 INSERT INTO spamkick_event (timestamp, fk_user, type, fk_message)
                 VALUES (?, ?, ?, ?);
                 """)) {
@@ -2087,10 +2110,10 @@ public class Database {
     
     public static ArrayList<SpamkickChartData> getSpamkickEventsBetween(long startTimestamp, long endTimestamp, String timeUnit) {
         ArrayList<SpamkickChartData> ret = new ArrayList<SpamkickChartData>();
-        Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
         String formatStr = TimeUtils.getSQLFormatStringFromTimeUnit(timeUnit);
         
-        try (PreparedStatement getSpamkickEvents = rConn.prepareStatement("""
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getSpamkickEvents = rConn.prepareStatement("""
                 SELECT COUNT(id) AS events, STRFTIME(?, DATETIME(timestamp, 'unixepoch')) AS timeUnit, type
                 FROM spamkick_event
                 WHERE timestamp >= ?
@@ -2118,4 +2141,198 @@ public class Database {
         
         return ret;
     }
+    
+    /**
+     * @param parserType
+     * @param contentSHA3
+     * @param rulesVersion
+     * @param createdSince Results created before this are treated as expired.
+     * @return
+     */
+    public static Optional<ParseResultObject> getParseResult(String parserType, String contentSHA3, String rulesVersion, long createdSince) {
+        Optional<ParseResultObject> ret = Optional.empty();
+        
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getParseResult = rConn.prepareStatement("""
+                SELECT parser_type, content_sha3, rules_version, created_at, summary, body
+                FROM parse_result
+                WHERE parser_type = ?
+                AND content_sha3 = ?
+                AND rules_version = ?
+                AND created_at >= ?;
+                """)) {
+            getParseResult.setString(1, parserType);
+            getParseResult.setString(2, contentSHA3);
+            getParseResult.setString(3, rulesVersion);
+            getParseResult.setLong(4, createdSince);
+            
+            try (ResultSet res = getParseResult.executeQuery()) {
+                if (res.next()) {
+                    ret = Optional.of(new ParseResultObject(
+                            res.getString("parser_type"), 
+                            res.getString("content_sha3"), 
+                            res.getString("rules_version"),
+                            res.getLong("created_at"),
+                            res.getString("summary"),
+                            Optional.ofNullable(res.getString("body"))
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            Messaging.logException("Database", "getParseResult", e);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Store a parser's result, replacing any older one for the same key.
+     * Queued to the write-behind writer; returns before the row is committed, so a lookup straight after may still miss.
+     * @param result
+     * @param size
+     */
+    public static void insertParseResult(ParseResultObject result, long size) {
+        HifumiBot.getSelf().getSQLite().getWriteQueue().enqueue(new ParseResultInsertWrite(result, size));
+    }
+    
+    /**
+     * Mark a parse result as used, for least recently used pruning.
+     * Queued to the write-behind writer; only needs to land eventually.
+     * @param parserType
+     * @param contentSHA3
+     * @param rulesVersion
+     * @param timestamp
+     */
+    public static void updateParseResultLastUsed(String parserType, String contentSHA3, String rulesVersion, long timestamp) {
+        HifumiBot.getSelf().getSQLite().getWriteQueue().enqueue(new ParseResultLastUsedWrite(parserType, contentSHA3, rulesVersion, timestamp));
+    }
+    
+    private static class ParseResultInsertWrite implements PendingWrite {
+        private final ParseResultObject result;
+        private final long size;
+
+        private ParseResultInsertWrite(ParseResultObject result, long size) {
+            this.result = result;
+            this.size = size;
+        }
+
+        @Override
+        public void execute(Connection wConn) throws SQLException {
+            try (PreparedStatement insertParseResult = wConn.prepareStatement("""
+                    INSERT INTO parse_result (parser_type, content_sha3, rules_version, created_at, last_used_at, summary, body, size)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (parser_type, content_sha3, rules_version) DO UPDATE
+                    SET created_at = excluded.created_at, last_used_at = excluded.last_used_at, summary = excluded.summary, body = excluded.body, size = excluded.size;
+                    """)) {
+                insertParseResult.setString(1, this.result.getParserType());
+                insertParseResult.setString(2, this.result.getContentSHA3());
+                insertParseResult.setString(3, this.result.getRulesVersion());
+                insertParseResult.setLong(4, this.result.getCreatedAt());
+                insertParseResult.setLong(5, this.result.getCreatedAt());
+                insertParseResult.setString(6, this.result.getSummary());
+                
+                if (this.result.getBody().isPresent()) {
+                    insertParseResult.setString(7, this.result.getBody().get());
+                } else {
+                    insertParseResult.setNull(7, Types.VARCHAR);
+                }
+                
+                insertParseResult.setLong(8, this.size);
+                insertParseResult.executeUpdate();
+            }
+        }
+    }
+    
+    private static class ParseResultLastUsedWrite implements PendingWrite {
+        private final String parserType;
+        private final String contentSHA3;
+        private final String rulesVersion;
+        private final long timestamp;
+
+        private ParseResultLastUsedWrite(String parserType, String contentSHA3, String rulesVersion, long timestamp) {
+            this.parserType = parserType;
+            this.contentSHA3 = contentSHA3;
+            this.rulesVersion = rulesVersion;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public void execute(Connection wConn) throws SQLException {
+            try (PreparedStatement updateParseResult = wConn.prepareStatement("""
+                    UPDATE parse_result
+                    SET last_used_at = ?
+                    WHERE parser_type = ?
+                    AND content_sha3 = ?
+                    AND rules_version = ?;
+                    """)) {
+                updateParseResult.setLong(1, this.timestamp);
+                updateParseResult.setString(2, this.parserType);
+                updateParseResult.setString(3, this.contentSHA3);
+                updateParseResult.setString(4, this.rulesVersion);
+                updateParseResult.executeUpdate();
+            }
+        }
+    }
+    
+    /**
+     * Delete expired parse results, then the least recently used until both bounds are met.
+     * @param createdBefore
+     * @param maxEntries
+     * @param maxBytes
+     * @return How many were deleted.
+     */
+    public static int deleteStaleParseResults(long createdBefore, int maxEntries, long maxBytes) {
+        int ret = 0;
+        
+        try (Connection wConn = HifumiBot.getSelf().getSQLite().getWriteConnection();
+             PreparedStatement deleteExpired = wConn.prepareStatement("""
+                -- audit: allow scan, the cache is capped by parseCacheOptions.maxEntries and only pruned hourly
+                DELETE FROM parse_result
+                WHERE created_at < ?;
+                """);
+             PreparedStatement deleteOverLimit = wConn.prepareStatement("""
+                -- audit: allow scan, ranking every entry by last use is how the least recently used are found
+                DELETE FROM parse_result
+                WHERE rowid IN (
+                    SELECT rowid FROM (
+                        SELECT rowid,
+                            ROW_NUMBER() OVER (ORDER BY last_used_at DESC) AS position,
+                            SUM(size) OVER (ORDER BY last_used_at DESC ROWS UNBOUNDED PRECEDING) AS running_size
+                        FROM parse_result
+                    )
+                    WHERE position > ?
+                    OR running_size > ?
+                );
+                """)) {
+            deleteExpired.setLong(1, createdBefore);
+            ret += deleteExpired.executeUpdate();
+            deleteOverLimit.setInt(1, maxEntries);
+            deleteOverLimit.setLong(2, maxBytes);
+            ret += deleteOverLimit.executeUpdate();
+        } catch (SQLException e) {
+            Messaging.logException("Database", "deleteStaleParseResults", e);
+        }
+        
+        return ret;
+    }
+    
+    public static long getParseResultSizeBytes() {
+        long ret = 0;
+        
+        try (Connection rConn = HifumiBot.getSelf().getSQLite().getReadConnection();
+             PreparedStatement getSize = rConn.prepareStatement("""
+                -- audit: allow scan, totals the whole cache and is only run for /about
+                SELECT COALESCE(SUM(size), 0) AS total
+                FROM parse_result;
+                """);
+             ResultSet res = getSize.executeQuery()) {
+            if (res.next()) {
+                ret = res.getLong("total");
+            }
+        } catch (SQLException e) {
+            Messaging.logException("Database", "getParseResultSizeBytes", e);
+        }
+        
+        return ret;
+    }
 }
@@ -0,0 +1,356 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.pcsx2.hifumi.util.Log;
+import net.pcsx2.hifumi.util.Messaging;
+
+/**
+ * Applies schema migrations exactly once, recording each one in the schema_version table
+ * along with a checksum of what was run.
+ * <br><br>
+ * SQL migrations run synchronously at startup, each in its own transaction, since the rest of the bot
+ * expects the schema to be in place. {@link ChunkedMigration}s run afterwards on a background thread.
+ */
+public class MigrationRunner {
+
+    // NOTE: order is important here; each file's version is its numeric prefix and must only ever go up.
+    // Once a file has shipped, do not edit it: add a new one instead.
+    // A file may contain several statements, which are all run in the same transaction.
+    private static final String[] SCHEMA_MIGRATIONS = {
+        "000-create-user-table.sql",
+        "001-create-channel-table.sql",
+        "002-create-message-table.sql",
+        "003-create-message-attachment-table.sql",
+        "004-create-message-embed-table.sql",
+        "005-create-message-event-table.sql",
+        "006-create-user-displayname-event-table.sql",
+        "007-create-user-username-event-table.sql",
+        "008-create-warez-event-table.sql",
+        "009-create-member-event-table.sql",
+        "010-create-interaction-event-table.sql",
+        "011-create-filter-event-table.sql",
+        "012-create-counter-table.sql",
+        "013-create-command-table.sql",
+        "014-create-command-event-table.sql",
+        "015-create-command-event-option-table.sql",
+        "016-create-automod-event-table.sql",
+        "017-create-scam-hash-table.sql",
+        "018-create-scam-hash-match-table.sql",
+        "019-create-honeypot-event-table.sql",
+        "020-create-antibot-event-table.sql",
+        "021-create-spamkick-event-table.sql",
+        "022-create-spamkick-event-timestamp-index.sql",
+        "023-create-message-event-user-action-timestamp-index.sql",
+        "024-create-message-event-message-action-timestamp-index.sql",
+        "025-create-message-user-timestamp-index.sql",
+        "026-create-message-attachment-message-index.sql",
+        "027-create-warez-event-user-timestamp-index.sql",
+        "028-create-warez-event-timestamp-index.sql",
+        "029-create-member-event-user-timestamp-index.sql",
+        "030-create-member-event-timestamp-index.sql",
+        "031-create-automod-event-user-response-timestamp-index.sql",
+        "032-create-automod-event-timestamp-index.sql",
+        "033-create-counter-type-timestamp-index.sql",
+        "034-create-command-event-channel-command-timestamp-index.sql",
+        "035-create-command-event-command-timestamp-index.sql",
+        "036-create-honeypot-event-timestamp-index.sql",
+        "037-create-scam-hash-match-timestamp-index.sql",
+        "038-create-antibot-event-timestamp-index.sql",
+        "039-create-spamkick-event-type-timestamp-index.sql",
+        "040-create-command-name-index.sql",
+        "041-create-message-event-action-timestamp-index.sql",
+        "042-add-scam-hash-dhash-column.sql",
+        "043-create-scam-hash-active-index.sql",
+        "044-create-parse-result-table.sql",
+        "045-create-parse-result-last-used-index.sql"
+    };
+
+    // Backfills and other long-running migrations, run in order after startup.
+    private static final List<ChunkedMigration> CHUNKED_MIGRATIONS = List.of();
+
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final List<ChunkedMigration> chunkedMigrations;
+    private SQLite sqlite;
+    private final HashMap<Integer, String> applied = new HashMap<Integer, String>();
+    private Thread chunkedThread = null;
+    private volatile boolean running = true;
+
+    public MigrationRunner() {
+        this(CHUNKED_MIGRATIONS);
+    }
+
+    /**
+     * @param chunkedMigrations Run in place of the built in list; for tests.
+     */
+    MigrationRunner(List<ChunkedMigration> chunkedMigrations) {
+        this.chunkedMigrations = chunkedMigrations;
+    }
+
+    /**
+     * Apply any SQL migrations which have not been applied yet.
+     * @param wConn The raw writer connection; called before the database is handed out to anyone else.
+     * @throws RuntimeException If a migration fails, or one which was already applied has since been edited.
+     * A failed migration is rolled back, but earlier ones stay applied.
+     */
+    public void runSchemaMigrations(Connection wConn) {
+        try {
+            try (Statement statement = wConn.createStatement()) {
+                statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS
+                      "schema_version" (
+                        "version" INTEGER NOT NULL UNIQUE,
+                        "name" TEXT NOT NULL,
+                        "checksum" TEXT NOT NULL,
+                        "applied_at" INTEGER NOT NULL,
+                        "duration_ms" INTEGER NOT NULL,
+                        PRIMARY KEY ("version")
+                    );
+                    """);
+            }
+
+            try (Statement statement = wConn.createStatement();
+                 ResultSet res = statement.executeQuery("SELECT version, checksum FROM schema_version;")) {
+                while (res.next()) {
+                    this.applied.put(res.getInt("version"), res.getString("checksum"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Unable to read schema_version", e);
+        }
+
+        this.checkVersionsAreUnique();
+        int count = 0;
+
+        for (String migrationFile : SCHEMA_MIGRATIONS) {
+            int version = parseVersion(migrationFile);
+            String sql = readMigration(migrationFile);
+            String checksum = checksum(sql);
+            String appliedChecksum = this.applied.get(version);
+
+            if (appliedChecksum != null) {
+                // The schema on disk no longer matches the file, so the rest of the bot can't trust either
+                if (!appliedChecksum.equals(checksum)) {
+                    throw new RuntimeException("Migration " + migrationFile + " has changed since it was applied. Revert it and put schema changes in a new migration instead.");
+                }
+
+                continue;
+            }
+
+            long start = System.nanoTime();
+
+            try {
+                wConn.setAutoCommit(false); // begin transaction
+
+                try (Statement statement = wConn.createStatement()) {
+                    statement.executeUpdate(sql.trim());
+                }
+
+                this.record(wConn, version, migrationFile, checksum, start);
+                wConn.commit();
+            } catch (SQLException e) {
+                try {
+                    wConn.rollback(); // rollback if anything fails
+                } catch (SQLException rollbackEx) {
+                    e.addSuppressed(rollbackEx); // don't lose original exception
+                }
+
+                throw new RuntimeException("Unable to apply migration " + migrationFile, e);
+            } finally {
+                try {
+                    wConn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    Messaging.logException("MigrationRunner", "runSchemaMigrations", e);
+                }
+            }
+
+            this.applied.put(version, checksum);
+            count++;
+        }
+
+        if (count > 0) {
+            Log.info("Applied " + count + " schema migrations");
+        }
+    }
+
+    /**
+     * Start the background thread for any chunked migrations which have not completed yet.
+     * @param sqlite Fully constructed database; each chunk takes the writer through {@link SQLite#getWriteConnection()}.
+     */
+    public void startChunkedMigrations(SQLite sqlite) {
+        this.sqlite = sqlite;
+        List<ChunkedMigration> pending = this.chunkedMigrations.stream()
+            .filter(migration -> !this.applied.containsKey(migration.getVersion()))
+            .toList();
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        this.chunkedThread = new Thread(() -> {
+            for (ChunkedMigration migration : pending) {
+                if (!this.running || !this.runChunkedMigration(migration)) {
+                    return;
+                }
+            }
+        }, "hifumi-db-migrations");
+        this.chunkedThread.setDaemon(true);
+        this.chunkedThread.start();
+    }
+
+    /**
+     * @return True if the migration ran to completion.
+     */
+    private boolean runChunkedMigration(ChunkedMigration migration) {
+        Log.info("Starting chunked migration " + migration.getVersion() + " (" + migration.getName() + ")");
+        long start = System.nanoTime();
+        long lastLog = start;
+        long total = 0;
+        int chunks = 0;
+
+        try {
+            while (this.running) {
+                int rows;
+
+                // Take the writer per chunk, not for the whole migration, so live writes can get in between chunks
+                try (Connection wConn = this.sqlite.getWriteConnection()) {
+                    wConn.setAutoCommit(false);
+
+                    try {
+                        rows = migration.runChunk(wConn);
+
+                        if (rows == 0) {
+                            this.record(wConn, migration.getVersion(), migration.getName(), checksum(migration.getName()), start);
+                        }
+
+                        wConn.commit();
+                    } catch (SQLException e) {
+                        wConn.rollback();
+                        throw e;
+                    } finally {
+                        wConn.setAutoCommit(true);
+                    }
+                }
+
+                if (rows == 0) {
+                    Log.info(String.format("Finished chunked migration %d (%s): %d rows in %d chunks, %d ms", migration.getVersion(), migration.getName(), total, chunks, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                    return true;
+                }
+
+                total += rows;
+                chunks++;
+
+                if (System.nanoTime() - lastLog >= PROGRESS_LOG_INTERVAL_NANOS) {
+                    lastLog = System.nanoTime();
+                    Log.info(String.format("Chunked migration %d (%s) in progress: %d rows in %d chunks so far", migration.getVersion(), migration.getName(), total, chunks));
+                }
+            }
+        } catch (SQLException e) {
+            Messaging.logException("MigrationRunner", "runChunkedMigration", e);
+        }
+
+        // Stopped or failed part way; it picks up from wherever it got to on the next boot.
+        return false;
+    }
+
+    private void record(Connection wConn, int version, String name, String checksum, long startNanos) throws SQLException {
+        try (PreparedStatement insertVersion = wConn.prepareStatement("""
+                INSERT INTO schema_version (version, name, checksum, applied_at, duration_ms)
+                VALUES (?, ?, ?, ?, ?);
+                """)) {
+            insertVersion.setInt(1, version);
+            insertVersion.setString(2, name);
+            insertVersion.setString(3, checksum);
+            insertVersion.setLong(4, Instant.now().getEpochSecond());
+            insertVersion.setLong(5, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            insertVersion.executeUpdate();
+        }
+    }
+
+    /**
+     * Wait for the chunked migrations to run to completion, or stop part way.
+     * @throws InterruptedException
+     */
+    void awaitChunkedMigrations() throws InterruptedException {
+        if (this.chunkedThread != null) {
+            this.chunkedThread.join();
+        }
+    }
+
+    /**
+     * Stop any running chunked migration after its current chunk, and wait for it to finish.
+     */
+    public void shutdown() {
+        this.running = false;
+
+        if (this.chunkedThread != null) {
+            try {
+                this.chunkedThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void checkVersionsAreUnique() {
+        HashSet<Integer> versions = new HashSet<Integer>();
+
+        for (String migrationFile : SCHEMA_MIGRATIONS) {
+            if (!versions.add(parseVersion(migrationFile))) {
+                throw new RuntimeException("Duplicate migration version: " + migrationFile);
+            }
+        }
+
+        for (ChunkedMigration migration : this.chunkedMigrations) {
+            if (!versions.add(migration.getVersion())) {
+                throw new RuntimeException("Duplicate migration version: " + migration.getName());
+            }
+        }
+    }
+
+    private static int parseVersion(String migrationFile) {
+        return Integer.parseInt(migrationFile.substring(0, migrationFile.indexOf('-')));
+    }
+
+    private static String readMigration(String migrationFile) {
+        String resourcePath = String.format("db/migrations/%s", migrationFile);
+
+        try (InputStream is = MigrationRunner.class.getClassLoader().getResourceAsStream(resourcePath)) {
+            if (is == null) {
+                throw new RuntimeException("Resource not found: " + resourcePath);
+            }
+
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read " + resourcePath, e);
+        }
+    }
+
+    static String checksum(String content) {
+        try {
+            // Ignore line ending churn from checkouts on different platforms
+            byte[] normalized = content.replace("\r\n", "\n").strip().getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(normalized));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
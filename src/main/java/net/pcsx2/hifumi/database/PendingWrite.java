@@ -0,0 +1,36 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A database write which has been captured on the caller's thread and
+ * will be executed later by the {@link WriteBehindQueue} writer thread.
+ * Implementations must copy everything they need out of JDA objects up front.
+ */
+public interface PendingWrite {
+
+    /**
+     * Run this write against the writer connection. The connection is already
+     * inside a transaction; do not commit or change auto-commit here.
+     */
+    void execute(Connection wConn) throws SQLException;
+
+    /**
+     * @return The Discord message ID this write touches, or 0 if it does not touch a message.
+     * Used so reads of a message can wait for its pending writes to land.
+     */
+    default long getMessageId() {
+        return 0;
+    }
+
+    /**
+     * @return The Discord user ID whose history this write adds to, or 0 if none.
+     * Used so per-user history reads can wait for that user's pending writes to land.
+     */
+    default long getUserId() {
+        return 0;
+    }
+}
@@ -0,0 +1,120 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.pcsx2.hifumi.util.Log;
+
+/**
+ * Runs EXPLAIN QUERY PLAN on every distinct statement the first time it is compiled,
+ * and flags any statement which scans a table or a whole index instead of searching one.
+ * <br><br>
+ * The build runs {@link #explain(Connection, String)} over every statement in {@link Database} against
+ * a freshly migrated database and fails on anything flagged; hooked into the {@link StatementCache},
+ * the same check can also be run against the live database. A flagged statement means a migration
+ * is missing an index for it, unless reading the whole table is the point, in which case the
+ * statement says so with {@link #ALLOW_SCAN} and why.
+ */
+public class QueryPlanAudit {
+
+    /**
+     * Put this SQL comment in a statement, followed by the reason, to allow it to scan.
+     */
+    public static final String ALLOW_SCAN = "-- audit: allow scan";
+
+    private final Set<String> audited = ConcurrentHashMap.newKeySet();
+    // SQL -> the plan lines which scan
+    private final Map<String, ArrayList<String>> fullScans = new ConcurrentHashMap<String, ArrayList<String>>();
+
+    /**
+     * Audit a statement, once per distinct SQL string.
+     * @param conn The physical connection which compiled the statement.
+     * @param sql
+     */
+    public void audit(Connection conn, String sql) {
+        if (!this.audited.add(sql)) {
+            return;
+        }
+
+        ArrayList<String> scans;
+
+        try {
+            scans = explain(conn, sql);
+        } catch (SQLException e) {
+            // Not worth alerting over; the real execution will surface anything wrong with the statement itself
+            Log.warn("Unable to explain query plan: " + e.getMessage());
+            return;
+        }
+
+        if (!scans.isEmpty()) {
+            this.fullScans.put(sql, scans);
+            Log.warn("Query falls back to a full scan (" + String.join("; ", scans) + "):\n" + sql.strip());
+        }
+    }
+
+    /**
+     * @param conn
+     * @param sql
+     * @return The plan lines which scan, or nothing if the statement only searches or is allowed to scan.
+     * @throws SQLException If the statement does not compile.
+     */
+    public static ArrayList<String> explain(Connection conn, String sql) throws SQLException {
+        ArrayList<String> scans = new ArrayList<String>();
+
+        if (sql.contains(ALLOW_SCAN)) {
+            return scans;
+        }
+
+        // Unbound parameters are fine here, the planner only needs the shape of the statement
+        try (Statement statement = conn.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN QUERY PLAN " + sql.strip())) {
+            while (plan.next()) {
+                String detail = plan.getString("detail");
+
+                if (isFullScan(detail)) {
+                    scans.add(detail);
+                }
+            }
+        }
+
+        return scans;
+    }
+
+    /**
+     * SQLite says "SCAN" for anything it walks from end to end, including "SCAN t USING INDEX i" and
+     * "SCAN t USING COVERING INDEX i", which read every entry of the index; only "SEARCH" is a lookup.
+     * Scans of a subquery's own output, and of the single row a query without a FROM makes, are exempt,
+     * since whatever the subquery reads has its own line in the plan.
+     * @param detail
+     * @return
+     */
+    static boolean isFullScan(String detail) {
+        if (!detail.startsWith("SCAN ")) {
+            return false;
+        }
+
+        return !detail.startsWith("SCAN (") && !detail.equals("SCAN CONSTANT ROW");
+    }
+
+    public int getAuditedCount() {
+        return this.audited.size();
+    }
+
+    public Map<String, ArrayList<String>> getFullScans() {
+        return Collections.unmodifiableMap(this.fullScans);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d queries explained, %d full scans", this.getAuditedCount(), this.fullScans.size());
+    }
+}
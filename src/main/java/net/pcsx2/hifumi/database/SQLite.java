@@ -2,112 +2,295 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.database;
 
-import java.nio.charset.StandardCharsets;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConfig.JournalMode;
+import org.sqlite.SQLiteConfig.SynchronousMode;
+
+import net.pcsx2.hifumi.config.Config.DatabaseOptions;
 import net.pcsx2.hifumi.util.Log;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class SQLite {
 
-    private Connection readConnection;
+    private final DatabaseOptions options;
+    private final ArrayList<Connection> readConnections = new ArrayList<Connection>();
+    private ArrayBlockingQueue<Connection> readPool;
     private Connection writeConnection;
+    private WriteBehindQueue writeQueue;
+    private MigrationRunner migrationRunner;
+    // Fair, so a burst of inserts on one thread can't starve everyone else out of the writer.
+    private final ReentrantLock writeLock = new ReentrantLock(true);
+
+    private final CheckoutStats readStats = new CheckoutStats();
+    private final CheckoutStats writeStats = new CheckoutStats();
+    // Physical connection -> its compiled statements. Filled in the constructor and never modified afterwards.
+    private final IdentityHashMap<Connection, StatementCache> statementCaches = new IdentityHashMap<Connection, StatementCache>();
+    private final StatementCache.CacheStats readStatementStats = new StatementCache.CacheStats();
+    private final StatementCache.CacheStats writeStatementStats = new StatementCache.CacheStats();
+    private QueryPlanAudit queryPlanAudit;
+
+    public SQLite(String dataDirectory, DatabaseOptions options) {
+        this.options = options;
+        this.queryPlanAudit = options.auditQueryPlans ? new QueryPlanAudit() : null;
 
-    public SQLite(String dataDirectory) {
         try {
             // NOTE: this shouldn't be needed for modern versions of java, it should just dynamically look
             // at the classpath for you, but leaving it here incase im wrong
             // Class.forName("org.sqlite.JDBC");
             var jdbcString = String.format("jdbc:sqlite:%s/hifumibot.db", dataDirectory);
-            
-            Log.info("Opening read connection with JBDC string: " + jdbcString);
-            this.readConnection = DriverManager.getConnection(jdbcString);
-            this.ensureDatabaseIsInitialized(this.readConnection);
-            
+
+            // The writer is opened first; it owns the schema and flips the database file into WAL mode,
+            // which is persistent and is what lets the readers below run alongside it without blocking.
             Log.info("Opening write connection with JDBC string: " + jdbcString);
-            this.writeConnection = DriverManager.getConnection(jdbcString);
-            this.ensureDatabaseIsInitialized(this.writeConnection);
+            SQLiteConfig writeConfig = new SQLiteConfig();
+            writeConfig.setJournalMode(JournalMode.WAL);
+            writeConfig.setSynchronous(SynchronousMode.NORMAL);
+            writeConfig.setBusyTimeout(options.busyTimeoutMillis);
+            this.writeConnection = DriverManager.getConnection(jdbcString, writeConfig.toProperties());
+            this.migrationRunner = new MigrationRunner();
+            this.migrationRunner.runSchemaMigrations(this.writeConnection);
+            this.statementCaches.put(this.writeConnection, new StatementCache(this.writeConnection, options.statementCacheSize, this.writeStatementStats, this.queryPlanAudit));
+
+            int poolSize = Math.max(1, options.readPoolSize);
+            Log.info("Opening " + poolSize + " read connections with JBDC string: " + jdbcString);
+            this.readPool = new ArrayBlockingQueue<Connection>(poolSize);
+
+            for (int i = 0; i < poolSize; i++) {
+                SQLiteConfig readConfig = new SQLiteConfig();
+                readConfig.setReadOnly(true);
+                readConfig.setBusyTimeout(options.busyTimeoutMillis);
+                Connection conn = DriverManager.getConnection(jdbcString, readConfig.toProperties());
+                this.readConnections.add(conn);
+                this.statementCaches.put(conn, new StatementCache(conn, options.statementCacheSize, this.readStatementStats, this.queryPlanAudit));
+                this.readPool.add(conn);
+            }
         } catch (Exception e) {
             Messaging.logException("SQlite", "(constructor)", e);
         }
     }
 
-    // NOTE: order is potentially important here
-    // each file should contain a single valid SQL statement
-    private String[] schemaMigrations = {
-        "000-create-user-table.sql",
-        "001-create-channel-table.sql",
-        "002-create-message-table.sql",
-        "003-create-message-attachment-table.sql",
-        "004-create-message-embed-table.sql",
-        "005-create-message-event-table.sql",
-        "006-create-user-displayname-event-table.sql",
-        "007-create-user-username-event-table.sql",
-        "008-create-warez-event-table.sql",
-        "009-create-member-event-table.sql",
-        "010-create-interaction-event-table.sql",
-        "011-create-filter-event-table.sql",
-        "012-create-counter-table.sql",
-        "013-create-command-table.sql",
-        "014-create-command-event-table.sql",
-        "015-create-command-event-option-table.sql",
-        "016-create-automod-event-table.sql",
-        "017-create-scam-hash-table.sql",
-        "018-create-scam-hash-match-table.sql",
-        "019-create-honeypot-event-table.sql",
-        "020-create-antibot-event-table.sql",
-        "021-create-spamkick-event-table.sql",
-        "022-create-spamkick-event-timestamp-index.sql"
-    };
-
-    private void ensureDatabaseIsInitialized(Connection conn) {
+    /**
+     * Start the write-behind queue and any chunked migrations. Both take the writer from their own threads,
+     * so this is kept out of the constructor and must be called once the database has been constructed.
+     */
+    public void start() {
+        if (this.writeConnection == null) {
+            return;
+        }
+
+        this.writeQueue = new WriteBehindQueue(this, this.options);
+        this.migrationRunner.startChunkedMigrations(this);
+    }
+
+    /**
+     * Borrow a read-only connection from the pool. Closing the returned connection
+     * hands it back to the pool instead of closing it, so always use try-with-resources.
+     * @return
+     * @throws SQLException If no connection frees up within the configured checkout timeout.
+     */
+    public Connection getReadConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection conn = null;
+
         try {
-            conn.setAutoCommit(false); // begin transaction
-            for (var migrationFile : schemaMigrations) {
-                var resourcePath = String.format("db/migrations/%s", migrationFile);
-                var is = SQLite.class.getClassLoader().getResourceAsStream(resourcePath);
-                if (is == null) {
-                    throw new RuntimeException("Resource not found: " + resourcePath);
-                }
-                String sql = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-                try (var statement = conn.createStatement()) {
-                    statement.execute(sql.trim());
-                }
-            }
+            conn = this.readPool.poll(this.options.checkoutTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
 
-            conn.commit(); // commit all statements
-            conn.setAutoCommit(true);
-        } catch (Exception e) {
-            try {
-                conn.rollback(); // rollback if anything fails
-            } catch (SQLException rollbackEx) {
-                e.addSuppressed(rollbackEx); // don't lose original exception
-            }
-            throw new RuntimeException("Unable to ensure database is initialized properly", e);
+        this.readStats.record(System.nanoTime() - start);
+
+        if (conn == null) {
+            this.readStats.timeouts.increment();
+            throw new SQLException("Timed out waiting for a read connection");
         }
+
+        final Connection borrowed = conn;
+        return this.lease(borrowed, () -> this.readPool.offer(borrowed));
+    }
+
+    /**
+     * Take exclusive use of the writer connection. Closing the returned connection
+     * releases the writer for the next caller, so always use try-with-resources.
+     * @return
+     * @throws SQLException If the writer does not free up within the configured checkout timeout.
+     */
+    public Connection getWriteConnection() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired = false;
+
+        try {
+            acquired = this.writeLock.tryLock(this.options.checkoutTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.writeStats.record(System.nanoTime() - start);
+
+        if (!acquired) {
+            this.writeStats.timeouts.increment();
+            throw new SQLException("Timed out waiting for the write connection");
+        }
+
+        return this.lease(this.writeConnection, this.writeLock::unlock);
     }
 
-    public Connection getReadConnection() {
-        return this.readConnection;
+    /**
+     * Fire-and-forget inserts go here to be group-committed off the caller's thread.
+     * @return
+     */
+    public WriteBehindQueue getWriteQueue() {
+        return this.writeQueue;
     }
-    
-    public Connection getWriteConnection() {
-        return this.writeConnection;
+
+    public CheckoutStats getReadStats() {
+        return this.readStats;
+    }
+
+    public CheckoutStats getWriteStats() {
+        return this.writeStats;
+    }
+
+    public StatementCache.CacheStats getReadStatementStats() {
+        return this.readStatementStats;
+    }
+
+    public StatementCache.CacheStats getWriteStatementStats() {
+        return this.writeStatementStats;
+    }
+
+    /**
+     * @return The query plan audit, or null if disabled in config.
+     */
+    public QueryPlanAudit getQueryPlanAudit() {
+        return this.queryPlanAudit;
+    }
+
+    public int getIdleReadConnections() {
+        return this.readPool.size();
+    }
+
+    public int getReadPoolSize() {
+        return this.readConnections.size();
+    }
+
+    /**
+     * Wrap a pooled connection so that close() runs the release action exactly once
+     * and leaves the underlying connection open. prepareStatement(String) is served from
+     * the connection's statement cache; anything else is passed straight through.
+     */
+    private Connection lease(Connection conn, Runnable release) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        StatementCache statementCache = this.statementCaches.get(conn);
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        statementCache.releaseAll();
+                        release.run();
+                    }
+
+                    return null;
+                case "isClosed":
+                    return released.get() || conn.isClosed();
+                default:
+                    if (released.get()) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+
+                    if (method.getName().equals("prepareStatement") && args.length == 1) {
+                        return statementCache.prepare((String) args[0]);
+                    }
+
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        );
     }
 
     public void shutdown() {
-        try {
-            this.readConnection.close();
-        } catch (SQLException e) {
-            Messaging.logException("SQLite", "shutdown", e);
+        if (this.migrationRunner != null) {
+            this.migrationRunner.shutdown();
+        }
+
+        // Drain queued writes while the writer is still open.
+        if (this.writeQueue != null) {
+            this.writeQueue.shutdown();
+        }
+
+        for (StatementCache statementCache : this.statementCaches.values()) {
+            statementCache.closeAll();
         }
-        
+
+        for (Connection conn : this.readConnections) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                Messaging.logException("SQLite", "shutdown", e);
+            }
+        }
+
         try {
             this.writeConnection.close();
         } catch (SQLException e) {
             Messaging.logException("SQLite", "shutdown", e);
         }
     }
+
+    public static class CheckoutStats {
+        private final LongAdder checkouts = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+        private final LongAdder timeouts = new LongAdder();
+
+        private void record(long waitNanos) {
+            this.checkouts.increment();
+            this.totalWaitNanos.add(waitNanos);
+            this.maxWaitNanos.accumulate(waitNanos);
+        }
+
+        public long getCheckouts() {
+            return this.checkouts.sum();
+        }
+
+        public long getTimeouts() {
+            return this.timeouts.sum();
+        }
+
+        public double getAverageWaitMillis() {
+            long count = this.checkouts.sum();
+            return count == 0 ? 0 : (this.totalWaitNanos.sum() / (double) count) / 1_000_000;
+        }
+
+        public double getMaxWaitMillis() {
+            return this.maxWaitNanos.get() / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d checkouts, avg wait %.2f ms, max wait %.2f ms, %d timeouts", this.getCheckouts(), this.getAverageWaitMillis(), this.getMaxWaitMillis(), this.getTimeouts());
+        }
+    }
 }
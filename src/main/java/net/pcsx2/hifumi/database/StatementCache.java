@@ -0,0 +1,236 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.pcsx2.hifumi.util.Messaging;
+
+/**
+ * Compiled statements for a single pooled connection, keyed by query ID.
+ * The query ID is the SQL text itself; every query in {@link Database} is a constant
+ * text block, so the same method always lands on the same entry.
+ * <br><br>
+ * Closing a statement handed out by {@link #prepare(String)} resets it and puts it back
+ * for the next caller instead of finalizing it, so SQLite only parses and plans each query once per connection.
+ * <br><br>
+ * Not thread safe; a connection is only ever leased to one thread at a time, and so is its cache.
+ */
+public class StatementCache {
+
+    private final Connection conn;
+    private final CacheStats stats;
+    private final QueryPlanAudit queryPlanAudit;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * @param conn
+     * @param capacity Maximum number of compiled statements to hold.
+     * @param stats Counters to add to; may be shared between caches.
+     * @param queryPlanAudit Audit to run on each newly seen query, or null to skip.
+     */
+    public StatementCache(Connection conn, int capacity, CacheStats stats, QueryPlanAudit queryPlanAudit) {
+        this.conn = conn;
+        this.stats = stats;
+        this.queryPlanAudit = queryPlanAudit;
+        final int maxEntries = Math.max(1, capacity);
+
+        // Access ordered, so the queries which have gone quiet are the ones evicted
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (this.size() <= maxEntries) {
+                    return false;
+                }
+
+                stats.evictions.increment();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Check out the compiled statement for a query, compiling it on first use.
+     * If the statement is already checked out (the same query nested inside itself),
+     * a one-off uncached statement is returned instead.
+     * @param sql
+     * @return
+     * @throws SQLException
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = this.statements.get(sql);
+
+        if (cached != null && !cached.inUse) {
+            this.stats.hits.increment();
+            return cached.checkout();
+        }
+
+        this.stats.misses.increment();
+        PreparedStatement statement = this.conn.prepareStatement(sql);
+
+        if (cached != null) {
+            return statement;
+        }
+
+        if (this.queryPlanAudit != null) {
+            this.queryPlanAudit.audit(this.conn, sql);
+        }
+
+        cached = new CachedStatement(statement);
+        this.statements.put(sql, cached);
+        return cached.checkout();
+    }
+
+    /**
+     * Return anything the last lease forgot to close, so a leaked statement
+     * can't hold a read snapshot open or stay checked out forever.
+     */
+    public void releaseAll() {
+        for (CachedStatement cached : this.statements.values()) {
+            if (cached.inUse) {
+                cached.release();
+            }
+        }
+    }
+
+    public void closeAll() {
+        for (CachedStatement cached : new ArrayList<CachedStatement>(this.statements.values())) {
+            cached.evict();
+        }
+
+        this.statements.clear();
+    }
+
+    private static class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse = false;
+        private boolean evicted = false;
+        private ResultSet openResultSet = null;
+        private AtomicBoolean checkedOut = null;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement checkout() {
+            this.inUse = true;
+            // Each checkout gets its own handle, so a stale handle closed twice can't release someone else's checkout
+            final AtomicBoolean handle = new AtomicBoolean(true);
+            this.checkedOut = handle;
+
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "close":
+                        if (handle.compareAndSet(true, false)) {
+                            this.release();
+                        }
+
+                        return null;
+                    case "isClosed":
+                        return !handle.get() || this.statement.isClosed();
+                    default:
+                        if (!handle.get()) {
+                            throw new SQLException("Statement has already been closed");
+                        }
+
+                        try {
+                            Object ret = method.invoke(this.statement, args);
+
+                            if (ret instanceof ResultSet rs) {
+                                this.openResultSet = rs;
+                            }
+
+                            return ret;
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                }
+            );
+        }
+
+        private void release() {
+            if (this.checkedOut != null) {
+                this.checkedOut.set(false);
+                this.checkedOut = null;
+            }
+
+            try {
+                // Closing the result set is what resets the underlying sqlite3_stmt
+                if (this.openResultSet != null) {
+                    this.openResultSet.close();
+                    this.openResultSet = null;
+                }
+
+                this.statement.clearParameters();
+            } catch (SQLException e) {
+                Messaging.logException("StatementCache", "release", e);
+            }
+
+            this.inUse = false;
+
+            if (this.evicted) {
+                this.close();
+            }
+        }
+
+        private void evict() {
+            this.evicted = true;
+
+            if (!this.inUse) {
+                this.close();
+            }
+        }
+
+        private void close() {
+            try {
+                this.statement.close();
+            } catch (SQLException e) {
+                Messaging.logException("StatementCache", "close", e);
+            }
+        }
+    }
+
+    public static class CacheStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public long getHits() {
+            return this.hits.sum();
+        }
+
+        public long getMisses() {
+            return this.misses.sum();
+        }
+
+        public long getEvictions() {
+            return this.evictions.sum();
+        }
+
+        public double getHitRate() {
+            long hitCount = this.hits.sum();
+            long total = hitCount + this.misses.sum();
+            return total == 0 ? 0 : hitCount / (double) total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.1f%% hit rate), %d evictions", this.getHits(), this.getMisses(), this.getHitRate() * 100, this.getEvictions());
+        }
+    }
+}
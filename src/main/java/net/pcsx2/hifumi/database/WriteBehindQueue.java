@@ -0,0 +1,268 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.pcsx2.hifumi.config.Config.DatabaseOptions;
+import net.pcsx2.hifumi.util.Log;
+import net.pcsx2.hifumi.util.Messaging;
+
+/**
+ * Group-commit pipeline for inserts which don't need to know their outcome.
+ * Callers enqueue {@link PendingWrite}s and return immediately; a single writer thread
+ * drains them into one transaction per batch, flushing once the batch is full or
+ * the oldest write has waited long enough, whichever comes first.
+ */
+public class WriteBehindQueue {
+
+    private final SQLite sqlite;
+    private final int batchSize;
+    private final long flushNanos;
+    private final long syncTimeoutSeconds;
+
+    private final LinkedBlockingQueue<PendingWrite> queue;
+    // Message/user ID -> number of writes for that message/user which are not yet committed
+    private final ConcurrentHashMap<Long, Integer> pendingMessages = new ConcurrentHashMap<Long, Integer>();
+    private final ConcurrentHashMap<Long, Integer> pendingUsers = new ConcurrentHashMap<Long, Integer>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAccumulator maxBatch = new LongAccumulator(Long::max, 0);
+
+    public WriteBehindQueue(SQLite sqlite, DatabaseOptions options) {
+        this.sqlite = sqlite;
+        this.batchSize = Math.max(1, options.writeBatchSize);
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(options.writeFlushMillis);
+        this.syncTimeoutSeconds = options.checkoutTimeoutSeconds;
+        this.queue = new LinkedBlockingQueue<PendingWrite>(Math.max(this.batchSize, options.writeQueueCapacity));
+
+        this.writerThread = new Thread(this::drain, "hifumi-db-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue a write. Blocks only if the queue is at capacity, which pushes back on
+     * the producer rather than letting a stalled disk grow the heap without bound.
+     * @param write
+     */
+    public void enqueue(PendingWrite write) {
+        if (!this.running) {
+            // Shutting down; nothing will drain the queue anymore, so just do it here.
+            this.commit(List.of(write));
+            return;
+        }
+
+        if (write.getMessageId() != 0) {
+            this.pendingMessages.merge(write.getMessageId(), 1, Integer::sum);
+        }
+
+        if (write.getUserId() != 0) {
+            this.pendingUsers.merge(write.getUserId(), 1, Integer::sum);
+        }
+
+        try {
+            this.queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.release(write);
+        }
+    }
+
+    /**
+     * Block until everything enqueued before this call has been committed.
+     * The writer flushes immediately when it reaches the barrier instead of waiting out the flush interval.
+     */
+    public void sync() {
+        if (Thread.currentThread() == this.writerThread || !this.running) {
+            return;
+        }
+
+        SyncBarrier barrier = new SyncBarrier();
+
+        try {
+            this.queue.put(barrier);
+
+            if (!barrier.latch.await(this.syncTimeoutSeconds, TimeUnit.SECONDS)) {
+                Log.warn("Timed out waiting for pending database writes to flush");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Read-your-writes for a single message: if anything touching this message is still
+     * queued, wait for it to land. Free when nothing is pending, which is the common case.
+     * @param messageIdLong
+     */
+    public void syncMessage(long messageIdLong) {
+        if (this.pendingMessages.containsKey(messageIdLong)) {
+            this.sync();
+        }
+    }
+
+    /**
+     * Read-your-writes for a user's message history, see {@link #syncMessage(long)}.
+     * @param userIdLong
+     */
+    public void syncUser(long userIdLong) {
+        if (this.pendingUsers.containsKey(userIdLong)) {
+            this.sync();
+        }
+    }
+
+    private void drain() {
+        ArrayList<PendingWrite> batch = new ArrayList<PendingWrite>(this.batchSize);
+
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                PendingWrite first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + this.flushNanos;
+
+                while (batch.size() < this.batchSize && !(batch.get(batch.size() - 1) instanceof SyncBarrier)) {
+                    long remaining = deadline - System.nanoTime();
+
+                    if (remaining <= 0) {
+                        break;
+                    }
+
+                    PendingWrite next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                }
+
+                this.commit(batch);
+            } catch (InterruptedException e) {
+                // Only interrupted on shutdown; loop around and drain whatever is left.
+            } catch (Exception e) {
+                Messaging.logException("WriteBehindQueue", "drain", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        int written = 0;
+
+        try (Connection wConn = this.sqlite.getWriteConnection()) {
+            wConn.setAutoCommit(false);
+
+            try {
+                for (PendingWrite write : batch) {
+                    if (write instanceof SyncBarrier) {
+                        continue;
+                    }
+
+                    // One bad row shouldn't throw away the rest of the batch.
+                    Savepoint savepoint = wConn.setSavepoint();
+
+                    try {
+                        write.execute(wConn);
+                        wConn.releaseSavepoint(savepoint);
+                        written++;
+                    } catch (SQLException e) {
+                        wConn.rollback(savepoint);
+                        this.failures.increment();
+                        Messaging.logException("Database", write.getClass().getSimpleName(), e);
+                    }
+                }
+
+                wConn.commit();
+            } catch (SQLException e) {
+                wConn.rollback();
+                throw e;
+            } finally {
+                wConn.setAutoCommit(true);
+            }
+
+            this.batches.increment();
+            this.rows.add(written);
+            this.maxBatch.accumulate(written);
+        } catch (SQLException e) {
+            this.failures.add(batch.size() - written);
+            Messaging.logException("WriteBehindQueue", "commit", e);
+        } finally {
+            for (PendingWrite write : batch) {
+                this.release(write);
+            }
+        }
+    }
+
+    private void release(PendingWrite write) {
+        if (write instanceof SyncBarrier barrier) {
+            barrier.latch.countDown();
+            return;
+        }
+
+        if (write.getMessageId() != 0) {
+            this.pendingMessages.computeIfPresent(write.getMessageId(), (id, count) -> count > 1 ? count - 1 : null);
+        }
+
+        if (write.getUserId() != 0) {
+            this.pendingUsers.computeIfPresent(write.getUserId(), (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Stop accepting queued writes and wait for the writer to drain what is already queued.
+     */
+    public void shutdown() {
+        this.running = false;
+
+        try {
+            this.writerThread.join(TimeUnit.SECONDS.toMillis(this.syncTimeoutSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (this.writerThread.isAlive()) {
+            Log.warn("Database writer did not drain in time; " + this.queue.size() + " writes were dropped");
+        }
+    }
+
+    public int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    @Override
+    public String toString() {
+        long batchCount = this.batches.sum();
+        long rowCount = this.rows.sum();
+        return String.format("%d queued, %d rows in %d batches (avg %.1f, max %d), %d failed", this.getQueueDepth(), rowCount, batchCount, batchCount == 0 ? 0 : rowCount / (double) batchCount, this.maxBatch.get(), this.failures.sum());
+    }
+
+    private static class SyncBarrier implements PendingWrite {
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void execute(Connection wConn) {
+            // Nothing to write; only marks a point in the queue.
+        }
+    }
+}
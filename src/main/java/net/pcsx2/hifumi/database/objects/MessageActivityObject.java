@@ -0,0 +1,34 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database.objects;
+
+public class MessageActivityObject {
+
+    private long userId;
+    private long channelId;
+    private long timestamp;
+    private boolean hasAttachments;
+
+    public MessageActivityObject(long userId, long channelId, long timestamp, boolean hasAttachments) {
+        this.userId = userId;
+        this.channelId = channelId;
+        this.timestamp = timestamp;
+        this.hasAttachments = hasAttachments;
+    }
+
+    public long getUserId() {
+        return this.userId;
+    }
+
+    public long getChannelId() {
+        return this.channelId;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public boolean hasAttachments() {
+        return this.hasAttachments;
+    }
+}
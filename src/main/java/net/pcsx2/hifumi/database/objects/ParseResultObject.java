@@ -0,0 +1,54 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database.objects;
+
+import java.util.Optional;
+
+public class ParseResultObject {
+
+    private String parserType;
+    private String contentSHA3;
+    private String rulesVersion;
+    private long createdAt;
+    private String summary;
+    private Optional<String> body;
+
+    public ParseResultObject(String parserType, String contentSHA3, String rulesVersion, long createdAt, String summary, Optional<String> body) {
+        this.parserType = parserType;
+        this.contentSHA3 = contentSHA3;
+        this.rulesVersion = rulesVersion;
+        this.createdAt = createdAt;
+        this.summary = summary;
+        this.body = body;
+    }
+
+    public String getParserType() {
+        return this.parserType;
+    }
+
+    public String getContentSHA3() {
+        return this.contentSHA3;
+    }
+
+    public String getRulesVersion() {
+        return this.rulesVersion;
+    }
+
+    public long getCreatedAt() {
+        return this.createdAt;
+    }
+
+    /**
+     * @return The message the parser replied with.
+     */
+    public String getSummary() {
+        return this.summary;
+    }
+
+    /**
+     * @return The results text file, if the reply had one.
+     */
+    public Optional<String> getBody() {
+        return this.body;
+    }
+}
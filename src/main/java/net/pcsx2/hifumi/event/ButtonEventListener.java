@@ -69,6 +69,11 @@ public class ButtonEventListener extends ListenerAdapter {
                     event.deferEdit().queue();
                     commandEmulog.handleButtonEvent(event);
                     break;
+                case "crashrules_prev":
+                case "crashrules_next":
+                    event.deferEdit().queue();
+                    slashCommands.get("crashrules").handleButtonEvent(event);
+                    break;
                 case "timeout":
                     try {
                         if (event.getMember().hasPermission(Permission.MODERATE_MEMBERS)) {
@@ -4,7 +4,6 @@ package net.pcsx2.hifumi.event;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.time.OffsetDateTime;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -16,11 +15,14 @@ import net.dv8tion.jda.api.events.message.MessageUpdateEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.pcsx2.hifumi.EventLogging;
 import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.ParserExecutor;
+import net.pcsx2.hifumi.ParserExecutor.Lane;
 import net.pcsx2.hifumi.async.EntryBarrierRunnable;
 import net.pcsx2.hifumi.async.UrlChangeReviewRunnable;
 import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.database.objects.MessageObject;
 import net.pcsx2.hifumi.filter.MessageFilteringRunnable;
+import net.pcsx2.hifumi.filter.MessageRateTracker;
 import net.pcsx2.hifumi.parse.CrashParser;
 import net.pcsx2.hifumi.parse.EmulogParser;
 import net.pcsx2.hifumi.parse.PnachParser;
@@ -33,7 +35,7 @@ public class MessageEventListener extends ListenerAdapter {
     
     @Override
     public void onMessageReceived(MessageReceivedEvent event) {
-        HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(() -> {
+        HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(event.getChannel().getIdLong(), () -> {
             // Store the time of this event handler firing
             Instant now = Instant.now();
 
@@ -60,6 +62,7 @@ public class MessageEventListener extends ListenerAdapter {
                 }
             }
             
+            boolean isPrivileged = HifumiBot.getSelf().getPermissionManager().hasPermission(PermissionLevel.MOD, event.getMember());
             Database.insertMessage(event.getMessage());
 
             // If the sender was the bot, do not process any further.
@@ -67,6 +70,10 @@ public class MessageEventListener extends ListenerAdapter {
                 return;
             }
 
+            // Feed the spam filters before they are queued, so they see this message. This also finds a copy of it
+            // in another channel; the tracker checks per author, so it works even when both are being handled at once.
+            MessageRateTracker.RecentMessage messageCopy = HifumiBot.getSelf().getMessageRateTracker().record(event.getMessage());
+
             // Do an entry barrier check
             if (HifumiBot.getSelf().getConfig().entryBarrierOptions.enabled && event.getChannel().getId().equals(HifumiBot.getSelf().getConfig().entryBarrierOptions.userInputChannelId)) {
                 HifumiBot.getSelf().getScheduler().runOnce(new EntryBarrierRunnable(event));
@@ -75,36 +82,36 @@ public class MessageEventListener extends ListenerAdapter {
             // If the user has at least guest permissions (is not BLOCKED due to warez or other reasons),
             // then check for emulog/pnach/crash dump
             if (HifumiBot.getSelf().getPermissionManager().hasPermission(PermissionLevel.GUEST, event.getMember())) {
+                // Staff checking a file for someone go ahead of everyone else's
+                Lane lane = isPrivileged ? Lane.STAFF : Lane.MEMBER;
+                ParserExecutor parsers = HifumiBot.getSelf().getScheduler().getParserExecutor();
+
                 if (Messaging.hasEmulog(event.getMessage())) {
                     EmulogParser ep = new EmulogParser(event.getMessage());
-                    HifumiBot.getSelf().getScheduler().runOnce(ep);
+                    parsers.submit(event.getMessage(), lane, ep);
                 }
 
                 if (Messaging.hasPnach(event.getMessage())) {
                     PnachParser pp = new PnachParser(event.getMessage());
-                    HifumiBot.getSelf().getScheduler().runOnce(pp);
+                    parsers.submit(event.getMessage(), lane, pp);
                 }
 
                 if (Messaging.hasCrashLog(event.getMessage())) {
                     CrashParser crashp = new CrashParser(event.getMessage());
-                    HifumiBot.getSelf().getScheduler().runOnce(crashp);
+                    parsers.submit(event.getMessage(), lane, crashp);
                 }
 
                 if (Messaging.hasIni(event.getMessage())) {
-                    SettingsIniParser.init(event.getMessage());
+                    SettingsIniParser.init(event.getMessage(), lane);
                 }
             }
 
             // If the user is not considered privileged, then:
-            if (!HifumiBot.getSelf().getPermissionManager().hasPermission(PermissionLevel.MOD, event.getMember())) {
-                // Check if this is a single duplicate message from the last 5 minutes, but ignore short messages which are probably just emotes or basic greetings, etc.
-                if (event.getMessage().getContentDisplay().length() > 10) {
-                    MessageObject messageCopy = Database.getIdenticalMessageSinceTimeInOtherChannel(event.getAuthor().getIdLong(), event.getMessage().getContentRaw(), OffsetDateTime.now().minusMinutes(5).toEpochSecond(), event.getChannel().getIdLong());
-
-                    if (messageCopy != null) {
-                        HifumiBot.getSelf().getJDA().getTextChannelById(messageCopy.getChannelId()).deleteMessageById(messageCopy.getMessageId()).queue();
-                        Messaging.sendMessage(event.getChannel(), "It looks like you've re-posted the same message that you have already recently sent. Please avoid spamming multiple channels. I've gone ahead and deleted your previous message for you.", event.getMessage(), true);
-                    }
+            if (!isPrivileged) {
+                // Check if this is a single duplicate message from the last 5 minutes
+                if (messageCopy != null) {
+                    HifumiBot.getSelf().getJDA().getTextChannelById(messageCopy.getChannelId()).deleteMessageById(messageCopy.getMessageId()).queue();
+                    Messaging.sendMessage(event.getChannel(), "It looks like you've re-posted the same message that you have already recently sent. Please avoid spamming multiple channels. I've gone ahead and deleted your previous message for you.", event.getMessage(), true);
                 }
 
                 // Run through message filters
@@ -137,9 +144,14 @@ public class MessageEventListener extends ListenerAdapter {
 
     @Override
     public void onMessageDelete(MessageDeleteEvent event) {
-        HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(() -> {
-            Database.insertMessageDeleteEvent(event);
+        HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(event.getChannel().getIdLong(), () -> {
+            // Look up the message before queueing the delete event; the lookup ignores delete events anyway.
             MessageObject deletedMessage = Database.getLatestMessage(event.getMessageId());
+            Database.insertMessageDeleteEvent(event);
+
+            if (deletedMessage != null) {
+                HifumiBot.getSelf().getMessageRateTracker().forget(deletedMessage.getAuthorId(), event.getMessageIdLong());
+            }
 
             // Don't log the bot's own deletes.
             if (deletedMessage != null && deletedMessage.getAuthorId() == HifumiBot.getSelf().getJDA().getSelfUser().getIdLong()) {
@@ -152,12 +164,16 @@ public class MessageEventListener extends ListenerAdapter {
 
     @Override 
     public void onMessageBulkDelete(MessageBulkDeleteEvent event) {
-        HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(() -> {
+        HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(event.getChannel().getIdLong(), () -> {
             Database.insertMessageBulkDeleteEvent(event);
 
             for (String messageId : event.getMessageIds()) {
                 MessageObject deletedMessage = Database.getLatestMessage(messageId);
 
+                if (deletedMessage != null) {
+                    HifumiBot.getSelf().getMessageRateTracker().forget(deletedMessage.getAuthorId(), Long.parseLong(messageId));
+                }
+
                 // Don't log the bot's own deletes.
                 if (deletedMessage.getAuthorId() == HifumiBot.getSelf().getJDA().getSelfUser().getIdLong()) {
                     return;
@@ -170,7 +186,7 @@ public class MessageEventListener extends ListenerAdapter {
 
     @Override
     public void onMessageUpdate(MessageUpdateEvent event) {
-        HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(() -> {
+        HifumiBot.getSelf().getScheduler().addToMessageEventFIFO(event.getChannel().getIdLong(), () -> {
             MessageObject beforeEditMessage = Database.getLatestMessage(event.getMessageId());
             
             if (!HifumiBot.getSelf().getPermissionManager().hasPermission(PermissionLevel.ADMIN, event.getMember())) {
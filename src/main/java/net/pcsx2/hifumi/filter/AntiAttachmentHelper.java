@@ -5,6 +5,7 @@ package net.pcsx2.hifumi.filter;
 import java.awt.Color;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
@@ -15,10 +16,7 @@ import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
 import net.pcsx2.hifumi.HifumiBot;
-import net.pcsx2.hifumi.database.Database;
-import net.pcsx2.hifumi.database.objects.MessageObject;
 import net.pcsx2.hifumi.moderation.ModActions;
-import net.pcsx2.hifumi.util.AttachmentUtils;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class AntiAttachmentHelper implements IFilterHelper {
@@ -59,13 +57,13 @@ public class AntiAttachmentHelper implements IFilterHelper {
     private boolean isMultipleAttachments() {
         int cooldownSeconds = HifumiBot.getSelf().getConfig().antiAttachmentOptions.cooldownSeconds;
         OffsetDateTime cooldownTime = OffsetDateTime.now().minusSeconds(cooldownSeconds);
-        ArrayList<MessageObject> messages = Database.getMessagesWithAttachmentsAggregateByChannelSinceTime(this.message.getAuthor().getIdLong(), cooldownTime.toEpochSecond());
+        int channelCount = HifumiBot.getSelf().getMessageRateTracker().countAttachmentChannelsSince(this.message.getAuthor().getIdLong(), cooldownTime.toEpochSecond());
         
-        if (messages == null || messages.isEmpty()) {
+        if (channelCount == 0) {
             return false;
         }
         
-        if (messages.size() >= HifumiBot.getSelf().getConfig().antiAttachmentOptions.maxMessages) {
+        if (channelCount >= HifumiBot.getSelf().getConfig().antiAttachmentOptions.maxMessages) {
             return true;
         }
         
@@ -73,7 +71,7 @@ public class AntiAttachmentHelper implements IFilterHelper {
     }
     
     private void sendSuccessMessage() {
-        ArrayList<FileUpload> files = AttachmentUtils.getMinifiedAttachments(message);
+        CompletableFuture<ArrayList<FileUpload>> thumbnails = HifumiBot.getSelf().getThumbnailService().render(this.message);
         
         EmbedBuilder eb = new EmbedBuilder();
         eb.setTitle("User Automatically Timed Out");
@@ -85,7 +83,6 @@ public class AntiAttachmentHelper implements IFilterHelper {
         
         MessageCreateBuilder mb = new MessageCreateBuilder();
         mb.addEmbeds(eb.build());
-        mb.addFiles(files);
         mb.addComponents(ActionRow.of(
             Button.of(
                     ButtonStyle.DANGER, 
@@ -99,7 +96,20 @@ public class AntiAttachmentHelper implements IFilterHelper {
             )
         ));
         
-        Messaging.sendMessage(HifumiBot.getSelf().getConfig().channels.systemOutputChannelId, mb.build());
+        thumbnails.whenComplete((files, renderError) -> {
+            try {
+                // Without previews if they failed; the embed still lists the attachments
+                if (renderError != null) {
+                    Messaging.logException("AntiAttachmentHelper", "sendSuccessMessage", renderError);
+                } else {
+                    mb.addFiles(files);
+                }
+                
+                Messaging.sendMessage(HifumiBot.getSelf().getConfig().channels.systemOutputChannelId, mb.build());
+            } catch (Exception e) {
+                Messaging.logException("AntiAttachmentHelper", "sendSuccessMessage", e);
+            }
+        });
     }
     
     private void sendFailMessage() {
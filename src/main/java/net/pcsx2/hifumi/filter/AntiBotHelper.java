@@ -5,6 +5,7 @@ package net.pcsx2.hifumi.filter;
 import java.awt.Color;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -20,7 +21,6 @@ import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.database.objects.MessageObject;
 import net.pcsx2.hifumi.moderation.ModActions;
-import net.pcsx2.hifumi.util.AttachmentUtils;
 import net.pcsx2.hifumi.util.EmbedUtil;
 import net.pcsx2.hifumi.util.Messaging;
 import net.pcsx2.hifumi.util.Strings;
@@ -50,11 +50,17 @@ public class AntiBotHelper implements IFilterHelper {
             
             // Sweep up any other messages the bot might have blasted out while this runnable was going.
             OffsetDateTime timeToRemoveMessagesSince = OffsetDateTime.now().minusMinutes(AGE_MINUTES_TO_REMOVE_MESSAGES);
-            ModActions.deleteAllMessageFromUserSince(authorIdLong, timeToRemoveMessagesSince.toEpochSecond());
+            Runnable sweep = () -> ModActions.deleteAllMessageFromUserSince(authorIdLong, timeToRemoveMessagesSince.toEpochSecond());
             
             if (timeoutRes) {
-                this.sendTimeoutNotice();
+                // Since our timeout succeeded, grab some thumbnails of the images so we have something to present for review before deleting stuff.
+                // If we delete the message first then attachments go too, so the sweep waits until the previews are done (or have timed out).
+                // The user is timed out, so nothing new turns up in the meantime.
+                CompletableFuture<ArrayList<FileUpload>> thumbnails = HifumiBot.getSelf().getThumbnailService().render(this.message);
+                thumbnails.whenComplete((files, e) -> HifumiBot.getSelf().getScheduler().runOnce(sweep));
+                this.sendTimeoutNotice(thumbnails);
             } else {
+                sweep.run();
                 this.sendFailNotice();
             }
         }
@@ -82,14 +88,10 @@ public class AntiBotHelper implements IFilterHelper {
         return false;
     }
     
-    private void sendTimeoutNotice() {
+    private void sendTimeoutNotice(CompletableFuture<ArrayList<FileUpload>> thumbnails) {
         long authorIdLong = this.message.getAuthor().getIdLong();
         User user = this.message.getAuthor();
         
-        // Since our timeout succeeded, grab some thumbnails of the images so we have something to present for review before deleting stuff.
-        // If we delete the message first then attachments go too.
-        ArrayList<FileUpload> files = AttachmentUtils.getMinifiedAttachments(message);
-        
         EmbedBuilder eb = new EmbedBuilder();
         eb.setTitle("User timed out for suspected image scams");
         eb.setDescription("User has not posted anything else in the last " + DAYS_SINCE_LAST_MESSAGE + " days, but posted at least " + LINK_THRESHOLD + " links and/or attachments in one message.\n\n");
@@ -111,7 +113,6 @@ public class AntiBotHelper implements IFilterHelper {
 
         MessageCreateBuilder mb = new MessageCreateBuilder();
         mb.addEmbeds(eb.build());
-        mb.addFiles(files);
         mb.addComponents(ActionRow.of(
             Button.of(
                     ButtonStyle.DANGER, 
@@ -125,7 +126,20 @@ public class AntiBotHelper implements IFilterHelper {
             )
         ));
         
-        Messaging.sendMessage(HifumiBot.getSelf().getConfig().channels.systemOutputChannelId, mb.build());
+        thumbnails.whenComplete((files, renderError) -> {
+            try {
+                // Without previews if they failed; the embed still lists the attachments
+                if (renderError != null) {
+                    Messaging.logException("AntiBotHelper", "sendTimeoutNotice", renderError);
+                } else {
+                    mb.addFiles(files);
+                }
+                
+                Messaging.sendMessage(HifumiBot.getSelf().getConfig().channels.systemOutputChannelId, mb.build());
+            } catch (Exception e) {
+                Messaging.logException("AntiBotHelper", "sendTimeoutNotice", e);
+            }
+        });
     }
     
     private void sendFailNotice() {
@@ -5,7 +5,7 @@ package net.pcsx2.hifumi.filter;
 import java.awt.Color;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
@@ -16,9 +16,7 @@ import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
 import net.pcsx2.hifumi.HifumiBot;
-import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.moderation.ModActions;
-import net.pcsx2.hifumi.util.AttachmentUtils;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class AntiSpamHelper implements IFilterHelper {
@@ -46,7 +44,7 @@ public class AntiSpamHelper implements IFilterHelper {
             ModActions.deleteAllMessageFromUserSince(usr.getIdLong(), cooldownSubtracted.toEpochSecond());
 
             if (timeoutRes) {
-                ArrayList<FileUpload> files = AttachmentUtils.getMinifiedAttachments(message);
+                CompletableFuture<ArrayList<FileUpload>> thumbnails = HifumiBot.getSelf().getThumbnailService().render(this.message);
                 
                 EmbedBuilder eb = new EmbedBuilder();
                 eb.setTitle("User Automatically Timed Out");
@@ -58,7 +56,6 @@ public class AntiSpamHelper implements IFilterHelper {
                 
                 MessageCreateBuilder mb = new MessageCreateBuilder();
                 mb.addEmbeds(eb.build());
-                mb.addFiles(files);
                 mb.addComponents(ActionRow.of(
                     Button.of(
                             ButtonStyle.DANGER,
@@ -72,7 +69,20 @@ public class AntiSpamHelper implements IFilterHelper {
                     )
                 ));
                 
-                Messaging.sendMessage(HifumiBot.getSelf().getConfig().channels.systemOutputChannelId, mb.build());
+                thumbnails.whenComplete((files, renderError) -> {
+                    try {
+                        // Without previews if they failed; the embed still lists the attachments
+                        if (renderError != null) {
+                            Messaging.logException("AntiSpamHelper", "run", renderError);
+                        } else {
+                            mb.addFiles(files);
+                        }
+                        
+                        Messaging.sendMessage(HifumiBot.getSelf().getConfig().channels.systemOutputChannelId, mb.build());
+                    } catch (Exception e) {
+                        Messaging.logException("AntiSpamHelper", "run", e);
+                    }
+                });
             } else {
                 EmbedBuilder eb = new EmbedBuilder();
                 eb.setTitle("Failed to timeout spammer");
@@ -99,9 +109,9 @@ public class AntiSpamHelper implements IFilterHelper {
         long cooldownSeconds = HifumiBot.getSelf().getConfig().spamOptions.cooldownSeconds;
         OffsetDateTime cooldownSubtracted = this.message.getTimeCreated().minusSeconds(cooldownSeconds);
         long cooldownEpochSeconds = cooldownSubtracted.toEpochSecond();
-        HashMap<Long, Integer> aggregateResults = Database.getMessageAggregateCountsByChannelSinceTime(this.message.getAuthor().getIdLong(), cooldownEpochSeconds);
+        int channelCount = HifumiBot.getSelf().getMessageRateTracker().countChannelsSince(this.message.getAuthor().getIdLong(), cooldownEpochSeconds);
 
-        if (aggregateResults.size() >= HifumiBot.getSelf().getConfig().spamOptions.maxMessages) {
+        if (channelCount >= HifumiBot.getSelf().getConfig().spamOptions.maxMessages) {
             return true;
         }
 
@@ -10,6 +10,7 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -25,7 +26,6 @@ import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
 import net.pcsx2.hifumi.HifumiBot;
 import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.moderation.ModActions;
-import net.pcsx2.hifumi.util.AttachmentUtils;
 import net.pcsx2.hifumi.util.EmbedUtil;
 import net.pcsx2.hifumi.util.Messaging;
 import net.pcsx2.hifumi.util.RoleUtils;
@@ -104,11 +104,23 @@ public class HoneypotHelper implements IFilterHelper {
         // Attachments
         eb.addField(EmbedUtil.newAttachmentListField(this.message.getAttachments()));
 
-        ArrayList<FileUpload> files = AttachmentUtils.getMinifiedAttachments(message);
+        CompletableFuture<ArrayList<FileUpload>> thumbnails = HifumiBot.getSelf().getThumbnailService().render(this.message);
         MessageCreateBuilder mb = new MessageCreateBuilder();
         mb.addEmbeds(eb.build());
-        mb.addFiles(files);
-        Messaging.logInfoMessage(mb.build());
+        thumbnails.whenComplete((files, renderError) -> {
+            try {
+                // Without previews if they failed; the embed still lists the attachments
+                if (renderError != null) {
+                    Messaging.logException("HoneypotHelper", "notifyStaff", renderError);
+                } else {
+                    mb.addFiles(files);
+                }
+                
+                Messaging.logInfoMessage(mb.build());
+            } catch (Exception e) {
+                Messaging.logException("HoneypotHelper", "notifyStaff", e);
+            }
+        });
     }
     
     private void updateChannel() {
@@ -15,6 +15,10 @@ public class MessageFilteringRunnable implements Runnable {
     public MessageFilteringRunnable(Message message) {
         this.message = message;
     }
+
+    public long getAuthorIdLong() {
+        return this.message.getAuthor().getIdLong();
+    }
     
     @Override
     public void run() {
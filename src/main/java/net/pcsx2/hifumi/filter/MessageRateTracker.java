@@ -0,0 +1,347 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.filter;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.config.Config;
+import net.pcsx2.hifumi.database.Database;
+import net.pcsx2.hifumi.database.objects.MessageActivityObject;
+import net.pcsx2.hifumi.permissions.PermissionLevel;
+import net.pcsx2.hifumi.permissions.PermissionManager;
+
+/**
+ * Sliding-window view of recent message activity, so the spam filters can answer
+ * "how many channels has this user posted in lately" without going to the database.
+ * <br><br>
+ * For each user, keeps the last time they posted in each channel, and the last time they posted
+ * an attachment there. That is exactly enough to count distinct channels since any point in
+ * the window, no matter how many messages were sent. Entries which fall out of the window are
+ * dropped as users post, and by {@link #evictExpired()} for users who went quiet.
+ * <br><br>
+ * Also keeps each user's last few minutes of messages, to catch the same message posted to several channels.
+ * Message events are sharded by channel, so copies posted at once are handled at the same time on
+ * different shards; checking and recording under the user's stripe lock means the later one always sees the earlier.
+ * <br><br>
+ * Users are spread over a fixed set of lock stripes, so the event thread recording
+ * a message only contends with filters looking at users in the same stripe.
+ */
+public class MessageRateTracker {
+
+    private static final int STRIPE_COUNT = 16;
+    private static final long DUPLICATE_WINDOW_SECONDS = 5 * 60;
+    // Shorter messages are probably just emotes or basic greetings, etc.
+    private static final int MIN_DUPLICATE_LENGTH = 10;
+    // Most recent messages kept per user, so a flood from one user stays bounded
+    private static final int MAX_RECENT_MESSAGES = 32;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    public MessageRateTracker() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Seed the tracker from the database with everything still inside the window,
+     * so a restart doesn't give spammers a clean slate.
+     */
+    public void rebuild() {
+        long since = (System.currentTimeMillis() / 1000) - getWindowSeconds();
+
+        for (MessageActivityObject activity : Database.getMessageActivitySinceTime(since)) {
+            this.record(activity.getUserId(), activity.getChannelId(), activity.getTimestamp(), activity.hasAttachments());
+        }
+    }
+
+    /**
+     * Record a message, skipping the same people the database never held send events for here:
+     * mods, who the filters never check, and anyone with the message log bypass role.
+     * @param message
+     * @return The user's latest copy of the same message in another channel from the last five minutes, or null.
+     */
+    public RecentMessage record(Message message) {
+        PermissionManager permissionManager = HifumiBot.getSelf().getPermissionManager();
+
+        if (permissionManager.hasPermission(PermissionLevel.MOD, message.getMember()) || permissionManager.hasMessageLogBypass(message)) {
+            return null;
+        }
+
+        String content = message.getContentDisplay().length() > MIN_DUPLICATE_LENGTH ? message.getContentRaw() : null;
+        return this.record(message.getAuthor().getIdLong(), message.getChannel().getIdLong(), message.getIdLong(), message.getTimeCreated().toEpochSecond(), !message.getAttachments().isEmpty(), content);
+    }
+
+    public void record(long userIdLong, long channelIdLong, long epochSeconds, boolean hasAttachments) {
+        this.record(userIdLong, channelIdLong, 0, epochSeconds, hasAttachments, null);
+    }
+
+    /**
+     * @param userIdLong
+     * @param channelIdLong
+     * @param messageIdLong
+     * @param epochSeconds
+     * @param hasAttachments
+     * @param content The message to look for copies of, or null to not check this one.
+     * @return The user's latest copy of the same message in another channel from the last five minutes, or null.
+     * The copy is forgotten, since the caller is expected to delete it.
+     */
+    public RecentMessage record(long userIdLong, long channelIdLong, long messageIdLong, long epochSeconds, boolean hasAttachments, String content) {
+        Stripe stripe = this.stripeFor(userIdLong);
+        long expiry = epochSeconds - getWindowSeconds();
+
+        synchronized (stripe) {
+            UserActivity activity = stripe.users.get(userIdLong);
+
+            if (activity == null) {
+                activity = new UserActivity();
+                stripe.users.put(userIdLong, activity);
+            }
+
+            activity.evictBefore(expiry);
+            activity.record(channelIdLong, epochSeconds, hasAttachments);
+
+            if (content == null) {
+                return null;
+            }
+
+            activity.evictRecentBefore(epochSeconds - DUPLICATE_WINDOW_SECONDS);
+            RecentMessage copy = activity.takeCopy(channelIdLong, content);
+            activity.recent.addLast(new RecentMessage(messageIdLong, channelIdLong, epochSeconds, content));
+
+            if (activity.recent.size() > MAX_RECENT_MESSAGES) {
+                activity.recent.removeFirst();
+            }
+
+            return copy;
+        }
+    }
+
+    /**
+     * Stop matching a message which has been deleted.
+     * @param userIdLong
+     * @param messageIdLong
+     */
+    public void forget(long userIdLong, long messageIdLong) {
+        Stripe stripe = this.stripeFor(userIdLong);
+
+        synchronized (stripe) {
+            UserActivity activity = stripe.users.get(userIdLong);
+
+            if (activity != null) {
+                activity.recent.removeIf(recent -> recent.messageIdLong == messageIdLong);
+            }
+        }
+    }
+
+    /**
+     * @param userIdLong
+     * @param sinceEpochSeconds
+     * @return The number of distinct channels the user has posted in since the given time.
+     */
+    public int countChannelsSince(long userIdLong, long sinceEpochSeconds) {
+        return this.count(userIdLong, sinceEpochSeconds, false);
+    }
+
+    /**
+     * @param userIdLong
+     * @param sinceEpochSeconds
+     * @return The number of distinct channels the user has posted an attachment in since the given time.
+     */
+    public int countAttachmentChannelsSince(long userIdLong, long sinceEpochSeconds) {
+        return this.count(userIdLong, sinceEpochSeconds, true);
+    }
+
+    private int count(long userIdLong, long sinceEpochSeconds, boolean attachmentsOnly) {
+        Stripe stripe = this.stripeFor(userIdLong);
+
+        synchronized (stripe) {
+            UserActivity activity = stripe.users.get(userIdLong);
+            return activity == null ? 0 : activity.count(sinceEpochSeconds, attachmentsOnly);
+        }
+    }
+
+    /**
+     * Drop everything which has fallen out of the window, including users with nothing left.
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis() / 1000;
+        long expiry = now - getWindowSeconds();
+
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                Iterator<UserActivity> it = stripe.users.values().iterator();
+
+                while (it.hasNext()) {
+                    UserActivity activity = it.next();
+                    activity.evictBefore(expiry);
+                    activity.evictRecentBefore(now - DUPLICATE_WINDOW_SECONDS);
+
+                    if (activity.size == 0 && activity.recent.isEmpty()) {
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    public int getTrackedUserCount() {
+        int total = 0;
+
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                total += stripe.users.size();
+            }
+        }
+
+        return total;
+    }
+
+    private Stripe stripeFor(long userIdLong) {
+        // Snowflakes are sequential in their high bits; mix before masking so the stripes fill evenly
+        long mixed = userIdLong * 0x9E3779B97F4A7C15L;
+        return this.stripes[(int) (mixed >>> 60) & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * The window has to cover the longest cooldown of any filter reading from the tracker.
+     * Read on every call so config reloads take effect.
+     */
+    private static long getWindowSeconds() {
+        Config config = HifumiBot.getSelf().getConfig();
+        return Math.max(config.spamOptions.cooldownSeconds, config.antiAttachmentOptions.cooldownSeconds);
+    }
+
+    private static class Stripe {
+        private final HashMap<Long, UserActivity> users = new HashMap<Long, UserActivity>();
+    }
+
+    public static class RecentMessage {
+        private final long messageIdLong;
+        private final long channelIdLong;
+        private final long epochSeconds;
+        private final String content;
+
+        private RecentMessage(long messageIdLong, long channelIdLong, long epochSeconds, String content) {
+            this.messageIdLong = messageIdLong;
+            this.channelIdLong = channelIdLong;
+            this.epochSeconds = epochSeconds;
+            this.content = content;
+        }
+
+        public long getMessageId() {
+            return this.messageIdLong;
+        }
+
+        public long getChannelId() {
+            return this.channelIdLong;
+        }
+    }
+
+    /**
+     * Per-channel last-seen times for one user, in parallel primitive arrays.
+     * A user is only ever active in a handful of channels at once, so a linear scan beats hashing.
+     */
+    private static class UserActivity {
+        private long[] channels = new long[4];
+        private long[] lastMessage = new long[4];
+        // 0 if no attachment has been posted in that channel within the window
+        private long[] lastAttachment = new long[4];
+        private int size = 0;
+        // Messages worth checking for copies, oldest first
+        private final ArrayDeque<RecentMessage> recent = new ArrayDeque<RecentMessage>();
+
+        private void record(long channelIdLong, long epochSeconds, boolean hasAttachments) {
+            int i = this.indexOf(channelIdLong);
+
+            if (i < 0) {
+                if (this.size == this.channels.length) {
+                    int newLength = this.size * 2;
+                    this.channels = Arrays.copyOf(this.channels, newLength);
+                    this.lastMessage = Arrays.copyOf(this.lastMessage, newLength);
+                    this.lastAttachment = Arrays.copyOf(this.lastAttachment, newLength);
+                }
+
+                i = this.size++;
+                this.channels[i] = channelIdLong;
+                this.lastMessage[i] = 0;
+                this.lastAttachment[i] = 0;
+            }
+
+            this.lastMessage[i] = Math.max(this.lastMessage[i], epochSeconds);
+
+            if (hasAttachments) {
+                this.lastAttachment[i] = Math.max(this.lastAttachment[i], epochSeconds);
+            }
+        }
+
+        private int count(long sinceEpochSeconds, boolean attachmentsOnly) {
+            long[] times = attachmentsOnly ? this.lastAttachment : this.lastMessage;
+            int count = 0;
+
+            for (int i = 0; i < this.size; i++) {
+                if (times[i] != 0 && times[i] >= sinceEpochSeconds) {
+                    count++;
+                }
+            }
+
+            return count;
+        }
+
+        private void evictBefore(long expiry) {
+            int kept = 0;
+
+            for (int i = 0; i < this.size; i++) {
+                if (this.lastMessage[i] < expiry) {
+                    continue;
+                }
+
+                this.channels[kept] = this.channels[i];
+                this.lastMessage[kept] = this.lastMessage[i];
+                this.lastAttachment[kept] = this.lastAttachment[i] < expiry ? 0 : this.lastAttachment[i];
+                kept++;
+            }
+
+            this.size = kept;
+        }
+
+        private void evictRecentBefore(long expiry) {
+            while (!this.recent.isEmpty() && this.recent.peekFirst().epochSeconds < expiry) {
+                this.recent.removeFirst();
+            }
+        }
+
+        /**
+         * Remove and return the latest message with the same content in a different channel.
+         */
+        private RecentMessage takeCopy(long channelIdLong, String content) {
+            Iterator<RecentMessage> it = this.recent.descendingIterator();
+
+            while (it.hasNext()) {
+                RecentMessage recent = it.next();
+
+                if (recent.channelIdLong != channelIdLong && recent.content.equals(content)) {
+                    it.remove();
+                    return recent;
+                }
+            }
+
+            return null;
+        }
+
+        private int indexOf(long channelIdLong) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.channels[i] == channelIdLong) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+    }
+}
@@ -15,11 +15,15 @@ import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.Message.Attachment;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.config.Config.ScamHashOptions;
 import net.pcsx2.hifumi.database.Database;
 import net.pcsx2.hifumi.database.objects.ScamHashObject;
 import net.pcsx2.hifumi.moderation.ModActions;
 import net.pcsx2.hifumi.util.AttachmentUtils;
+import net.pcsx2.hifumi.util.BKTree;
 import net.pcsx2.hifumi.util.EmbedUtil;
+import net.pcsx2.hifumi.util.ImageHashes;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class ScamHashHelper implements IFilterHelper {
@@ -30,6 +34,8 @@ public class ScamHashHelper implements IFilterHelper {
     
     private String sha256;
     private String hashDescription;
+    // Set when the match was by perceptual hash rather than an exact SHA
+    private int dHashDistance = -1;
     
     public ScamHashHelper(Message message) {
         this.message = message;
@@ -40,6 +46,7 @@ public class ScamHashHelper implements IFilterHelper {
         boolean res = this.evaluate();
         
         if (res) {
+            Database.insertScamHashMatch(OffsetDateTime.now().toEpochSecond(), this.sha256, this.message.getIdLong());
             ModActions.timeoutAndNotifyUser(this.message.getGuild(), this.message.getAuthor().getId());
             this.autoKick();
             this.notifyStaff();
@@ -49,15 +56,37 @@ public class ScamHashHelper implements IFilterHelper {
     }
 
     private boolean evaluate() {
+        int maxDistance = HifumiBot.getSelf().getConfig().scamHashOptions.maxDHashDistance;
+        ScamHashIndex index = HifumiBot.getSelf().getScamHashIndex();
+        
         for (Attachment attachment : this.message.getAttachments()) {
-            Optional<String> sha256Opt = AttachmentUtils.generateImageSHA256(attachment);
+            if (!isHashable(attachment)) {
+                continue;
+            }
+            
+            Optional<ImageHashes> hashesOpt = AttachmentUtils.generateImageHashes(attachment);
+            
+            if (hashesOpt.isEmpty()) {
+                continue;
+            }
+            
+            ImageHashes hashes = hashesOpt.get();
+            this.sha256 = hashes.getSHA256();
+            Optional<ScamHashObject> scamHashOpt = index.findExact(this.sha256);
             
-            if (sha256Opt.isPresent()) {
-                this.sha256 = sha256Opt.get();
-                Optional<ScamHashObject> scamHashOpt = Database.getActiveScamHash(this.sha256);
+            if (scamHashOpt.isPresent()) {
+                this.hashDescription = scamHashOpt.get().getDescription();
+                return true;
+            }
+            
+            // Not byte identical; check whether it is a re-encoded or edited copy
+            if (maxDistance > 0 && hashes.getDHash().isPresent()) {
+                Optional<BKTree.Match<ScamHashObject>> nearOpt = index.findNearest(hashes.getDHash().getAsLong(), maxDistance);
                 
-                if (scamHashOpt.isPresent()) {
-                    this.hashDescription = scamHashOpt.get().getDescription();
+                if (nearOpt.isPresent()) {
+                    this.sha256 = nearOpt.get().getValue().getSHA256();
+                    this.hashDescription = nearOpt.get().getValue().getDescription();
+                    this.dHashDistance = nearOpt.get().getDistance();
                     return true;
                 }
             }
@@ -66,6 +95,34 @@ public class ScamHashHelper implements IFilterHelper {
         return false;
     }
     
+    /**
+     * Decide from what Discord tells us up front whether an attachment is worth downloading and hashing at all.
+     * @param attachment
+     * @return
+     */
+    private static boolean isHashable(Attachment attachment) {
+        ScamHashOptions options = HifumiBot.getSelf().getConfig().scamHashOptions;
+        
+        if (attachment.getSize() > options.maxHashMegabytes * 1024L * 1024L) {
+            return false;
+        }
+        
+        String contentType = attachment.getContentType();
+        
+        if (contentType == null) {
+            // Discord could not tell; go by the file extension
+            return attachment.isImage() || attachment.isVideo();
+        }
+        
+        for (String prefix : options.hashContentTypes) {
+            if (contentType.startsWith(prefix)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
     private void autoKick() {
         Guild server = this.message.getGuild();
         Member member = this.message.getMember();
@@ -87,6 +144,11 @@ public class ScamHashHelper implements IFilterHelper {
         eb.addField("Username", user.getName(), true);
         eb.addField("Display Name (as mention)", user.getAsMention(), true);
         eb.addField("Matched SHA3-256 Hash", this.sha256, false);
+        
+        if (this.dHashDistance >= 0) {
+            eb.addField("Perceptual Match", "Not byte identical; image differs from the known hash by " + this.dHashDistance + " / 64 bits", false);
+        }
+        
         eb.addField("Hash Description", this.hashDescription, false);
         eb.setColor(Color.YELLOW);
         
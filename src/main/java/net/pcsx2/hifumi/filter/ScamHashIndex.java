@@ -0,0 +1,84 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.filter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Optional;
+
+import net.pcsx2.hifumi.database.Database;
+import net.pcsx2.hifumi.database.objects.ScamHashObject;
+import net.pcsx2.hifumi.util.BKTree;
+import net.pcsx2.hifumi.util.BloomFilter;
+
+/**
+ * In-memory copy of the active scam hashes, so checking an attachment never goes to the database.
+ * Exact SHA3-256 lookups go through a bloom filter first, since nearly every image posted is not a scam;
+ * the perceptual hashes are held in a BK-tree, for catching copies which have been re-encoded or
+ * lightly edited and so no longer match by SHA.
+ * <br><br>
+ * Everything is rebuilt from the database whenever the scam hash list changes, and swapped
+ * in whole, so lookups never see a half-built index and never need to lock.
+ */
+public class ScamHashIndex {
+
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.001;
+
+    private volatile Snapshot snapshot = new Snapshot(new ArrayList<ScamHashObject>());
+
+    public void refresh() {
+        this.snapshot = new Snapshot(Database.getActiveScamHashes());
+    }
+
+    /**
+     * @param sha256
+     * @return The active scam hash with exactly this SHA3-256 sum, if any.
+     */
+    public Optional<ScamHashObject> findExact(String sha256) {
+        Snapshot current = this.snapshot;
+
+        if (!current.bloom.mightContain(sha256)) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(current.bySha256.get(sha256));
+    }
+
+    /**
+     * @param dHash
+     * @param maxDistance
+     * @return The closest active scam hash within maxDistance bits of the given perceptual hash, if any.
+     */
+    public Optional<BKTree.Match<ScamHashObject>> findNearest(long dHash, int maxDistance) {
+        ArrayList<BKTree.Match<ScamHashObject>> matches = this.snapshot.tree.search(dHash, maxDistance);
+        return matches.isEmpty() ? Optional.empty() : Optional.of(matches.get(0));
+    }
+
+    public int size() {
+        return this.snapshot.bySha256.size();
+    }
+
+    public int getPerceptualSize() {
+        return this.snapshot.tree.size();
+    }
+
+    private static class Snapshot {
+        private final BloomFilter bloom;
+        private final HashMap<String, ScamHashObject> bySha256;
+        private final BKTree<ScamHashObject> tree = new BKTree<ScamHashObject>();
+
+        private Snapshot(ArrayList<ScamHashObject> scamHashes) {
+            this.bloom = new BloomFilter(scamHashes.size(), BLOOM_FALSE_POSITIVE_RATE);
+            this.bySha256 = new HashMap<String, ScamHashObject>(scamHashes.size() * 2);
+
+            for (ScamHashObject scamHash : scamHashes) {
+                this.bloom.add(scamHash.getSHA256());
+                this.bySha256.put(scamHash.getSHA256(), scamHash);
+
+                if (scamHash.getDHash().isPresent()) {
+                    this.tree.add(scamHash.getDHash().getAsLong(), scamHash);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+import java.util.Map;
+
+/**
+ * The clampModes section of a GameIndex.yaml entry. Modes the entry does not set are null.
+ */
+public record ClampModes(CodedSetting<EeClampMode> ee, CodedSetting<VuClampMode> vu, CodedSetting<VuClampMode> vu0, CodedSetting<VuClampMode> vu1) {
+
+    public static ClampModes fromYaml(Map<String, Object> map) {
+        return new ClampModes(
+            YamlValues.coded(map, "eeClampMode", EeClampMode.class),
+            YamlValues.coded(map, "vuClampMode", VuClampMode.class),
+            YamlValues.coded(map, "vu0ClampMode", VuClampMode.class),
+            YamlValues.coded(map, "vu1ClampMode", VuClampMode.class)
+        );
+    }
+
+    public enum EeClampMode implements CodedValue {
+
+        DISABLE(0, "Disable"),
+        NORMAL(1, "Normal"),
+        EXTRA_PRESERVE_SIGN(2, "Extra + Preserve Sign"),
+        FULL(3, "Full Clamping");
+
+        private final int code;
+        private final String displayString;
+
+        private EeClampMode(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum VuClampMode implements CodedValue {
+
+        DISABLE(0, "Disable"),
+        NORMAL(1, "Normal"),
+        EXTRA(2, "Extra"),
+        EXTRA_PRESERVE_SIGN(3, "Extra + Preserve Sign");
+
+        private final int code;
+        private final String displayString;
+
+        private VuClampMode(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+}
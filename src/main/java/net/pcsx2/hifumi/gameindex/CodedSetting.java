@@ -0,0 +1,22 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+/**
+ * A coded setting as GameIndex.yaml wrote it. The raw code is kept alongside the constant so a code
+ * added to PCSX2 after these enums still shows up, rather than the setting vanishing.
+ * @param code The number from GameIndex.yaml.
+ * @param value The matching constant, or null if the code is not one this knows about.
+ */
+public record CodedSetting<E extends Enum<E> & CodedValue>(int code, E value) implements CodedValue {
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    @Override
+    public String getDisplayString() {
+        return value == null ? "Unknown (" + code + ")" : value.getDisplayString();
+    }
+}
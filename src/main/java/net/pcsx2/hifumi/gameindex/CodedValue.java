@@ -0,0 +1,28 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+/**
+ * A GameIndex.yaml setting which is stored as a number, along with the name PCSX2 shows for it.
+ */
+public interface CodedValue {
+
+    public int getCode();
+
+    public String getDisplayString();
+
+    /**
+     * @param type
+     * @param code
+     * @return The constant of type with this code, or null if GameIndex.yaml used a code this does not know about.
+     */
+    public static <E extends Enum<E> & CodedValue> E fromCode(Class<E> type, int code) {
+        for (E value : type.getEnumConstants()) {
+            if (value.getCode() == code) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+}
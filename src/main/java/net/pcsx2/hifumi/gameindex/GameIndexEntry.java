@@ -0,0 +1,107 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One serial's entry in GameIndex.yaml. Fields and sections the entry does not have are null,
+ * apart from lists and patches which are empty.
+ * @param patches Patch content by CRC, in file order. A CRC may be listed without any content.
+ */
+public record GameIndexEntry(
+        String serial,
+        String name,
+        String nameSort,
+        String nameEnglish,
+        String region,
+        CodedSetting<Compatibility> compat,
+        List<String> memcardFilters,
+        RoundModes roundModes,
+        ClampModes clampModes,
+        SpeedHacks speedHacks,
+        List<String> gameFixes,
+        GsHWFixes gsHWFixes,
+        Map<String, String> patches) {
+
+    public static GameIndexEntry fromYaml(String serial, Map<String, Object> map) {
+        Map<String, Object> roundModes = YamlValues.section(map, "roundModes");
+        Map<String, Object> clampModes = YamlValues.section(map, "clampModes");
+        Map<String, Object> speedHacks = YamlValues.section(map, "speedHacks");
+        Map<String, Object> gsHWFixes = YamlValues.section(map, "gsHWFixes");
+        String name = YamlValues.string(map, "name");
+
+        return new GameIndexEntry(
+            serial.toUpperCase(Locale.ROOT),
+            name == null ? "" : name,
+            YamlValues.string(map, "name-sort"),
+            YamlValues.string(map, "name-en"),
+            YamlValues.string(map, "region"),
+            YamlValues.coded(map, "compat", Compatibility.class),
+            YamlValues.strings(map, "memcardFilters"),
+            roundModes == null ? null : RoundModes.fromYaml(roundModes),
+            clampModes == null ? null : ClampModes.fromYaml(clampModes),
+            speedHacks == null ? null : SpeedHacks.fromYaml(speedHacks),
+            YamlValues.strings(map, "gameFixes"),
+            gsHWFixes == null ? null : GsHWFixes.fromYaml(gsHWFixes),
+            patches(YamlValues.section(map, "patches"))
+        );
+    }
+
+    /**
+     * SnakeYAML reads a CRC made up only of digits as a number, so keys are turned back into strings here.
+     */
+    private static Map<String, String> patches(Map<String, Object> map) {
+        if (map == null) {
+            return Map.of();
+        }
+
+        LinkedHashMap<String, String> patches = new LinkedHashMap<String, String>();
+
+        for (Object crc : map.keySet()) {
+            Object patch = map.get(crc);
+            String content = null;
+
+            if (patch instanceof Map<?, ?> patchMap && patchMap.get("content") != null) {
+                content = String.valueOf(patchMap.get("content"));
+            }
+
+            patches.put(String.valueOf(crc).toUpperCase(Locale.ROOT), content);
+        }
+
+        return Collections.unmodifiableMap(patches);
+    }
+
+    public enum Compatibility implements CodedValue {
+
+        UNKNOWN(0, "Unknown"),
+        NOTHING(1, "Nothing"),
+        INTRO(2, "Intro"),
+        MENU(3, "Menu"),
+        IN_GAME(4, "In-game"),
+        PLAYABLE(5, "Playable"),
+        PERFECT(6, "Perfect");
+
+        private final int code;
+        private final String displayString;
+
+        private Compatibility(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+}
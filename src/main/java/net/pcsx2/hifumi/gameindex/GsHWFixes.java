@@ -0,0 +1,427 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+import java.util.Map;
+
+/**
+ * The gsHWFixes section of a GameIndex.yaml entry. Fixes the entry does not set are null.
+ */
+public record GsHWFixes(
+        CodedSetting<AutoFlush> autoFlush,
+        CodedSetting<Toggle> conservativeFramebuffer,
+        CodedSetting<Toggle> cpuFramebufferConversion,
+        CodedSetting<Toggle> disableDepthSupport,
+        CodedSetting<Toggle> wrapGSMem,
+        CodedSetting<Toggle> preloadFrameData,
+        CodedSetting<Toggle> disablePartialInvalidation,
+        CodedSetting<Toggle> textureInsideRT,
+        CodedSetting<Toggle> alignSprite,
+        CodedSetting<Toggle> mergeSprite,
+        CodedSetting<Toggle> wildArmsHack,
+        CodedSetting<Toggle> pointListPalette,
+        CodedSetting<Mipmap> mipmap,
+        CodedSetting<TrilinearFiltering> trilinearFiltering,
+        Integer skipDrawStart,
+        Integer skipDrawEnd,
+        String getSkipCount,
+        String beforeDraw,
+        CodedSetting<HalfBottomOverride> halfBottomOverride,
+        CodedSetting<HalfPixelOffset> halfPixelOffset,
+        CodedSetting<RoundSprite> roundSprite,
+        CodedSetting<TexturePreloading> texturePreloading,
+        CodedSetting<Deinterlace> deinterlace,
+        Integer cpuSpriteRenderBW,
+        Integer cpuCLUTRender,
+        CodedSetting<GpuTargetClut> gpuTargetCLUT,
+        CodedSetting<GpuPaletteConversion> gpuPaletteConversion,
+        CodedSetting<BlendingLevel> recommendedBlendingLevel,
+        CodedSetting<BlendingLevel> maximumBlendingLevel,
+        CodedSetting<BlendingLevel> minimumBlendingLevel,
+        CodedSetting<Toggle> pcrtcOffsets,
+        CodedSetting<Toggle> pcrtcOverscan,
+        CodedSetting<CpuSpriteRenderLevel> cpuSpriteRenderLevel,
+        CodedSetting<Toggle> nativePaletteDraw,
+        CodedSetting<Toggle> bilinearUpscale,
+        CodedSetting<NativeScaling> nativeScaling) {
+
+    public static GsHWFixes fromYaml(Map<String, Object> map) {
+        return new GsHWFixes(
+            YamlValues.coded(map, "autoFlush", AutoFlush.class),
+            YamlValues.coded(map, "conservativeFramebuffer", Toggle.class),
+            YamlValues.coded(map, "cpuFramebufferConversion", Toggle.class),
+            YamlValues.coded(map, "disableDepthSupport", Toggle.class),
+            YamlValues.coded(map, "wrapGSMem", Toggle.class),
+            YamlValues.coded(map, "preloadFrameData", Toggle.class),
+            YamlValues.coded(map, "disablePartialInvalidation", Toggle.class),
+            YamlValues.coded(map, "textureInsideRT", Toggle.class),
+            YamlValues.coded(map, "alignSprite", Toggle.class),
+            YamlValues.coded(map, "mergeSprite", Toggle.class),
+            YamlValues.coded(map, "wildArmsHack", Toggle.class),
+            YamlValues.coded(map, "pointListPalette", Toggle.class),
+            YamlValues.coded(map, "mipmap", Mipmap.class),
+            YamlValues.coded(map, "trilinearFiltering", TrilinearFiltering.class),
+            YamlValues.integer(map, "skipDrawStart"),
+            YamlValues.integer(map, "skipDrawEnd"),
+            YamlValues.string(map, "getSkipCount"),
+            YamlValues.string(map, "beforeDraw"),
+            YamlValues.coded(map, "halfBottomOverride", HalfBottomOverride.class),
+            YamlValues.coded(map, "halfPixelOffset", HalfPixelOffset.class),
+            YamlValues.coded(map, "roundSprite", RoundSprite.class),
+            YamlValues.coded(map, "texturePreloading", TexturePreloading.class),
+            YamlValues.coded(map, "deinterlace", Deinterlace.class),
+            YamlValues.integer(map, "cpuSpriteRenderBW"),
+            YamlValues.integer(map, "cpuCLUTRender"),
+            YamlValues.coded(map, "gpuTargetCLUT", GpuTargetClut.class),
+            YamlValues.coded(map, "gpuPaletteConversion", GpuPaletteConversion.class),
+            YamlValues.coded(map, "recommendedBlendingLevel", BlendingLevel.class),
+            YamlValues.coded(map, "maximumBlendingLevel", BlendingLevel.class),
+            YamlValues.coded(map, "minimumBlendingLevel", BlendingLevel.class),
+            YamlValues.coded(map, "PCRTCOffsets", Toggle.class),
+            YamlValues.coded(map, "PCRTCOverscan", Toggle.class),
+            YamlValues.coded(map, "cpuSpriteRenderLevel", CpuSpriteRenderLevel.class),
+            YamlValues.coded(map, "nativePaletteDraw", Toggle.class),
+            YamlValues.coded(map, "bilinearUpscale", Toggle.class),
+            YamlValues.coded(map, "nativeScaling", NativeScaling.class)
+        );
+    }
+
+    public enum AutoFlush implements CodedValue {
+
+        OFF(0, "Off"),
+        SPRITES(1, "Sprites Only"),
+        ALL(2, "All Primitives");
+
+        private final int code;
+        private final String displayString;
+
+        private AutoFlush(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum Mipmap implements CodedValue {
+
+        OFF(0, "Off"),
+        BASIC(1, "Basic"),
+        FULL(2, "Full");
+
+        private final int code;
+        private final String displayString;
+
+        private Mipmap(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum TrilinearFiltering implements CodedValue {
+
+        NONE(0, "None"),
+        TRILINEAR(1, "Trilinear"),
+        TRILINEAR_ULTRA(2, "Trilinear Ultra");
+
+        private final int code;
+        private final String displayString;
+
+        private TrilinearFiltering(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum HalfBottomOverride implements CodedValue {
+
+        FORCE_DISABLED(0, "Force Disabled"),
+        FORCE_ENABLED(1, "Force Enabled");
+
+        private final int code;
+        private final String displayString;
+
+        private HalfBottomOverride(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum HalfPixelOffset implements CodedValue {
+
+        OFF(0, "Off"),
+        NORMAL(1, "Normal (Vertex)"),
+        SPECIAL(2, "Special (Texture)"),
+        SPECIAL_AGGRESSIVE(3, "Special (Texture - Aggressive)"),
+        ALIGN_TO_NATIVE(4, "Align to Native"),
+        ALIGN_TO_NATIVE_TEXTURE_OFFSET(5, "Align to Native with Texture Offset");
+
+        private final int code;
+        private final String displayString;
+
+        private HalfPixelOffset(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum RoundSprite implements CodedValue {
+
+        OFF(0, "Off"),
+        HALF(1, "Half"),
+        FULL(2, "Full");
+
+        private final int code;
+        private final String displayString;
+
+        private RoundSprite(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum TexturePreloading implements CodedValue {
+
+        NONE(0, "None"),
+        PARTIAL(1, "Partial"),
+        FULL(2, "Full (Hash Cache)");
+
+        private final int code;
+        private final String displayString;
+
+        private TexturePreloading(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum Deinterlace implements CodedValue {
+
+        AUTOMATIC(0, "Automatic"),
+        NONE(1, "None"),
+        WEAVE_TFF(2, "Weave (TFF)"),
+        WEAVE_BFF(3, "Weave (BFF)"),
+        BOB_TFF(4, "Bob (TFF)"),
+        BOB_BFF(5, "Bob (BFF)"),
+        BLEND_TFF(6, "Blend (TFF)"),
+        BLEND_BFF(7, "Blend (BFF)"),
+        ADAPTIVE_TFF(8, "Adaptive (TFF)"),
+        ADAPTIVE_BFF(9, "Adaptive (BFF)");
+
+        private final int code;
+        private final String displayString;
+
+        private Deinterlace(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum GpuTargetClut implements CodedValue {
+
+        DISABLED(0, "Disabled"),
+        EXACT_MATCH(1, "Enabled (Exact Match)"),
+        INSIDE_TARGET(2, "Enabled (Check Inside Target)");
+
+        private final int code;
+        private final String displayString;
+
+        private GpuTargetClut(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum GpuPaletteConversion implements CodedValue {
+
+        OFF(0, "Off"),
+        ON(1, "On"),
+        ON_RESTRICT_PALTEX(2, "On + Restrict paltex");
+
+        private final int code;
+        private final String displayString;
+
+        private GpuPaletteConversion(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum BlendingLevel implements CodedValue {
+
+        MINIMUM(0, "Minimum"),
+        BASIC(1, "Basic"),
+        MEDIUM(2, "Medium"),
+        HIGH(3, "High"),
+        FULL(4, "Full"),
+        MAXIMUM(5, "Maximum");
+
+        private final int code;
+        private final String displayString;
+
+        private BlendingLevel(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum CpuSpriteRenderLevel implements CodedValue {
+
+        SPRITES(0, "Sprites Only"),
+        SPRITES_TRIANGLES(1, "Sprites/Triangles"),
+        BLENDED_SPRITES_TRIANGLES(2, "Blended Sprites/Triangles");
+
+        private final int code;
+        private final String displayString;
+
+        private CpuSpriteRenderLevel(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+
+    public enum NativeScaling implements CodedValue {
+
+        OFF(0, "Off"),
+        NORMAL(1, "Normal"),
+        AGGRESSIVE(2, "Aggressive"),
+        NORMAL_MAINTAIN_UPSCALE(3, "Normal (Maintain Upscale)"),
+        AGGRESSIVE_MAINTAIN_UPSCALE(4, "Aggressive (Maintain Upscale)");
+
+        private final int code;
+        private final String displayString;
+
+        private NativeScaling(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+}
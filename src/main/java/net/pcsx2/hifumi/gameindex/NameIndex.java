@@ -0,0 +1,326 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Trigram index over every entry's name, sorting name and English name, so name searches
+ * only look at entries which share text with the search instead of every entry in the file.
+ * <br><br>
+ * Each trigram maps to the ids of the entries containing it, in file order. Substring searches
+ * intersect the lists for every trigram in the search and then check the few entries left;
+ * fuzzy searches rank entries by how many trigrams they share with the search and only score the best of those.
+ */
+public class NameIndex {
+
+    private static final int MIN_FUZZY_SCORE = 10;
+    // Enough to still find the right game when the search is mostly common words like "the" or "of"
+    private static final int MAX_FUZZY_CANDIDATES = 512;
+
+    private final List<GameIndexEntry> entries;
+    // Lowercased name, name-sort and name-en for each entry; null where the entry has none
+    private final String[][] names;
+    private final HashMap<Long, int[]> postings;
+
+    public NameIndex(List<GameIndexEntry> entries) {
+        this.entries = entries;
+        this.names = new String[entries.size()][];
+        HashMap<Long, Postings> building = new HashMap<Long, Postings>();
+
+        for (int id = 0; id < entries.size(); id++) {
+            GameIndexEntry entry = entries.get(id);
+            this.names[id] = new String[] { lower(entry.name()), lower(entry.nameSort()), lower(entry.nameEnglish()) };
+
+            for (String name : this.names[id]) {
+                if (name == null) {
+                    continue;
+                }
+
+                for (int i = 0; i + 3 <= name.length(); i++) {
+                    building.computeIfAbsent(trigram(name, i), k -> new Postings()).add(id);
+                }
+            }
+        }
+
+        this.postings = new HashMap<Long, int[]>(building.size() * 2);
+
+        for (Long key : building.keySet()) {
+            this.postings.put(key, building.get(key).toArray());
+        }
+    }
+
+    /**
+     * @param search
+     * @return Every entry with a name, sorting name or English name containing the search, ignoring case, in file order.
+     */
+    public ArrayList<GameIndexEntry> contains(String search) {
+        String lowered = lower(search);
+        ArrayList<GameIndexEntry> results = new ArrayList<GameIndexEntry>();
+
+        // Too short to have a trigram, so there is nothing to narrow by
+        if (lowered.length() < 3) {
+            for (int id = 0; id < this.names.length; id++) {
+                if (nameContains(id, lowered)) {
+                    results.add(this.entries.get(id));
+                }
+            }
+
+            return results;
+        }
+
+        ArrayList<int[]> lists = new ArrayList<int[]>();
+
+        for (int i = 0; i + 3 <= lowered.length(); i++) {
+            int[] list = this.postings.get(trigram(lowered, i));
+
+            if (list == null) {
+                return results;
+            }
+
+            lists.add(list);
+        }
+
+        // Start from the rarest trigram so the candidates shrink as fast as possible
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = lists.get(0).clone();
+        int count = candidates.length;
+
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = intersect(candidates, count, lists.get(i));
+        }
+
+        for (int i = 0; i < count; i++) {
+            // Sharing every trigram does not mean they appear in order, so check the real thing
+            if (nameContains(candidates[i], lowered)) {
+                results.add(this.entries.get(candidates[i]));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Fuzzy match a search against entries' names, sorting names and English names, scoring each the same way as
+     * {@link org.apache.commons.text.similarity.FuzzyScore} with the search as the term.
+     * @param search
+     * @param limit The most results to return.
+     * @return Serials and their scores, closest first, without anything under half the score of the closest.
+     */
+    public LinkedHashMap<String, Integer> fuzzy(String search, int limit) {
+        String lowered = lower(search);
+        LinkedHashMap<String, Integer> results = new LinkedHashMap<String, Integer>();
+
+        if (lowered.length() < 3 || limit <= 0) {
+            return results;
+        }
+
+        int[] shared = new int[this.names.length];
+        int[] touched = new int[this.names.length];
+        int touchedCount = 0;
+        int trigramCount = 0;
+
+        for (int i = 0; i + 3 <= lowered.length(); i++) {
+            int[] list = this.postings.get(trigram(lowered, i));
+            trigramCount++;
+
+            if (list == null) {
+                continue;
+            }
+
+            for (int id : list) {
+                if (shared[id]++ == 0) {
+                    touched[touchedCount++] = id;
+                }
+            }
+        }
+
+        // Count how many entries share each number of trigrams, then find the fewest shared
+        // trigrams an entry can have and still be among the best MAX_FUZZY_CANDIDATES.
+        int[] histogram = new int[trigramCount + 1];
+
+        for (int i = 0; i < touchedCount; i++) {
+            histogram[Math.min(shared[touched[i]], trigramCount)]++;
+        }
+
+        int cutoff = trigramCount;
+        int kept = histogram[cutoff];
+
+        while (cutoff > 1 && kept + histogram[cutoff - 1] <= MAX_FUZZY_CANDIDATES) {
+            cutoff--;
+            kept += histogram[cutoff];
+        }
+
+        PriorityQueue<Match> best = new PriorityQueue<Match>(limit + 1);
+
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+
+            if (shared[id] < cutoff) {
+                continue;
+            }
+
+            int score = 0;
+
+            for (String name : this.names[id]) {
+                if (name != null) {
+                    score = Math.max(score, fuzzyScore(lowered, name));
+                }
+            }
+
+            if (score < MIN_FUZZY_SCORE) {
+                continue;
+            }
+
+            Match match = new Match(id, score);
+
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (match.compareTo(best.peek()) > 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        Match[] sorted = best.toArray(new Match[0]);
+        Arrays.sort(sorted, (a, b) -> b.compareTo(a));
+
+        for (Match match : sorted) {
+            // Cull anything that isn't at least half the score of the highest result
+            if (match.score < Math.ceil(sorted[0].score / 2)) {
+                break;
+            }
+
+            results.put(this.entries.get(match.id).serial(), match.score);
+        }
+
+        return results;
+    }
+
+    private boolean nameContains(int id, String lowered) {
+        for (String name : this.names[id]) {
+            if (name != null && name.contains(lowered)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Keep the ids in candidates which are also in list. Both are sorted.
+     * @return How many of candidates are left, at the front of the array.
+     */
+    private static int intersect(int[] candidates, int count, int[] list) {
+        int kept = 0;
+        int j = 0;
+
+        for (int i = 0; i < count; i++) {
+            int id = candidates[i];
+
+            while (j < list.length && list[j] < id) {
+                j++;
+            }
+
+            if (j == list.length) {
+                break;
+            }
+
+            if (list[j] == id) {
+                candidates[kept++] = id;
+            }
+        }
+
+        return kept;
+    }
+
+    /**
+     * FuzzyScore's scoring on strings which are already lowercase, so names need not be lowercased for every search.
+     * Each character of the query found in the term, in order, is a point, with two more if it directly follows the last one found.
+     */
+    private static int fuzzyScore(String term, String query) {
+        int score = 0;
+        int termIndex = 0;
+        int previousMatchIndex = Integer.MIN_VALUE;
+
+        for (int queryIndex = 0; queryIndex < query.length(); queryIndex++) {
+            char queryChar = query.charAt(queryIndex);
+
+            for (; termIndex < term.length(); termIndex++) {
+                if (term.charAt(termIndex) == queryChar) {
+                    score++;
+
+                    if (previousMatchIndex + 1 == termIndex) {
+                        score += 2;
+                    }
+
+                    previousMatchIndex = termIndex;
+                    termIndex++;
+                    break;
+                }
+            }
+        }
+
+        return score;
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    private static String lower(String s) {
+        return s == null ? null : s.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        /**
+         * Ids arrive in order, and one entry's names are all indexed before the next, so a repeat is always the last id.
+         */
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+
+            ids[size++] = id;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+    private static class Match implements Comparable<Match> {
+        private final int id;
+        private final int score;
+
+        private Match(int id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        /**
+         * Ordered weakest first: lower score, then later in the file.
+         */
+        @Override
+        public int compareTo(Match other) {
+            if (this.score != other.score) {
+                return Integer.compare(this.score, other.score);
+            }
+
+            return Integer.compare(other.id, this.id);
+        }
+    }
+}
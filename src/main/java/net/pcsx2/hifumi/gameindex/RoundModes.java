@@ -0,0 +1,46 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+import java.util.Map;
+
+/**
+ * The roundModes section of a GameIndex.yaml entry. Modes the entry does not set are null.
+ */
+public record RoundModes(CodedSetting<RoundMode> ee, CodedSetting<RoundMode> vu, CodedSetting<RoundMode> vu0, CodedSetting<RoundMode> vu1) {
+
+    public static RoundModes fromYaml(Map<String, Object> map) {
+        return new RoundModes(
+            YamlValues.coded(map, "eeRoundMode", RoundMode.class),
+            YamlValues.coded(map, "vuRoundMode", RoundMode.class),
+            YamlValues.coded(map, "vu0RoundMode", RoundMode.class),
+            YamlValues.coded(map, "vu1RoundMode", RoundMode.class)
+        );
+    }
+
+    public enum RoundMode implements CodedValue {
+
+        NEAREST(0, "Nearest"),
+        NEGATIVE(1, "Negative Infinity"),
+        POSITIVE(2, "Positive Infinity"),
+        CHOP(3, "Chop (Zero)");
+
+        private final int code;
+        private final String displayString;
+
+        private RoundMode(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+import java.util.Map;
+
+/**
+ * The speedHacks section of a GameIndex.yaml entry. Hacks the entry does not set are null.
+ */
+public record SpeedHacks(CodedSetting<Toggle> mvuFlag, CodedSetting<Toggle> instantVU1, CodedSetting<Toggle> mtvu, CodedSetting<EeCycleRate> eeCycleRate) {
+
+    public static SpeedHacks fromYaml(Map<String, Object> map) {
+        return new SpeedHacks(
+            YamlValues.coded(map, "mvuFlag", Toggle.class),
+            YamlValues.coded(map, "instantVU1", Toggle.class),
+            YamlValues.coded(map, "mtvu", Toggle.class),
+            YamlValues.coded(map, "eeCycleRate", EeCycleRate.class)
+        );
+    }
+
+    public enum EeCycleRate implements CodedValue {
+
+        PERCENT_50(-3, "50%"),
+        PERCENT_60(-2, "60%"),
+        PERCENT_75(-1, "75%"),
+        PERCENT_100(0, "100%"),
+        PERCENT_130(1, "130%"),
+        PERCENT_180(2, "180%"),
+        PERCENT_300(3, "300%");
+
+        private final int code;
+        private final String displayString;
+
+        private EeCycleRate(int code, String displayString) {
+            this.code = code;
+            this.displayString = displayString;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getDisplayString() {
+            return displayString;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+public enum Toggle implements CodedValue {
+
+    OFF(0, "Off"),
+    ON(1, "On");
+
+    private final int code;
+    private final String displayString;
+
+    private Toggle(int code, String displayString) {
+        this.code = code;
+        this.displayString = displayString;
+    }
+
+    @Override
+    public int getCode() {
+        return code;
+    }
+
+    @Override
+    public String getDisplayString() {
+        return displayString;
+    }
+}
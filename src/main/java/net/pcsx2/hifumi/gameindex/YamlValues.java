@@ -0,0 +1,54 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.gameindex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads values out of the maps SnakeYAML produces. Anything missing, or of the wrong type, comes back as null
+ * (or empty, for lists) rather than throwing, so one malformed entry cannot stop the rest of the file loading.
+ */
+final class YamlValues {
+
+    private YamlValues() {
+
+    }
+
+    static String string(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value == null ? null : String.valueOf(value);
+    }
+
+    static Integer integer(Map<String, Object> map, String key) {
+        return map.get(key) instanceof Number number ? number.intValue() : null;
+    }
+
+    static <E extends Enum<E> & CodedValue> CodedSetting<E> coded(Map<String, Object> map, String key, Class<E> type) {
+        Integer code = integer(map, key);
+        return code == null ? null : new CodedSetting<E>(code, CodedValue.fromCode(type, code));
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> section(Map<String, Object> map, String key) {
+        return map.get(key) instanceof Map<?, ?> section ? (Map<String, Object>) section : null;
+    }
+
+    static List<String> strings(Map<String, Object> map, String key) {
+        if (!(map.get(key) instanceof List<?> list)) {
+            return List.of();
+        }
+
+        ArrayList<String> ret = new ArrayList<String>(list.size());
+
+        for (Object value : list) {
+            if (value != null) {
+                ret.add(String.valueOf(value));
+            }
+        }
+
+        return Collections.unmodifiableList(ret);
+    }
+}
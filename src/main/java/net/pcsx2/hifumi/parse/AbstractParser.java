@@ -2,6 +2,14 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.parse;
 
+import java.util.Optional;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Message.Attachment;
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.attachment.CachedAttachment;
+import net.pcsx2.hifumi.attachment.FetchResult;
+import net.pcsx2.hifumi.util.Messaging;
 import okhttp3.MediaType;
 
 public abstract class AbstractParser implements Runnable {
@@ -9,4 +17,28 @@ public abstract class AbstractParser implements Runnable {
     protected static final int MAX_LINE_LENGTH = 80;
     protected static final String LINE_NUM_SEPARATOR = ", ";
     protected static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    /**
+     * Get an attachment from the cache, telling the user why if it can't be had.
+     * @param message
+     * @param attachment
+     * @return Empty if the attachment was too large or failed to download. Close it once done with the file.
+     */
+    protected static Optional<CachedAttachment> fetch(Message message, Attachment attachment) {
+        FetchResult fetched = HifumiBot.getSelf().getAttachmentCache().fetch(attachment);
+
+        switch (fetched.status()) {
+            case TOO_LARGE:
+                long maxMegabytes = HifumiBot.getSelf().getDownloadService().getMaxBytes(attachment) / 1024 / 1024;
+                Messaging.sendMessage(message.getChannel(), ":x: " + attachment.getFileName() + " is too large to read; the limit for this kind of file is " + maxMegabytes + " MB.");
+                break;
+            case FAILED:
+                Messaging.sendMessage(message.getChannel(), ":x: Your attachment could not be downloaded... Try uploading again or changing the file name?");
+                break;
+            default:
+                break;
+        }
+
+        return fetched.toOptional();
+    }
 }
@@ -3,27 +3,40 @@
 package net.pcsx2.hifumi.parse;
 
 import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URI;
-import java.net.URL;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.attachment.CachedAttachment;
+import net.pcsx2.hifumi.database.objects.ParseResultObject;
+import net.pcsx2.hifumi.parse.CrashRuleEngine.CompiledRule;
+import net.pcsx2.hifumi.parse.CrashRuleEngine.CompiledRules;
 import net.pcsx2.hifumi.util.Messaging;
 
+import org.apache.commons.lang3.StringUtils;
+
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.Message.Attachment;
 
 public class CrashParser extends AbstractParser {
     
+    private static final String PARSER_TYPE = "crash";
     private static final Pattern FILE_NAME_PATTERN = Pattern.compile("crash-[0-9]{4}-[0-9]{2}-[0-9]{2}-[0-9]{2}-[0-9]{2}-[0-9]{2}-[0-9]{3}.txt");
 
     private final Message message;
     private Attachment attachment;
 
-    private ArrayList<String> errors;
+    private CompiledRules rules;
+    // Indexed like the rules; null for rules which found nothing
+    private Findings[] findings;
+    private int found = 0;
+    private String currentLine;
+    private long currentLineNumber = 0;
 
     public CrashParser(final Message message) {
         this.message = message;
@@ -43,75 +56,56 @@ public class CrashParser extends AbstractParser {
             return;
         }
 
-        URL url = null;
+        Optional<CachedAttachment> cached = fetch(message, attachment);
 
-        try {
-            url = new URI(attachment.getUrl()).toURL();
-        } catch (Exception e) {
-            Messaging.sendMessage(message.getChannel(), ":x: The URL to your attachment was bad... Try uploading again or changing the file name?");
+        if (cached.isEmpty()) {
             return;
         }
 
-        try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
-            Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " Checking your crash log for known problems...");
-            String originalLine;
-            String normalizedLine;
-            this.errors = new ArrayList<String>();
-
-            while ((originalLine = reader.readLine()) != null) {
-                normalizedLine = originalLine.toLowerCase();
-                
-                if (normalizedLine.contains("fcvap32.dll") || normalizedLine.contains("fcvap64.dll") || normalizedLine.contains("ezfrd32.dll") || normalizedLine.contains("ezfrd64.dll") || normalizedLine.contains("ez6401.dll")) {
-                    this.errors.add(
-                        "[Fatal] Bad USB gamepad vibration driver. This driver is known to cause most 64 bit applications to crash without warning.\n" +
-                        "Go to the file referenced below, and delete it from your PC:\n" +
-                        normalizedLine
-                    );
-                }
+        // Held until parsing is done, so the cache can't delete the file while it is being read
+        try (CachedAttachment file = cached.get()) {
+            this.parse(file);
+        }
+    }
 
-                if (normalizedLine.contains("oldnewexplorer.dll") || normalizedLine.contains("oldnewexplorer32.dll") || normalizedLine.contains("oldnewexplorer64.dll")) {
-                    this.errors.add(
-                        "[Fatal] OldNewExplorer detected. OldNewExplorer causes many modern applications to crash, due to unsafe modifications to Windows' implementation of file and folder pickers.\n" +
-                        "OldNewExplorer must be fully uninstalled and your system rebooted. PCSX2 will not function until the uninstall is fully complete and all Windows system files are restored to their proper states.\n" +
-                        normalizedLine
-                    );
-                }
+    private void parse(CachedAttachment cached) {
+        CompiledRules rules = HifumiBot.getSelf().getCrashRuleEngine().getCompiledRules();
+        Optional<ParseResultObject> previous = HifumiBot.getSelf().getParseResultCache().get(PARSER_TYPE, cached, rules.getVersion());
 
-                if (normalizedLine.contains("vulkan_dzn.dll")) {
-                    this.errors.add(
-                        "[Fatal] Vulkan Compatibility Pack detected. This app package uses a Vulkan on DX12 implementation which does not actually conform to Vulkan specifications. Using the Vulkan renderer or opening the Settings menu in PCSX2 will likely crash.\n" +
-                        "Open your Start menu, hit Settings, Apps, then find `OpenCL™, OpenGL®, and Vulkan® Compatibility Pack` in the list and uninstall. Once uninstalled, reboot your PC."
-                    );
-                }
+        if (previous.isPresent()) {
+            send(previous.get().getSummary(), previous.get().getBody());
+            return;
+        }
 
-                if (normalizedLine.contains("owclient.dll") || normalizedLine.contains("ow-graphics-vulkan.dll") || normalizedLine.contains("ow-graphics-hook64.dll")) {
-                    this.errors.add(
-                        "[Fatal] Overwolf detected. This program's overlay hooks often crash the GPU driver.\n" +
-                        "To avoid crashing, uninstall Overwolf."
-                    );
-                }
+        try {
+            BufferedReader reader = cached.openReader();
+            Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " Checking your crash log for known problems...");
+            this.rules = rules;
+            this.findings = new Findings[rules.getRules().size()];
+            IntConsumer onKeyword = this::onKeyword;
 
-                if(normalizedLine.contains("rtsshooks64.dll"))
-                {
-                    this.errors.add(
-                        "[Fatal] RivaTuner statistics server detected. This program is known to cause memory leaks when using DX12 on certain hardware.\n" +
-                        "If PCSX2 appears to be leaking memory, uninstall RivaTuner."
-                    );
-                }
+            while ((this.currentLine = reader.readLine()) != null) {
+                this.currentLineNumber++;
+                rules.match(this.currentLine, onKeyword);
             }
 
             reader.close();
+            String summary;
+            Optional<String> body = Optional.empty();
 
-            if (!errors.isEmpty()) {
+            if (this.found > 0) {
                 StringBuilder bodyBuilder = new StringBuilder();
                 bodyBuilder.append("\n")
                         .append("============================= Crash Log Parse Results =============================")
                         .append("\n\n");
 
-                for (String error : this.errors) {
-                    bodyBuilder.append(error)
-                            .append("\n\n")
+                for (int i = 0; i < this.findings.length; i++) {
+                    if (this.findings[i] == null) {
+                        continue;
+                    }
+
+                    appendFindings(bodyBuilder, rules.getRules().get(i), this.findings[i]);
+                    bodyBuilder.append("\n\n")
                             .append("--------------------------------------------------------------------------------")
                             .append("\n\n");
                 }
@@ -121,17 +115,103 @@ public class CrashParser extends AbstractParser {
                             .append("\n");
                 
                 if (bodyBuilder.toString().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
-                        Messaging.sendMessage(message.getChannel(), ":information_source: Found something! Results are in this text file!", "Crash_" + message.getAuthor().getName() + ".txt", bodyBuilder.toString());
+                    summary = ":information_source: Found something! Results are in this text file!";
+                    body = Optional.of(bodyBuilder.toString());
                 } else {
-                    Messaging.sendMessage(message.getChannel(), ":warning: Your crash log generated such a large results file that I can't upload it. A human is gonna have to read through your log manually.");
+                    summary = ":warning: Your crash log generated such a large results file that I can't upload it. A human is gonna have to read through your log manually.";
                 }
             } else {
-                Messaging.sendMessage(message.getChannel(), ":white_check_mark: Crash log does not contain any DLL files known to be problematic.");
+                summary = ":white_check_mark: Crash log does not contain any DLL files known to be problematic.";
             }
+
+            HifumiBot.getSelf().getParseResultCache().put(PARSER_TYPE, cached, rules.getVersion(), summary, body);
+            send(summary, body);
         } catch (Exception e) {
             Messaging.sendMessage(message.getChannel(), ":x: Something went wrong... Try again?");
             Messaging.logException("CrashParser", "run", e);
             return;
         }
     }
+
+    private void onKeyword(int keyword) {
+        int rule = this.rules.getRuleIndex(keyword);
+
+        if (this.findings[rule] == null) {
+            this.findings[rule] = new Findings();
+            this.found++;
+        }
+
+        this.findings[rule].add(this.rules.getKeyword(keyword), this.currentLine, this.currentLineNumber);
+    }
+
+    private static void appendFindings(StringBuilder bodyBuilder, CompiledRule rule, Findings findings) {
+        bodyBuilder.append(rule.getMessage())
+                .append("\n")
+                .append("Found ")
+                .append(String.join(", ", findings.dlls))
+                .append(String.format(" on %,d line(s)", findings.lineCount));
+
+        if (!rule.isShowLines()) {
+            return;
+        }
+
+        bodyBuilder.append(":");
+
+        for (Map.Entry<String, Integer> entry : findings.lines.entrySet()) {
+            bodyBuilder.append("\n")
+                    .append(String.format("%,6dx  ", entry.getValue()))
+                    .append(entry.getKey());
+        }
+
+        if (findings.otherLines > 0) {
+            bodyBuilder.append("\n")
+                    .append(String.format("... and %,d more line(s)", findings.otherLines));
+        }
+    }
+
+    private void send(String summary, Optional<String> body) {
+        if (body.isPresent()) {
+            Messaging.sendMessage(message.getChannel(), summary, "Crash_" + message.getAuthor().getName() + ".txt", body.get());
+        } else {
+            Messaging.sendMessage(message.getChannel(), summary);
+        }
+    }
+
+    /**
+     * What one rule found. The same DLL usually turns up on many stack frames, so each DLL is listed once,
+     * and identical lines are shown once with a count.
+     */
+    private static class Findings {
+        private static final int SHOWN_LINES = 10;
+        private static final int MAX_LINE_LENGTH = 500;
+
+        private final LinkedHashSet<String> dlls = new LinkedHashSet<String>();
+        private final LinkedHashMap<String, Integer> lines = new LinkedHashMap<String, Integer>();
+        private long lineCount = 0;
+        // Lines not shown because enough distinct ones already are
+        private long otherLines = 0;
+        private long lastLineNumber = -1;
+
+        private void add(String dll, String line, long lineNumber) {
+            this.dlls.add(dll);
+
+            // Two of the rule's DLLs, or one twice, on the same line
+            if (lineNumber == this.lastLineNumber) {
+                return;
+            }
+
+            this.lastLineNumber = lineNumber;
+            this.lineCount++;
+            String key = StringUtils.truncate(line.trim(), MAX_LINE_LENGTH);
+            Integer count = this.lines.get(key);
+
+            if (count != null) {
+                this.lines.put(key, count + 1);
+            } else if (this.lines.size() < SHOWN_LINES) {
+                this.lines.put(key, 1);
+            } else {
+                this.otherLines++;
+            }
+        }
+    }
 }
@@ -0,0 +1,147 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.config.CrashParserConfig;
+import net.pcsx2.hifumi.config.CrashParserConfig.Rule;
+import net.pcsx2.hifumi.util.AhoCorasick;
+
+/**
+ * Compiled form of the crash parser rules. Every DLL name from every rule goes into one Aho-Corasick automaton,
+ * so each line of a crash log is scanned once no matter how many rules there are.
+ * <br><br>
+ * Recompiled and swapped in whole whenever the crash parser config changes, so a parse in progress
+ * keeps the rules it started with.
+ */
+public class CrashRuleEngine {
+
+    private volatile CompiledRules compiled = new CompiledRules(new ArrayList<Rule>());
+
+    public void refresh() {
+        CrashParserConfig config = HifumiBot.getSelf().getCrashParserConfig();
+        this.compiled = new CompiledRules(config.rules);
+    }
+
+    public CompiledRules getCompiledRules() {
+        return this.compiled;
+    }
+
+    @Override
+    public String toString() {
+        CompiledRules current = this.compiled;
+        return String.format("%d rules, %d DLL names (%d states)", current.rules.size(), current.keywords.length, current.automaton.getStateCount());
+    }
+
+    public static class CompiledRules {
+        private final List<CompiledRule> rules;
+        private final AhoCorasick automaton;
+        private final String[] keywords;
+        // Automaton keyword index to rule index
+        private final int[] keywordRules;
+        private final String version;
+
+        private CompiledRules(List<Rule> source) {
+            ArrayList<CompiledRule> rules = new ArrayList<CompiledRule>();
+            ArrayList<String> keywords = new ArrayList<String>();
+            ArrayList<Integer> keywordRules = new ArrayList<Integer>();
+            ArrayList<String> versionParts = new ArrayList<String>();
+
+            for (int i = 0; i < source.size(); i++) {
+                Rule rule = source.get(i);
+                versionParts.add(rule.name);
+                versionParts.add(rule.message);
+                versionParts.add(String.valueOf(rule.showLines));
+                versionParts.add(String.valueOf(rule.dlls.size()));
+                rules.add(new CompiledRule(rule.name, rule.message, rule.showLines));
+
+                for (String dll : rule.dlls) {
+                    versionParts.add(dll);
+                    String keyword = dll.trim().toLowerCase();
+
+                    if (!keyword.isEmpty()) {
+                        keywords.add(keyword);
+                        keywordRules.add(i);
+                    }
+                }
+            }
+
+            this.rules = Collections.unmodifiableList(rules);
+            this.automaton = new AhoCorasick(keywords);
+            this.keywords = keywords.toArray(new String[0]);
+            this.keywordRules = keywordRules.stream().mapToInt(Integer::intValue).toArray();
+            this.version = ParseResultCache.versionOf(versionParts.toArray(new String[0]));
+        }
+
+        /**
+         * @return Changes whenever any rule does, for keying cached results.
+         */
+        public String getVersion() {
+            return this.version;
+        }
+
+        /**
+         * @return Rules in config order; {@link #getRuleIndex(int)} refers to this list.
+         */
+        public List<CompiledRule> getRules() {
+            return this.rules;
+        }
+
+        /**
+         * Report every DLL name found in a line, case insensitively. A name found twice is reported twice.
+         * @param line
+         * @param onKeyword Called with the index of each DLL name found.
+         */
+        public void match(CharSequence line, IntConsumer onKeyword) {
+            this.automaton.match(line, onKeyword);
+        }
+
+        /**
+         * @param keyword
+         * @return The index of the rule the DLL name belongs to.
+         */
+        public int getRuleIndex(int keyword) {
+            return this.keywordRules[keyword];
+        }
+
+        /**
+         * @param keyword
+         * @return The DLL name, lowercase.
+         */
+        public String getKeyword(int keyword) {
+            return this.keywords[keyword];
+        }
+    }
+
+    public static class CompiledRule {
+        private final String name;
+        private final String message;
+        private final boolean showLines;
+
+        private CompiledRule(String name, String message, boolean showLines) {
+            this.name = name;
+            this.message = message;
+            this.showLines = showLines;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * @return Whether to quote the lines the DLLs were found on under the message.
+         */
+        public boolean isShowLines() {
+            return showLines;
+        }
+    }
+}
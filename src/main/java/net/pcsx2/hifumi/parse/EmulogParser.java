@@ -2,17 +2,22 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.parse;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URI;
-import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 
 import net.pcsx2.hifumi.HifumiBot;
-import net.pcsx2.hifumi.config.EmulogParserConfig.Rule;
+import net.pcsx2.hifumi.attachment.CachedAttachment;
+import net.pcsx2.hifumi.database.objects.ParseResultObject;
+import net.pcsx2.hifumi.parse.EmulogRuleEngine.CompiledRule;
+import net.pcsx2.hifumi.parse.EmulogRuleEngine.CompiledRules;
+import net.pcsx2.hifumi.parse.EmulogRuleEngine.RuleMatcher;
+import net.pcsx2.hifumi.parse.RuleFindings.TopLine;
 import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.entities.Message;
@@ -20,11 +25,22 @@ import net.dv8tion.jda.api.entities.Message.Attachment;
 
 public class EmulogParser extends AbstractParser {
 
+    private static final String PARSER_TYPE = "emulog";
+    // Logs up to this size are scanned in one piece on the calling thread
+    private static final int CHUNK_BYTES = 2 * 1024 * 1024;
+    // Examples shown per rule, falling back to fewer if the results file would be too big to upload
+    private static final int[] SAMPLES_PER_RULE = { 20, 5, 1, 0 };
+    private static final ForkJoinPool CHUNK_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName("hifumi-emulog-" + t.getPoolIndex());
+        return t;
+    }, null, false);
+
     private final Message message;
     private Attachment attachment;
 
-    private HashMap<Rule, Pattern> patterns;
-    private HashMap<Rule, ArrayList<String>> lines;
+    private CompiledRules rules;
+    private ArrayList<RuleFindings> findings;
 
     public EmulogParser(final Message message) {
         this.message = message;
@@ -36,12 +52,11 @@ public class EmulogParser extends AbstractParser {
             }
         }
 
-        patterns = new HashMap<Rule, Pattern>();
-        lines = new HashMap<Rule, ArrayList<String>>();
+        rules = HifumiBot.getSelf().getEmulogRuleEngine().getCompiledRules();
+        findings = new ArrayList<RuleFindings>();
         
-        for (Rule rule : HifumiBot.getSelf().getEmulogParserConfig().rules) {
-            patterns.put(rule, Pattern.compile(rule.toMatch.toLowerCase()));
-            lines.put(rule, new ArrayList<String>());
+        for (int i = 0; i < rules.getRules().size(); i++) {
+            findings.add(new RuleFindings());
         }
     }
 
@@ -51,88 +66,84 @@ public class EmulogParser extends AbstractParser {
             return;
         }
 
-        URL url = null;
+        Optional<CachedAttachment> cached = fetch(message, attachment);
 
-        try {
-            url = new URI(attachment.getUrl()).toURL();
-        } catch (Exception e) {
-            Messaging.sendMessage(message.getChannel(), ":x: The URL to your attachment was bad... Try uploading again or changing the file name?");
+        if (cached.isEmpty()) {
+            return;
+        }
+
+        // Held until parsing is done, so the cache can't delete the file while it is being read
+        try (CachedAttachment file = cached.get()) {
+            this.parse(file);
+        }
+    }
+
+    private void parse(CachedAttachment cached) {
+        Optional<ParseResultObject> previous = HifumiBot.getSelf().getParseResultCache().get(PARSER_TYPE, cached, rules.getVersion());
+
+        if (previous.isPresent()) {
+            send(previous.get().getSummary(), previous.get().getBody());
             return;
         }
 
         try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
             Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " Checking your emulog.txt for information/errors...");
-            String originalLine;
-            String normalizedLine;
-
-            while ((originalLine = reader.readLine()) != null) {
-                normalizedLine = originalLine.toLowerCase();
-                
-                for (Rule rule : patterns.keySet()) {
-                    Pattern p = patterns.get(rule);
-                    Matcher m = p.matcher(normalizedLine);
-                    
-                    if (m.matches()) {
-                        addError(rule, originalLine);
+            ArrayList<ByteBuffer> chunks = LineChunks.split(cached.getPath(), CHUNK_BYTES);
+
+            if (chunks.size() == 1) {
+                findings = scanChunk(chunks.get(0)).findings;
+            } else if (chunks.size() > 1) {
+                ArrayList<Callable<ChunkFindings>> tasks = new ArrayList<Callable<ChunkFindings>>();
+
+                for (ByteBuffer chunk : chunks) {
+                    tasks.add(() -> scanChunk(chunk));
+                }
+
+                // Futures come back in chunk order, which is what the line numbers need
+                long lineOffset = 0;
+
+                for (Future<ChunkFindings> future : CHUNK_POOL.invokeAll(tasks)) {
+                    ChunkFindings chunkFindings = future.get();
+
+                    for (int i = 0; i < findings.size(); i++) {
+                        findings.get(i).merge(chunkFindings.findings.get(i), lineOffset);
                     }
+
+                    lineOffset += chunkFindings.lineCount;
                 }
             }
 
-            reader.close();
-
-            StringBuilder bodyBuilder = new StringBuilder();
-            bodyBuilder.append("\n")
-                    .append("============================= Emulog Parse Results =============================")
-                    .append("\n");
-            bodyBuilder.append("(*) = Information (!) = Warning (X) = Critical").append("\n\n");
             boolean hasLines = false;
 
-            for (Rule rule : lines.keySet()) {
-                ArrayList<String> arr = lines.get(rule);
-
-                if (arr.size() > 0) {
+            for (RuleFindings ruleFindings : findings) {
+                if (ruleFindings.getHits() > 0) {
                     hasLines = true;
-                    bodyBuilder
-                            .append("--------------------------------------------------------------------------------")
-                            .append("\n");
-                    
-                    switch (rule.severity) {
-                    case 0:
-                        bodyBuilder.append("(*) ");
-                        break;
-                    case 1:
-                        bodyBuilder.append("(!) ");
-                        break;
-                    case 2:
-                        bodyBuilder.append("(X) ");
-                        break;
-                    default:
-                        bodyBuilder.append("(?) ");
-                        break;
-                    }
-                    
-                    bodyBuilder.append(rule.message).append("\n\n");
-
-                    for (String str : arr) {
-                        bodyBuilder.append(str).append("\n");
-                    }
+                    break;
                 }
             }
 
+            String summary;
+            Optional<String> body = Optional.empty();
+
             if (hasLines) {
-                bodyBuilder.append("\n\n")
-                        .append("=========================== End Emulog Parse Results ===========================")
-                        .append("\n");
+                long allowedFileSize = HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize();
+
+                // Fewer examples per rule until it fits; with none at all it is a line or two per rule, which always does
+                for (int samples : SAMPLES_PER_RULE) {
+                    body = Optional.of(buildResults(samples));
 
-                if (bodyBuilder.toString().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
-                    Messaging.sendMessage(message.getChannel(), ":information_source: Found something! Results are in this text file!", "Emulog_" + message.getAuthor().getName() + ".txt", bodyBuilder.toString());
-                } else {
-                    Messaging.sendMessage(message.getChannel(), ":warning: Your emulog generated such a large results file that I can't upload it. A human is gonna have to read through your log manually.");
+                    if (body.get().getBytes(StandardCharsets.UTF_8).length <= allowedFileSize) {
+                        break;
+                    }
                 }
+
+                summary = ":information_source: Found something! Results are in this text file!";
             } else {
-                Messaging.sendMessage(message.getChannel(), ":white_check_mark: Nothing to report! Either this emulog is empty, or things just went really well!");
+                summary = ":white_check_mark: Nothing to report! Either this emulog is empty, or things just went really well!";
             }
+
+            HifumiBot.getSelf().getParseResultCache().put(PARSER_TYPE, cached, rules.getVersion(), summary, body);
+            send(summary, body);
         } catch (Exception e) {
             Messaging.sendMessage(message.getChannel(), ":x: Something went wrong... Try again?");
             Messaging.logException("EmulogParser", "run", e);
@@ -140,9 +151,103 @@ public class EmulogParser extends AbstractParser {
         }
     }
 
-    private void addError(Rule rule, String line) {
-        ArrayList<String> arr = lines.get(rule);
-        arr.add(line);
-        lines.put(rule, arr);
+    private void send(String summary, Optional<String> body) {
+        if (body.isPresent()) {
+            Messaging.sendMessage(message.getChannel(), summary, "Emulog_" + message.getAuthor().getName() + ".txt", body.get());
+        } else {
+            Messaging.sendMessage(message.getChannel(), summary);
+        }
+    }
+
+    private String buildResults(int samples) {
+        StringBuilder bodyBuilder = new StringBuilder();
+        bodyBuilder.append("\n")
+                .append("============================= Emulog Parse Results =============================")
+                .append("\n");
+        bodyBuilder.append("(*) = Information (!) = Warning (X) = Critical").append("\n");
+        bodyBuilder.append("Repeated lines are shown once with a count; >= means at least that many").append("\n\n");
+
+        for (int i = 0; i < findings.size(); i++) {
+            CompiledRule rule = rules.getRules().get(i);
+            RuleFindings ruleFindings = findings.get(i);
+
+            if (ruleFindings.getHits() == 0) {
+                continue;
+            }
+
+            bodyBuilder
+                    .append("--------------------------------------------------------------------------------")
+                    .append("\n");
+            
+            switch (rule.getSeverity()) {
+            case 0:
+                bodyBuilder.append("(*) ");
+                break;
+            case 1:
+                bodyBuilder.append("(!) ");
+                break;
+            case 2:
+                bodyBuilder.append("(X) ");
+                break;
+            default:
+                bodyBuilder.append("(?) ");
+                break;
+            }
+            
+            bodyBuilder.append(rule.getMessage()).append("\n\n");
+            bodyBuilder.append(String.format("%,d matching line(s), %s%,d distinct, first on line %,d, last on line %,d", 
+                    ruleFindings.getHits(), 
+                    ruleFindings.isDistinctCapped() ? "over " : "", 
+                    ruleFindings.getDistinctLines(), 
+                    ruleFindings.getFirstLine(), 
+                    ruleFindings.getLastLine()))
+                    .append("\n\n");
+            ArrayList<TopLine> topLines = ruleFindings.getTopLines(samples);
+
+            for (TopLine topLine : topLines) {
+                bodyBuilder.append(String.format("%2s%,9dx  ", topLine.isExact() ? "" : ">=", topLine.getCount()))
+                        .append(topLine.getLine())
+                        .append("\n");
+            }
+
+            int remaining = ruleFindings.getDistinctLines() - topLines.size();
+
+            if (remaining > 0 || ruleFindings.isDistinctCapped()) {
+                bodyBuilder.append(String.format("... and %s%,d more distinct line(s)", ruleFindings.isDistinctCapped() ? "over " : "", Math.max(remaining, 0))).append("\n");
+            }
+
+            bodyBuilder.append("\n");
+        }
+
+        bodyBuilder.append("\n")
+                .append("=========================== End Emulog Parse Results ===========================")
+                .append("\n");
+        return bodyBuilder.toString();
+    }
+
+    private ChunkFindings scanChunk(ByteBuffer chunk) {
+        ArrayList<RuleFindings> chunkFindings = new ArrayList<RuleFindings>();
+
+        for (int i = 0; i < rules.getRules().size(); i++) {
+            chunkFindings.add(new RuleFindings());
+        }
+
+        RuleMatcher matcher = rules.newMatcher();
+        long[] lineNumber = new long[1];
+        int lineCount = LineChunks.forEachLine(chunk, line -> {
+            long current = ++lineNumber[0];
+            matcher.match(line, rule -> chunkFindings.get(rule).add(line, current));
+        });
+        return new ChunkFindings(lineCount, chunkFindings);
+    }
+
+    private static class ChunkFindings {
+        private final int lineCount;
+        private final ArrayList<RuleFindings> findings;
+
+        private ChunkFindings(int lineCount, ArrayList<RuleFindings> findings) {
+            this.lineCount = lineCount;
+            this.findings = findings;
+        }
     }
 }
@@ -0,0 +1,480 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.config.EmulogParserConfig;
+import net.pcsx2.hifumi.config.EmulogParserConfig.Rule;
+import net.pcsx2.hifumi.util.AhoCorasick;
+import net.pcsx2.hifumi.util.Messaging;
+
+/**
+ * Compiled form of the emulog rules. Most rules are a fixed string with some wildcards around it,
+ * so the longest string each rule's regex cannot match without is pulled out, and all of them go into
+ * one Aho-Corasick automaton. A line is then scanned once, and only the rules whose string it contains
+ * have their regex run. Rules with nothing usable (alternations, classes only, and so on) are run on every line,
+ * and rules which are just .*string.* don't need their regex at all once the string has been found.
+ * <br><br>
+ * Recompiled and swapped in whole whenever the emulog config changes, so a parse in progress
+ * keeps the rules it started with.
+ */
+public class EmulogRuleEngine {
+
+    private volatile CompiledRules compiled = new CompiledRules(new ArrayList<Rule>());
+
+    public void refresh() {
+        EmulogParserConfig config = HifumiBot.getSelf().getEmulogParserConfig();
+        this.compiled = new CompiledRules(config.rules);
+    }
+
+    public CompiledRules getCompiledRules() {
+        return this.compiled;
+    }
+
+    @Override
+    public String toString() {
+        CompiledRules current = this.compiled;
+        return String.format("%d rules, %d prefiltered (%d states), %d on every line", current.rules.size(), current.automaton.getKeywordCount(), current.automaton.getStateCount(), current.unfiltered.length);
+    }
+
+    public static class CompiledRules {
+        private final List<CompiledRule> rules;
+        private final AhoCorasick automaton;
+        // Automaton keyword index to rule index
+        private final int[] keywordRules;
+        private final int[] unfiltered;
+        private final String version;
+
+        private CompiledRules(List<Rule> source) {
+            ArrayList<CompiledRule> rules = new ArrayList<CompiledRule>();
+            ArrayList<String> keywords = new ArrayList<String>();
+            ArrayList<Integer> keywordRules = new ArrayList<Integer>();
+            ArrayList<Integer> unfiltered = new ArrayList<Integer>();
+            ArrayList<String> versionParts = new ArrayList<String>();
+
+            for (Rule rule : source) {
+                versionParts.add(rule.name);
+                versionParts.add(rule.toMatch);
+                versionParts.add(rule.message);
+                versionParts.add(String.valueOf(rule.severity));
+                String regex = rule.toMatch.toLowerCase();
+                Pattern pattern;
+
+                try {
+                    pattern = Pattern.compile(regex);
+                } catch (PatternSyntaxException e) {
+                    Messaging.logException("EmulogRuleEngine", "(constructor)", e);
+                    continue;
+                }
+
+                String literal = requiredLiteral(regex);
+                int index = rules.size();
+                rules.add(new CompiledRule(rule.name, rule.message, rule.severity, pattern, literal, literal != null && isContainsOnly(regex, literal)));
+
+                if (literal == null) {
+                    unfiltered.add(index);
+                } else {
+                    keywords.add(literal);
+                    keywordRules.add(index);
+                }
+            }
+
+            this.rules = Collections.unmodifiableList(rules);
+            this.automaton = new AhoCorasick(keywords);
+            this.keywordRules = keywordRules.stream().mapToInt(Integer::intValue).toArray();
+            this.unfiltered = unfiltered.stream().mapToInt(Integer::intValue).toArray();
+            this.version = ParseResultCache.versionOf(versionParts.toArray(new String[0]));
+        }
+
+        /**
+         * @return Changes whenever any rule does, for keying cached results.
+         */
+        public String getVersion() {
+            return this.version;
+        }
+
+        /**
+         * @return Rules in config order; the indices passed to {@link RuleMatcher#match} refer to this list.
+         */
+        public List<CompiledRule> getRules() {
+            return this.rules;
+        }
+
+        /**
+         * @return A matcher for one thread to use for one parse.
+         */
+        public RuleMatcher newMatcher() {
+            return new RuleMatcher(this);
+        }
+    }
+
+    public static class CompiledRule {
+        private final String name;
+        private final String message;
+        private final int severity;
+        private final Pattern pattern;
+        private final String literal;
+        private final boolean containsOnly;
+
+        private CompiledRule(String name, String message, int severity, Pattern pattern, String literal, boolean containsOnly) {
+            this.name = name;
+            this.message = message;
+            this.severity = severity;
+            this.pattern = pattern;
+            this.literal = literal;
+            this.containsOnly = containsOnly;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public int getSeverity() {
+            return severity;
+        }
+
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        /**
+         * @return The string used to prefilter lines for this rule, or null if it runs on every line.
+         */
+        public String getLiteral() {
+            return literal;
+        }
+    }
+
+    /**
+     * Not thread safe; holds the scratch space for deduplicating candidates within a line.
+     */
+    public static class RuleMatcher {
+        private final CompiledRules compiled;
+        private final boolean[] candidate;
+        private final IntConsumer onKeyword;
+        private int candidates = 0;
+
+        private RuleMatcher(CompiledRules compiled) {
+            this.compiled = compiled;
+            this.candidate = new boolean[compiled.rules.size()];
+            this.onKeyword = keyword -> {
+                int rule = this.compiled.keywordRules[keyword];
+
+                if (!this.candidate[rule]) {
+                    this.candidate[rule] = true;
+                    this.candidates++;
+                }
+            };
+        }
+
+        /**
+         * @param line The line as it appears in the log; it is only lowercased if some rule might match it.
+         * @param onRule Called with the index of each rule whose regex matches the whole line, in config order.
+         */
+        public void match(String line, IntConsumer onRule) {
+            this.candidates = 0;
+            this.compiled.automaton.match(line, this.onKeyword);
+
+            if (this.candidates == 0 && this.compiled.unfiltered.length == 0) {
+                return;
+            }
+
+            String normalizedLine = null;
+            int ascii = -1;
+            int next = 0;
+
+            for (int i = 0; i < this.candidate.length; i++) {
+                boolean run = this.candidate[i];
+                this.candidate[i] = false;
+
+                if (next < this.compiled.unfiltered.length && this.compiled.unfiltered[next] == i) {
+                    run = true;
+                    next++;
+                }
+
+                if (!run) {
+                    continue;
+                }
+
+                CompiledRule rule = this.compiled.rules.get(i);
+
+                // Case folding per char only agrees with String.toLowerCase, and . only matches every char, on plain ASCII
+                if (rule.containsOnly) {
+                    if (ascii == -1) {
+                        ascii = isPlainAscii(line) ? 1 : 0;
+                    }
+
+                    if (ascii == 1) {
+                        onRule.accept(i);
+                        continue;
+                    }
+                }
+
+                if (normalizedLine == null) {
+                    normalizedLine = line.toLowerCase();
+                }
+
+                if (rule.pattern.matcher(normalizedLine).matches()) {
+                    onRule.accept(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the longest run of plain characters which every match of the regex must contain.
+     * Only the top level of the pattern is looked at; groups, classes and escapes like \d just end a run,
+     * and anything with a top level alternation, unusual flags or an escape which takes arguments gives up.
+     * @param regex
+     * @return The literal, or null if none could be found.
+     */
+    static String requiredLiteral(String regex) {
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        int i = 0;
+
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            // The literal char this atom contributes, or -1 if it is not a single literal char
+            int literal = -1;
+
+            switch (c) {
+            case '|':
+                return null;
+            case '\\':
+                if (i + 1 >= regex.length()) {
+                    return null;
+                }
+
+                char escaped = regex.charAt(i + 1);
+
+                // \Q quotes everything up to \E, and these take arguments (\x41, \u0041, \0101, \cA, \N{...}, \p{L},
+                // \k<name>, backreferences) which would otherwise be read as literal chars after the escape
+                if (escaped == 'Q' || Character.isDigit(escaped) || "xucNpPk".indexOf(escaped) >= 0) {
+                    return null;
+                }
+
+                if (!Character.isLetterOrDigit(escaped)) {
+                    literal = escaped;
+                }
+
+                i += 2;
+                break;
+            case '[':
+                i = skipClass(regex, i);
+
+                if (i < 0) {
+                    return null;
+                }
+
+                break;
+            case '(':
+                // Inline flags such as (?x) change how the rest of the pattern reads
+                if (i + 2 < regex.length() && regex.charAt(i + 1) == '?' && Character.isLetter(regex.charAt(i + 2))) {
+                    return null;
+                }
+
+                i = skipGroup(regex, i);
+
+                if (i < 0) {
+                    return null;
+                }
+
+                break;
+            case '.':
+            case '^':
+            case '$':
+                i++;
+                break;
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+            case ')':
+                // Quantifier with nothing before it at this level; not worth working out
+                return null;
+            default:
+                literal = c;
+                i++;
+                break;
+            }
+
+            // Look at the quantifier, if any, applied to the atom just read
+            boolean optional = false;
+            boolean repeated = false;
+
+            if (i < regex.length()) {
+                char q = regex.charAt(i);
+
+                if (q == '?' || q == '*') {
+                    optional = true;
+                    i++;
+                } else if (q == '+') {
+                    repeated = true;
+                    i++;
+                } else if (q == '{') {
+                    int close = regex.indexOf('}', i);
+
+                    if (close < 0) {
+                        return null;
+                    }
+
+                    String min = regex.substring(i + 1, close).split(",", -1)[0].trim();
+
+                    try {
+                        optional = Integer.parseInt(min) == 0;
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+
+                    repeated = !optional;
+                    i = close + 1;
+                }
+
+                // Lazy and possessive forms
+                if ((optional || repeated) && i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+                    i++;
+                }
+            }
+
+            if (literal >= 0 && !optional) {
+                run.append((char) literal);
+            }
+
+            if (literal < 0 || optional || repeated) {
+                if (run.length() > best.length()) {
+                    best = run.toString();
+                }
+
+                run.setLength(0);
+            }
+        }
+
+        if (run.length() > best.length()) {
+            best = run.toString();
+        }
+
+        return best.isEmpty() ? null : best;
+    }
+
+    /**
+     * @param regex
+     * @param literal What {@link #requiredLiteral} found in the regex.
+     * @return Whether the regex is nothing but .* either side of the literal, so containing it is matching it.
+     */
+    static boolean isContainsOnly(String regex, String literal) {
+        if (regex.length() < 4 || !regex.startsWith(".*") || !regex.endsWith(".*")) {
+            return false;
+        }
+
+        String middle = regex.substring(2, regex.length() - 2);
+        StringBuilder plain = new StringBuilder();
+
+        for (int i = 0; i < middle.length(); i++) {
+            char c = middle.charAt(i);
+
+            if (c == '\\') {
+                if (i + 1 >= middle.length() || Character.isLetterOrDigit(middle.charAt(i + 1))) {
+                    return false;
+                }
+
+                plain.append(middle.charAt(++i));
+            } else if (".^$*+?{}[]()|".indexOf(c) >= 0) {
+                return false;
+            } else {
+                plain.append(c);
+            }
+        }
+
+        return plain.toString().equals(literal);
+    }
+
+    private static boolean isPlainAscii(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c >= 128 || c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The index just past the class starting at start, or -1 if it never closes.
+     */
+    private static int skipClass(String regex, int start) {
+        int depth = 0;
+        int i = start;
+
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+
+            if (c == '[') {
+                depth++;
+            } else if (c == ']' && i > start + 1 && !(i == start + 2 && regex.charAt(start + 1) == '^')) {
+                if (--depth == 0) {
+                    return i + 1;
+                }
+            }
+
+            i++;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return The index just past the group starting at start, or -1 if it never closes.
+     */
+    private static int skipGroup(String regex, int start) {
+        int depth = 0;
+        int i = start;
+
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+
+            if (c == '[') {
+                i = skipClass(regex, i);
+
+                if (i < 0) {
+                    return -1;
+                }
+
+                continue;
+            }
+
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+
+            i++;
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,71 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads an ini file one line at a time, handing each key and value to a handler as it goes
+ * instead of building the whole file up in memory.
+ * <br><br>
+ * Understands what PCSX2 writes: [Section] headers, Key = Value lines, and ; or # comments.
+ * Names and values are trimmed and case sensitive, and values are taken as written, with no escapes.
+ * Keys before the first section are ignored.
+ */
+public class IniReader {
+
+    public interface Handler {
+        /**
+         * @param section
+         * @param key
+         * @param value Null if the line had no =.
+         */
+        void onValue(String section, String key, String value);
+    }
+
+    public static void read(BufferedReader reader, Handler handler) throws IOException {
+        String section = null;
+        String line;
+        boolean first = true;
+
+        while ((line = reader.readLine()) != null) {
+            if (first) {
+                first = false;
+
+                // Byte order mark, which Notepad likes to add
+                if (line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+            }
+
+            line = line.trim();
+
+            if (line.isEmpty() || line.charAt(0) == ';' || line.charAt(0) == '#') {
+                continue;
+            }
+
+            if (line.charAt(0) == '[') {
+                int close = line.lastIndexOf(']');
+
+                if (close > 0) {
+                    section = line.substring(1, close).trim();
+                }
+
+                continue;
+            }
+
+            if (section == null) {
+                continue;
+            }
+
+            int equals = line.indexOf('=');
+
+            if (equals < 0) {
+                handler.onValue(section, line, null);
+            } else {
+                handler.onValue(section, line.substring(0, equals).trim(), line.substring(equals + 1).trim());
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Splits a text file into chunks of whole lines, so they can be scanned in parallel.
+ * The file is memory mapped rather than read, and each chunk is only decoded when it is scanned.
+ */
+public class LineChunks {
+
+    /**
+     * @param path
+     * @param targetBytes Each chunk runs from here to the end of the line this many bytes in.
+     * @return Read only views of the file, in order. Empty if the file is.
+     * @throws IOException
+     */
+    public static ArrayList<ByteBuffer> split(Path path, int targetBytes) throws IOException {
+        ArrayList<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping outlives the channel
+            MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            int size = mapped.limit();
+            int start = 0;
+
+            while (start < size) {
+                int end = Math.min(size, start + targetBytes);
+
+                // '\n' never appears inside a multibyte UTF-8 sequence, so splitting after one is always safe
+                while (end < size && mapped.get(end - 1) != '\n') {
+                    end++;
+                }
+
+                chunks.add(mapped.slice(start, end - start));
+                start = end;
+            }
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Decode a chunk and pass each line to the consumer without its terminator.
+     * Lines end at \n, \r or \r\n, the same as {@link java.io.BufferedReader#readLine()}, and malformed UTF-8 is replaced.
+     * @param chunk
+     * @param onLine
+     * @return The number of lines.
+     */
+    public static int forEachLine(ByteBuffer chunk, Consumer<String> onLine) {
+        CharBuffer chars = StandardCharsets.UTF_8.decode(chunk.duplicate());
+        int length = chars.limit();
+        int start = 0;
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = chars.get(i);
+
+            if (c == '\n' || c == '\r') {
+                onLine.accept(chars.subSequence(start, i).toString());
+                count++;
+
+                if (c == '\r' && i + 1 < length && chars.get(i + 1) == '\n') {
+                    i++;
+                }
+
+                start = i + 1;
+            }
+        }
+
+        if (start < length) {
+            onLine.accept(chars.subSequence(start, length).toString());
+            count++;
+        }
+
+        return count;
+    }
+}
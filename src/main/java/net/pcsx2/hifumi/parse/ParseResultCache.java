@@ -0,0 +1,118 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.attachment.CachedAttachment;
+import net.pcsx2.hifumi.config.Config.ParseCacheOptions;
+import net.pcsx2.hifumi.database.Database;
+import net.pcsx2.hifumi.database.objects.ParseResultObject;
+
+/**
+ * Remembers what each parser replied with for a given file, so the same log or ini posted again
+ * (by someone else, in another channel, or by a helper checking what the bot says) is answered without parsing it again.
+ * <br><br>
+ * Results are keyed by parser type, the SHA3-256 of the file, and a version for the rules the parser used,
+ * so editing the rules makes every old result miss. The bot's build version is folded into every rules version too,
+ * since parsers with rules in code change when the bot does. Stored in SQLite so they survive restarts,
+ * and pruned by age, count and total size.
+ */
+public class ParseResultCache {
+
+    // Debug builds have no version, and their rules in code can change between any two runs
+    private static final String CODE_VERSION = HifumiBot.class.getPackage().getImplementationVersion() != null ? HifumiBot.class.getPackage().getImplementationVersion() : "debug-" + UUID.randomUUID();
+
+    private final long ttlSeconds;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long maxResultBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder pruned = new LongAdder();
+
+    public ParseResultCache(ParseCacheOptions options) {
+        this.ttlSeconds = options.ttlHours * 60L * 60L;
+        this.maxEntries = options.maxEntries;
+        this.maxBytes = options.maxCacheMegabytes * 1024L * 1024L;
+        this.maxResultBytes = options.maxResultKilobytes * 1024L;
+    }
+
+    /**
+     * @param parserType Which parser, plus anything other than the file's contents that changes its result, such as the file name.
+     * @param file
+     * @param rulesVersion From {@link #versionOf(String...)} over whatever rules the parser used, or empty if they are all in code.
+     * @return
+     */
+    public Optional<ParseResultObject> get(String parserType, CachedAttachment file, String rulesVersion) {
+        long now = Instant.now().getEpochSecond();
+        String version = versionOf(CODE_VERSION, rulesVersion);
+        Optional<ParseResultObject> result = Database.getParseResult(parserType, file.getSHA3(), version, now - this.ttlSeconds);
+
+        if (result.isPresent()) {
+            this.hits.increment();
+            Database.updateParseResultLastUsed(parserType, file.getSHA3(), version, now);
+        } else {
+            this.misses.increment();
+        }
+
+        return result;
+    }
+
+    /**
+     * @param parserType
+     * @param file
+     * @param rulesVersion
+     * @param summary The message the parser replied with.
+     * @param body The results file sent with it, if there was one.
+     */
+    public void put(String parserType, CachedAttachment file, String rulesVersion, String summary, Optional<String> body) {
+        long size = summary.getBytes(StandardCharsets.UTF_8).length + (body.isPresent() ? body.get().getBytes(StandardCharsets.UTF_8).length : 0);
+
+        if (size > this.maxResultBytes) {
+            return;
+        }
+
+        ParseResultObject result = new ParseResultObject(parserType, file.getSHA3(), versionOf(CODE_VERSION, rulesVersion), Instant.now().getEpochSecond(), summary, body);
+        Database.insertParseResult(result, size);
+    }
+
+    public void prune() {
+        this.pruned.add(Database.deleteStaleParseResults(Instant.now().getEpochSecond() - this.ttlSeconds, this.maxEntries, this.maxBytes));
+    }
+
+    /**
+     * @param parts
+     * @return Hex SHA-256 over the parts, for use as a rules version.
+     */
+    public static String versionOf(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                // Separator, so ("ab", "c") and ("a", "bc") differ
+                digest.update((byte) 0);
+            }
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d hits, %d misses, %d pruned, %d KB", this.hits.sum(), this.misses.sum(), this.pruned.sum(), Database.getParseResultSizeBytes() / 1024);
+    }
+}
@@ -4,16 +4,15 @@ package net.pcsx2.hifumi.parse;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URI;
-import java.net.URL;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 
 import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.attachment.CachedAttachment;
+import net.pcsx2.hifumi.database.objects.ParseResultObject;
 import net.pcsx2.hifumi.util.Messaging;
 
 import net.dv8tion.jda.api.entities.Message;
@@ -21,13 +20,13 @@ import net.dv8tion.jda.api.entities.Message.Attachment;
 
 public class PnachParser extends AbstractParser {
 
-    private static final String CRC_FILE_NAME_PATTERN = "[A-Z]{4}-[0-9]{5}_[0-9a-fA-F]{8}.*\\.pnach";
-    private static final List<String> KEYWORDS = Arrays.asList("author", "description", "gametitle", "comment", "gsaspectratio");
+    private static final String PARSER_TYPE = "pnach";
+    private static final Pattern CRC_FILE_NAME_PATTERN = Pattern.compile("[A-Z]{4}-[0-9]{5}_[0-9a-fA-F]{8}.*\\.pnach", Pattern.CASE_INSENSITIVE);
 
     private final Message message;
     private Attachment attachment;
 
-    private HashMap<PnachParserError, ArrayList<String>> errorMap;
+    private EnumMap<PnachParserError, ArrayList<String>> errorMap;
 
     public PnachParser(final Message message) {
         this.message = message;
@@ -39,7 +38,7 @@ public class PnachParser extends AbstractParser {
             }
         }
 
-        this.errorMap = new HashMap<PnachParserError, ArrayList<String>>();
+        this.errorMap = new EnumMap<PnachParserError, ArrayList<String>>(PnachParserError.class);
 
         for (PnachParserError ppe : PnachParserError.values()) {
             this.errorMap.put(ppe, new ArrayList<String>());
@@ -48,152 +47,43 @@ public class PnachParser extends AbstractParser {
 
     @Override
     public void run() {
-        URL url = null;
+        Optional<CachedAttachment> cached = fetch(message, attachment);
 
-        try {
-            url = new URI(attachment.getUrl()).toURL();
-        } catch (Exception e) {
-            Messaging.sendMessage(message.getChannel(), ":x: The URL to your attachment was bad... Try uploading again or changing the file name?");
+        if (cached.isEmpty()) {
+            return;
+        }
+
+        // Held until parsing is done, so the cache can't delete the file while it is being read
+        try (CachedAttachment file = cached.get()) {
+            this.parse(file);
+        }
+    }
+
+    private void parse(CachedAttachment cached) {
+        boolean validFileName = CRC_FILE_NAME_PATTERN.matcher(attachment.getFileName()).matches();
+        // The name is checked as well as the contents, so the same contents under a bad name get their own result
+        String parserType = validFileName ? PARSER_TYPE : PARSER_TYPE + "-misnamed";
+        Optional<ParseResultObject> previous = HifumiBot.getSelf().getParseResultCache().get(parserType, cached, "");
+
+        if (previous.isPresent()) {
+            send(previous.get().getSummary(), previous.get().getBody());
             return;
         }
 
         try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
+            BufferedReader reader = cached.openReader();
             Messaging.sendMessage(message.getChannel(), ":hourglass: " + message.getAuthor().getAsMention() + " Testing your PNACH ( " + attachment.getFileName() + " )");
-            Pattern p = Pattern.compile(CRC_FILE_NAME_PATTERN, Pattern.CASE_INSENSITIVE);
 
-            if (!p.matcher(attachment.getFileName()).matches()) {
+            if (!validFileName) {
                 addError(PnachParserError.FILE_NAME, "(filename)");
             }
 
+            PnachValidator validator = new PnachValidator();
+            BiConsumer<PnachParserError, String> onError = this::addError;
             String line;
 
             while ((line = reader.readLine()) != null) {
-                // Drop any comments
-                line = line.replaceAll("//.*", "");
-
-                // Test the start of the line. Is it one of the accepted tags, or blank?
-                if (line.isBlank()) {
-                    continue;
-                } else if ((line.startsWith("["))) {
-                    if (!line.endsWith("]")) {
-                        addError(PnachParserError.BAD_BRACKET, line);
-                    }
-
-                    if (line.contains("[ ") || line.contains(" ]")) {
-                        addError(PnachParserError.BRACKET_WHITESPACE, line);
-                    }
-                } else if (line.contains("=")) {
-                    int firstEquals = line.indexOf('=');
-                    String lineStart = line.substring(0, firstEquals).toLowerCase();
-
-                    if (KEYWORDS.contains(lineStart)) {
-                        continue;
-                    } else if (lineStart.equals("patch")) {
-                        int lastEquals = line.lastIndexOf('=');
-
-                        if (firstEquals == lastEquals) {
-                            try {
-                                int firstInlineComment = line.contains("//") ? line.indexOf("//") : -1;
-                                String paramStr = line.substring(firstEquals + 1);
-
-                                if (firstInlineComment != -1) {
-                                    paramStr = paramStr.substring(0, firstInlineComment);
-                                }
-
-                                String[] params = paramStr.split(",");
-
-                                if (params.length == 5) {
-                                    // Param 0
-                                    try {
-                                        int mode = Integer.parseInt(params[0]);
-
-                                        if (mode < 0 || mode > 2) {
-                                            addError(PnachParserError.FIRST_RANGE, line);
-                                        }
-                                    } catch (NumberFormatException e) {
-                                        addError(PnachParserError.FIRST_NAN, line);
-                                    }
-
-                                    // Param 1
-                                    if (params[1].equals("EE") || params[1].equals("IOP")) {
-                                        // Do nothing
-                                    } else if (params[1].equalsIgnoreCase("EE") || params[1].equalsIgnoreCase("IOP")) {
-                                        addError(PnachParserError.SECOND_CAPS, line);
-                                    } else {
-                                        addError(PnachParserError.SECOND_CPU, line);
-                                    }
-
-                                    // Param 2
-                                    Integer addr = -1;
-                                    Integer leading = -1;
-                                    try {
-                                        addr = Integer.parseUnsignedInt(params[2], 16);
-                                        leading = (addr & 0xf0000000) >> 28;
-
-                                        if (params[3].equals("extended")) {
-                                            if (leading < 0 || leading > 2) {
-                                                addError(PnachParserError.THIRD_LEAD_UNCHECKED, line);
-                                            }
-                                        } else {
-                                            if (leading != 0) {
-                                                addError(PnachParserError.THIRD_LEAD_NOT_ALLOWED, line);
-                                            } else if (addr >= 0x02000000) {
-                                                addError(PnachParserError.THIRD_RANGE, line);
-                                            }
-                                        }
-                                    } catch (NumberFormatException e) {
-                                        addError(PnachParserError.THIRD_ADDRESS, line);
-                                    }
-                                    // Param 3
-                                    if (params[3].equals("byte") || params[3].equals("short")
-                                            || params[3].equals("word") || params[3].equals("double")
-                                            || params[3].equals("extended")) {
-                                        // do nothing
-                                    } else if (params[3].equalsIgnoreCase("byte") || params[3].equalsIgnoreCase("short")
-                                            || params[3].equalsIgnoreCase("word")
-                                            || params[3].equalsIgnoreCase("double")
-                                            || params[3].equalsIgnoreCase("extended")) {
-                                        addError(PnachParserError.FOURTH_LOWERCASE, line);
-                                    } else {
-                                        addError(PnachParserError.FOURTH_TYPE, line);
-                                    }
-                                    // Param 4
-                                    try {
-                                        String param4 = params[4].split("/")[0].trim();
-                                        Integer value = Integer.parseUnsignedInt(param4.toUpperCase(), 16);
-
-                                        if (params[3].equals("byte") || (params[3].equals("extended") && leading == 0)) {
-                                            if (Integer.compareUnsigned(value, 0xff) > 0) {
-                                                addError(PnachParserError.FIFTH_SCOPE, line);
-                                            }
-                                        } else if (params[3].equals("short") || (params[3].equals("extended") && leading == 1)) {
-                                            if (Integer.compareUnsigned(value, 0xffff) > 0) {
-                                                addError(PnachParserError.FIFTH_SCOPE, line);
-                                            }
-                                        } else if (params[3].equals("word") || (params[3].equals("extended") && leading == 2)) {
-                                            // Nothing to report on
-                                        } else if (params[3].equals("double")) {
-                                            // Nothing to report on
-                                        }
-                                    } catch (NumberFormatException e) {
-                                        addError(PnachParserError.FIFTH_VALUE, line);
-                                    }
-                                } else {
-                                    addError(PnachParserError.PARAM_COUNT, line);
-                                }
-                            } catch (IndexOutOfBoundsException e) {
-                                addError(PnachParserError.MISSING_RIGHT, line);
-                            }
-                        } else {
-                            addError(PnachParserError.SECOND_EQUALS, line);
-                        }
-                    } else {
-                        addError(PnachParserError.START_KEYWORD, line);
-                    }
-                } else {
-                    addError(PnachParserError.NO_EQUALS, line);
-                }
+                validator.validate(line, onError);
             }
 
             reader.close();
@@ -220,19 +110,26 @@ public class PnachParser extends AbstractParser {
                 }
             }
 
+            String summary;
+            Optional<String> body = Optional.empty();
+
             if (hasLines) {
                 bodyBuilder.append("\n\n")
                         .append("============================ End Pnach Parse Results ===========================")
                         .append("\n");
 
                 if (bodyBuilder.toString().getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
-                    Messaging.sendMessage(message.getChannel(), ":information_source: Found something! Results are in this text file!", "Pnach_" + message.getAuthor().getName() + ".txt", bodyBuilder.toString());
+                    summary = ":information_source: Found something! Results are in this text file!";
+                    body = Optional.of(bodyBuilder.toString());
                 } else {
-                    Messaging.sendMessage(message.getChannel(), ":warning: Your pnach generated such a large results file that I can't upload it. A human is gonna have to read through your pnach manually.");
+                    summary = ":warning: Your pnach generated such a large results file that I can't upload it. A human is gonna have to read through your pnach manually.";
                 }
             } else {
-                Messaging.sendMessage(message.getChannel(), ":white_check_mark: All good, nothing to report!");
+                summary = ":white_check_mark: All good, nothing to report!";
             }
+
+            HifumiBot.getSelf().getParseResultCache().put(parserType, cached, "", summary, body);
+            send(summary, body);
         } catch (IOException e) {
             Messaging.sendMessage(message.getChannel(), ":x: Something went wrong... Try again?");
             Messaging.logException("EmulogParser", "run", e);
@@ -240,9 +137,16 @@ public class PnachParser extends AbstractParser {
         }
     }
 
+    private void send(String summary, Optional<String> body) {
+        if (body.isPresent()) {
+            Messaging.sendMessage(message.getChannel(), summary, "Pnach_" + message.getAuthor().getName() + ".txt", body.get());
+        } else {
+            Messaging.sendMessage(message.getChannel(), summary);
+        }
+    }
+
     private void addError(PnachParserError ppe, String line) {
         ArrayList<String> lines = errorMap.get(ppe);
         lines.add(line);
-        errorMap.put(ppe, lines);
     }
 }
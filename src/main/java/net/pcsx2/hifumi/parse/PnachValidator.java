@@ -0,0 +1,369 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Checks pnach lines one at a time by walking each line once with indices, without regex, splitting or substrings.
+ * The only strings made are the lines handed to the error callback, and only for lines with errors.
+ * <br><br>
+ * Reports exactly what the old replaceAll / split based checks did, quirks included: trailing empty patch fields
+ * don't count towards the five, and a fifth field of just / counts as nothing on the right of the =.
+ * <br><br>
+ * Not thread safe; holds the field positions of the line being checked.
+ */
+public class PnachValidator {
+
+    private static final String[] KEYWORDS = { "author", "description", "gametitle", "comment", "gsaspectratio" };
+    private static final String[] TYPES = { "byte", "short", "word", "double", "extended" };
+    private static final int BYTE = 0;
+    private static final int SHORT = 1;
+    private static final int EXTENDED = 4;
+    private static final int FIELDS = 5;
+    private static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+    private final int[] fieldStart = new int[FIELDS];
+    private final int[] fieldEnd = new int[FIELDS];
+
+    private String line;
+    private String reported;
+    private int end;
+    private BiConsumer<PnachParserError, String> onError;
+
+    /**
+     * @param line A line of the pnach, as read.
+     * @param onError Called with each problem found and the line without its comment, in the order they are found.
+     */
+    public void validate(String line, BiConsumer<PnachParserError, String> onError) {
+        this.line = line;
+        this.reported = null;
+        this.onError = onError;
+        // Everything from the first // on is a comment
+        int comment = line.indexOf("//");
+        this.end = comment >= 0 ? comment : line.length();
+
+        try {
+            this.validateLine();
+        } finally {
+            this.line = null;
+            this.reported = null;
+            this.onError = null;
+        }
+    }
+
+    private void validateLine() {
+        if (this.isBlank(0, this.end)) {
+            return;
+        }
+
+        if (this.line.charAt(0) == '[') {
+            if (this.line.charAt(this.end - 1) != ']') {
+                this.error(PnachParserError.BAD_BRACKET);
+            }
+
+            if (this.indexOf("[ ", 0) >= 0 || this.indexOf(" ]", 0) >= 0) {
+                this.error(PnachParserError.BRACKET_WHITESPACE);
+            }
+
+            return;
+        }
+
+        int firstEquals = this.indexOf('=', 0);
+
+        if (firstEquals < 0) {
+            this.error(PnachParserError.NO_EQUALS);
+            return;
+        }
+
+        for (String keyword : KEYWORDS) {
+            if (this.isLowercaseOf(keyword, 0, firstEquals)) {
+                return;
+            }
+        }
+
+        if (!this.isLowercaseOf("patch", 0, firstEquals)) {
+            this.error(PnachParserError.START_KEYWORD);
+            return;
+        }
+
+        if (this.indexOf('=', firstEquals + 1) >= 0) {
+            this.error(PnachParserError.SECOND_EQUALS);
+            return;
+        }
+
+        if (this.splitFields(firstEquals + 1) != FIELDS) {
+            this.error(PnachParserError.PARAM_COUNT);
+            return;
+        }
+
+        // Mode
+        long mode = this.parseDecimal(this.fieldStart[0], this.fieldEnd[0]);
+
+        if (mode == NOT_A_NUMBER) {
+            this.error(PnachParserError.FIRST_NAN);
+        } else if (mode < 0 || mode > 2) {
+            this.error(PnachParserError.FIRST_RANGE);
+        }
+
+        // CPU
+        if (this.fieldEquals("EE", 1, false) || this.fieldEquals("IOP", 1, false)) {
+            // Fine
+        } else if (this.fieldEquals("EE", 1, true) || this.fieldEquals("IOP", 1, true)) {
+            this.error(PnachParserError.SECOND_CAPS);
+        } else {
+            this.error(PnachParserError.SECOND_CPU);
+        }
+
+        // Address; the leading digit is sign extended, as it always has been
+        int type = this.fieldIndexIn(TYPES, 3, false);
+        long address = this.parseHex(this.fieldStart[2], this.fieldEnd[2]);
+        int leading = -1;
+
+        if (address == NOT_A_NUMBER) {
+            this.error(PnachParserError.THIRD_ADDRESS);
+        } else {
+            leading = ((int) address & 0xf0000000) >> 28;
+
+            if (type == EXTENDED) {
+                if (leading < 0 || leading > 2) {
+                    this.error(PnachParserError.THIRD_LEAD_UNCHECKED);
+                }
+            } else if (leading != 0) {
+                this.error(PnachParserError.THIRD_LEAD_NOT_ALLOWED);
+            } else if (address >= 0x02000000) {
+                this.error(PnachParserError.THIRD_RANGE);
+            }
+        }
+
+        // Type
+        if (type < 0) {
+            if (this.fieldIndexIn(TYPES, 3, true) >= 0) {
+                this.error(PnachParserError.FOURTH_LOWERCASE);
+            } else {
+                this.error(PnachParserError.FOURTH_TYPE);
+            }
+        }
+
+        // Value, up to any single / and trimmed; a lone / was always taken as no value at all
+        int valueStart = this.fieldStart[4];
+        int valueEnd = this.fieldEnd[4];
+
+        if (valueEnd - valueStart == 1 && this.line.charAt(valueStart) == '/') {
+            this.error(PnachParserError.MISSING_RIGHT);
+            return;
+        }
+
+        int slash = this.indexOf('/', valueStart);
+
+        if (slash >= 0 && slash < valueEnd) {
+            valueEnd = slash;
+        }
+
+        while (valueStart < valueEnd && this.line.charAt(valueStart) <= ' ') {
+            valueStart++;
+        }
+
+        while (valueEnd > valueStart && this.line.charAt(valueEnd - 1) <= ' ') {
+            valueEnd--;
+        }
+
+        long value = this.parseHex(valueStart, valueEnd);
+
+        if (value == NOT_A_NUMBER) {
+            this.error(PnachParserError.FIFTH_VALUE);
+        } else if (type == BYTE || (type == EXTENDED && leading == 0)) {
+            if (value > 0xff) {
+                this.error(PnachParserError.FIFTH_SCOPE);
+            }
+        } else if (type == SHORT || (type == EXTENDED && leading == 1)) {
+            if (value > 0xffff) {
+                this.error(PnachParserError.FIFTH_SCOPE);
+            }
+        }
+    }
+
+    private void error(PnachParserError error) {
+        if (this.reported == null) {
+            this.reported = this.end == this.line.length() ? this.line : this.line.substring(0, this.end);
+        }
+
+        this.onError.accept(error, this.reported);
+    }
+
+    /**
+     * Find the comma separated fields from start to the end of the line, the way String.split does:
+     * trailing empty fields are dropped, unless there is nothing at all, which is one empty field.
+     * @return The number of fields. The positions of the first five are kept.
+     */
+    private int splitFields(int start) {
+        if (start == this.end) {
+            this.fieldStart[0] = start;
+            this.fieldEnd[0] = start;
+            return 1;
+        }
+
+        int field = 0;
+        int lastNonEmpty = -1;
+        int fieldBegin = start;
+
+        for (int i = start; i <= this.end; i++) {
+            if (i == this.end || this.line.charAt(i) == ',') {
+                if (field < FIELDS) {
+                    this.fieldStart[field] = fieldBegin;
+                    this.fieldEnd[field] = i;
+                }
+
+                if (i > fieldBegin) {
+                    lastNonEmpty = field;
+                }
+
+                field++;
+                fieldBegin = i + 1;
+            }
+        }
+
+        return lastNonEmpty + 1;
+    }
+
+    /**
+     * Same as Integer.parseInt over the range.
+     * @return The value, or NOT_A_NUMBER.
+     */
+    private long parseDecimal(int start, int end) {
+        if (start >= end) {
+            return NOT_A_NUMBER;
+        }
+
+        boolean negative = false;
+        char first = this.line.charAt(start);
+
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+
+            if (++start == end) {
+                return NOT_A_NUMBER;
+            }
+        }
+
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(this.line.charAt(i), 10);
+
+            if (digit < 0) {
+                return NOT_A_NUMBER;
+            }
+
+            value = value * 10 + digit;
+
+            if (value > limit) {
+                return NOT_A_NUMBER;
+            }
+        }
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Same as Integer.parseUnsignedInt(s, 16) over the range.
+     * @return The unsigned value, or NOT_A_NUMBER.
+     */
+    private long parseHex(int start, int end) {
+        if (start >= end) {
+            return NOT_A_NUMBER;
+        }
+
+        char first = this.line.charAt(start);
+
+        if (first == '-') {
+            return NOT_A_NUMBER;
+        }
+
+        if (first == '+' && ++start == end) {
+            return NOT_A_NUMBER;
+        }
+
+        long value = 0;
+
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(this.line.charAt(i), 16);
+
+            if (digit < 0) {
+                return NOT_A_NUMBER;
+            }
+
+            value = (value << 4) | digit;
+
+            if (value > 0xffffffffL) {
+                return NOT_A_NUMBER;
+            }
+        }
+
+        return value;
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(this.line.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int indexOf(char c, int from) {
+        int index = this.line.indexOf(c, from);
+        return index < this.end ? index : -1;
+    }
+
+    private int indexOf(String s, int from) {
+        int index = this.line.indexOf(s, from);
+        return index >= 0 && index + s.length() <= this.end ? index : -1;
+    }
+
+    /**
+     * Whether the range lowercases to the keyword. Keywords are ASCII, and apart from the Kelvin sign, nothing
+     * outside ASCII lowercases into ASCII, so only ASCII capitals need folding.
+     */
+    private boolean isLowercaseOf(String keyword, int start, int end) {
+        if (end - start != keyword.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = this.line.charAt(start + i);
+
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+
+            if (c != keyword.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean fieldEquals(String expected, int field, boolean ignoreCase) {
+        int start = this.fieldStart[field];
+        int length = this.fieldEnd[field] - start;
+        return length == expected.length() && this.line.regionMatches(ignoreCase, start, expected, 0, length);
+    }
+
+    /**
+     * @return The index of the first option the field equals, or -1.
+     */
+    private int fieldIndexIn(String[] options, int field, boolean ignoreCase) {
+        for (int i = 0; i < options.length; i++) {
+            if (this.fieldEquals(options[i], field, ignoreCase)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,248 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Everything one rule matched in a log, in a fixed amount of memory however many lines that was.
+ * Keeps the total, the first and last line numbers, a count of distinct lines (exact up to a cap),
+ * and the most repeated lines with their counts.
+ * <br><br>
+ * The most repeated lines are tracked with the Space-Saving algorithm: a fixed number of counters,
+ * where a new line takes over the smallest counter once they are all in use, inheriting its count as possible error.
+ * Lines tracked from their first appearance have exact counts; the rest have a guaranteed minimum.
+ */
+public class RuleFindings {
+
+    // Tracked, not shown; tracking more than is shown keeps the shown counts accurate
+    private static final int TRACKED_LINES = 64;
+    private static final int DISTINCT_CAP = 4096;
+    // Lines which only differ past this point are counted as one
+    private static final int MAX_LINE_LENGTH = 500;
+
+    private long hits = 0;
+    private long firstLine = -1;
+    private long lastLine = -1;
+    private final HashMap<String, Counter> counters = new HashMap<String, Counter>();
+    // Whether any counter has ever been taken over or dropped, so that untracked lines may have been seen before
+    private boolean evicted = false;
+    private final HashSet<Long> distinct = new HashSet<Long>();
+    private boolean distinctCapped = false;
+
+    /**
+     * @param line
+     * @param lineNumber 1-based.
+     */
+    public void add(String line, long lineNumber) {
+        this.hits++;
+
+        if (this.firstLine == -1) {
+            this.firstLine = lineNumber;
+        }
+
+        this.lastLine = lineNumber;
+        this.addDistinct(hash(line));
+        String key = line.length() > MAX_LINE_LENGTH ? line.substring(0, MAX_LINE_LENGTH) : line;
+        Counter counter = this.counters.get(key);
+
+        if (counter != null) {
+            counter.count++;
+        } else if (this.counters.size() < TRACKED_LINES) {
+            this.counters.put(key, new Counter(1, 0, lineNumber));
+        } else {
+            Counter taken = this.counters.remove(this.smallest());
+            this.counters.put(key, new Counter(taken.count + 1, taken.count, lineNumber));
+            this.evicted = true;
+        }
+    }
+
+    /**
+     * Fold in the findings from the part of the log which comes straight after this one.
+     * @param other
+     * @param lineOffset How many lines came before the other part, to turn its line numbers into ones for the whole log.
+     */
+    public void merge(RuleFindings other, long lineOffset) {
+        if (other.hits == 0) {
+            return;
+        }
+
+        if (this.firstLine == -1) {
+            this.firstLine = other.firstLine + lineOffset;
+        }
+
+        this.lastLine = other.lastLine + lineOffset;
+        this.hits += other.hits;
+        this.distinctCapped |= other.distinctCapped;
+
+        for (Long hash : other.distinct) {
+            this.addDistinct(hash);
+        }
+
+        // A line one side isn't tracking could have been seen there up to as many times as that side's smallest counter,
+        // if it has ever dropped one; counting it that many times keeps the counts as upper bounds and the errors valid
+        long ourFloor = this.evicted ? this.counters.get(this.smallest()).count : 0;
+        long theirFloor = other.evicted ? other.counters.get(other.smallest()).count : 0;
+
+        for (Map.Entry<String, Counter> entry : this.counters.entrySet()) {
+            if (!other.counters.containsKey(entry.getKey())) {
+                entry.getValue().count += theirFloor;
+                entry.getValue().error += theirFloor;
+            }
+        }
+
+        for (Map.Entry<String, Counter> entry : other.counters.entrySet()) {
+            Counter theirs = entry.getValue();
+            Counter ours = this.counters.get(entry.getKey());
+
+            if (ours != null) {
+                ours.count += theirs.count;
+                ours.error += theirs.error;
+            } else {
+                this.counters.put(entry.getKey(), new Counter(theirs.count + ourFloor, theirs.error + ourFloor, theirs.firstLine + lineOffset));
+            }
+        }
+
+        this.evicted |= other.evicted;
+
+        while (this.counters.size() > TRACKED_LINES) {
+            this.counters.remove(this.smallest());
+            this.evicted = true;
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getFirstLine() {
+        return firstLine;
+    }
+
+    public long getLastLine() {
+        return lastLine;
+    }
+
+    public int getDistinctLines() {
+        return this.distinct.size();
+    }
+
+    /**
+     * @return Whether there were more distinct lines than could be counted, in which case {@link #getDistinctLines()} is a lower bound.
+     */
+    public boolean isDistinctCapped() {
+        return distinctCapped;
+    }
+
+    /**
+     * @param limit
+     * @return Up to limit of the most repeated lines, by the number of times they were certainly seen, ties broken by which came first.
+     */
+    public ArrayList<TopLine> getTopLines(int limit) {
+        ArrayList<TopLine> top = new ArrayList<TopLine>();
+
+        for (Map.Entry<String, Counter> entry : this.counters.entrySet()) {
+            Counter counter = entry.getValue();
+            top.add(new TopLine(entry.getKey(), counter.count - counter.error, counter.error == 0, counter.firstLine));
+        }
+
+        top.sort((a, b) -> a.count != b.count ? Long.compare(b.count, a.count) : Long.compare(a.firstLine, b.firstLine));
+
+        if (top.size() > limit) {
+            return new ArrayList<TopLine>(top.subList(0, limit));
+        }
+
+        return top;
+    }
+
+    private void addDistinct(long hash) {
+        if (this.distinct.size() < DISTINCT_CAP) {
+            this.distinct.add(hash);
+        } else if (!this.distinct.contains(hash)) {
+            this.distinctCapped = true;
+        }
+    }
+
+    private String smallest() {
+        String smallest = null;
+        long min = Long.MAX_VALUE;
+
+        for (Map.Entry<String, Counter> entry : this.counters.entrySet()) {
+            if (entry.getValue().count < min) {
+                min = entry.getValue().count;
+                smallest = entry.getKey();
+            }
+        }
+
+        return smallest;
+    }
+
+    /**
+     * 64 bit FNV-1a over the chars; String.hashCode collides far too easily to count distinct lines with.
+     */
+    private static long hash(String line) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < line.length(); i++) {
+            hash ^= line.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    private static class Counter {
+        // Upper bound on the true count; count - error is a lower bound
+        private long count;
+        private long error;
+        private final long firstLine;
+
+        private Counter(long count, long error, long firstLine) {
+            this.count = count;
+            this.error = error;
+            this.firstLine = firstLine;
+        }
+    }
+
+    public static class TopLine {
+        private final String line;
+        private final long count;
+        private final boolean exact;
+        private final long firstLine;
+
+        private TopLine(String line, long count, boolean exact, long firstLine) {
+            this.line = line;
+            this.count = count;
+            this.exact = exact;
+            this.firstLine = firstLine;
+        }
+
+        public String getLine() {
+            return line;
+        }
+
+        /**
+         * @return How many times the line was certainly seen; exactly, unless {@link #isExact()} says otherwise.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return False if the line may have been seen more times than counted, before it was being tracked.
+         */
+        public boolean isExact() {
+            return exact;
+        }
+
+        /**
+         * @return The first line number this line was seen on since it was last taken into tracking.
+         */
+        public long getFirstLine() {
+            return firstLine;
+        }
+    }
+}
@@ -2,34 +2,34 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.parse;
 
-import static java.util.stream.Collectors.toMap;
-
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URL;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.apache.commons.text.WordUtils;
-import org.ini4j.Ini;
-
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.Message.Attachment;
 import net.pcsx2.hifumi.HifumiBot;
-import net.pcsx2.hifumi.config.SettingsIniParserConfig.Rule;
-import net.pcsx2.hifumi.config.SettingsIniParserConfig.Section;
-import net.pcsx2.hifumi.config.SettingsIniParserConfig.Setting;
+import net.pcsx2.hifumi.ParserExecutor.Lane;
+import net.pcsx2.hifumi.attachment.CachedAttachment;
+import net.pcsx2.hifumi.database.objects.ParseResultObject;
+import net.pcsx2.hifumi.parse.SettingsIniRuleIndex.CompiledRules;
+import net.pcsx2.hifumi.parse.SettingsIniRuleIndex.CompiledSetting;
 import net.pcsx2.hifumi.util.Messaging;
 
 public class SettingsIniParser extends AbstractParser {
     
+    private static final String PARSER_TYPE = "ini";
     private static final String GLOBAL_SETTINGS_FILE_NAME = "PCSX2.ini";
     private static final Pattern FILE_NAME_PATTERN = Pattern.compile("[A-Za-z]{4}-[0-9]{5}_[A-Za-z0-9]{8}.ini");
 
-    public static void init(Message message) {
+    public static void init(Message message, Lane lane) {
         int iniCounter = 0;
 
         for (Attachment att : message.getAttachments()) {
@@ -40,7 +40,7 @@ public class SettingsIniParser extends AbstractParser {
 
             if (att.getFileName().equals(GLOBAL_SETTINGS_FILE_NAME)) {
                 SettingsIniParser globalParser = new SettingsIniParser(message, att);
-                HifumiBot.getSelf().getScheduler().runOnce(globalParser);
+                HifumiBot.getSelf().getScheduler().getParserExecutor().submit(message, lane, globalParser);
                 iniCounter++;
                 continue;
             }
@@ -49,7 +49,7 @@ public class SettingsIniParser extends AbstractParser {
             
             if (m.matches()) {
                 SettingsIniParser propertiesParser = new SettingsIniParser(message, att);
-                HifumiBot.getSelf().getScheduler().runOnce(propertiesParser);
+                HifumiBot.getSelf().getScheduler().getParserExecutor().submit(message, lane, propertiesParser);
                 iniCounter++;
             }
         }
@@ -57,14 +57,21 @@ public class SettingsIniParser extends AbstractParser {
     
     private final Message message;
     private final Attachment attachment;
+    private final boolean globalFile;
 
-    private Map<String, Map<String, String>> ini;
-    private HashMap<String, HashMap<String, ArrayList<String>>> errors;
+    private boolean hasToken = false;
+    // The last value each setting with rules had in the file
+    private HashMap<CompiledSetting, String> values;
+    private ArrayList<CompiledSetting> errorSettings;
+    private HashMap<CompiledSetting, List<String>> errors;
 
     public SettingsIniParser(final Message message, final Attachment attachment) {
         this.message = message;
         this.attachment = attachment;
-        this.errors = new HashMap<String, HashMap<String, ArrayList<String>>>();
+        this.globalFile = attachment.getFileName().equals(GLOBAL_SETTINGS_FILE_NAME);
+        this.values = new HashMap<CompiledSetting, String>();
+        this.errorSettings = new ArrayList<CompiledSetting>();
+        this.errors = new HashMap<CompiledSetting, List<String>>();
     }
 
     public void run() {
@@ -72,21 +79,48 @@ public class SettingsIniParser extends AbstractParser {
             return;
         }
 
-        URL url = null;
+        Optional<CachedAttachment> cached = fetch(message, attachment);
 
-        try {
-            url = new URI(attachment.getUrl()).toURL();
-        } catch (Exception e) {
-            Messaging.sendMessage(message.getChannel(), ":x: The URL to your attachment was bad... Try uploading again or changing the file name?");
+        if (cached.isEmpty()) {
             return;
         }
-        
+
+        // Held until parsing is done, so the cache can't delete the file while it is being read
+        try (CachedAttachment file = cached.get()) {
+            this.parse(file);
+        }
+    }
+
+    private void parse(CachedAttachment cached) {
         try {
-            Ini iniFile = new Ini(url);
-            this.ini = iniFile.entrySet().stream().collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+            CompiledRules rules = HifumiBot.getSelf().getSettingsIniRuleIndex().getCompiledRules();
+
+            try (BufferedReader reader = cached.openReader()) {
+                IniReader.read(reader, (section, key, value) -> {
+                    if (section.equals("Achievements") && key.equals("Token")) {
+                        this.hasToken = true;
+                    }
+
+                    CompiledSetting setting = rules.find(this.globalFile, section, key);
+
+                    if (setting != null) {
+                        this.values.put(setting, value);
+                    }
+                });
+            }
+
             this.safetyCheck();
+            // The file name decides which rules apply, and is in the results
+            String parserType = PARSER_TYPE + "/" + this.attachment.getFileName();
+            Optional<ParseResultObject> previous = HifumiBot.getSelf().getParseResultCache().get(parserType, cached, rules.getVersion());
+
+            if (previous.isPresent()) {
+                this.send(previous.get().getSummary(), previous.get().getBody());
+                return;
+            }
+
             this.evaluate();
-            this.displayErrors();
+            this.displayErrors(parserType, cached, rules.getVersion());
         } catch (IOException e) {
             Messaging.sendMessage(message.getChannel(), ":x: An I/O error occurred while processing " + attachment.getFileName());
         }
@@ -94,112 +128,74 @@ public class SettingsIniParser extends AbstractParser {
 
     private void safetyCheck() {
         // Delete the original message if the ini contains an achievements token
-        if (ini.containsKey("Achievements") && ini.get("Achievements").containsKey("Token")) {
+        if (this.hasToken) {
             Messaging.sendPrivateMessage(this.message.getAuthor(), "The ini file you posted in the PCSX2 server contained your RetroAchievements login token inside. For your safety, your message was deleted so no one else can see it.");
             this.message.delete().queue();
+            // Don't keep a copy of their token on disk either
+            HifumiBot.getSelf().getAttachmentCache().evict(this.attachment.getIdLong());
         }
     }
 
     private void evaluate() {
-        for (Section section : HifumiBot.getSelf().getSettingsIniParserConfig().sections) {
-            // Prep a map of settings for this section
-            HashMap<String, ArrayList<String>> errorSettings;
-
-            if (errors.containsKey(section.sectionName)) {
-                errorSettings = errors.get(section.sectionName);
-            } else {
-                errorSettings = new HashMap<String, ArrayList<String>>();
-            }
-
-            for (Setting setting : section.settings) {
-                // Prep a list of errors for this setting 
-                ArrayList<String> errorList;
-
-                if (errorSettings.containsKey(setting.settingName)) {
-                    errorList = errorSettings.get(setting.settingName);
-                } else {
-                    errorList = new ArrayList<String>();
-                }
-
-                for (Rule rule : setting.rules) {
-                    // If the ini does not contain the section, skip the rule
-                    if (!ini.containsKey(section.sectionName)) {
-                        continue;
-                    }
-
-                    Map<String, String> iniSection = ini.get(section.sectionName);
-
-                    // If the ini does not contain the setting, skip the rule 
-                    if (!iniSection.containsKey(setting.settingName)) {
-                        continue;
-                    }
-
-                    String value = iniSection.get(setting.settingName);
-                    boolean valueInList = rule.expectedValues.contains(value);
-
-                    // If the value is one the rule expected, or the rule is inverted and NOT in the list, continue.
-                    if (valueInList || (!valueInList && rule.invert)) {
-                        continue;
-                    }
-
-                    // If this rule doesn't apply to this type of settings file, continue
-                    if (this.attachment.getFileName().equals(GLOBAL_SETTINGS_FILE_NAME)) {
-                        if ((rule.settingsType & 1) != 1) {
-                            continue;
-                        }
-                    } else {
-                        if ((rule.settingsType & 2) != 2) {
-                            continue;
-                        }
-                    }
-
-                    // Else, add an error
-                    String wrapped = WordUtils.wrap(rule.message, 75, "\n        ", true);
-                    errorList.add(wrapped);
-                }
-
-                if (!errorList.isEmpty()) {
-                    errorSettings.put(setting.settingName, errorList);
-                }
-            }
+        for (Map.Entry<CompiledSetting, String> entry : this.values.entrySet()) {
+            List<String> messages = entry.getKey().evaluate(entry.getValue());
 
-            if (!errorSettings.isEmpty()) {
-                errors.put(section.sectionName, errorSettings);
+            if (!messages.isEmpty()) {
+                this.errorSettings.add(entry.getKey());
+                this.errors.put(entry.getKey(), messages);
             }
         }
+
+        this.errorSettings.sort(Comparator.comparingInt(CompiledSetting::getSectionOrder).thenComparingInt(CompiledSetting::getSettingOrder));
     }
 
-    private void displayErrors() {
+    private void displayErrors(String parserType, CachedAttachment cached, String rulesVersion) {
         if (errors.isEmpty()) {
-            Messaging.sendMessage(this.message.getChannel(), ":white_check_mark: Nothing to report! Your settings appear to be clean.", this.message, true);
+            String summary = ":white_check_mark: Nothing to report! Your settings appear to be clean.";
+            HifumiBot.getSelf().getParseResultCache().put(parserType, cached, rulesVersion, summary, Optional.empty());
+            this.send(summary, Optional.empty());
             return;
         }
 
         StringBuilder sb = new StringBuilder("Settings analysis for " + this.attachment.getFileName() + "\n");
         sb.append("================================================================================").append("\n");
 
-        for (String sectionName : errors.keySet()) {
-            sb.append("[").append(sectionName).append("]").append("\n");
-            HashMap<String, ArrayList<String>> settingErrors = errors.get(sectionName);
-
-            for (String settingName : settingErrors.keySet()) {
-                sb.append(settingName).append("\n");
-                ArrayList<String> errorMessages = settingErrors.get(settingName);
-                
-                for (String message : errorMessages) {
-                    sb.append("    ").append(message).append("\n");
-                }
+        String sectionName = null;
+
+        for (CompiledSetting setting : this.errorSettings) {
+            if (!setting.getSectionName().equals(sectionName)) {
+                sectionName = setting.getSectionName();
+                sb.append("[").append(sectionName).append("]").append("\n");
+            }
+
+            sb.append(setting.getSettingName()).append("\n");
+
+            for (String message : errors.get(setting)) {
+                sb.append("    ").append(message).append("\n");
             }
         }
         
         sb.append("================================================================================").append("\n");
 
         String body = sb.toString();
+        String summary;
 
         if (body.getBytes().length <= HifumiBot.getSelf().getJDA().getSelfUser().getAllowedFileSize()) {
-            Messaging.sendMessage(this.message.getChannel(), ":information_source: Found something! Results are in this text file!", this.attachment.getFileName() + "_" + message.getAuthor().getName() + ".txt", body, null, null, this.message, true);
+            summary = ":information_source: Found something! Results are in this text file!";
+        } else {
+            summary = ":warning: Your settings generated such a large results file that I can't upload it here. A human will have to read through your settings manually.";
+            body = null;
+        }
+
+        HifumiBot.getSelf().getParseResultCache().put(parserType, cached, rulesVersion, summary, Optional.ofNullable(body));
+        this.send(summary, Optional.ofNullable(body));
+    }
+
+    private void send(String summary, Optional<String> body) {
+        if (body.isPresent()) {
+            Messaging.sendMessage(this.message.getChannel(), summary, this.attachment.getFileName() + "_" + message.getAuthor().getName() + ".txt", body.get(), null, null, this.message, true);
         } else {
-            Messaging.sendMessage(this.message.getChannel(), ":warning: Your settings generated such a large results file that I can't upload it here. A human will have to read through your settings manually.", this.message, true);
+            Messaging.sendMessage(this.message.getChannel(), summary, this.message, true);
         }
     }
 }
@@ -0,0 +1,190 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.commons.text.WordUtils;
+
+import com.google.gson.Gson;
+
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.config.SettingsIniParserConfig;
+import net.pcsx2.hifumi.config.SettingsIniParserConfig.Rule;
+import net.pcsx2.hifumi.config.SettingsIniParserConfig.Section;
+import net.pcsx2.hifumi.config.SettingsIniParserConfig.Setting;
+
+/**
+ * Compiled form of the settings ini rules: a table from section and key to the rules for that setting,
+ * one for PCSX2.ini and one for game properties files, each holding only the rules which apply to that kind of file.
+ * Expected values are hash sets and messages are wrapped ahead of time, so checking a file is one lookup per line
+ * it contains, and nothing per rule it doesn't.
+ * <br><br>
+ * Rebuilt and swapped in whole whenever the settings ini config changes.
+ */
+public class SettingsIniRuleIndex {
+
+    private volatile CompiledRules compiled = new CompiledRules(new SettingsIniParserConfig());
+
+    public void refresh() {
+        this.compiled = new CompiledRules(HifumiBot.getSelf().getSettingsIniParserConfig());
+    }
+
+    public CompiledRules getCompiledRules() {
+        return this.compiled;
+    }
+
+    @Override
+    public String toString() {
+        CompiledRules current = this.compiled;
+        return String.format("%d settings, %d rules (PCSX2.ini: %d settings, game properties: %d settings)", current.settings, current.rules, current.global.size(), current.game.size());
+    }
+
+    public static class CompiledRules {
+        // Keyed by "section\0key"
+        private final HashMap<String, CompiledSetting> global = new HashMap<String, CompiledSetting>();
+        private final HashMap<String, CompiledSetting> game = new HashMap<String, CompiledSetting>();
+        private final String version;
+        private int settings = 0;
+        private int rules = 0;
+
+        private CompiledRules(SettingsIniParserConfig config) {
+            // The same section or setting may be listed more than once; results follow where each first appears
+            HashMap<String, Integer> sectionOrder = new HashMap<String, Integer>();
+            HashMap<String, Integer> settingOrder = new HashMap<String, Integer>();
+
+            for (Section section : config.sections) {
+                sectionOrder.putIfAbsent(section.sectionName, sectionOrder.size());
+
+                for (Setting setting : section.settings) {
+                    String key = key(section.sectionName, setting.settingName);
+                    settingOrder.putIfAbsent(key, settingOrder.size());
+
+                    for (Rule rule : setting.rules) {
+                        CompiledRule compiledRule = new CompiledRule(new HashSet<String>(rule.expectedValues), rule.invert, WordUtils.wrap(rule.message, 75, "\n        ", true));
+                        this.rules++;
+
+                        // settingsType: 1 = global, 2 = game properties, 3 = both
+                        if ((rule.settingsType & 1) == 1) {
+                            add(this.global, key, section.sectionName, setting.settingName, sectionOrder.get(section.sectionName), settingOrder.get(key), compiledRule);
+                        }
+
+                        if ((rule.settingsType & 2) == 2) {
+                            add(this.game, key, section.sectionName, setting.settingName, sectionOrder.get(section.sectionName), settingOrder.get(key), compiledRule);
+                        }
+                    }
+                }
+            }
+
+            this.settings = settingOrder.size();
+            this.version = ParseResultCache.versionOf(new Gson().toJson(config));
+        }
+
+        private static void add(HashMap<String, CompiledSetting> table, String key, String sectionName, String settingName, int sectionOrder, int settingOrder, CompiledRule rule) {
+            CompiledSetting setting = table.get(key);
+
+            if (setting == null) {
+                setting = new CompiledSetting(sectionName, settingName, sectionOrder, settingOrder);
+                table.put(key, setting);
+            }
+
+            setting.rules.add(rule);
+        }
+
+        private static String key(String section, String setting) {
+            return section + '\0' + setting;
+        }
+
+        /**
+         * @return Changes whenever any rule does, for keying cached results.
+         */
+        public String getVersion() {
+            return this.version;
+        }
+
+        /**
+         * @param globalFile Whether the file is PCSX2.ini rather than a game's properties.
+         * @param section
+         * @param key
+         * @return The rules for the setting which apply to the kind of file, or null if there are none.
+         */
+        public CompiledSetting find(boolean globalFile, String section, String key) {
+            return (globalFile ? this.global : this.game).get(key(section, key));
+        }
+    }
+
+    public static class CompiledSetting {
+        private final String sectionName;
+        private final String settingName;
+        private final int sectionOrder;
+        private final int settingOrder;
+        private final ArrayList<CompiledRule> rules = new ArrayList<CompiledRule>();
+
+        private CompiledSetting(String sectionName, String settingName, int sectionOrder, int settingOrder) {
+            this.sectionName = sectionName;
+            this.settingName = settingName;
+            this.sectionOrder = sectionOrder;
+            this.settingOrder = settingOrder;
+        }
+
+        public String getSectionName() {
+            return sectionName;
+        }
+
+        public String getSettingName() {
+            return settingName;
+        }
+
+        /**
+         * @return Where the section first appears in the config, for ordering results.
+         */
+        public int getSectionOrder() {
+            return sectionOrder;
+        }
+
+        /**
+         * @return Where the setting first appears in the config, for ordering results.
+         */
+        public int getSettingOrder() {
+            return settingOrder;
+        }
+
+        /**
+         * @param value The setting's value in the file, or null if it had none.
+         * @return The wrapped messages of every rule the value breaks, in config order.
+         */
+        public List<String> evaluate(String value) {
+            ArrayList<String> messages = null;
+
+            for (CompiledRule rule : this.rules) {
+                if (rule.expectedValues.contains(value) || rule.invert) {
+                    continue;
+                }
+
+                if (messages == null) {
+                    messages = new ArrayList<String>();
+                }
+
+                messages.add(rule.wrappedMessage);
+            }
+
+            return messages != null ? messages : Collections.emptyList();
+        }
+    }
+
+    private static class CompiledRule {
+        private final HashSet<String> expectedValues;
+        private final boolean invert;
+        private final String wrappedMessage;
+
+        private CompiledRule(HashSet<String> expectedValues, boolean invert, String wrappedMessage) {
+            this.expectedValues = expectedValues;
+            this.invert = invert;
+            this.wrappedMessage = wrappedMessage;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton, for finding which of a fixed set of keywords occur in a piece of text
+ * in a single pass, however many keywords there are.
+ * <br><br>
+ * Keywords are lowercase, and text is case folded one char at a time as it is scanned,
+ * so callers don't need to lowercase (and copy) text which probably contains none of them.
+ * The automaton is immutable once built and safe to share between threads.
+ */
+public class AhoCorasick {
+
+    private static final int ASCII = 128;
+
+    // Index into the alphabet for each ASCII char, or 0 if no keyword uses it
+    private final int[] asciiAlphabet = new int[ASCII];
+    private final HashMap<Character, Integer> otherAlphabet = new HashMap<Character, Integer>();
+    // delta[state * alphabetSize + symbol] is the next state, with failure links already followed
+    private final int[] delta;
+    private final int alphabetSize;
+    // Keyword indices which end at each state, including those reached through failure links
+    private final int[][] outputs;
+    private final int keywordCount;
+
+    /**
+     * @param keywords Lowercase keywords. Empty ones never match.
+     */
+    public AhoCorasick(List<String> keywords) {
+        this.keywordCount = keywords.size();
+
+        // Symbol 0 stands for every char no keyword uses
+        int symbols = 1;
+
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+
+                if (c < ASCII) {
+                    if (this.asciiAlphabet[c] == 0) {
+                        this.asciiAlphabet[c] = symbols++;
+                    }
+                } else if (!this.otherAlphabet.containsKey(c)) {
+                    this.otherAlphabet.put(c, symbols++);
+                }
+            }
+        }
+
+        this.alphabetSize = symbols;
+
+        // Build the trie; -1 marks a missing edge until the failure links fill it in
+        ArrayList<int[]> trie = new ArrayList<int[]>();
+        ArrayList<ArrayList<Integer>> ends = new ArrayList<ArrayList<Integer>>();
+        trie.add(this.newRow());
+        ends.add(new ArrayList<Integer>());
+
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+
+            if (keyword.isEmpty()) {
+                continue;
+            }
+
+            int state = 0;
+
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = this.symbolOf(keyword.charAt(i));
+                int next = trie.get(state)[symbol];
+
+                if (next == -1) {
+                    next = trie.size();
+                    trie.add(this.newRow());
+                    ends.add(new ArrayList<Integer>());
+                    trie.get(state)[symbol] = next;
+                }
+
+                state = next;
+            }
+
+            ends.get(state).add(k);
+        }
+
+        // Breadth first, so each state's failure target is finished before the state itself
+        int stateCount = trie.size();
+        int[] fail = new int[stateCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        int[] root = trie.get(0);
+
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            if (root[symbol] == -1) {
+                root[symbol] = 0;
+            } else {
+                fail[root[symbol]] = 0;
+                queue.add(root[symbol]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = trie.get(state);
+            ends.get(state).addAll(ends.get(fail[state]));
+
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                int next = row[symbol];
+                int fallback = trie.get(fail[state])[symbol];
+
+                if (next == -1) {
+                    row[symbol] = fallback;
+                } else {
+                    fail[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.delta = new int[stateCount * symbols];
+        this.outputs = new int[stateCount][];
+
+        for (int state = 0; state < stateCount; state++) {
+            System.arraycopy(trie.get(state), 0, this.delta, state * symbols, symbols);
+            ArrayList<Integer> out = ends.get(state);
+            this.outputs[state] = out.isEmpty() ? null : out.stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+    }
+
+    /**
+     * Report every keyword occurrence in the text. A keyword which occurs more than once is reported more than once.
+     * @param text
+     * @param onMatch Called with the index of the keyword, in the order keywords were given to the constructor.
+     */
+    public void match(CharSequence text, IntConsumer onMatch) {
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            state = this.delta[state * this.alphabetSize + this.symbolOf(fold(text.charAt(i)))];
+            int[] out = this.outputs[state];
+
+            if (out != null) {
+                for (int k : out) {
+                    onMatch.accept(k);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param text
+     * @return Whether any keyword occurs in the text.
+     */
+    public boolean matchesAny(CharSequence text) {
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            state = this.delta[state * this.alphabetSize + this.symbolOf(fold(text.charAt(i)))];
+
+            if (this.outputs[state] != null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int getKeywordCount() {
+        return this.keywordCount;
+    }
+
+    public int getStateCount() {
+        return this.outputs.length;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[this.alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private int symbolOf(char c) {
+        if (c < ASCII) {
+            return this.asciiAlphabet[c];
+        }
+
+        Integer symbol = this.otherAlphabet.get(c);
+        return symbol == null ? 0 : symbol;
+    }
+
+    private static char fold(char c) {
+        if (c < ASCII) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+
+        return Character.toLowerCase(c);
+    }
+}
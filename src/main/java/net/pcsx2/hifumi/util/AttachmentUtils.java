@@ -2,86 +2,97 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.util;
 
-import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-import java.net.URI;
-import java.net.URL;
-import java.security.MessageDigest;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.IntBinaryOperator;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
-import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.Message.Attachment;
-import net.dv8tion.jda.api.utils.FileUpload;
+import net.pcsx2.hifumi.HifumiBot;
+import net.pcsx2.hifumi.attachment.CachedAttachment;
 
 public class AttachmentUtils {
 
-    public static ArrayList<FileUpload> getMinifiedAttachments(Message message) {
-        ArrayList<FileUpload> files = new ArrayList<FileUpload>();
+    // dHash only needs a 9x8 grid; this still leaves dozens of samples per cell to average
+    private static final int DHASH_MIN_DIMENSION = 256;
+
+    public static Optional<String> generateImageSHA256(Attachment attachment) {
+        // The cache hashes everything it downloads
+        Optional<CachedAttachment> cached = HifumiBot.getSelf().getAttachmentCache().fetch(attachment).toOptional();
+        cached.ifPresent(CachedAttachment::close);
+        return cached.map(CachedAttachment::getSHA3);
+    }
+
+    /**
+     * Get an attachment's SHA3-256 and, if it decodes as an image, its perceptual hash.
+     * @param attachment
+     * @return Empty if the download failed.
+     */
+    public static Optional<ImageHashes> generateImageHashes(Attachment attachment) {
+        Optional<CachedAttachment> cached = HifumiBot.getSelf().getAttachmentCache().fetch(attachment).toOptional();
         
-        for (Attachment attachment : message.getAttachments()) {
-            // For now, just do one image... If we have problems later and need them all, yank out this if.
-            if (!files.isEmpty()) {
-                break;
-            }
-            
-            try {
-                URL url = URL.of(URI.create(attachment.getProxyUrl()), null);
-                BufferedImage img = ImageIO.read(url);
-                int width = img.getWidth() / 2, height = img.getHeight() / 2;
-                Image scaled = img.getScaledInstance(width, height, Image.SCALE_FAST);
-                BufferedImage bufImg = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-                Graphics2D graph = bufImg.createGraphics();
-                graph.drawImage(scaled, 0, 0, null);
-                graph.dispose();
-                
-                try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-                    ImageIO.write(bufImg, "png", os);
-                    
-                    try (ByteArrayInputStream imgStream = new ByteArrayInputStream(os.toByteArray())) {
-                        FileUpload file = FileUpload.fromData(imgStream, attachment.getFileName()).asSpoiler();
-                        files.add(file);
-                    }
-                }
-            } catch (Exception e) {
-                // Squelch
-            }
+        if (cached.isEmpty()) {
+            return Optional.empty();
         }
         
-        return files;
+        try (CachedAttachment file = cached.get()) {
+            return Optional.of(new ImageHashes(file.getSHA3(), generateDHash(file)));
+        }
     }
-    
-    public static Optional<String> generateImageSHA256(Attachment attachment) {
+
+    private static OptionalLong generateDHash(CachedAttachment cached) {
         try {
-            URL url = URL.of(URI.create(attachment.getProxyUrl()), null);
+            BufferedImage img = readSubsampled(cached.getPath(), (width, height) -> Math.min(width, height) / DHASH_MIN_DIMENSION);
             
-            try (InputStream is = url.openStream()) {
-                MessageDigest digest = MessageDigest.getInstance("SHA3-256");
-                byte[] hashBytes = digest.digest(is.readAllBytes());
-                StringBuilder hexString = new StringBuilder(2 * hashBytes.length);
-                
-                for (int i = 0; i < hashBytes.length; i++) {
-                    String hex = Integer.toHexString(0xff & hashBytes[i]);
-                    
-                    if (hex.length() == 1) {
-                        hexString.append('0');
-                    }
-                    
-                    hexString.append(hex);
-                }
-                
-                return Optional.of(hexString.toString());
+            if (img != null) {
+                return OptionalLong.of(PerceptualHash.dHash(img));
             }
         } catch (Exception e) {
-            // Squelch
+            // Not an image we can decode; the SHA still stands on its own
         }
         
-        return Optional.empty();
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Decode an image at reduced resolution, keeping only every Nth row and column of source pixels.
+     * The full size raster is never allocated, which is most of the cost of decoding a large image.
+     * @param path
+     * @param stepForSize Given the full width and height, returns N. Anything below 1 decodes at full size.
+     * @return Null if no installed reader understands the file.
+     * @throws IOException
+     */
+    public static BufferedImage readSubsampled(Path path, IntBinaryOperator stepForSize) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(path.toFile())) {
+            if (iis == null) {
+                return null;
+            }
+            
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            
+            if (!readers.hasNext()) {
+                return null;
+            }
+            
+            ImageReader reader = readers.next();
+            
+            try {
+                reader.setInput(iis, true, true);
+                int step = Math.max(1, stepForSize.applyAsInt(reader.getWidth(0), reader.getHeight(0)));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
     }
 }
@@ -0,0 +1,139 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Burkhard-Keller tree over 64 bit hashes, using Hamming distance.
+ * Finds every entry within distance k of a query while only visiting
+ * the branches which the triangle inequality says could contain one.
+ * <br><br>
+ * Not thread safe for writes. Build it fully, then publish it; searching a tree
+ * which is no longer being modified is safe from any number of threads.
+ */
+public class BKTree<T> {
+
+    private Node<T> root = null;
+    private int size = 0;
+
+    @SuppressWarnings("unchecked")
+    public void add(long hash, T value) {
+        this.size++;
+
+        if (this.root == null) {
+            this.root = new Node<T>(hash, value);
+            return;
+        }
+
+        Node<T> node = this.root;
+
+        while (true) {
+            int distance = PerceptualHash.distance(node.hash, hash);
+
+            if (distance == 0) {
+                node.values.add(value);
+                return;
+            }
+
+            if (node.children == null) {
+                node.children = (Node<T>[]) new Node<?>[Long.SIZE + 1];
+            }
+
+            Node<T> child = node.children[distance];
+
+            if (child == null) {
+                node.children[distance] = new Node<T>(hash, value);
+                return;
+            }
+
+            node = child;
+        }
+    }
+
+    /**
+     * @param hash
+     * @param maxDistance
+     * @return Every entry within maxDistance of the hash, closest first.
+     */
+    public ArrayList<Match<T>> search(long hash, int maxDistance) {
+        ArrayList<Match<T>> ret = new ArrayList<Match<T>>();
+
+        if (this.root == null) {
+            return ret;
+        }
+
+        ArrayDeque<Node<T>> stack = new ArrayDeque<Node<T>>();
+        stack.push(this.root);
+
+        while (!stack.isEmpty()) {
+            Node<T> node = stack.pop();
+            int distance = PerceptualHash.distance(node.hash, hash);
+
+            if (distance <= maxDistance) {
+                for (T value : node.values) {
+                    ret.add(new Match<T>(value, node.hash, distance));
+                }
+            }
+
+            if (node.children == null) {
+                continue;
+            }
+
+            // Anything within range of the query is within [d - k, d + k] of this node
+            int low = Math.max(1, distance - maxDistance);
+            int high = Math.min(Long.SIZE, distance + maxDistance);
+
+            for (int i = low; i <= high; i++) {
+                if (node.children[i] != null) {
+                    stack.push(node.children[i]);
+                }
+            }
+        }
+
+        ret.sort(Comparator.comparingInt(Match::getDistance));
+        return ret;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private static class Node<T> {
+        private final long hash;
+        private final ArrayList<T> values = new ArrayList<T>(1);
+        // Indexed by distance from this node; allocated on first child
+        private Node<T>[] children = null;
+
+        private Node(long hash, T value) {
+            this.hash = hash;
+            this.values.add(value);
+        }
+    }
+
+    public static class Match<T> {
+        private final T value;
+        private final long hash;
+        private final int distance;
+
+        private Match(T value, long hash, int distance) {
+            this.value = value;
+            this.hash = hash;
+            this.distance = distance;
+        }
+
+        public T getValue() {
+            return this.value;
+        }
+
+        public long getHash() {
+            return this.hash;
+        }
+
+        public int getDistance() {
+            return this.distance;
+        }
+    }
+}
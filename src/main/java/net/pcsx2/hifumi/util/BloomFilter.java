@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+/**
+ * Fixed-size bloom filter over strings. Answers "definitely not present" or "maybe present"
+ * without allocating, so it can sit in front of a lookup which is almost always a miss.
+ * <br><br>
+ * Not thread safe for writes. Fill it, then publish it; reads are safe from any number of threads
+ * once it is no longer being modified.
+ */
+public class BloomFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedEntries
+     * @param falsePositiveRate Target rate once expectedEntries have been added, e.g. 0.01 for 1%.
+     */
+    public BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(1, expectedEntries);
+        double m = -n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        // Round up to whole words so the modulo below covers every bit
+        this.bits = new long[(int) Math.max(1, Math.ceil(m / 64))];
+        this.bitCount = this.bits.length * 64;
+        this.hashCount = (int) Math.max(1, Math.round((this.bitCount / (double) n) * Math.log(2)));
+    }
+
+    public void add(CharSequence value) {
+        long h1 = hash1(value);
+        long h2 = hash2(value);
+
+        for (int i = 0; i < this.hashCount; i++) {
+            int bit = this.bitFor(h1, h2, i);
+            this.bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * @param value
+     * @return False if the value was definitely never added; true if it might have been.
+     */
+    public boolean mightContain(CharSequence value) {
+        long h1 = hash1(value);
+        long h2 = hash2(value);
+
+        for (int i = 0; i < this.hashCount; i++) {
+            int bit = this.bitFor(h1, h2, i);
+
+            if ((this.bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int bitFor(long h1, long h2, int i) {
+        // Kirsch-Mitzenmacher: k independent-enough hashes from two
+        return (int) Long.remainderUnsigned(h1 + i * h2, this.bitCount);
+    }
+
+    // FNV-1a
+    private static long hash1(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+
+        return h;
+    }
+
+    // Multiply-xorshift, seeded differently so it is not correlated with hash1
+    private static long hash2(CharSequence value) {
+        long h = 0x9E3779B97F4A7C15L;
+
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+
+        // Odd, so stepping by it never cycles back onto the same bit early
+        return h | 1;
+    }
+}
@@ -0,0 +1,33 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import java.util.OptionalLong;
+
+/**
+ * The hashes of one downloaded attachment.
+ */
+public class ImageHashes {
+
+    private final String sha256;
+    private final OptionalLong dHash;
+
+    public ImageHashes(String sha256, OptionalLong dHash) {
+        this.sha256 = sha256;
+        this.dHash = dHash;
+    }
+
+    /**
+     * @return The SHA3-256 of the file, as lowercase hex.
+     */
+    public String getSHA256() {
+        return this.sha256;
+    }
+
+    /**
+     * @return The perceptual hash of the image, or empty if the file could not be decoded as an image.
+     */
+    public OptionalLong getDHash() {
+        return this.dHash;
+    }
+}
@@ -0,0 +1,80 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Difference hash (dHash) of an image. Unlike a cryptographic hash, images which look alike
+ * hash alike: re-encoding, resizing, light cropping or recoloring only flips a few bits,
+ * so similarity is the {@link #distance(long, long) Hamming distance} between two hashes.
+ */
+public class PerceptualHash {
+
+    private static final int HASH_WIDTH = 8;
+    private static final int HASH_HEIGHT = 8;
+    // One extra column, since each bit compares a cell with its right-hand neighbour
+    private static final int GRID_WIDTH = HASH_WIDTH + 1;
+
+    /**
+     * @param img
+     * @return The 64 bit dHash of the image.
+     */
+    public static long dHash(BufferedImage img) {
+        int width = img.getWidth();
+        int height = img.getHeight();
+        double[] sums = new double[GRID_WIDTH * HASH_HEIGHT];
+        int[] counts = new int[GRID_WIDTH * HASH_HEIGHT];
+        int[] row = new int[width];
+
+        // Box-average the whole image down to a 9x8 grid of luminance. Every source pixel counts,
+        // which is what keeps the hash stable when a scammer nudges the image by a few pixels.
+        for (int y = 0; y < height; y++) {
+            img.getRGB(0, y, width, 1, row, 0, width);
+            int cellY = Math.min(HASH_HEIGHT - 1, y * HASH_HEIGHT / height);
+
+            for (int x = 0; x < width; x++) {
+                int cellX = Math.min(GRID_WIDTH - 1, x * GRID_WIDTH / width);
+                int argb = row[x];
+                int r = (argb >> 16) & 0xff, g = (argb >> 8) & 0xff, b = argb & 0xff;
+                int cell = cellY * GRID_WIDTH + cellX;
+                sums[cell] += 0.299 * r + 0.587 * g + 0.114 * b;
+                counts[cell]++;
+            }
+        }
+
+        double[] luma = new double[GRID_WIDTH * HASH_HEIGHT];
+
+        for (int i = 0; i < luma.length; i++) {
+            // Images narrower than the grid leave some cells empty; borrow the cell to the left
+            luma[i] = counts[i] > 0 ? sums[i] / counts[i] : (i % GRID_WIDTH > 0 ? luma[i - 1] : 0);
+        }
+
+        long hash = 0;
+
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH; x++) {
+                hash <<= 1;
+
+                if (luma[y * GRID_WIDTH + x] < luma[y * GRID_WIDTH + x + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * @param a
+     * @param b
+     * @return The number of bits which differ between the two hashes, from 0 (identical) to 64.
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    public static String toHex(long hash) {
+        return String.format("%016x", hash);
+    }
+}
@@ -2,9 +2,6 @@
 // SPDX-License-Identifier: MIT
 package net.pcsx2.hifumi.util;
 
-import java.net.HttpURLConnection;
-import java.net.URI;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -44,12 +41,7 @@ public class PixivSourceFetcher {
             }
             
             try {
-                URL url = new URI(PIXIV_BASE_URL + m.group(1)).toURL();
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("GET");
-                connection.connect();
-                
-                if (connection.getResponseCode() == 200) {
+                if (HifumiBot.getSelf().getDownloadService().probe(PIXIV_BASE_URL + m.group(1)) == 200) {
                     imageUrls.add(PIXIV_BASE_URL + m.group(1));
                     break;
                 }
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_message_user_timestamp" ON "message" (
+    "fk_user",
+    "timestamp" DESC
+);
\ No newline at end of file
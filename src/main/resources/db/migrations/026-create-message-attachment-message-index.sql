@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_message_attachment_message" ON "message_attachment" (
+    "fk_message"
+);
\ No newline at end of file
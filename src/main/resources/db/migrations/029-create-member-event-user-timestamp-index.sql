@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_member_event_user_timestamp" ON "member_event" (
+    "fk_user",
+    "timestamp" DESC
+);
\ No newline at end of file
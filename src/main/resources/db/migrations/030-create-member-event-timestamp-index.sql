@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_member_event_timestamp" ON "member_event" (
+    "timestamp" DESC
+);
\ No newline at end of file
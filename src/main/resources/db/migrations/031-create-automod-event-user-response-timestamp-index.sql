@@ -0,0 +1,6 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_automod_event_user_response_timestamp" ON "automod_event" (
+    "fk_user",
+    "response_type",
+    "timestamp" DESC
+);
\ No newline at end of file
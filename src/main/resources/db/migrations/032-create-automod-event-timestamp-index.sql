@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_automod_event_timestamp" ON "automod_event" (
+    "timestamp" DESC
+);
\ No newline at end of file
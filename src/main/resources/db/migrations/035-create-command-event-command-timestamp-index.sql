@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_command_event_command_timestamp" ON "command_event" (
+    "command_fk",
+    "timestamp" DESC
+);
\ No newline at end of file
@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_honeypot_event_timestamp" ON "honeypot_event" (
+    "timestamp" DESC
+);
\ No newline at end of file
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_spamkick_event_type_timestamp" ON "spamkick_event" (
+    "type",
+    "timestamp" DESC
+);
\ No newline at end of file
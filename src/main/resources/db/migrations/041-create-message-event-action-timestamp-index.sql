@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_message_event_action_timestamp" ON "message_event" (
+    "action",
+    "timestamp" DESC
+);
\ No newline at end of file
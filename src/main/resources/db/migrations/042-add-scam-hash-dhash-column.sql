@@ -0,0 +1 @@
+ALTER TABLE "scam_hash" ADD COLUMN "dhash" INTEGER DEFAULT NULL;
\ No newline at end of file
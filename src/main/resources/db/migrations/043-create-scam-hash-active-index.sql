@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_scam_hash_active" ON "scam_hash" (
+    "active"
+);
\ No newline at end of file
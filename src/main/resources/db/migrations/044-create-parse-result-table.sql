@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS 
+  "parse_result" (
+    "parser_type"   TEXT NOT NULL,
+    "content_sha3"  TEXT NOT NULL,
+    "rules_version" TEXT NOT NULL,
+    "created_at"    INTEGER NOT NULL,
+    "last_used_at"  INTEGER NOT NULL,
+    "summary"   TEXT NOT NULL,
+    "body"  TEXT,
+    "size"  INTEGER NOT NULL,
+    PRIMARY KEY("parser_type", "content_sha3", "rules_version")
+);
\ No newline at end of file
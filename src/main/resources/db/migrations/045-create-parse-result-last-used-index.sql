@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS
+  "idx_parse_result_last_used_at" ON "parse_result" (
+    "last_used_at"
+);
\ No newline at end of file
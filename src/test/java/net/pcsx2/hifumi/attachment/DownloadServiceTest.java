@@ -0,0 +1,184 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.attachment;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import net.dv8tion.jda.api.entities.Message.Attachment;
+import net.pcsx2.hifumi.attachment.DownloadService.DownloadLimitException;
+import net.pcsx2.hifumi.config.Config;
+import okhttp3.OkHttpClient;
+
+/**
+ * Runs {@link DownloadService} against a local HTTP server standing in for Discord's CDN.
+ */
+public class DownloadServiceTest {
+
+    private static final int LIMIT = 1024;
+    private static final byte[] SMALL = body(100);
+    private static final byte[] LARGE = body(LIMIT * 4);
+
+    private HttpServer server;
+    private ExecutorService handlers;
+    private final AtomicInteger requests = new AtomicInteger();
+    private DownloadService downloads;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/small", exchange -> this.respond(exchange, SMALL, false));
+        this.server.createContext("/large", exchange -> this.respond(exchange, LARGE, false));
+        // No Content-Length, so the limit can only be caught while streaming
+        this.server.createContext("/large-chunked", exchange -> this.respond(exchange, LARGE, true));
+        this.server.createContext("/redirect", exchange -> this.redirect(exchange, "/small"));
+        this.server.createContext("/redirect-large", exchange -> this.redirect(exchange, "/large-chunked"));
+        this.server.createContext("/redirect-missing", exchange -> this.redirect(exchange, "/missing"));
+        this.server.createContext("/slow", exchange -> {
+            this.requests.incrementAndGet();
+
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                // Stopped by tearDown
+            }
+
+            exchange.close();
+        });
+        this.handlers = Executors.newCachedThreadPool();
+        this.server.setExecutor(this.handlers);
+        this.server.start();
+
+        Config.DownloadOptions options = new Config().downloadOptions;
+        options.connectTimeoutSeconds = 1;
+        options.readTimeoutSeconds = 1;
+        options.callTimeoutSeconds = 5;
+        this.downloads = new DownloadService(new OkHttpClient(), options);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.server.stop(0);
+        this.handlers.shutdownNow();
+    }
+
+    @Test
+    public void downloadsWithinLimit() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(SMALL.length, this.downloads.download(this.url("/small"), LIMIT, out));
+        assertArrayEquals(SMALL, out.toByteArray());
+    }
+
+    @Test
+    public void rejectsContentLengthOverLimitWithoutReading() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(DownloadLimitException.class, () -> this.downloads.download(this.url("/large"), LIMIT, out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void stopsStreamingAtLimit() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(DownloadLimitException.class, () -> this.downloads.download(this.url("/large-chunked"), LIMIT, out));
+        assertTrue(out.size() <= LIMIT, "Wrote " + out.size() + " bytes past the limit");
+    }
+
+    @Test
+    public void rejectsAttachmentOverLimitWithoutRequesting() {
+        long maxOtherBytes = new Config().downloadOptions.maxOtherMegabytes * 1024L * 1024L;
+        Attachment attachment = attachment(this.url("/large"), maxOtherBytes + 1);
+        assertThrows(DownloadLimitException.class, () -> this.downloads.download(attachment, OutputStream.nullOutputStream()));
+        assertEquals(0, this.requests.get());
+    }
+
+    @Test
+    public void downloadsAttachmentFromCdnUrl() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(SMALL.length, this.downloads.download(attachment(this.url("/small"), SMALL.length), out));
+        assertArrayEquals(SMALL, out.toByteArray());
+    }
+
+    @Test
+    public void followsRedirects() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(SMALL.length, this.downloads.download(this.url("/redirect"), LIMIT, out));
+        assertArrayEquals(SMALL, out.toByteArray());
+        assertEquals(2, this.requests.get());
+    }
+
+    @Test
+    public void enforcesLimitAfterRedirect() {
+        assertThrows(DownloadLimitException.class, () -> this.downloads.download(this.url("/redirect-large"), LIMIT, OutputStream.nullOutputStream()));
+    }
+
+    @Test
+    public void failsOnErrorAfterRedirect() {
+        IOException e = assertThrows(IOException.class, () -> this.downloads.download(this.url("/redirect-missing"), LIMIT, OutputStream.nullOutputStream()));
+        assertEquals("HTTP 404 from " + InetAddress.getLoopbackAddress().getHostAddress(), e.getMessage());
+    }
+
+    @Test
+    public void timesOutOnSlowResponse() {
+        long start = System.nanoTime();
+        assertThrows(InterruptedIOException.class, () -> this.downloads.download(this.url("/slow"), LIMIT, OutputStream.nullOutputStream()));
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        assertTrue(elapsedSeconds < 5, "Took " + elapsedSeconds + " s to time out");
+    }
+
+    private void respond(HttpExchange exchange, byte[] body, boolean chunked) throws IOException {
+        this.requests.incrementAndGet();
+        exchange.sendResponseHeaders(200, chunked ? 0 : body.length);
+
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        } catch (IOException e) {
+            // The client hung up part way, which is what the limit is for
+        }
+    }
+
+    private void redirect(HttpExchange exchange, String location) throws IOException {
+        this.requests.incrementAndGet();
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private String url(String path) {
+        InetSocketAddress address = this.server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + path;
+    }
+
+    private static Attachment attachment(String url, long size) {
+        return new Attachment(1, url, url, "emulog.bin", "application/octet-stream", null, (int) size, 0, 0, false, null, 0, null, null);
+    }
+
+    private static byte[] body(int length) {
+        byte[] body = new byte[length];
+
+        for (int i = 0; i < length; i++) {
+            body[i] = (byte) i;
+        }
+
+        return body;
+    }
+}
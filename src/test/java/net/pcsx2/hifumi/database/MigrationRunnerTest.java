@@ -0,0 +1,191 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.pcsx2.hifumi.config.Config;
+
+/**
+ * Runs {@link MigrationRunner} against a real database: a chunked migration stopped part way and resumed
+ * on the next boot, and an applied migration edited after the fact.
+ */
+public class MigrationRunnerTest {
+
+    private static final int BACKFILL_VERSION = 1000;
+    private static final String BACKFILL_NAME = "backfill-test-value";
+    private static final int ROWS = 95;
+    private static final int CHUNK_SIZE = 10;
+
+    @TempDir
+    Path dataDirectory;
+
+    private SQLite sqlite;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        this.sqlite = new SQLite(this.dataDirectory.toString(), new Config().databaseOptions);
+
+        try (Connection wConn = this.sqlite.getWriteConnection();
+             Statement statement = wConn.createStatement()) {
+            statement.executeUpdate("CREATE TABLE backfill_test (id INTEGER PRIMARY KEY, value INTEGER);");
+            statement.executeUpdate("""
+                WITH RECURSIVE ids(id) AS (SELECT 1 UNION ALL SELECT id + 1 FROM ids WHERE id < %d)
+                INSERT INTO backfill_test (id) SELECT id FROM ids;
+                """.formatted(ROWS));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.sqlite.shutdown();
+    }
+
+    @Test
+    public void chunkedMigrationResumesAfterStop() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Backfill first = new Backfill(3, blocked, release);
+        MigrationRunner firstBoot = this.boot(first);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS), "Third chunk never started");
+
+        // Stop the bot while the third chunk is running. shutdown() clears the running flag and then waits
+        // in join(), so once the stopper is waiting the chunk can be let go, knowing it is the last one.
+        Thread stopper = new Thread(firstBoot::shutdown);
+        stopper.start();
+
+        while (stopper.getState() != Thread.State.WAITING && stopper.isAlive()) {
+            Thread.onSpinWait();
+        }
+
+        release.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(stopper.isAlive(), "Shutdown did not wait for the running chunk");
+
+        // The chunk in progress finishes and commits, but nothing after it runs
+        assertEquals(3, first.chunks.get());
+        assertEquals(3 * CHUNK_SIZE, this.count("SELECT COUNT(*) FROM backfill_test WHERE value IS NOT NULL;"));
+        assertEquals(0, this.count("SELECT COUNT(*) FROM schema_version WHERE version = " + BACKFILL_VERSION + ";"));
+
+        Backfill second = new Backfill(0, null, null);
+        MigrationRunner secondBoot = this.boot(second);
+        secondBoot.awaitChunkedMigrations();
+
+        // Picks up the remaining 65 rows in 7 chunks, then one empty chunk to find there is nothing left
+        assertEquals(8, second.chunks.get());
+        assertEquals(ROWS, this.count("SELECT COUNT(*) FROM backfill_test WHERE value = id * 2;"));
+
+        try (Connection wConn = this.sqlite.getWriteConnection();
+             PreparedStatement select = wConn.prepareStatement("SELECT name, checksum FROM schema_version WHERE version = ?;")) {
+            select.setInt(1, BACKFILL_VERSION);
+
+            try (ResultSet res = select.executeQuery()) {
+                assertTrue(res.next(), "Migration was not recorded");
+                assertEquals(BACKFILL_NAME, res.getString("name"));
+                assertEquals(MigrationRunner.checksum(BACKFILL_NAME), res.getString("checksum"));
+            }
+        }
+
+        // Recorded, so a third boot does not start it again
+        Backfill third = new Backfill(0, null, null);
+        this.boot(third).awaitChunkedMigrations();
+        assertEquals(0, third.chunks.get());
+    }
+
+    @Test
+    public void editedMigrationFailsStartup() throws SQLException {
+        try (Connection wConn = this.sqlite.getWriteConnection();
+             Statement statement = wConn.createStatement()) {
+            statement.executeUpdate("UPDATE schema_version SET checksum = 'edited' WHERE version = 0;");
+            RuntimeException e = assertThrows(RuntimeException.class, () -> new MigrationRunner().runSchemaMigrations(wConn));
+            assertTrue(e.getMessage().startsWith("Migration 000-create-user-table.sql has changed"), e.getMessage());
+        }
+    }
+
+    private MigrationRunner boot(ChunkedMigration migration) throws SQLException {
+        MigrationRunner runner = new MigrationRunner(List.of(migration));
+
+        try (Connection wConn = this.sqlite.getWriteConnection()) {
+            runner.runSchemaMigrations(wConn);
+        }
+
+        runner.startChunkedMigrations(this.sqlite);
+        return runner;
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection wConn = this.sqlite.getWriteConnection();
+             Statement statement = wConn.createStatement();
+             ResultSet res = statement.executeQuery(sql)) {
+            res.next();
+            return res.getInt(1);
+        }
+    }
+
+    /**
+     * Fills in backfill_test.value, CHUNK_SIZE rows at a time, optionally holding one chunk until released.
+     */
+    private static class Backfill implements ChunkedMigration {
+
+        private final int blockOnChunk;
+        private final CountDownLatch blocked;
+        private final CountDownLatch release;
+        private final AtomicInteger chunks = new AtomicInteger();
+
+        private Backfill(int blockOnChunk, CountDownLatch blocked, CountDownLatch release) {
+            this.blockOnChunk = blockOnChunk;
+            this.blocked = blocked;
+            this.release = release;
+        }
+
+        @Override
+        public int getVersion() {
+            return BACKFILL_VERSION;
+        }
+
+        @Override
+        public String getName() {
+            return BACKFILL_NAME;
+        }
+
+        @Override
+        public int runChunk(Connection wConn) throws SQLException {
+            if (this.chunks.incrementAndGet() == this.blockOnChunk) {
+                this.blocked.countDown();
+
+                try {
+                    this.release.await();
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+            }
+
+            try (PreparedStatement update = wConn.prepareStatement("""
+                    UPDATE backfill_test SET value = id * 2
+                    WHERE id IN (SELECT id FROM backfill_test WHERE value IS NULL ORDER BY id LIMIT ?);
+                    """)) {
+                update.setInt(1, CHUNK_SIZE);
+                return update.executeUpdate();
+            }
+        }
+    }
+}
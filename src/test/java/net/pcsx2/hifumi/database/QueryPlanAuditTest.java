@@ -0,0 +1,186 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.database;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.pcsx2.hifumi.config.Config;
+
+/**
+ * Explains every statement {@link Database} prepares against a migrated database,
+ * so a query which has lost or never had its index fails the build instead of slowing down production.
+ * <br><br>
+ * Against empty tables the planner has nothing to weigh one index against another, or against a scan.
+ * So every table is seeded with rows shaped roughly like production's and analyzed first, giving it
+ * table sizes and how selective each index is.
+ */
+public class QueryPlanAuditTest {
+
+    private static final Path DATABASE_SOURCE = Path.of("src/main/java/net/pcsx2/hifumi/database/Database.java");
+    // Every statement in Database is a text block handed straight to prepareStatement
+    private static final Pattern PREPARED_SQL = Pattern.compile("prepareStatement\\(\"\"\"\\n(.*?)\"\"\"", Pattern.DOTALL);
+    private static final int SEED_ROWS = 2000;
+    // Users, messages, actions and the like repeat across rows; keys and timestamps don't
+    private static final int SEED_DISTINCT_VALUES = 50;
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    public void everyStatementSearchesAnIndex() throws IOException, SQLException {
+        ArrayList<String> statements = new ArrayList<String>();
+        Matcher matcher = PREPARED_SQL.matcher(Files.readString(DATABASE_SOURCE));
+
+        while (matcher.find()) {
+            statements.add(matcher.group(1).stripIndent());
+        }
+
+        assertFalse(statements.isEmpty(), "No statements found in " + DATABASE_SOURCE);
+        SQLite sqlite = new SQLite(this.dataDirectory.toString(), new Config().databaseOptions);
+        StringBuilder failures = new StringBuilder();
+
+        try (Connection wConn = sqlite.getWriteConnection()) {
+            seed(wConn);
+
+            for (String sql : statements) {
+                ArrayList<String> scans = QueryPlanAudit.explain(wConn, sql);
+
+                if (!scans.isEmpty()) {
+                    failures.append("\n").append(String.join("; ", scans)).append(":\n").append(sql.strip()).append("\n");
+                }
+            }
+        } finally {
+            sqlite.shutdown();
+        }
+
+        if (!failures.isEmpty()) {
+            fail("Statements which scan instead of searching an index; add one in a migration, or mark the statement with \""
+                + QueryPlanAudit.ALLOW_SCAN + "\" and why:\n" + failures);
+        }
+    }
+
+    /**
+     * Fill every table with rows shaped roughly like production's, then ANALYZE so the planner has statistics.
+     * @param conn
+     * @throws SQLException
+     */
+    private static void seed(Connection conn) throws SQLException {
+        ArrayList<String> tables = new ArrayList<String>();
+
+        // schema_version already has the migrations in it, and Database never queries it
+        try (Statement statement = conn.createStatement();
+             ResultSet res = statement.executeQuery("SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%' AND name != 'schema_version';")) {
+            while (res.next()) {
+                tables.add(res.getString("name"));
+            }
+        }
+
+        conn.setAutoCommit(false);
+
+        try {
+            for (String table : tables) {
+                seed(conn, table);
+            }
+
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("ANALYZE;");
+        }
+    }
+
+    private static void seed(Connection conn, String table) throws SQLException {
+        ArrayList<String> columns = new ArrayList<String>();
+        ArrayList<Boolean> textColumns = new ArrayList<Boolean>();
+        HashSet<String> uniqueColumns = new HashSet<String>();
+
+        try (Statement statement = conn.createStatement()) {
+            try (ResultSet res = statement.executeQuery("PRAGMA table_info(\"" + table + "\");")) {
+                while (res.next()) {
+                    columns.add(res.getString("name"));
+                    textColumns.add(!res.getString("type").toLowerCase(Locale.ROOT).contains("int"));
+
+                    if (res.getInt("pk") > 0) {
+                        uniqueColumns.add(res.getString("name"));
+                    }
+                }
+            }
+
+            ArrayList<String> uniqueIndexes = new ArrayList<String>();
+
+            try (ResultSet res = statement.executeQuery("PRAGMA index_list(\"" + table + "\");")) {
+                while (res.next()) {
+                    if (res.getBoolean("unique")) {
+                        uniqueIndexes.add(res.getString("name"));
+                    }
+                }
+            }
+
+            for (String index : uniqueIndexes) {
+                try (ResultSet res = statement.executeQuery("PRAGMA index_info(\"" + index + "\");")) {
+                    while (res.next()) {
+                        uniqueColumns.add(res.getString("name"));
+                    }
+                }
+            }
+        }
+
+        String sql = "INSERT INTO \"" + table + "\" (\"" + String.join("\", \"", columns) + "\") VALUES ("
+            + String.join(", ", Collections.nCopies(columns.size(), "?")) + ");";
+
+        try (PreparedStatement insert = conn.prepareStatement(sql)) {
+            for (int row = 1; row <= SEED_ROWS; row++) {
+                for (int i = 0; i < columns.size(); i++) {
+                    String column = columns.get(i);
+                    boolean distinct = uniqueColumns.contains(column) || column.equals("timestamp") || column.endsWith("_at");
+                    long value = distinct ? row : row % SEED_DISTINCT_VALUES;
+
+                    if (textColumns.get(i)) {
+                        insert.setString(i + 1, column + "-" + value);
+                    } else {
+                        insert.setLong(i + 1, value);
+                    }
+                }
+
+                insert.addBatch();
+            }
+
+            insert.executeBatch();
+        }
+    }
+
+    @Test
+    public void isFullScan() {
+        assertTrue(QueryPlanAudit.isFullScan("SCAN message"));
+        assertTrue(QueryPlanAudit.isFullScan("SCAN parse_result USING INDEX idx_parse_result_last_used_at"));
+        assertTrue(QueryPlanAudit.isFullScan("SCAN message_event USING COVERING INDEX idx_message_event_action_timestamp"));
+        assertFalse(QueryPlanAudit.isFullScan("SEARCH message USING INDEX idx_message_user_timestamp (user_fk=? AND timestamp>?)"));
+        assertFalse(QueryPlanAudit.isFullScan("SEARCH parse_result USING INTEGER PRIMARY KEY (rowid=?)"));
+        assertFalse(QueryPlanAudit.isFullScan("SCAN (subquery-1)"));
+        assertFalse(QueryPlanAudit.isFullScan("SCAN CONSTANT ROW"));
+        assertFalse(QueryPlanAudit.isFullScan("USE TEMP B-TREE FOR ORDER BY"));
+    }
+}
@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.parse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+public class EmulogRuleEngineTest {
+
+    @Test
+    public void requiredLiteralFindsLongestRun() {
+        assertEquals("vsync", EmulogRuleEngine.requiredLiteral(".*vsync.*"));
+        assertEquals("barbaz", EmulogRuleEngine.requiredLiteral("foo.*barbaz"));
+        assertEquals("abc", EmulogRuleEngine.requiredLiteral("^\\dabc$"));
+        assertEquals("def", EmulogRuleEngine.requiredLiteral("[abc]def"));
+        assertEquals(" gs", EmulogRuleEngine.requiredLiteral("(ee|iop) gs"));
+        assertEquals(".ini", EmulogRuleEngine.requiredLiteral(".*\\.ini"));
+    }
+
+    @Test
+    public void requiredLiteralHandlesQuantifiers() {
+        // An optional char can't be required, and splits the run either side of it
+        assertEquals("cd", EmulogRuleEngine.requiredLiteral("ab?cd"));
+        assertEquals("cde", EmulogRuleEngine.requiredLiteral("ab*cde"));
+        assertEquals("cde", EmulogRuleEngine.requiredLiteral("ab{0,2}cde"));
+        // A repeated char is required once, but what follows it isn't necessarily next to it
+        assertEquals("abc", EmulogRuleEngine.requiredLiteral("abc+d"));
+        assertEquals("abc", EmulogRuleEngine.requiredLiteral("abc{2}d"));
+        assertEquals("xyz", EmulogRuleEngine.requiredLiteral("a+?xyz"));
+    }
+
+    @Test
+    public void requiredLiteralGivesUp() {
+        assertNull(EmulogRuleEngine.requiredLiteral("abc|def"));
+        assertNull(EmulogRuleEngine.requiredLiteral("(?x)abc"));
+        assertNull(EmulogRuleEngine.requiredLiteral("\\Qa.b\\E"));
+        assertNull(EmulogRuleEngine.requiredLiteral("*abc"));
+        assertNull(EmulogRuleEngine.requiredLiteral("[abc"));
+        assertNull(EmulogRuleEngine.requiredLiteral(".*"));
+        assertNull(EmulogRuleEngine.requiredLiteral("abc\\"));
+    }
+
+    @Test
+    public void requiredLiteralGivesUpOnEscapesWithArguments() {
+        assertNull(EmulogRuleEngine.requiredLiteral(".*\\x41bcd.*"));
+        assertNull(EmulogRuleEngine.requiredLiteral(".*\\x{41}bcd.*"));
+        assertNull(EmulogRuleEngine.requiredLiteral(".*\\u0041bcd.*"));
+        assertNull(EmulogRuleEngine.requiredLiteral(".*\\0101bcd.*"));
+        assertNull(EmulogRuleEngine.requiredLiteral(".*\\cabcd.*"));
+        assertNull(EmulogRuleEngine.requiredLiteral(".*\\N{LATIN SMALL LETTER A}bcd.*"));
+        assertNull(EmulogRuleEngine.requiredLiteral(".*\\p{L}bcd.*"));
+        assertNull(EmulogRuleEngine.requiredLiteral(".*\\P{L}bcd.*"));
+        assertNull(EmulogRuleEngine.requiredLiteral("(?<g>a)\\k<g>bcd"));
+        assertNull(EmulogRuleEngine.requiredLiteral("(a)\\12bcd"));
+    }
+
+    @Test
+    public void requiredLiteralIsAlwaysInMatches() {
+        String[][] cases = {
+            { ".*vsync.*", "gs: vsync enabled" },
+            { "ab?cd", "acd" },
+            { "abc+d", "abcccd" },
+            { ".*\\.ini", "pcsx2.ini" },
+            { "(ee|iop) gs", "iop gs" },
+        };
+
+        for (String[] c : cases) {
+            assertTrue(Pattern.compile(c[0]).matcher(c[1]).matches(), c[0]);
+            assertTrue(c[1].contains(EmulogRuleEngine.requiredLiteral(c[0])), c[0]);
+        }
+    }
+
+    @Test
+    public void isContainsOnly() {
+        assertTrue(EmulogRuleEngine.isContainsOnly(".*vsync.*", "vsync"));
+        assertTrue(EmulogRuleEngine.isContainsOnly(".*pcsx2\\.ini.*", "pcsx2.ini"));
+        assertFalse(EmulogRuleEngine.isContainsOnly("vsync.*", "vsync"));
+        assertFalse(EmulogRuleEngine.isContainsOnly(".*vsync", "vsync"));
+        assertFalse(EmulogRuleEngine.isContainsOnly(".*vs.*ync.*", "ync"));
+        assertFalse(EmulogRuleEngine.isContainsOnly(".*abc+d.*", "abc"));
+        assertFalse(EmulogRuleEngine.isContainsOnly(".*\\dabc.*", "abc"));
+        assertFalse(EmulogRuleEngine.isContainsOnly(".*\\x41bc.*", "41bc"));
+        assertFalse(EmulogRuleEngine.isContainsOnly(".*", ""));
+    }
+}
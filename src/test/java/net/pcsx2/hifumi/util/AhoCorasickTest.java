@@ -0,0 +1,82 @@
+// SPDX-FileCopyrightText: 2026 PCSX2 Dev Team
+// SPDX-License-Identifier: MIT
+package net.pcsx2.hifumi.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class AhoCorasickTest {
+
+    @Test
+    public void reportsOverlappingKeywords() {
+        AhoCorasick automaton = new AhoCorasick(List.of("he", "she", "his", "hers"));
+        // "she" and "he" end on the same char, reached through the failure link
+        assertEquals(List.of(1, 0, 3), matches(automaton, "ushers"));
+    }
+
+    @Test
+    public void reportsEachOccurrence() {
+        AhoCorasick automaton = new AhoCorasick(List.of("aa", "b"));
+        assertEquals(List.of(0, 0, 1, 0), matches(automaton, "aaabaa"));
+    }
+
+    @Test
+    public void foldsCaseOfText() {
+        AhoCorasick automaton = new AhoCorasick(List.of("vsync", "über"));
+        assertEquals(List.of(0, 1), matches(automaton, "VSync ÜBER"));
+        assertTrue(automaton.matchesAny("Vsync"));
+    }
+
+    @Test
+    public void matchesAny() {
+        AhoCorasick automaton = new AhoCorasick(List.of("ntsc", "pal"));
+        assertTrue(automaton.matchesAny("region: PAL"));
+        assertFalse(automaton.matchesAny("region: pa"));
+        assertFalse(automaton.matchesAny(""));
+    }
+
+    @Test
+    public void emptyKeywordsNeverMatch() {
+        AhoCorasick automaton = new AhoCorasick(List.of("", "x"));
+        assertEquals(2, automaton.getKeywordCount());
+        assertEquals(List.of(1), matches(automaton, "axb"));
+        assertFalse(new AhoCorasick(List.of("")).matchesAny("anything"));
+        assertFalse(new AhoCorasick(List.of()).matchesAny("anything"));
+    }
+
+    @Test
+    public void duplicateKeywordsBothReported() {
+        AhoCorasick automaton = new AhoCorasick(List.of("gs", "gs"));
+        assertEquals(List.of(0, 1), matches(automaton, "gs"));
+    }
+
+    @Test
+    public void agreesWithIndexOf() {
+        List<String> keywords = List.of("a", "ab", "bab", "bc", "bca", "c", "caa");
+        AhoCorasick automaton = new AhoCorasick(keywords);
+        String text = "abccabbabcaab";
+
+        for (int k = 0; k < keywords.size(); k++) {
+            int expected = 0;
+
+            for (int i = text.indexOf(keywords.get(k)); i >= 0; i = text.indexOf(keywords.get(k), i + 1)) {
+                expected++;
+            }
+
+            final int keyword = k;
+            assertEquals(expected, matches(automaton, text).stream().filter(m -> m == keyword).count(), keywords.get(k));
+        }
+    }
+
+    private static List<Integer> matches(AhoCorasick automaton, String text) {
+        ArrayList<Integer> matches = new ArrayList<Integer>();
+        automaton.match(text, matches::add);
+        return matches;
+    }
+}